@@ -0,0 +1,85 @@
+package org.mate;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mate.benchmark.MicroBenchmark;
+import org.mate.exploration.genetic.core.GAUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Compares {@link GAUtils#getCrowdingDistances(double[][], int[], boolean[])}, which operates
+ * on the columns of the objective matrix, with the previous implementation, see
+ * {@link CrowdingDistanceReference}. Each operation computes the crowding distances of a whole
+ * front, where the fronts are the same as in the {@code CrowdingDistanceUnitTest}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CrowdingDistanceBenchmark {
+
+    private static final int FRONT_SIZE = 200;
+    private static final int NUMBER_OF_OBJECTIVES = 100;
+    private static final int NUMBER_OF_FRONTS = 10;
+
+    private final MicroBenchmark benchmark = new MicroBenchmark(3, 5, NUMBER_OF_FRONTS);
+
+    @Test
+    public void benchmarkCrowdingDistance() {
+
+        Random random = new Random(42);
+
+        final List<double[][]> fronts = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_FRONTS; i++) {
+            fronts.add(CrowdingDistanceReference.createFront(random, FRONT_SIZE,
+                    NUMBER_OF_OBJECTIVES));
+        }
+
+        final int[] front = new int[FRONT_SIZE];
+        for (int i = 0; i < FRONT_SIZE; i++) {
+            front[i] = i;
+        }
+
+        final boolean[] maximizing = new boolean[NUMBER_OF_OBJECTIVES];
+        for (int j = 0; j < NUMBER_OF_OBJECTIVES; j++) {
+            maximizing[j] = j % 2 == 0;
+        }
+
+        // both implementations need to agree on the benchmarked fronts
+        for (double[][] objectives : fronts) {
+            assertArrayEquals(CrowdingDistanceReference.getCrowdingDistances(objectives, maximizing),
+                    GAUtils.getCrowdingDistances(objectives, front, maximizing), 1e-9);
+        }
+
+        double legacy = benchmark.measure(new MicroBenchmark.Operation() {
+
+            private int next = 0;
+
+            @Override
+            public long run() {
+                double[][] objectives = fronts.get(next++ % NUMBER_OF_FRONTS);
+                return Double.doubleToLongBits(CrowdingDistanceReference
+                        .getCrowdingDistances(objectives, maximizing)[FRONT_SIZE / 2]);
+            }
+        });
+
+        double current = benchmark.measure(new MicroBenchmark.Operation() {
+
+            private int next = 0;
+
+            @Override
+            public long run() {
+                double[][] objectives = fronts.get(next++ % NUMBER_OF_FRONTS);
+                return Double.doubleToLongBits(GAUtils
+                        .getCrowdingDistances(objectives, front, maximizing)[FRONT_SIZE / 2]);
+            }
+        });
+
+        benchmark.report("crowding distance of " + FRONT_SIZE + " solutions with "
+                + NUMBER_OF_OBJECTIVES + " objectives", legacy, current);
+    }
+}
@@ -34,13 +34,11 @@ public class ExecuteMATEGeneticAlgorithm {
 
         if (Properties.ALGORITHM() == Algorithm.MIO || Properties.ALGORITHM() == Algorithm.MOSA) {
 
-            List<String> objectives = Registry.getEnvironmentManager()
+            List<String> objectives = Registry.getAppMetadataCache()
                     .getObjectives(Properties.OBJECTIVE());
 
             // we need to associate with each objective (branch, line) a fitness function
-            for (String objective : objectives) {
-                builder = builder.withFitnessFunction(Properties.FITNESS_FUNCTION(), objective);
-            }
+            builder = builder.withFitnessFunctions(Properties.FITNESS_FUNCTION(), objectives);
         } else {
             builder = builder.withFitnessFunction(Properties.FITNESS_FUNCTION());
         }
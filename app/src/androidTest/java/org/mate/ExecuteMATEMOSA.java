@@ -40,13 +40,11 @@ public class ExecuteMATEMOSA {
                 .withPMutate(Properties.P_MUTATE())
                 .withPCrossover(Properties.P_CROSSOVER());
 
-        List<String> objectives = Registry.getEnvironmentManager()
+        List<String> objectives = Registry.getAppMetadataCache()
                 .getObjectives(Properties.OBJECTIVE());
 
         // we need to associate with each objective (branch, line) a fitness function
-        for (String objective : objectives) {
-            builder = builder.withFitnessFunction(Properties.FITNESS_FUNCTION(), objective);
-        }
+        builder = builder.withFitnessFunctions(Properties.FITNESS_FUNCTION(), objectives);
 
         final IGeneticAlgorithm<TestCase> mosa = builder.build();
 
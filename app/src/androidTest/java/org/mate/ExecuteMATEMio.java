@@ -39,11 +39,10 @@ public class ExecuteMATEMio {
                 .withFocusedSearchStart(Properties.P_FOCUSED_SEARCH_START())
                 .withMutationRate(Properties.MUTATION_RATE());
 
-        List<String> objectives = Registry.getEnvironmentManager().getObjectives(Properties.OBJECTIVE());
+        List<String> objectives = Registry.getAppMetadataCache().getObjectives(Properties.OBJECTIVE());
 
-        for (String objective : objectives) {
-            builder = builder.withFitnessFunction(Properties.FITNESS_FUNCTION(), objective);
-        }
+        // we need to associate with each objective (branch, line) a fitness function
+        builder = builder.withFitnessFunctions(Properties.FITNESS_FUNCTION(), objectives);
 
         final IGeneticAlgorithm<TestCase> mio = builder.build();
 
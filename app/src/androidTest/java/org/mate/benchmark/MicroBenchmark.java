@@ -0,0 +1,118 @@
+package org.mate.benchmark;
+
+import org.mate.MATE;
+
+import java.util.Locale;
+
+/**
+ * Runs micro-benchmarks on the device in the style of JMH: each operation is executed for a
+ * number of warm-up iterations, such that the JIT has compiled it, followed by a number of
+ * measured iterations. The results of the operations are consumed, otherwise the JIT might
+ * eliminate the benchmarked computation.
+ */
+public final class MicroBenchmark {
+
+    /**
+     * A benchmarked operation.
+     */
+    public interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @return Returns any value derived from the result of the operation.
+         */
+        long run();
+    }
+
+    private final int warmUpIterations;
+    private final int measurementIterations;
+    private final int operationsPerIteration;
+
+    /**
+     * Consumes the results of the benchmarked operations.
+     */
+    private long sink;
+
+    /**
+     * Creates a new micro-benchmark.
+     *
+     * @param warmUpIterations The number of iterations that are not measured.
+     * @param measurementIterations The number of measured iterations.
+     * @param operationsPerIteration The number of operations per iteration.
+     */
+    public MicroBenchmark(int warmUpIterations, int measurementIterations,
+                          int operationsPerIteration) {
+        this.warmUpIterations = warmUpIterations;
+        this.measurementIterations = measurementIterations;
+        this.operationsPerIteration = operationsPerIteration;
+    }
+
+    /**
+     * Runs the warm-up and measurement iterations of the given operation.
+     *
+     * @param operation The operation to be benchmarked.
+     * @return Returns the average time per operation in nanoseconds.
+     */
+    public double measure(Operation operation) {
+
+        for (int i = 0; i < warmUpIterations; i++) {
+            for (int j = 0; j < operationsPerIteration; j++) {
+                sink += operation.run();
+            }
+        }
+
+        long elapsed = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long start = System.nanoTime();
+            for (int j = 0; j < operationsPerIteration; j++) {
+                sink += operation.run();
+            }
+            elapsed += System.nanoTime() - start;
+        }
+        return (double) elapsed / (measurementIterations * operationsPerIteration);
+    }
+
+    /**
+     * Runs the warm-up and measurement iterations of the given operation, where each operation
+     * is preceded by the given set-up. Only the operations are measured, each one on its own,
+     * hence the operation should take considerably longer than reading the clock.
+     *
+     * @param setUp Prepares the state for the next operation, e.g. changes the screen.
+     * @param operation The operation to be benchmarked.
+     * @return Returns the average time per operation in nanoseconds.
+     */
+    public double measure(Runnable setUp, Operation operation) {
+
+        for (int i = 0; i < warmUpIterations; i++) {
+            for (int j = 0; j < operationsPerIteration; j++) {
+                setUp.run();
+                sink += operation.run();
+            }
+        }
+
+        long elapsed = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            for (int j = 0; j < operationsPerIteration; j++) {
+                setUp.run();
+                long start = System.nanoTime();
+                sink += operation.run();
+                elapsed += System.nanoTime() - start;
+            }
+        }
+        return (double) elapsed / (measurementIterations * operationsPerIteration);
+    }
+
+    /**
+     * Logs the comparison of a baseline against a candidate implementation.
+     *
+     * @param benchmark A description of the benchmark.
+     * @param baseline The average time per operation of the baseline in nanoseconds.
+     * @param candidate The average time per operation of the candidate in nanoseconds.
+     */
+    public void report(String benchmark, double baseline, double candidate) {
+        MATE.log(String.format(Locale.ROOT, "Benchmark %s: baseline %.1f ns/op, "
+                        + "candidate %.1f ns/op, speedup %.1fx (sink: %d)", benchmark,
+                baseline, candidate, baseline / candidate, sink));
+    }
+}
@@ -0,0 +1,139 @@
+package org.mate.state;
+
+import android.support.test.runner.AndroidJUnit4;
+import android.support.test.uiautomator.By;
+import android.support.test.uiautomator.Direction;
+import android.support.test.uiautomator.UiDevice;
+import android.support.test.uiautomator.UiObject2;
+import android.view.accessibility.AccessibilityNodeInfo;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mate.benchmark.MicroBenchmark;
+import org.mate.interaction.action.ui.Widget;
+import org.mate.state.executables.CapturedNode;
+import org.mate.state.executables.ScreenCapture;
+
+import java.util.List;
+
+import static android.support.test.InstrumentationRegistry.getInstrumentation;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ * Compares the creation of the widgets of the current screen from a {@link ScreenCapture}, which
+ * fetches each node once, with the previous traversal of the ui hierarchy, which fetched each
+ * child node twice. The idle scenario captures an unchanged screen, the changing scenario scrolls
+ * the first scrollable view of the screen back and forth before each capture, which is not
+ * measured.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScreenCaptureBenchmark {
+
+    private static final String ACTIVITY_NAME = "benchmark/.Activity";
+
+    private final MicroBenchmark benchmark = new MicroBenchmark(3, 5, 20);
+
+    @Test
+    public void benchmarkIdleScreen() {
+
+        AccessibilityNodeInfo root = getRoot();
+        assertNotNull(root);
+
+        int size = ScreenCapture.captureFull(root).getSize();
+        assertEquals(size, legacyCapture(root, null, 0, 0, 0));
+
+        benchmark.report("capture of an idle screen with " + size + " nodes",
+                benchmark.measure(legacyCapture()), benchmark.measure(capture()));
+    }
+
+    @Test
+    public void benchmarkChangingScreen() {
+
+        final UiDevice device = UiDevice.getInstance(getInstrumentation());
+        final UiObject2 scrollable = device.findObject(By.scrollable(true));
+        assumeNotNull(scrollable);
+
+        Runnable scroll = new Runnable() {
+
+            private boolean down = true;
+
+            @Override
+            public void run() {
+                scrollable.scroll(down ? Direction.DOWN : Direction.UP, 0.3f);
+                down = !down;
+                device.waitForIdle();
+            }
+        };
+
+        benchmark.report("capture of a scrolled screen", benchmark.measure(scroll, legacyCapture()),
+                benchmark.measure(scroll, capture()));
+    }
+
+    private static AccessibilityNodeInfo getRoot() {
+        return getInstrumentation().getUiAutomation().getRootInActiveWindow();
+    }
+
+    private static MicroBenchmark.Operation capture() {
+        return new MicroBenchmark.Operation() {
+            @Override
+            public long run() {
+                return createWidgets(ScreenCapture.captureFull(getRoot()), null, 0, 0, 0);
+            }
+        };
+    }
+
+    private static MicroBenchmark.Operation legacyCapture() {
+        return new MicroBenchmark.Operation() {
+            @Override
+            public long run() {
+                return legacyCapture(getRoot(), null, 0, 0, 0);
+            }
+        };
+    }
+
+    /**
+     * Creates the widgets of the captured hierarchy like {@link
+     * org.mate.state.executables.AppScreen} does.
+     *
+     * @return Returns the global index after the given subtree.
+     */
+    private static int createWidgets(CapturedNode node, Widget parent, int depth,
+                                     int globalIndex, int localIndex) {
+
+        Widget widget = new Widget(parent, node.getAttributes(), ACTIVITY_NAME, depth,
+                globalIndex, localIndex);
+        depth++;
+        globalIndex++;
+
+        List<CapturedNode> children = node.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i) != null) {
+                globalIndex = createWidgets(children.get(i), widget, depth, globalIndex, i);
+            }
+        }
+        return globalIndex;
+    }
+
+    /**
+     * Creates the widgets of the ui hierarchy as done before the introduction of
+     * {@link ScreenCapture}, where each child node was fetched twice.
+     *
+     * @return Returns the global index after the given subtree.
+     */
+    private static int legacyCapture(AccessibilityNodeInfo node, Widget parent, int depth,
+                                     int globalIndex, int localIndex) {
+
+        Widget widget = new Widget(parent, node, ACTIVITY_NAME, depth, globalIndex, localIndex);
+        depth++;
+        globalIndex++;
+
+        for (int i = 0; i < node.getChildCount(); i++) {
+            if (node.getChild(i) != null) {
+                globalIndex = legacyCapture(node.getChild(i), widget, depth, globalIndex, i);
+            }
+        }
+        return globalIndex;
+    }
+}
@@ -0,0 +1,183 @@
+package org.mate.state;
+
+import android.graphics.Rect;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.accessibility.AccessibilityNodeInfo;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mate.benchmark.MicroBenchmark;
+import org.mate.interaction.action.ui.UIAction;
+import org.mate.interaction.action.ui.Widget;
+import org.mate.interaction.action.ui.WidgetAction;
+import org.mate.state.executables.AbstractScreenState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Compares the structural fingerprint of screen states with the previous hash code and equality
+ * computation, which re-hashed and compared every widget on each call.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScreenStateHashBenchmark {
+
+    private static final String PACKAGE_NAME = "com.example.app";
+    private static final String ACTIVITY_NAME = PACKAGE_NAME + "/.MainActivity";
+
+    private static final int NUMBER_OF_WIDGETS = 400;
+
+    private final MicroBenchmark benchmark = new MicroBenchmark(5, 10, 2000);
+
+    @Test
+    public void benchmarkHashCode() {
+
+        final BenchmarkScreenState screenState = createScreenState(NUMBER_OF_WIDGETS, -1);
+
+        double legacy = benchmark.measure(new MicroBenchmark.Operation() {
+            @Override
+            public long run() {
+                return legacyHashCode(screenState);
+            }
+        });
+
+        double fingerprint = benchmark.measure(new MicroBenchmark.Operation() {
+            @Override
+            public long run() {
+                return screenState.hashCode();
+            }
+        });
+
+        benchmark.report("hashCode with " + NUMBER_OF_WIDGETS + " widgets", legacy, fingerprint);
+    }
+
+    @Test
+    public void benchmarkEquals() {
+
+        // two screens that only differ in the bounds of the last widget
+        final BenchmarkScreenState screenState = createScreenState(NUMBER_OF_WIDGETS, -1);
+        final BenchmarkScreenState other = createScreenState(NUMBER_OF_WIDGETS, NUMBER_OF_WIDGETS - 1);
+        final BenchmarkScreenState copy = createScreenState(NUMBER_OF_WIDGETS, -1);
+
+        assertNotEquals(screenState, other);
+        assertEquals(screenState, copy);
+        assertEquals(screenState.hashCode(), copy.hashCode());
+
+        double legacy = benchmark.measure(new MicroBenchmark.Operation() {
+            @Override
+            public long run() {
+                return legacyEquals(screenState, other) ? 1 : 0;
+            }
+        });
+
+        double fingerprint = benchmark.measure(new MicroBenchmark.Operation() {
+            @Override
+            public long run() {
+                return screenState.equals(other) ? 1 : 0;
+            }
+        });
+
+        benchmark.report("equals of unequal screens with " + NUMBER_OF_WIDGETS + " widgets",
+                legacy, fingerprint);
+    }
+
+    /**
+     * Creates a screen state with the given number of widgets.
+     *
+     * @param numberOfWidgets The number of widgets.
+     * @param modifiedWidget The index of a widget whose bounds should be shifted or {@code -1}.
+     * @return Returns the created screen state.
+     */
+    private static BenchmarkScreenState createScreenState(int numberOfWidgets, int modifiedWidget) {
+
+        List<Widget> widgets = new ArrayList<>(numberOfWidgets);
+
+        for (int i = 0; i < numberOfWidgets; i++) {
+
+            int shift = i == modifiedWidget ? 1 : 0;
+
+            AccessibilityNodeInfo node = AccessibilityNodeInfo.obtain();
+            node.setPackageName(PACKAGE_NAME);
+            node.setClassName("android.widget.TextView");
+            node.setBoundsInScreen(new Rect(0, i * 10 + shift, 100, i * 10 + 10));
+
+            widgets.add(new Widget(null, node, ACTIVITY_NAME, i % 10, i, i % 5));
+            node.recycle();
+        }
+
+        return new BenchmarkScreenState(widgets);
+    }
+
+    /**
+     * The hash code of a screen state as computed before the introduction of fingerprints.
+     */
+    private static int legacyHashCode(AbstractScreenState screenState) {
+
+        int widgetsHash = 1;
+        for (Widget widget : screenState.getWidgets()) {
+            widgetsHash = 31 * widgetsHash + Objects.hash(widget.getId(), widget.getX1(),
+                    widget.getX2(), widget.getY1(), widget.getY2());
+        }
+
+        return Objects.hash(screenState.getActivityName(), screenState.getPackageName(), widgetsHash);
+    }
+
+    /**
+     * The equality check of two screen states as performed before the introduction of
+     * fingerprints.
+     */
+    private static boolean legacyEquals(AbstractScreenState first, AbstractScreenState second) {
+
+        if (!Objects.equals(first.getActivityName(), second.getActivityName())
+                || !Objects.equals(first.getPackageName(), second.getPackageName())) {
+            return false;
+        }
+
+        List<Widget> firstWidgets = first.getWidgets();
+        List<Widget> secondWidgets = second.getWidgets();
+
+        if (firstWidgets.size() != secondWidgets.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < firstWidgets.size(); i++) {
+            Widget widget = firstWidgets.get(i);
+            Widget other = secondWidgets.get(i);
+            if (!widget.getId().equals(other.getId())
+                    || widget.getX1() != other.getX1() || widget.getX2() != other.getX2()
+                    || widget.getY1() != other.getY1() || widget.getY2() != other.getY2()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A minimal screen state that solely consists of widgets.
+     */
+    private static class BenchmarkScreenState extends AbstractScreenState {
+
+        private BenchmarkScreenState(List<Widget> widgets) {
+            super(PACKAGE_NAME, ACTIVITY_NAME, widgets);
+        }
+
+        @Override
+        public List<UIAction> getActions() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<WidgetAction> getWidgetActions() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public ScreenStateType getType() {
+            return ScreenStateType.ACTION_SCREEN_STATE;
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package org.mate;
 
+import android.os.Build;
 import android.os.StrictMode;
 import android.support.test.InstrumentationRegistry;
 import android.support.test.uiautomator.UiDevice;
 import android.util.Log;
 
 import org.mate.exploration.Algorithm;
+import org.mate.interaction.AccessibilityEventDispatcher;
+import org.mate.interaction.ActivityTracker;
+import org.mate.interaction.AppMetadataCache;
 import org.mate.interaction.DeviceMgr;
 import org.mate.interaction.EnvironmentManager;
 import org.mate.interaction.UIAbstractionLayer;
+import org.mate.state.executables.ScreenCapture;
 import org.mate.utils.MersenneTwister;
 import org.mate.utils.TimeoutRun;
 import org.mate.utils.coverage.Coverage;
@@ -68,6 +73,27 @@ public class MATE {
         MATE.log_acc("Package name: " + Registry.getPackageName());
 
         UiDevice device = UiDevice.getInstance(getInstrumentation());
+
+        /*
+         * The event dispatcher must be registered after the ui device, which installs its own
+         * event listener. Starting with API 30, the package manager can't resolve the activities
+         * of the AUT due to the package visibility restrictions, thus the tracker is not used.
+         */
+        AccessibilityEventDispatcher dispatcher
+                = new AccessibilityEventDispatcher(getInstrumentation().getUiAutomation());
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+            ActivityTracker activityTracker = new ActivityTracker(
+                    InstrumentationRegistry.getTargetContext().getPackageManager());
+            dispatcher.addListener(activityTracker);
+            Registry.registerActivityTracker(activityTracker);
+        }
+
+        Registry.registerScreenCapture(new ScreenCapture());
+
+        dispatcher.register();
+        Registry.registerAccessibilityEventDispatcher(dispatcher);
+
         DeviceMgr deviceMgr = new DeviceMgr(device, Registry.getPackageName());
         // internally checks for permission dialogs and grants permissions if required
         Registry.registerUiAbstractionLayer(new UIAbstractionLayer(deviceMgr, Registry.getPackageName()));
@@ -86,6 +112,10 @@ public class MATE {
             throw new IllegalStateException("Emulator couldn't be properly allocated!");
         }
 
+        // the static metadata of the AUT, e.g. the activities, is only retrieved once
+        Registry.registerAppMetadataCache(new AppMetadataCache(Registry.getEnvironmentManager(),
+                Registry.getPackageName()));
+
         if (Properties.GRAPH_TYPE() != null) {
             // initialise a graph
             MATE.log_acc("Initialising graph!");
@@ -101,7 +131,7 @@ public class MATE {
     public void testApp(final Algorithm algorithm) {
 
         MATE.log_acc("Activities:");
-        for (String s : Registry.getEnvironmentManager().getActivityNames()) {
+        for (String s : Registry.getAppMetadataCache().getActivityNames()) {
             MATE.log_acc("\t" + s);
         }
 
@@ -121,6 +151,9 @@ public class MATE {
                 CoverageUtils.logFinalCoverage();
             }
 
+            Registry.getUiAbstractionLayer().logSettleTimes();
+            Registry.getScreenCapture().logCaptureTimes();
+
             if (Properties.GRAPH_TYPE() != null) {
                 Registry.getEnvironmentManager().drawGraph(Properties.DRAW_RAW_GRAPH());
             }
@@ -129,6 +162,10 @@ public class MATE {
             // EnvironmentManager.deleteAllScreenShots(packageName);
             try {
                 Registry.unregisterEnvironmentManager();
+                Registry.unregisterAppMetadataCache();
+                Registry.unregisterAccessibilityEventDispatcher();
+                Registry.unregisterActivityTracker();
+                Registry.unregisterScreenCapture();
                 Registry.unregisterUiAbstractionLayer();
                 Registry.unregisterProperties();
                 Registry.unregisterRandom();
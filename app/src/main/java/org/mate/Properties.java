@@ -1,5 +1,6 @@
 package org.mate;
 
+import org.mate.exploration.fuzzing.greybox.PowerSchedule;
 import org.mate.exploration.genetic.algorithm.Algorithm;
 import org.mate.exploration.genetic.chromosome_factory.ChromosomeFactory;
 import org.mate.exploration.genetic.crossover.CrossOverFunction;
@@ -9,6 +10,7 @@ import org.mate.exploration.genetic.selection.SelectionFunction;
 import org.mate.exploration.genetic.termination.TerminationCondition;
 import org.mate.exploration.genetic.util.ge.AndroidListBasedBiasedMapping;
 import org.mate.graph.GraphType;
+import org.mate.interaction.reset.ResetStrategy;
 import org.mate.utils.GenericParser;
 import org.mate.utils.Objective;
 import org.mate.utils.coverage.Coverage;
@@ -16,46 +18,47 @@ import org.mate.utils.testcase.OptimisationStrategy;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 public class Properties {
 
     // the timeout in minutes
-    public static int TIMEOUT() { return propertyOr(5); }
+    public static int TIMEOUT() { return propertyOr("timeout", 5); }
 
     public static int ANT_GENERATION() {
-        return propertyOr(5);
+        return propertyOr("ant_generation", 5);
     }
     public static int ANT_NUMBER() {
-        return propertyOr(5);
+        return propertyOr("ant_number", 5);
     }
 
     public static int ANT_LENGTH() {
-        return propertyOr(8);
+        return propertyOr("ant_length", 8);
     }
 
     public static float EVAPORATION_RATE() {
-        return propertyOr(0.1f);
+        return propertyOr("evaporation_rate", 0.1f);
     }
 
     public static float INITIALIZATION_PHEROMONE() {
-        return propertyOr(5.0f);
+        return propertyOr("initialization_pheromone", 5.0f);
     }
 
     public static float PROBABILITY_SELECT_BEST_ACTION() {
-        return propertyOr(0.5f);
+        return propertyOr("probability_select_best_action", 0.5f);
     }
 
     public static float BEST_ANT() {
-        return propertyOr(3);
+        return propertyOr("best_ant", 3);
     }
 
 
     /*
     * Intent fuzzing related properties.
      */
-    public static float RELATIVE_INTENT_AMOUNT() { return propertyOr(0.0f); }
+    public static float RELATIVE_INTENT_AMOUNT() { return propertyOr("relative_intent_amount", 0.0f); }
 
     /**
      * The optimisation strategy that should be applied.
@@ -63,21 +66,21 @@ public class Properties {
      * @return Returns the applied optimisation strategy.
      */
     public static OptimisationStrategy OPTIMISATION_STRATEGY() {
-        return propertyOr(OptimisationStrategy.NO_OPTIMISATION);
+        return propertyOr("optimisation_strategy", OptimisationStrategy.NO_OPTIMISATION);
     }
 
     /*
     * Whether to record stats about test cases or not.
      */
     public static boolean RECORD_TEST_CASE_STATS() {
-        return propertyOr(false);
+        return propertyOr("record_test_case_stats", false);
     }
 
     /*
     * Whether to serialize a test case. Default: off.
      */
     public static boolean RECORD_TEST_CASE() {
-        return propertyOr(false);
+        return propertyOr("record_test_case", false);
     }
 
     /**
@@ -85,33 +88,54 @@ public class Properties {
      */
     // if 0 any point will be added to the archive
     public static float NOVELTY_THRESHOLD() {
-        return propertyOr(0);
+        return propertyOr("novelty_threshold", 0);
     }
 
     public static int K_VALUE() {
-        return propertyOr(2);
+        return propertyOr("k_value", 2);
     }
 
     //10;
     public static double RANK_BIAS() {
-        return propertyOr(1.7);
+        return propertyOr("rank_bias", 1.7);
     }
 
     public static int ARCHIVE_SIZE() {
-        return propertyOr(10);
+        return propertyOr("archive_size", 10);
     }
 
     //10;
     public static double GREEDY_EPSILON() {
-        return propertyOr(0.7);
+        return propertyOr("greedy_epsilon", 0.7);
     }
 
 
     /*
      * Misc properties
      */
+
+    /**
+     * The strategy used to reset the AUT between test cases.
+     *
+     * @return Returns the applied reset strategy.
+     */
+    public static ResetStrategy RESET_STRATEGY() {
+        return propertyOr("reset_strategy", ResetStrategy.CLEAR_DATA);
+    }
+
+    /**
+     * The maximal number of snapshots the execution cache keeps for restoring action prefixes
+     * shared by several test cases, e.g. the prefix of a mutant. The MATE-Server needs to support
+     * named snapshots. A value of 0 disables the execution cache.
+     *
+     * @return Returns the maximal number of prefix snapshots.
+     */
+    public static int EXECUTION_CACHE_SNAPSHOTS() {
+        return propertyOr("execution_cache_snapshots", 0);
+    }
+
     public static Long RANDOM_SEED() {
-        return propertyOr(null);
+        return propertyOr("random_seed", null);
     }
 
 
@@ -119,60 +143,60 @@ public class Properties {
      * Genetic Algorithm properties
      */
     public static int POPULATION_SIZE() {
-        return propertyOr(20);
+        return propertyOr("population_size", 20);
     }
 
     public static int NUMBER_TESTCASES() {
-        return propertyOr(2);
+        return propertyOr("number_testcases", 2);
     }
 
     public static int MAX_NUMBER_EVENTS() {
-        return propertyOr(50);
+        return propertyOr("max_number_events", 50);
     }
 
     public static double P_CROSSOVER() {
-        return propertyOr(0.7);
+        return propertyOr("p_crossover", 0.7);
     }
 
     public static double P_MUTATE() {
-        return propertyOr(0.3);
+        return propertyOr("p_mutate", 0.3);
     }
     // for mutation functions that apply multiple mutations based on the given probability
     public static double P_INNER_MUTATE() {
-        return propertyOr(0.3);
+        return propertyOr("p_inner_mutate", 0.3);
     }
 
     public static double P_SAMPLE_RANDOM() {
-        return propertyOr(0.5);
+        return propertyOr("p_sample_random", 0.5);
     }
 
     public static double P_FOCUSED_SEARCH_START() {
-        return propertyOr(0.5);
+        return propertyOr("p_focused_search_start", 0.5);
     }
 
     public static int EVO_ITERATIONS_NUMBER() {
-        return propertyOr(10);
+        return propertyOr("evo_iterations_number", 10);
     }
 
-    public static int MUTATION_RATE() { return propertyOr(1); }
+    public static int MUTATION_RATE() { return propertyOr("mutation_rate", 1); }
 
     public static FitnessFunction FITNESS_FUNCTION() {
-        return propertyOr(null);
+        return propertyOr("fitness_function", null);
     }
 
-    public static SelectionFunction SELECTION_FUNCTION() { return propertyOr(null); }
+    public static SelectionFunction SELECTION_FUNCTION() { return propertyOr("selection_function", null); }
 
     public static MutationFunction MUTATION_FUNCTION() {
-        return propertyOr(null);
+        return propertyOr("mutation_function", null);
     }
 
-    public static CrossOverFunction CROSSOVER_FUNCTION() { return propertyOr(null); }
+    public static CrossOverFunction CROSSOVER_FUNCTION() { return propertyOr("crossover_function", null); }
 
-    public static TerminationCondition TERMINATION_CONDITION() { return propertyOr(null); }
+    public static TerminationCondition TERMINATION_CONDITION() { return propertyOr("termination_condition", null); }
 
-    public static ChromosomeFactory CHROMOSOME_FACTORY() { return propertyOr(null); }
+    public static ChromosomeFactory CHROMOSOME_FACTORY() { return propertyOr("chromosome_factory", null); }
 
-    public static Algorithm ALGORITHM() { return propertyOr(null); }
+    public static Algorithm ALGORITHM() { return propertyOr("algorithm", null); }
 
     /*
      * Begin Greybox Fuzzing properties
@@ -183,14 +207,23 @@ public class Properties {
      *
      * @return Returns the initial size of the seed corpus.
      */
-    public static int SEED_CORPUS_SIZE() { return propertyOr(10); }
+    public static int SEED_CORPUS_SIZE() { return propertyOr("seed_corpus_size", 10); }
 
     /**
      * The maximal assignable energy p.
      *
      * @return Returns the maximal assignable energy.
      */
-    public static int MAX_ENERGY() { return propertyOr(10); }
+    public static int MAX_ENERGY() { return propertyOr("max_energy", 10); }
+
+    /**
+     * The power schedule that determines which seed is fuzzed next and how much energy it gets.
+     *
+     * @return Returns the applied power schedule.
+     */
+    public static PowerSchedule POWER_SCHEDULE() {
+        return propertyOr("power_schedule", PowerSchedule.COVERAGE);
+    }
 
     /*
      * End Greybox Fuzzing properties
@@ -203,14 +236,14 @@ public class Properties {
      * @return Returns the objective or {@code null} if none was specified.
      */
     public static Objective OBJECTIVE() {
-        return propertyOr(null);
+        return propertyOr("objective", null);
     }
 
     /*
      * Coverage properties
      */
     public static Coverage COVERAGE() {
-        return propertyOr(Coverage.NO_COVERAGE);
+        return propertyOr("coverage", Coverage.NO_COVERAGE);
     }
 
     /*
@@ -219,39 +252,39 @@ public class Properties {
 
     // the graph type, e.g. CFG or SGD
     public static GraphType GRAPH_TYPE() {
-        return propertyOr(null);
+        return propertyOr("graph_type", null);
     }
 
     // the path to the APK file
     public static String APK() {
-        return propertyOr(null);
+        return propertyOr("apk", null);
     }
 
     // specifies the method name when an intra CFG should be constructed
     public static String METHOD_NAME() {
-        return propertyOr(null);
+        return propertyOr("method_name", null);
     }
 
     // whether basic blocks should be used or not
     public static boolean BASIC_BLOCKS() {
-        return propertyOr(true);
+        return propertyOr("basic_blocks", true);
     }
 
     // whether only AUT classes should be resolved
     public static boolean RESOLVE_ONLY_AUT_CLASSES() {
-        return propertyOr(true);
+        return propertyOr("resolve_only_aut_classes", true);
     }
 
     // whether ART classes should be excluded when constructing the graph
     public static boolean EXCLUDE_ART_CLASSES() {
-        return propertyOr(true);
+        return propertyOr("exclude_art_classes", true);
     }
 
     // how and which target vertex should be selected, e.g. a random branch vertex
-    public static String TARGET() { return propertyOr("no_target"); }
+    public static String TARGET() { return propertyOr("target", "no_target"); }
 
     // whether to draw raw graph or 'extended' graph
-    public static boolean DRAW_RAW_GRAPH() { return propertyOr(true); }
+    public static boolean DRAW_RAW_GRAPH() { return propertyOr("draw_raw_graph", true); }
 
     /*
     * End Graph properties
@@ -259,70 +292,88 @@ public class Properties {
 
     // Primitive actions or widget based actions?
     public static boolean WIDGET_BASED_ACTIONS() {
-        return propertyOr(true);
+        return propertyOr("widget_based_actions", true);
     }
 
     // stack trace
     public static boolean RECORD_STACK_TRACE() {
-        return propertyOr(false);
+        return propertyOr("record_stack_trace", false);
     }
 
     /**
      * Added by stockinger on 28/09/2020
      */
-    public static int BIG_POPULATION_SIZE() { return propertyOr(100); }
+    public static int BIG_POPULATION_SIZE() { return propertyOr("big_population_size", 100); }
 
     //Grammatical Evolution Properties
     public static int GE_SEQUENCE_LENGTH() {
-        return propertyOr(100);
+        return propertyOr("ge_sequence_length", 100);
     }
 
     public static int GE_TEST_CASE_ENDING_BIAS_PER_TEN_THOUSAND() {
-        return propertyOr(AndroidListBasedBiasedMapping.BIAS_50_PERCENT);
+        return propertyOr("ge_test_case_ending_bias_per_ten_thousand", AndroidListBasedBiasedMapping.BIAS_50_PERCENT);
     }
 
     public static int GE_MUTATION_COUNT() {
-        return propertyOr(3);
+        return propertyOr("ge_mutation_count", 3);
     }
 
     /**
-     * Looks up the value of the property in the Properties object stored in the Registry using the
-     * name of the caller method as the key of the property. If no property with that key is stored
-     * the given default value will be returned.
+     * Looks up the value of the property with the given key in the Properties snapshot stored in
+     * the Registry. The key is the lower-cased name of the property getter. If no property with
+     * that key is stored the given default value will be returned.
+     * @param key The key of the property
      * @param defaultValue Default value of the property
      * @param <T> Type of the property
      * @return Value of the property if stored otherwise the given default value
      */
     @SuppressWarnings("unchecked")
-    private static <T> T propertyOr(T defaultValue) {
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        String callerName = stackTrace[3].getMethodName().toLowerCase();
-        Properties propertiesInstance = Registry.getProperties();
-        if (propertiesInstance.store.containsKey(callerName)) {
-            return ((T) propertiesInstance.store.get(callerName));
+    private static <T> T propertyOr(String key, T defaultValue) {
+        Map<String, Object> store = Registry.getProperties().store;
+        Object value = store.get(key);
+        if (value != null || store.containsKey(key)) {
+            return (T) value;
         }
         return defaultValue;
     }
 
+    /**
+     * An immutable snapshot of the parsed properties. The values are resolved to the return
+     * type of the corresponding getter once when the snapshot is created.
+     */
     private final Map<String, Object> store;
 
     public Properties(Map<String, String> properties) {
-        store = new HashMap<>();
-        readProperties(properties);
+        store = Collections.unmodifiableMap(readProperties(properties));
+    }
+
+    /**
+     * Creates a new snapshot that equals the given snapshot except for the overridden property.
+     *
+     * @param properties The snapshot to be copied.
+     * @param key The name of the overridden property.
+     * @param value The new value of the property.
+     */
+    private Properties(Properties properties, String key, Object value) {
+        Map<String, Object> store = new HashMap<>(properties.store);
+        store.put(key.toLowerCase(), value);
+        this.store = Collections.unmodifiableMap(store);
     }
 
     /**
-     * Overrides a given property.
+     * Overrides a given property. Since the registered properties are an immutable snapshot,
+     * a new snapshot containing the overridden property gets registered.
      *
      * @param key The property name.
      * @param value The value for the property.
      */
     // TODO: Remove once all properties are enforced via the mate.properties file!
     public static void setProperty(String key, Object value) {
-        Registry.getProperties().store.put(key, value);
+        Registry.registerProperties(new Properties(Registry.getProperties(), key, value));
     }
 
-    private void readProperties(Map<String, String> properties) {
+    private static Map<String, Object> readProperties(Map<String, String> properties) {
+        Map<String, Object> store = new HashMap<>();
         Map<String, Class<?>> propertiesInfo = new HashMap<>();
 
         for (Method declaredMethod : Properties.class.getDeclaredMethods()) {
@@ -353,5 +404,6 @@ public class Properties {
                 MATE.log("Unknown property with key: " + property.getKey());
             }
         }
+        return store;
     }
 }
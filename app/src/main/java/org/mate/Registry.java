@@ -5,8 +5,12 @@ import android.os.Build;
 import android.support.test.InstrumentationRegistry;
 import android.support.test.uiautomator.UiDevice;
 
+import org.mate.interaction.AccessibilityEventDispatcher;
+import org.mate.interaction.ActivityTracker;
+import org.mate.interaction.AppMetadataCache;
 import org.mate.interaction.EnvironmentManager;
 import org.mate.interaction.UIAbstractionLayer;
+import org.mate.state.executables.ScreenCapture;
 
 import java.io.IOException;
 import java.util.Random;
@@ -16,6 +20,22 @@ import static android.support.test.InstrumentationRegistry.getInstrumentation;
 public class Registry {
 
     private static EnvironmentManager environmentManager;
+    private static AppMetadataCache appMetadataCache;
+
+    /**
+     * Tracks the current activity based on accessibility events, may be {@code null}.
+     */
+    private static ActivityTracker activityTracker;
+
+    /**
+     * Dispatches the accessibility events, e.g. to the activity tracker.
+     */
+    private static AccessibilityEventDispatcher accessibilityEventDispatcher;
+
+    /**
+     * Captures the ui hierarchy of the current screen.
+     */
+    private static ScreenCapture screenCapture;
     private static Properties properties;
     private static Random random;
 
@@ -96,6 +116,55 @@ public class Registry {
         environmentManager = null;
     }
 
+    public static AppMetadataCache getAppMetadataCache() {
+        if (appMetadataCache == null) {
+            throw new IllegalStateException("No AppMetadataCache registered!");
+        }
+        return appMetadataCache;
+    }
+
+    public static void registerAppMetadataCache(AppMetadataCache appMetadataCache) {
+        Registry.appMetadataCache = appMetadataCache;
+    }
+
+    public static void unregisterAppMetadataCache() {
+        appMetadataCache = null;
+    }
+
+    public static void registerActivityTracker(ActivityTracker activityTracker) {
+        Registry.activityTracker = activityTracker;
+    }
+
+    public static void unregisterActivityTracker() {
+        activityTracker = null;
+    }
+
+    public static void registerAccessibilityEventDispatcher(AccessibilityEventDispatcher dispatcher) {
+        Registry.accessibilityEventDispatcher = dispatcher;
+    }
+
+    public static void unregisterAccessibilityEventDispatcher() {
+        if (accessibilityEventDispatcher != null) {
+            accessibilityEventDispatcher.unregister();
+            accessibilityEventDispatcher = null;
+        }
+    }
+
+    public static ScreenCapture getScreenCapture() {
+        if (screenCapture == null) {
+            throw new IllegalStateException("No ScreenCapture registered!");
+        }
+        return screenCapture;
+    }
+
+    public static void registerScreenCapture(ScreenCapture screenCapture) {
+        Registry.screenCapture = screenCapture;
+    }
+
+    public static void unregisterScreenCapture() {
+        screenCapture = null;
+    }
+
     public static Properties getProperties() {
         if (properties == null) {
             throw new IllegalStateException("No Properties registered!");
@@ -127,12 +196,37 @@ public class Registry {
     }
 
     /**
-     * Retrieves the name of the currently visible activity.
+     * Retrieves the name of the currently visible activity. The activity tracked via
+     * accessibility events is preferred, the activity manager is only queried if the tracked
+     * activity is stale.
      *
      * @return Returns the name of the currently visible activity.
      */
     public static String getCurrentActivity() {
 
+        ActivityTracker tracker = activityTracker;
+
+        if (tracker == null) {
+            return lookupCurrentActivity();
+        }
+
+        String activity = tracker.getCurrentActivity();
+
+        if (activity == null) {
+            long windowStateChanges = tracker.getWindowStateChanges();
+            activity = lookupCurrentActivity();
+            tracker.update(activity, windowStateChanges);
+        }
+        return activity;
+    }
+
+    /**
+     * Looks up the name of the currently visible activity via the activity manager.
+     *
+     * @return Returns the name of the currently visible activity.
+     */
+    private static String lookupCurrentActivity() {
+
         Instrumentation instrumentation = getInstrumentation();
         UiDevice device = UiDevice.getInstance(instrumentation);
 
@@ -7,8 +7,10 @@ import org.mate.exploration.genetic.mutation.IMutationFunction;
 import org.mate.exploration.genetic.termination.ITerminationCondition;
 import org.mate.model.TestCase;
 import org.mate.model.TestSuite;
+import org.mate.utils.coverage.Coverage;
 import org.mate.utils.coverage.CoverageUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,15 +21,23 @@ import java.util.List;
 public class GreyBoxFuzzer<T> extends GreyBoxFuzzing<T> {
 
     /**
-     * We need to maintain the total coverage to check whether a mutated chromosome increased it.
-     * That way, we can decide whether a chromosome {@link #isInteresting(IChromosome)}.
+     * We need to maintain the total coverage to check whether the mutated chromosomes increased
+     * it. That way, we can decide which chromosomes are interesting, see
+     * {@link #getInterestingMutants(List, List)}.
      */
     private double totalCoverage = 0.0;
 
     /**
-     * Whether the last considered chromosome s' fulfills {@link #isInteresting(IChromosome)}.
+     * Whether the total coverage has been initialised. Afterwards, the total coverage is kept up
+     * to date by {@link #getInterestingMutants(List, List)}, since only mutated chromosomes s'
+     * are executed.
      */
-    private boolean isInteresting = false;
+    private boolean totalCoverageInitialised = false;
+
+    /**
+     * Caches the coverage of the seeds and schedules the seeds according to the power schedule.
+     */
+    private final SeedCorpus<T> corpus;
 
     /**
      * Initialises the greybox fuzzer.
@@ -44,11 +54,12 @@ public class GreyBoxFuzzer<T> extends GreyBoxFuzzing<T> {
                          int corpusSize,
                          int maxEnergy) {
         super(chromosomeFactory, mutationFunction, terminationCondition, corpusSize, maxEnergy);
+        corpus = new SeedCorpus<>(Properties.POWER_SCHEDULE());
     }
 
     /**
-     * Chooses the next chromosome from the seed corpus S. We pick the chromosome with the
-     * highest coverage.
+     * Chooses the next chromosome from the seed corpus S according to the power schedule, see
+     * {@link PowerSchedule}. By default, we pick the chromosome with the highest coverage.
      *
      * @param seedCorpus The seed corpus S.
      * @return Returns the next chromosome from the seed corpus S.
@@ -56,21 +67,23 @@ public class GreyBoxFuzzer<T> extends GreyBoxFuzzing<T> {
     @Override
     public IChromosome<T> chooseNext(List<IChromosome<T>> seedCorpus) {
 
-        IChromosome<T> best = seedCorpus.get(0);
-
-        for (IChromosome<T> s : seedCorpus) {
-            double coverage = CoverageUtils.getCoverage(Properties.COVERAGE(), s);
-            if (coverage > CoverageUtils.getCoverage(Properties.COVERAGE(), best)) {
-                best = s;
-            }
+        /*
+        * The seed corpus S only grows by appending interesting chromosomes, thus only the
+        * chromosomes appended since the last call need to be inserted. This is the only time the
+        * coverage of a seed is retrieved.
+         */
+        for (int i = corpus.size(); i < seedCorpus.size(); i++) {
+            IChromosome<T> s = seedCorpus.get(i);
+            corpus.add(s, CoverageUtils.getCoverage(Properties.COVERAGE(), s), getSize(s));
         }
 
-        return best;
+        return corpus.chooseNext();
     }
 
     /**
      * Assigns an energy to the given chromosome s. We assign more energy to those chromosomes that
-     * are shorter and thus faster to execute.
+     * are shorter and thus faster to execute. Depending on the power schedule, this energy is
+     * further adjusted, see {@link PowerSchedule}.
      *
      * @param s The chromosome s for which the energy should be assigned.
      * @return Returns the energy assigned to the chromosome s.
@@ -80,26 +93,53 @@ public class GreyBoxFuzzer<T> extends GreyBoxFuzzing<T> {
 
         /*
         * We need to make a snapshot of the total coverage here in order to tell whether a
-        * mutated chromosome s' is going to increase the total coverage or not.
+        * mutated chromosome s' is going to increase the total coverage or not. Since the
+        * combined coverage never decreases, getInterestingMutants() keeps the snapshot up to
+        * date.
          */
-        totalCoverage = CoverageUtils.getCombinedCoverage(Properties.COVERAGE());
+        if (!totalCoverageInitialised) {
+            totalCoverage = CoverageUtils.getCombinedCoverage(Properties.COVERAGE());
+            totalCoverageInitialised = true;
+        }
+
+        int baseEnergy;
 
         if (s.getValue() instanceof TestCase) {
-            int size = ((TestCase) s.getValue()).getEventSequence().size();
-            return Math.max(1, Math.round(maxEnergy
-                    - ((float) maxEnergy / Properties.MAX_NUMBER_EVENTS()) * size));
+            baseEnergy = Math.max(1, Math.round(maxEnergy
+                    - ((float) maxEnergy / Properties.MAX_NUMBER_EVENTS()) * getSize(s)));
         } else if (s.getValue() instanceof TestSuite) {
             /*
             * Test suites have per construction a fixed number of test cases, thus we need to stick
             * here to the size of the individual test cases, which may vary.
              */
+            baseEnergy = Math.max(1, Math.round(maxEnergy
+                    - ((float) maxEnergy / Properties.NUMBER_TESTCASES()) * getSize(s)));
+        } else {
+            throw new IllegalStateException("Chromosome type " + s.getValue().getClass()
+                    + "not yet supported!");
+        }
+
+        return corpus.assignEnergy(s, baseEnergy, maxEnergy);
+    }
+
+    /**
+     * Returns the size of the given chromosome, i.e. the number of actions of a test case or
+     * the number of actions of all test cases of a test suite.
+     *
+     * @param s The chromosome s.
+     * @return Returns the size of the chromosome.
+     */
+    private int getSize(IChromosome<T> s) {
+
+        if (s.getValue() instanceof TestCase) {
+            return ((TestCase) s.getValue()).getEventSequence().size();
+        } else if (s.getValue() instanceof TestSuite) {
             int size = 0;
             List<TestCase> testCases = ((TestSuite) s.getValue()).getTestCases();
             for (TestCase testCase : testCases) {
                 size += testCase.getEventSequence().size();
             }
-            return Math.max(1, Math.round(maxEnergy
-                    - ((float) maxEnergy / Properties.NUMBER_TESTCASES()) * size));
+            return size;
         } else {
             throw new IllegalStateException("Chromosome type " + s.getValue().getClass()
                     + "not yet supported!");
@@ -107,16 +147,67 @@ public class GreyBoxFuzzer<T> extends GreyBoxFuzzing<T> {
     }
 
     /**
-     * Checks whether the given chromosome s is considered interesting. We consider a chromosome
-     * interesting if it increases the total coverage.
+     * Determines which of the mutated chromosomes s' are considered interesting. We consider a
+     * chromosome interesting if it increases the total coverage. Instead of requesting the total
+     * coverage after each mutated chromosome, the total coverage is requested once for all
+     * mutated chromosomes of a chromosome s. Only if that increased the total coverage, the
+     * mutated chromosomes responsible for the increase are determined.
      *
-     * @param s The chromosome s.
-     * @return Returns {@code true} if the chromosome is considered interesting, otherwise
-     *          {@code false} is returned.
+     * @param mutants The mutated chromosomes s' in the order of their execution, including
+     *                the crashing ones.
+     * @param seedCorpus The seed corpus S.
+     * @return Returns the interesting chromosomes in the order of their execution.
      */
     @Override
-    public boolean isInteresting(IChromosome<T> s) {
-        return isInteresting;
+    public List<IChromosome<T>> getInterestingMutants(List<IChromosome<T>> mutants,
+                                                      List<IChromosome<T>> seedCorpus) {
+
+        List<IChromosome<T>> interesting = new ArrayList<>();
+        Coverage coverage = Properties.COVERAGE();
+
+        /*
+        * Since the combined coverage never decreases, none of the mutated chromosomes is
+        * interesting if the total coverage didn't change. This is the common case once the
+        * fuzzing stagnates.
+         */
+        double combinedCoverage = CoverageUtils.getCombinedCoverage(coverage);
+        if (combinedCoverage <= totalCoverage) {
+            return interesting;
+        }
+        totalCoverage = combinedCoverage;
+
+        /*
+        * Every chromosome that increased the total coverage so far has been either added to the
+        * seed corpus S or is a crashing input, thus those chromosomes reach the total coverage
+        * prior to the mutated chromosomes. The mutated chromosomes are added in the order of their
+        * execution, each one is interesting if it increases the coverage of its predecessors.
+        * Once the new total coverage is reached, the remaining chromosomes can't increase it.
+         */
+        int crashingMutants = 0;
+        for (IChromosome<T> sPrime : mutants) {
+            if (isCrashing(sPrime)) {
+                crashingMutants++;
+            }
+        }
+
+        List<IChromosome<T>> predecessors = new ArrayList<>(seedCorpus);
+        predecessors.addAll(crashingInputs.subList(0, crashingInputs.size() - crashingMutants));
+        double predecessorCoverage = CoverageUtils.getCombinedCoverage(coverage, predecessors);
+
+        for (IChromosome<T> sPrime : mutants) {
+
+            if (predecessorCoverage >= combinedCoverage) {
+                break;
+            }
+
+            predecessors.add(sPrime);
+            double coverageWithMutant = CoverageUtils.getCombinedCoverage(coverage, predecessors);
+            if (coverageWithMutant > predecessorCoverage && !isCrashing(sPrime)) {
+                interesting.add(sPrime);
+            }
+            predecessorCoverage = coverageWithMutant;
+        }
+        return interesting;
     }
 
     /**
@@ -129,19 +220,6 @@ public class GreyBoxFuzzer<T> extends GreyBoxFuzzing<T> {
     @Override
     public boolean isCrashing(IChromosome<T> s) {
 
-        /*
-        * Since a mutated chromosome s' is considered here first, it might not undergo the
-        * subsequent isInteresting() check. Thus, we need to make that decision here and update
-        * the total coverage accordingly.
-         */
-        double combinedCoverage = CoverageUtils.getCombinedCoverage(Properties.COVERAGE());
-        if (combinedCoverage > totalCoverage) {
-            isInteresting = true;
-            totalCoverage = combinedCoverage;
-        } else {
-            isInteresting = false;
-        }
-
         if (s.getValue() instanceof TestCase) {
             return ((TestCase) s.getValue()).getCrashDetected();
         } else if (s.getValue() instanceof TestSuite) {
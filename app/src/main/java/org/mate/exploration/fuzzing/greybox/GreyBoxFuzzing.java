@@ -8,9 +8,12 @@ import org.mate.exploration.genetic.mutation.IMutationFunction;
 import org.mate.exploration.genetic.termination.ITerminationCondition;
 import org.mate.model.TestCase;
 import org.mate.model.TestSuite;
+import org.mate.utils.ChromosomeLifecycle;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Provides an abstract implementation of a greybox fuzzing algorithm according to the paper
@@ -50,6 +53,11 @@ public abstract class GreyBoxFuzzing<T> implements Algorithm {
      */
     protected final List<IChromosome<T>> crashingInputs;
 
+    /**
+     * The chromosomes retained by the fuzzer, i.e. the seed corpus and the crashing inputs.
+     */
+    private final Set<IChromosome<?>> retainedChromosomes = new HashSet<>();
+
     /**
      * Initialises the greybox fuzzing algorithm with the relevant attributes.
      *
@@ -112,13 +120,17 @@ public abstract class GreyBoxFuzzing<T> implements Algorithm {
     public abstract int assignEnergy(IChromosome<T> s);
 
     /**
-     * Determines whether a chromosome s is considered interesting or not.
+     * Determines which of the mutated chromosomes s' derived from a single chromosome s are
+     * considered interesting. The decision is made for all mutated chromosomes at once, such
+     * that the coverage can be retrieved with as few requests as possible.
      *
-     * @param s The chromosome s.
-     * @return Returns {@code true} if the chromosome is considered interesting, otherwise
-     *          {@code false} is returned.
+     * @param mutants The mutated chromosomes s' in the order of their execution, including
+     *                the crashing ones.
+     * @param seedCorpus The seed corpus S.
+     * @return Returns the interesting chromosomes in the order of their execution.
      */
-    public abstract boolean isInteresting(IChromosome<T> s);
+    public abstract List<IChromosome<T>> getInterestingMutants(List<IChromosome<T>> mutants,
+                                                               List<IChromosome<T>> seedCorpus);
 
     /**
      * Checks whether the given chromosome s produced a crash or not.
@@ -149,18 +161,30 @@ public abstract class GreyBoxFuzzing<T> implements Algorithm {
             IChromosome<T> s = chooseNext(seedCorpus);
             int p = assignEnergy(s);
 
+            List<IChromosome<T>> mutants = new ArrayList<>(p);
+
             for (int i = 0; i < p; i++) {
                 IChromosome<T> sPrime = mutationFunction.mutate(s).get(0);
+                mutants.add(sPrime);
                 if (isCrashing(sPrime)) {
                     MATE.log_acc("Found crashing chromosome: " + sPrime);
                     crashingInputs.add(sPrime);
-                } else if (isInteresting(sPrime)) {
-                    MATE.log_acc("Found interesting chromosome: " + sPrime);
-                    seedCorpus.add(sPrime);
                 }
             }
 
+            // the seed corpus S only grows after all p mutants have been executed
+            for (IChromosome<T> sPrime : getInterestingMutants(mutants, seedCorpus)) {
+                MATE.log_acc("Found interesting chromosome: " + sPrime);
+                seedCorpus.add(sPrime);
+            }
+
             MATE.log_acc("Total number of crashes so far: " + crashingInputs.size());
+
+            // mutants that are neither interesting nor crashing are not used anymore
+            List<IChromosome<T>> activeChromosomes = new ArrayList<>(seedCorpus);
+            activeChromosomes.addAll(crashingInputs);
+            ChromosomeLifecycle.update(retainedChromosomes, activeChromosomes);
+            ChromosomeLifecycle.evictUnreferenced();
         }
     }
 }
@@ -0,0 +1,22 @@
+package org.mate.exploration.fuzzing.greybox;
+
+/**
+ * The supported power schedules of the {@link GreyBoxFuzzer}. A power schedule determines which
+ * seed of the seed corpus is fuzzed next and how much energy, i.e. how many mutants, it gets.
+ */
+public enum PowerSchedule {
+
+    /**
+     * Always fuzzes the seed with the highest coverage and assigns more energy to shorter seeds.
+     */
+    COVERAGE,
+
+    /**
+     * An AFLFast-like schedule, see "Coverage-based Greybox Fuzzing as Markov Chain". Favoured
+     * seeds that have been fuzzed the least are picked first. The energy of a seed grows
+     * exponentially with the number of times it has been picked and shrinks with the number of
+     * inputs already generated for its coverage, such that rarely exercised behaviour gets more
+     * energy.
+     */
+    FAST;
+}
@@ -0,0 +1,246 @@
+package org.mate.exploration.fuzzing.greybox;
+
+import org.mate.exploration.genetic.chromosome.IChromosome;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Manages the seed corpus S of the {@link GreyBoxFuzzer}. The coverage of each seed is retrieved
+ * only once when the seed is inserted. The seeds are kept in a priority structure ordered according
+ * to the {@link PowerSchedule}, hence picking the next seed and assigning its energy doesn't
+ * require any request to the MATE-Server.
+ *
+ * Since the coverage of a seed is only available as a single value, seeds with the same coverage
+ * are assumed to exercise the same behaviour, i.e. the coverage value takes the role of the path
+ * in AFL. The shortest seed per coverage value is favoured.
+ *
+ * @param <T> Either a {@link org.mate.model.TestCase} or a {@link org.mate.model.TestSuite}.
+ */
+public class SeedCorpus<T> {
+
+    /**
+     * The power schedule that defines the ordering of the seeds and the assigned energy.
+     */
+    private final PowerSchedule powerSchedule;
+
+    /**
+     * The seeds ordered by their priority, the next seed to be fuzzed comes first.
+     */
+    private final TreeSet<Seed<T>> queue;
+
+    /**
+     * Maps each chromosome to its seed.
+     */
+    private final Map<IChromosome<T>, Seed<T>> seeds = new IdentityHashMap<>();
+
+    /**
+     * Groups the seeds by their coverage value.
+     */
+    private final Map<Double, CoverageGroup<T>> coverageGroups = new HashMap<>();
+
+    /**
+     * Creates an empty seed corpus.
+     *
+     * @param powerSchedule The applied power schedule.
+     */
+    public SeedCorpus(PowerSchedule powerSchedule) {
+        this.powerSchedule = powerSchedule;
+        this.queue = new TreeSet<>(getComparator(powerSchedule));
+    }
+
+    /**
+     * Returns the number of seeds in the corpus.
+     *
+     * @return Returns the size of the seed corpus.
+     */
+    public int size() {
+        return seeds.size();
+    }
+
+    /**
+     * Inserts a new seed into the corpus.
+     *
+     * @param chromosome The chromosome representing the seed.
+     * @param coverage The coverage of the chromosome.
+     * @param size The size of the chromosome, e.g. the number of actions.
+     */
+    public void add(IChromosome<T> chromosome, double coverage, int size) {
+
+        if (seeds.containsKey(chromosome)) {
+            throw new IllegalStateException("Chromosome " + chromosome + " is already a seed!");
+        }
+
+        CoverageGroup<T> group = coverageGroups.get(coverage);
+        if (group == null) {
+            group = new CoverageGroup<>();
+            coverageGroups.put(coverage, group);
+        }
+
+        Seed<T> seed = new Seed<>(chromosome, coverage, size, seeds.size(), group);
+        seeds.put(chromosome, seed);
+
+        // the shortest seed per coverage value is favoured
+        Seed<T> favoured = group.favoured;
+        if (favoured == null || size < favoured.size) {
+            if (favoured != null) {
+                queue.remove(favoured);
+                favoured.favoured = false;
+                queue.add(favoured);
+            }
+            seed.favoured = true;
+            group.favoured = seed;
+        }
+
+        queue.add(seed);
+    }
+
+    /**
+     * Picks the next seed to be fuzzed according to the power schedule.
+     *
+     * @return Returns the chromosome of the picked seed.
+     */
+    public IChromosome<T> chooseNext() {
+
+        if (queue.isEmpty()) {
+            throw new IllegalStateException("Can't choose a seed from an empty corpus!");
+        }
+
+        // the number of picks is part of the ordering, thus the seed needs to be re-inserted
+        Seed<T> seed = queue.pollFirst();
+        seed.timesChosen++;
+        queue.add(seed);
+
+        return seed.chromosome;
+    }
+
+    /**
+     * Assigns the energy to the given seed according to the power schedule.
+     *
+     * @param chromosome The chromosome of the seed.
+     * @param baseEnergy The energy derived from the properties of the seed, e.g. its size.
+     * @param maxEnergy The maximal assignable energy.
+     * @return Returns the energy of the seed.
+     */
+    public int assignEnergy(IChromosome<T> chromosome, int baseEnergy, int maxEnergy) {
+
+        Seed<T> seed = seeds.get(chromosome);
+
+        if (seed == null) {
+            throw new IllegalStateException("Chromosome " + chromosome + " is not a seed!");
+        }
+
+        int energy;
+
+        switch (powerSchedule) {
+            case COVERAGE:
+                energy = baseEnergy;
+                break;
+            case FAST:
+                /*
+                * The energy doubles with every pick of the seed, but is divided by the number of
+                * inputs that have been generated for the coverage value of the seed so far.
+                 */
+                double factor = Math.pow(2, Math.max(0, seed.timesChosen - 1));
+                double fastEnergy = baseEnergy * factor / seed.group.frequency;
+                energy = (int) Math.max(1, Math.min(maxEnergy, fastEnergy));
+                break;
+            default:
+                throw new UnsupportedOperationException("Power schedule "
+                        + powerSchedule + " not yet supported!");
+        }
+
+        seed.group.frequency += energy;
+        return energy;
+    }
+
+    /**
+     * Returns the ordering of the seeds for the given power schedule.
+     *
+     * @param powerSchedule The power schedule.
+     * @param <T> Either a {@link org.mate.model.TestCase} or a {@link org.mate.model.TestSuite}.
+     * @return Returns a comparator that orders the next seed to be fuzzed first.
+     */
+    private static <T> Comparator<Seed<T>> getComparator(PowerSchedule powerSchedule) {
+
+        switch (powerSchedule) {
+            case COVERAGE:
+                return new Comparator<Seed<T>>() {
+                    @Override
+                    public int compare(Seed<T> o1, Seed<T> o2) {
+                        // highest coverage first, on ties the seed inserted first
+                        int cmp = Double.compare(o2.coverage, o1.coverage);
+                        return cmp != 0 ? cmp : Integer.compare(o1.index, o2.index);
+                    }
+                };
+            case FAST:
+                return new Comparator<Seed<T>>() {
+                    @Override
+                    public int compare(Seed<T> o1, Seed<T> o2) {
+                        // favoured seeds first, then the least picked seeds, then highest coverage
+                        if (o1.favoured != o2.favoured) {
+                            return o1.favoured ? -1 : 1;
+                        }
+                        int cmp = Integer.compare(o1.timesChosen, o2.timesChosen);
+                        if (cmp != 0) {
+                            return cmp;
+                        }
+                        cmp = Double.compare(o2.coverage, o1.coverage);
+                        return cmp != 0 ? cmp : Integer.compare(o1.index, o2.index);
+                    }
+                };
+            default:
+                throw new UnsupportedOperationException("Power schedule "
+                        + powerSchedule + " not yet supported!");
+        }
+    }
+
+    /**
+     * A seed of the corpus together with the data relevant for scheduling.
+     */
+    private static class Seed<T> {
+
+        private final IChromosome<T> chromosome;
+        private final double coverage;
+        private final int size;
+
+        /**
+         * The insertion order, which breaks ties between otherwise equal seeds.
+         */
+        private final int index;
+
+        private final CoverageGroup<T> group;
+
+        private boolean favoured = false;
+        private int timesChosen = 0;
+
+        private Seed(IChromosome<T> chromosome, double coverage, int size, int index,
+                     CoverageGroup<T> group) {
+            this.chromosome = chromosome;
+            this.coverage = coverage;
+            this.size = size;
+            this.index = index;
+            this.group = group;
+        }
+    }
+
+    /**
+     * The seeds sharing the same coverage value.
+     */
+    private static class CoverageGroup<T> {
+
+        /**
+         * The shortest seed of the group.
+         */
+        private Seed<T> favoured;
+
+        /**
+         * The number of inputs that have been generated from seeds of the group, starts at one
+         * to avoid a division by zero.
+         */
+        private long frequency = 1;
+    }
+}
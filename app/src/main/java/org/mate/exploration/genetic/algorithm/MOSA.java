@@ -9,9 +9,10 @@ import org.mate.exploration.genetic.mutation.IMutationFunction;
 import org.mate.exploration.genetic.selection.ISelectionFunction;
 import org.mate.exploration.genetic.termination.ITerminationCondition;
 import org.mate.model.TestCase;
-import org.mate.utils.FitnessUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -19,8 +20,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import static org.mate.exploration.genetic.core.GAUtils.getParetoFront;
 import static org.mate.exploration.genetic.core.GAUtils.updateCrowdingDistance;
+import static org.mate.exploration.genetic.core.NonDominatedSorting.getObjectiveMatrix;
+import static org.mate.exploration.genetic.core.NonDominatedSorting.sort;
 
 /**
  * Implementation of the Many-Objective Sorting Algorithm (MOSA) based on the paper:
@@ -76,12 +78,19 @@ public class MOSA<T extends TestCase> extends GeneticAlgorithm<T> {
     public void evolve() {
         super.evolve();
         updateArchive(population);
+    }
 
-        // Todo: remove. Memory issue dirty quick fix
-        List<IChromosome<T>> activeChromosomes = new ArrayList<>();
-        activeChromosomes.addAll(population);
+    /**
+     * Returns the chromosomes used in subsequent generations, i.e. the population and the
+     * archive.
+     *
+     * @return Returns the chromosomes still in use.
+     */
+    @Override
+    protected Collection<? extends IChromosome<?>> getActiveChromosomes() {
+        List<IChromosome<T>> activeChromosomes = new ArrayList<>(population);
         activeChromosomes.addAll(archive.values());
-        FitnessUtils.cleanCache(activeChromosomes);
+        return activeChromosomes;
     }
 
     @Override
@@ -97,25 +106,45 @@ public class MOSA<T extends TestCase> extends GeneticAlgorithm<T> {
             // MOSA best possible rank
             rankMap.put(chromosome, 0);
         }
-        updateCrowdingDistance(preferredChromosomes, uncoveredFitnessFunctions, crowdingDistanceMap);
+
+        // retrieve the fitness values once and rank all chromosomes on the objective matrix
+        final double[][] objectives = getObjectiveMatrix(population, uncoveredFitnessFunctions);
 
         // The following represents Algorithm 2 (lines 7-12) and algorithm 1 (lines 10-17):
         // Apply rank and crowding distance values for all non-preference sorted chromosomes
-        final List<IChromosome<T>> remaining = new ArrayList<>(population);
-        remaining.removeAll(preferredChromosomes);
+        final Map<IChromosome<T>, Integer> rows = new HashMap<>();
+        for (int row = population.size() - 1; row >= 0; row--) {
+            rows.put(population.get(row), row);
+        }
+
+        final int[] preferredRows = new int[preferredChromosomes.size()];
+        for (int i = 0; i < preferredRows.length; i++) {
+            preferredRows[i] = rows.get(preferredChromosomes.get(i));
+        }
+
+        updateCrowdingDistance(population, preferredRows, objectives, uncoveredFitnessFunctions,
+                crowdingDistanceMap);
+
+        final Set<IChromosome<T>> preferred = new HashSet<>(preferredChromosomes);
+        final int[] remainingRows = new int[population.size()];
+        int numberOfRemaining = 0;
+        for (int row = 0; row < population.size(); row++) {
+            if (!preferred.contains(population.get(row))) {
+                remainingRows[numberOfRemaining++] = row;
+            }
+        }
 
         // Start at best possible rank in NSGA-II
         int rank = 1;
 
-        while (!remaining.isEmpty()) {
-            List<IChromosome<T>> paretoFront = getParetoFront(remaining, uncoveredFitnessFunctions);
+        for (int[] paretoFront : sort(objectives, Arrays.copyOf(remainingRows, numberOfRemaining))) {
 
-            for (IChromosome<T> chromosome : paretoFront) {
-                remaining.remove(chromosome);
-                rankMap.put(chromosome, rank);
+            for (int row : paretoFront) {
+                rankMap.put(population.get(row), rank);
             }
 
-            updateCrowdingDistance(paretoFront, uncoveredFitnessFunctions, crowdingDistanceMap);
+            updateCrowdingDistance(population, paretoFront, objectives, uncoveredFitnessFunctions,
+                    crowdingDistanceMap);
             rank++;
         }
 
@@ -141,15 +170,18 @@ public class MOSA<T extends TestCase> extends GeneticAlgorithm<T> {
         final Set<IChromosome<T>> firstNonDominatedFront = new HashSet<>();
 
         // only look at fitness functions which have not been covered yet
+        final double[][] objectives = getObjectiveMatrix(population, uncoveredFitnessFunctions);
+
         List<IFitnessFunction<T>> toRemove = new ArrayList<>();
-        for (IFitnessFunction<T> fitnessFunction : uncoveredFitnessFunctions) {
+        for (int j = 0; j < uncoveredFitnessFunctions.size(); j++) {
+            IFitnessFunction<T> fitnessFunction = uncoveredFitnessFunctions.get(j);
             IChromosome<T> best = population.get(0);
             boolean maximizing = fitnessFunction.isMaximizing();
-            double bestFitness = fitnessFunction.getNormalizedFitness(best);
-            for (IChromosome<T> chromosome : population) {
-                final double chromosomeFitness = fitnessFunction.getNormalizedFitness(chromosome);
+            double bestFitness = objectives[0][j];
+            for (int i = 0; i < population.size(); i++) {
+                final double chromosomeFitness = objectives[i][j];
                 if (maximizing ? chromosomeFitness > bestFitness : chromosomeFitness < bestFitness) {
-                    best = chromosome;
+                    best = population.get(i);
                     bestFitness = chromosomeFitness;
                 }
             }
@@ -178,13 +210,17 @@ public class MOSA<T extends TestCase> extends GeneticAlgorithm<T> {
         allChromosomes.addAll(archive.values());
         allChromosomes.addAll(possibleAdditions);
 
+        final double[][] objectives = getObjectiveMatrix(allChromosomes, fitnessFunctions);
+
         // Look at all fitness functions, even covered ones.
-        for (IFitnessFunction<T> fitnessFunction : fitnessFunctions) {
+        for (int j = 0; j < fitnessFunctions.size(); j++) {
+            IFitnessFunction<T> fitnessFunction = fitnessFunctions.get(j);
             double bestLength = Double.POSITIVE_INFINITY;
             IChromosome<T> best = null;
             boolean maximizing = fitnessFunction.isMaximizing();
-            for (IChromosome<T> survivor : allChromosomes) {
-                final double score = fitnessFunction.getNormalizedFitness(survivor);
+            for (int i = 0; i < allChromosomes.size(); i++) {
+                IChromosome<T> survivor = allChromosomes.get(i);
+                final double score = objectives[i][j];
                 final double length = survivor.getValue().getEventSequence().size();
 
                 if ((maximizing ? score == 1 : score == 0) && length <= bestLength) {
@@ -12,14 +12,16 @@ import org.mate.exploration.genetic.selection.ISelectionFunction;
 import org.mate.exploration.genetic.termination.ITerminationCondition;
 import org.mate.model.TestCase;
 import org.mate.model.TestSuite;
+import org.mate.utils.ChromosomeLifecycle;
 import org.mate.utils.FitnessUtils;
+import org.mate.utils.IndexedMinPriorityQueue;
+import org.mate.utils.MinHeap;
 import org.mate.utils.Randomness;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -48,9 +50,11 @@ public class Mio<T> extends GeneticAlgorithm<T> {
     private final int mutationRateFocusedSearch = 10;
 
     /**
-     * The archive maintains for each target k a population T_k of size up to n.
+     * The archive maintains for each target k a population T_k of size up to n. A target k is
+     * identified by the index of its fitness function. Each population is a min-heap that keeps
+     * the worst chromosome in terms of fitness and size on top.
      */
-    private final Map<IFitnessFunction<T>, List<ChromosomeFitnessTuple>> archive;
+    private final List<MinHeap<ChromosomeFitnessTuple>> archive;
 
     /**
      * Represents the initial probability P_r for sampling a random chromosome.
@@ -90,7 +94,16 @@ public class Mio<T> extends GeneticAlgorithm<T> {
     private final double focusedSearchStart;
 
     // represents the variable c_k for each target k
-    private final Map<IFitnessFunction<T>, Integer> samplingCounters;
+    private final int[] samplingCounters;
+
+    // the targets k with a non-empty population T_k that are not covered yet, ordered by c_k
+    private final IndexedMinPriorityQueue uncoveredTargets;
+
+    // the targets k whose population T_k consists of a single chromosome covering k
+    private final BitSet coveredTargets;
+
+    // counts in how many populations T_k a chromosome of the archive is stored
+    private final Map<IChromosome<T>, Integer> archivedChromosomes = new HashMap<>();
 
     // tracks the start point of the search to measure when the focused search should start
     private long startTime;
@@ -133,8 +146,11 @@ public class Mio<T> extends GeneticAlgorithm<T> {
                 iFitnessFunctions, terminationCondition, populationSize, bigPopulationSize,
                 pCrossover, pMutate);
 
-        this.archive = new HashMap<>(); // (k -> T_k)
-        this.samplingCounters = new HashMap<>(); // (k -> c_k)
+        int numberOfTargets = fitnessFunctions.size();
+        this.archive = new ArrayList<>(numberOfTargets); // (k -> T_k)
+        this.samplingCounters = new int[numberOfTargets]; // (k -> c_k)
+        this.uncoveredTargets = new IndexedMinPriorityQueue(numberOfTargets);
+        this.coveredTargets = new BitSet(numberOfTargets);
 
         this.pSampleRandom = pSampleRandom; // P_r
         this.populationSize = populationSize; // n
@@ -151,13 +167,10 @@ public class Mio<T> extends GeneticAlgorithm<T> {
         MATE.log_acc("Population size n: " + populationSizeStart);
         MATE.log_acc("Mutation rate m: " + mutationRateStart);
 
+        // for each testing target k we keep a population T_k of up to size n
         for (IFitnessFunction<T> fitnessFunction : fitnessFunctions) {
-
-            // for each testing target k we keep a population T_k of up to size n
-            archive.put(fitnessFunction, new LinkedList<ChromosomeFitnessTuple>());
-
-            // initially the sampling counter c_k for each testing target k is zero
-            samplingCounters.put(fitnessFunction, 0);
+            archive.add(new MinHeap<ChromosomeFitnessTuple>(
+                    getWorstFirstComparator(fitnessFunction)));
         }
     }
 
@@ -174,8 +187,11 @@ public class Mio<T> extends GeneticAlgorithm<T> {
         IChromosome<T> chromosome = chromosomeFactory.createChromosome();
         population.add(chromosome);
 
-        for (IFitnessFunction<T> target : this.fitnessFunctions) {
-            double fitness = target.getNormalizedFitness(chromosome);
+        double[][] fitnessMatrix
+                = FitnessUtils.getNormalizedFitnessMatrix(population, fitnessFunctions);
+
+        for (int target = 0; target < fitnessFunctions.size(); target++) {
+            double fitness = fitnessMatrix[0][target];
             addToArchive(target, new ChromosomeFitnessTuple(chromosome, fitness));
         }
 
@@ -236,6 +252,10 @@ public class Mio<T> extends GeneticAlgorithm<T> {
      * sample from the archive, we choose the k with the lowest counter c_k from a population T_k
      * that is not empty nor covered yet. If all populations T_k are covered, we choose k
      * randomly from those covered populations.
+     *
+     * The archive keeps the uncovered targets in a priority queue keyed by c_k and the worst
+     * chromosome of each population on top of a heap, hence a generation only costs a logarithmic
+     * amount of bookkeeping per changed target on top of the fitness evaluations.
      */
     @Override
     public void evolve() {
@@ -254,14 +274,16 @@ public class Mio<T> extends GeneticAlgorithm<T> {
             * the lowest sampling counter c_k. Then select randomly a chromosome from the
             * population T_k in the archive.
              */
-            IFitnessFunction<T> target = getBestTarget();
-            ChromosomeFitnessTuple tuple = Randomness.randomElement(archive.get(target));
+            int target = getBestTarget();
+            MinHeap<ChromosomeFitnessTuple> targetPopulation = archive.get(target);
+            ChromosomeFitnessTuple tuple
+                    = targetPopulation.get(Randomness.getRnd().nextInt(targetPopulation.size()));
             IChromosome<T> chromosome = tuple.chromosome;
             MATE.log_acc("Sampled chromosome " + chromosome + " from archive!");
 
             // increase sampling counter c_k, see section 3.3
-            Integer value = samplingCounters.get(target);
-            samplingCounters.put(target, value + 1);
+            samplingCounters[target]++;
+            updateTargetStatus(target);
 
             // sample up to m mutants from the same base chromosome
             for (int i = 0; i < mutationRate; i++) {
@@ -274,10 +296,14 @@ public class Mio<T> extends GeneticAlgorithm<T> {
 
         MATE.log_acc("Updating Archive...");
 
-        // evaluate fitness and update archive
-        for (IChromosome<T> chromosome : population) {
-            for (IFitnessFunction<T> target : this.fitnessFunctions) {
-                double fitness = target.getNormalizedFitness(chromosome);
+        // evaluate fitness of the whole population at once and update archive
+        double[][] fitnessMatrix
+                = FitnessUtils.getNormalizedFitnessMatrix(population, fitnessFunctions);
+
+        for (int i = 0; i < population.size(); i++) {
+            IChromosome<T> chromosome = population.get(i);
+            for (int target = 0; target < fitnessFunctions.size(); target++) {
+                double fitness = fitnessMatrix[i][target];
                 updateArchive(target, new ChromosomeFitnessTuple(chromosome, fitness));
             }
         }
@@ -292,31 +318,25 @@ public class Mio<T> extends GeneticAlgorithm<T> {
         if (!startedFocusedSearch) {
             updateParameters();
         }
-
-        // TODO: Remove! This just tries to keep the cache size reasonable by dropping unused chromosomes.
-        List<IChromosome<T>> activeChromosomes = new ArrayList<>();
-        for (List<ChromosomeFitnessTuple> tuples : archive.values()) {
-            for (ChromosomeFitnessTuple tuple : tuples) {
-                activeChromosomes.add(tuple.chromosome);
-            }
-        }
-        FitnessUtils.cleanCache(activeChromosomes);
     }
 
     /**
      * Updates the archive according to the rules described in section 3.1.
      *
-     * @param target The target k.
+     * @param target The index of the target k.
      * @param chromosome The new chromosome that might be added to the archive or that might replace
      *              another chromosome in the archive.
      */
-    private void updateArchive(IFitnessFunction<T> target, ChromosomeFitnessTuple chromosome) {
+    private void updateArchive(int target, ChromosomeFitnessTuple chromosome) {
+
+        IFitnessFunction<T> fitnessFunction = fitnessFunctions.get(target);
+        MinHeap<ChromosomeFitnessTuple> targetPopulation = archive.get(target);
 
-        if (isTargetNotReachable(target, chromosome)) {
+        if (isTargetNotReachable(fitnessFunction, chromosome)) {
             // the target is unreachable for the chromosome, ignore it
-        } else if (isTargetCovered(target, chromosome)) {
+        } else if (isTargetCovered(fitnessFunction, chromosome)) {
             // the chromosome covers the target, insert it if better
-            if (archive.get(target).isEmpty() || archive.get(target).size() > 1) {
+            if (!coveredTargets.get(target)) {
                 /*
                 * No chromosome in the current population T_k covers the target, thus replace
                 * the current population with the new chromosome. Note, the population T_k will
@@ -325,55 +345,30 @@ public class Mio<T> extends GeneticAlgorithm<T> {
                 replaceAllInArchive(target, chromosome);
             } else {
                 /*
-                * Check whether the single chromosome in the population T_k covers the target k.
-                * If this is not the case, we can simply replace the chromosome with the new one.
-                * Otherwise, we only replace the chromosome if the new chromosome is better in terms
-                * of size (shorter). If the size is identical, the chromosomes are compared on the
-                * remaining targets other than k.
+                * The single chromosome in the population T_k covers the target k. We only replace
+                * the chromosome if the new chromosome is better in terms of size (shorter). If the
+                * size is identical, the chromosomes are compared on the remaining targets other
+                * than k.
                  */
-                ChromosomeFitnessTuple oldChromosome = archive.get(target).get(0);
-                if (!isTargetCovered(target, oldChromosome)) {
-                    replaceInArchive(target, chromosome, oldChromosome);
-                } else {
-                    if (compareSizeAndOtherTargets(target, chromosome, oldChromosome) > 0) {
-                        replaceInArchive(target, chromosome, oldChromosome);
-                    }
+                ChromosomeFitnessTuple oldChromosome = targetPopulation.peek();
+                if (compareSizeAndOtherTargets(fitnessFunction, chromosome, oldChromosome) > 0) {
+                    replaceWorstInArchive(target, chromosome);
                 }
             }
-        } else if (!isTargetPopulationFull(target)) {
+        } else if (coveredTargets.get(target)) {
+            // a covered population T_k never expands again
+        } else if (targetPopulation.size() < populationSize) {
             // as long as the target population T_k is not full, i.e. |T_k| < n, we add it
             addToArchive(target, chromosome);
-        } else if (isTargetPopulationFull(target)) {
+        } else {
             // replace with worst chromosome in T_k but only if better in terms of fitness and size
-            ChromosomeFitnessTuple worstChromosome = getWorstChromosomeOfTargetPopulation(target);
-            if (compareFitnessAndSize(target, chromosome, worstChromosome) > 0) {
-                replaceInArchive(target, chromosome, worstChromosome);
+            ChromosomeFitnessTuple worstChromosome = targetPopulation.peek();
+            if (compareFitnessAndSize(fitnessFunction, chromosome, worstChromosome) > 0) {
+                replaceWorstInArchive(target, chromosome);
             }
         }
     }
 
-    /**
-     * Checks whether the given target is covered, i.e. there exits a single chromosome in the
-     * target population T_k that fulfills the target k.
-     *
-     * @param target The target k.
-     * @return Returns {@code true} if the target k is covered, otherwise {@code false} is returned.
-     */
-    private boolean isTargetCovered(IFitnessFunction<T> target) {
-        if (archive.get(target).size() != 1) {
-            /*
-            * By construction, the target k is only covered if the population T_k contains
-            * a single chromosome, since the population never expands once a chromosome covers
-            * the target.
-             */
-            return false;
-        } else {
-            // check whether the single chromosome covers the target k
-            ChromosomeFitnessTuple tuple = archive.get(target).get(0);
-            return isTargetCovered(target, tuple);
-        }
-    }
-
     /**
      * Checks whether the given chromosome covers the given target.
      *
@@ -400,82 +395,131 @@ public class Mio<T> extends GeneticAlgorithm<T> {
         return isMaximising ? chromosome.fitness == 0 : chromosome.fitness == 1;
     }
 
-    /**
-     * Checks whether the target population T_k is full, i.e. |T_k| >= n.
-     *
-     * @param target The target k.
-     * @return Returns {@code true} if the target population T_k is full.
-     */
-    private boolean isTargetPopulationFull(IFitnessFunction<T> target) {
-        return archive.get(target).size() >= populationSize;
-    }
-
     /**
      * Adds the given chromosome to the given target population T_k.
      *
-     * @param target The target k.
+     * @param target The index of the target k.
      * @param chromosome The chromosome to be added.
      */
-    private void addToArchive(IFitnessFunction<T> target, ChromosomeFitnessTuple chromosome) {
+    private void addToArchive(int target, ChromosomeFitnessTuple chromosome) {
 
         if (archive.get(target).size() >= populationSize) {
             throw new IllegalStateException("Population T_k of is full, can't store chromosome!");
         }
 
         archive.get(target).add(chromosome);
+        retain(chromosome.chromosome);
 
         // reset the sampling counter c_k for target k
-        samplingCounters.put(target, 0);
+        samplingCounters[target] = 0;
+        updateTargetStatus(target);
     }
 
     /**
-     * Replaces the old chromosome with the new chromosome in the target population T_k.
+     * Replaces the worst chromosome of the target population T_k with the new chromosome.
      *
-     * @param target The target k.
+     * @param target The index of the target k.
      * @param newChromosome The new chromosome.
-     * @param oldChromosome The old chromosome.
      */
-    private void replaceInArchive(IFitnessFunction<T> target, ChromosomeFitnessTuple newChromosome,
-                                  ChromosomeFitnessTuple oldChromosome) {
-        archive.get(target).remove(oldChromosome);
-        addToArchive(target, newChromosome);
+    private void replaceWorstInArchive(int target, ChromosomeFitnessTuple newChromosome) {
+
+        ChromosomeFitnessTuple oldChromosome = archive.get(target).replaceTop(newChromosome);
+        retain(newChromosome.chromosome);
+        release(oldChromosome.chromosome);
+
+        // reset the sampling counter c_k for target k
+        samplingCounters[target] = 0;
+        updateTargetStatus(target);
     }
 
     /**
      * Replaces all chromosomes in the target population T_k with the given chromosome.
      *
-     * @param target The target k.
+     * @param target The index of the target k.
      * @param chromosome The new chromosome.
      */
-    private void replaceAllInArchive(IFitnessFunction<T> target, ChromosomeFitnessTuple chromosome) {
-        archive.get(target).clear();
+    private void replaceAllInArchive(int target, ChromosomeFitnessTuple chromosome) {
+
+        MinHeap<ChromosomeFitnessTuple> targetPopulation = archive.get(target);
+        for (int i = 0; i < targetPopulation.size(); i++) {
+            release(targetPopulation.get(i).chromosome);
+        }
+        targetPopulation.clear();
+
         addToArchive(target, chromosome);
     }
 
     /**
-     * Retrieves the worst chromosome from the target population T_k, i.e. the chromosome with
-     * the worst fitness value and the worst size.
+     * Updates the covered targets and the queue of uncovered targets after the population T_k or
+     * the sampling counter c_k of the given target k has changed.
      *
-     * @param target The target k.
-     * @return Returns the worst chromosome of the target population T_k.
+     * @param target The index of the target k.
      */
-    private ChromosomeFitnessTuple getWorstChromosomeOfTargetPopulation(final IFitnessFunction<T> target) {
+    private void updateTargetStatus(int target) {
+
+        MinHeap<ChromosomeFitnessTuple> targetPopulation = archive.get(target);
+
+        /*
+        * By construction, the target k is only covered if the population T_k contains a single
+        * chromosome, since the population never expands once a chromosome covers the target.
+         */
+        boolean covered = targetPopulation.size() == 1
+                && isTargetCovered(fitnessFunctions.get(target), targetPopulation.peek());
+        coveredTargets.set(target, covered);
 
-        if (archive.get(target).isEmpty()) {
-            throw new IllegalStateException("Can't retrieve worst chromosome from empty archive!");
+        if (covered || targetPopulation.isEmpty()) {
+            uncoveredTargets.remove(target);
+        } else {
+            uncoveredTargets.put(target, samplingCounters[target]);
+        }
+    }
+
+    /**
+     * Records that the given chromosome has been stored in another population T_k. A chromosome
+     * is retained by the archive as long as it is stored in at least one population.
+     *
+     * @param chromosome The stored chromosome.
+     */
+    private void retain(IChromosome<T> chromosome) {
+        Integer count = archivedChromosomes.get(chromosome);
+        if (count == null) {
+            archivedChromosomes.put(chromosome, 1);
+            ChromosomeLifecycle.retain(chromosome);
+        } else {
+            archivedChromosomes.put(chromosome, count + 1);
         }
+    }
 
-        List<ChromosomeFitnessTuple> population = archive.get(target);
-        Collections.sort(population, new Comparator<ChromosomeFitnessTuple>() {
+    /**
+     * Records that the given chromosome has been removed from a population T_k. The chromosome is
+     * released by the archive once it is no longer stored in any population.
+     *
+     * @param chromosome The removed chromosome.
+     */
+    private void release(IChromosome<T> chromosome) {
+        int count = archivedChromosomes.get(chromosome);
+        if (count == 1) {
+            archivedChromosomes.remove(chromosome);
+            ChromosomeLifecycle.release(chromosome);
+        } else {
+            archivedChromosomes.put(chromosome, count - 1);
+        }
+    }
+
+    /**
+     * Returns a comparator that orders the chromosomes of the target population T_k from the worst
+     * to the best in terms of fitness and size.
+     *
+     * @param target The target k.
+     * @return Returns the comparator for the target population T_k.
+     */
+    private Comparator<ChromosomeFitnessTuple> getWorstFirstComparator(final IFitnessFunction<T> target) {
+        return new Comparator<ChromosomeFitnessTuple>() {
             @Override
             public int compare(ChromosomeFitnessTuple o1, ChromosomeFitnessTuple o2) {
-                int cmp = compareFitness(target, o1, o2);
-                return cmp != 0 ? cmp : compareSize(o1, o2);
+                return compareFitnessAndSize(target, o1, o2);
             }
-        });
-
-        // the worst chromosome comes first
-        return population.get(0);
+        };
     }
 
     /**
@@ -487,22 +531,16 @@ public class Mio<T> extends GeneticAlgorithm<T> {
 
         MATE.log_acc("Shrinking Archive...");
 
-        for (final IFitnessFunction<T> target : fitnessFunctions) {
-            List<ChromosomeFitnessTuple> population = archive.get(target);
-            if (population.size() > populationSize) {
+        for (int target = 0; target < archive.size(); target++) {
+            MinHeap<ChromosomeFitnessTuple> targetPopulation = archive.get(target);
+            if (targetPopulation.size() > populationSize) {
 
                 // we need to discard the worst chromosomes
-                int discardAmount = population.size() - populationSize;
-
-                Collections.sort(population, new Comparator<ChromosomeFitnessTuple>() {
-                    @Override
-                    public int compare(ChromosomeFitnessTuple o1, ChromosomeFitnessTuple o2) {
-                        int cmp = compareFitness(target, o1, o2);
-                        return cmp != 0 ? cmp : compareSize(o1, o2);
-                    }
-                });
+                while (targetPopulation.size() > populationSize) {
+                    release(targetPopulation.poll().chromosome);
+                }
 
-                population.subList(0, discardAmount).clear();
+                updateTargetStatus(target);
             }
         }
     }
@@ -515,6 +553,8 @@ public class Mio<T> extends GeneticAlgorithm<T> {
 
         MATE.log_acc("Updating Parameters...");
 
+        int previousPopulationSize = populationSize;
+
         long currentTime = System.currentTimeMillis();
         long expiredTime = currentTime - startTime;
         long focusedSearchStartTime = (long) (Registry.getTimeout() * focusedSearchStart);
@@ -543,48 +583,39 @@ public class Mio<T> extends GeneticAlgorithm<T> {
         MATE.log_acc("New mutation rate m: " + mutationRate);
 
         // the population size is decreasing with time, thus we need to discard the worst chromosomes
-        shrinkArchive();
+        if (populationSize < previousPopulationSize) {
+            shrinkArchive();
+        }
     }
 
     /**
      * Picks the testing target where the sampling counter has the lowest value. A testing
-     * target is only considered if the population size > 0. If all testing targets are covered,
-     * we randomly select a target.
+     * target is only considered if the population size > 0 and it is not covered yet. If all
+     * testing targets are covered, we randomly select a target.
      *
-     * @return Returns the testing target having the lowest sampling counter for a non empty
-     *          population. Picks randomly if all testing targets are covered.
+     * @return Returns the index of the testing target having the lowest sampling counter for a
+     *          non empty population. Picks randomly if all testing targets are covered.
      */
-    private IFitnessFunction<T> getBestTarget() {
+    private int getBestTarget() {
 
-        Map.Entry<IFitnessFunction<T>, Integer> bestEntry = null;
+        if (!uncoveredTargets.isEmpty()) {
+            return uncoveredTargets.peek();
+        }
 
-        for (Map.Entry<IFitnessFunction<T>, Integer> entry : samplingCounters.entrySet()) {
+        MATE.log_acc("All testing targets covered, picking random target k.");
 
-            if (archive.get(entry.getKey()).isEmpty() || isTargetCovered(entry.getKey())) {
-                // we can't pick a testing target that has an empty population or is already covered
-                continue;
-            }
+        // all non empty testing targets are covered, thus pick one randomly among them
+        int numberOfCoveredTargets = coveredTargets.cardinality();
 
-            if (bestEntry == null || bestEntry.getValue() < entry.getValue()) {
-                bestEntry = entry;
-            }
+        if (numberOfCoveredTargets == 0) {
+            throw new IllegalStateException("Can't pick a target from an empty archive!");
         }
 
-        if (bestEntry == null) {
-            MATE.log_acc("All testing targets covered, picking random target k.");
-            // all non empty testing targets are covered, thus pick one randomly among them
-            List<IFitnessFunction<T>> coveredTargets = new ArrayList<>();
-
-            for (IFitnessFunction<T> fitnessFunction : this.fitnessFunctions) {
-                if (isTargetCovered(fitnessFunction)) {
-                    coveredTargets.add(fitnessFunction);
-                }
-            }
-
-            return Randomness.randomElement(coveredTargets);
-        } else {
-            return bestEntry.getKey();
+        int target = coveredTargets.nextSetBit(0);
+        for (int i = Randomness.getRnd().nextInt(numberOfCoveredTargets); i > 0; i--) {
+            target = coveredTargets.nextSetBit(target + 1);
         }
+        return target;
     }
 
     /**
@@ -746,15 +777,14 @@ public class Mio<T> extends GeneticAlgorithm<T> {
     private void debugArchive() {
 
         MATE.log_debug("Archive: ");
-        int i = 0;
-        for (List<ChromosomeFitnessTuple> population: archive.values()) {
+        for (int i = 0; i < archive.size(); i++) {
+            MinHeap<ChromosomeFitnessTuple> population = archive.get(i);
             if (!population.isEmpty()) {
                 MATE.log_debug("Population: " + i);
-                for (ChromosomeFitnessTuple tuple : population) {
-                    MATE.log_debug(tuple.toString());
+                for (int j = 0; j < population.size(); j++) {
+                    MATE.log_debug(population.get(j).toString());
                 }
             }
-            i++;
         }
     }
 
@@ -16,8 +16,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static org.mate.exploration.genetic.core.GAUtils.getParetoFront;
 import static org.mate.exploration.genetic.core.GAUtils.updateCrowdingDistance;
+import static org.mate.exploration.genetic.core.NonDominatedSorting.getObjectiveMatrix;
+import static org.mate.exploration.genetic.core.NonDominatedSorting.sort;
 import static org.mate.utils.MathUtils.isEpsEq;
 
 public class NSGAII<T> extends GeneticAlgorithm<T> {
@@ -32,19 +33,19 @@ public class NSGAII<T> extends GeneticAlgorithm<T> {
         final Map<IChromosome<T>, Integer> rankMap = new HashMap<>();
         final Map<IChromosome<T>, Double> crowdingDistanceMap = new HashMap<>();
 
-        List<IChromosome<T>> remaining = new ArrayList<>(population);
+        // retrieve the fitness values once and rank all chromosomes on the objective matrix
+        double[][] objectives = getObjectiveMatrix(survivors, fitnessFunctions);
 
         int rank = 0;
 
-        while (!remaining.isEmpty()) {
-            List<IChromosome<T>> paretoFront = getParetoFront(remaining, fitnessFunctions);
+        for (int[] paretoFront : sort(objectives)) {
 
-            for (IChromosome<T> chromosome : paretoFront) {
-                remaining.remove(chromosome);
-                rankMap.put(chromosome, rank);
+            for (int row : paretoFront) {
+                rankMap.put(survivors.get(row), rank);
             }
 
-            updateCrowdingDistance(paretoFront, fitnessFunctions, crowdingDistanceMap);
+            updateCrowdingDistance(survivors, paretoFront, objectives, fitnessFunctions,
+                    crowdingDistanceMap);
             rank++;
         }
         Collections.sort(survivors, new RankComparator<>(rankMap, crowdingDistanceMap));
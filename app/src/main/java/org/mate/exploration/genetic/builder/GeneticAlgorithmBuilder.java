@@ -10,7 +10,10 @@ import org.mate.exploration.genetic.mutation.MutationFunction;
 import org.mate.exploration.genetic.selection.SelectionFunction;
 import org.mate.exploration.genetic.termination.TerminationCondition;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 
 public class GeneticAlgorithmBuilder {
@@ -19,6 +22,8 @@ public class GeneticAlgorithmBuilder {
     public static final String ALGORITHM_KEY = "algorithm";
     public static final String FITNESS_FUNCTION_KEY_FORMAT = "fitness_function_%d";
     public static final String FITNESS_FUNCTION_ARG_KEY_FORMAT = "fitness_function_%d_arg";
+    public static final String FITNESS_FUNCTION_OBJECTIVES_KEY_FORMAT
+            = "fitness_function_%d_objectives";
     public static final String CHROMOSOME_FACTORY_KEY = "chromosome_factory";
     public static final String MAX_NUM_EVENTS_KEY = "num_events";
     public static final String USE_DEFAULTS_KEY = "use_defaults";
@@ -40,6 +45,13 @@ public class GeneticAlgorithmBuilder {
 
     private Properties properties;
 
+    /**
+     * The objectives registered via {@link #withFitnessFunctions(FitnessFunction, List)} keyed
+     * by the index of the fitness function. These are not stored as properties in order to
+     * avoid a string round trip per objective.
+     */
+    private final Map<Integer, List<String>> objectives = new HashMap<>();
+
     public GeneticAlgorithmBuilder() {
         properties = new Properties();
         properties.setProperty(USE_DEFAULTS_KEY, TRUE_STRING);
@@ -136,6 +148,31 @@ public class GeneticAlgorithmBuilder {
         return this;
     }
 
+    /**
+     * Associates the given fitness function with each of the given objectives, e.g. the branches
+     * of the AUT. This is equivalent to calling
+     * {@link #withFitnessFunction(FitnessFunction, String)} for each objective, but the fitness
+     * functions are created in bulk, which matters for apps with thousands of objectives.
+     *
+     * @param fitnessFunction The fitness function, e.g. BRANCH_MULTI_OBJECTIVE.
+     * @param objectives The objectives, e.g. the list of branches.
+     * @return Returns the builder.
+     */
+    public GeneticAlgorithmBuilder withFitnessFunctions(FitnessFunction fitnessFunction,
+                                                        List<String> objectives) {
+        int amountFitnessFunctions = Integer.valueOf(
+                properties.getProperty(AMOUNT_FITNESS_FUNCTIONS_KEY));
+
+        String key = String.format(FORMAT_LOCALE, FITNESS_FUNCTION_OBJECTIVES_KEY_FORMAT,
+                amountFitnessFunctions);
+
+        properties.setProperty(key, String.valueOf(objectives.size()));
+        this.objectives.put(amountFitnessFunctions, objectives);
+
+        withFitnessFunction(fitnessFunction);
+        return this;
+    }
+
     public GeneticAlgorithmBuilder withTerminationCondition(TerminationCondition terminationCondition) {
         properties.setProperty(TERMINATION_CONDITION_KEY, terminationCondition.name());
 
@@ -210,6 +247,6 @@ public class GeneticAlgorithmBuilder {
             }
             MATE.log_acc("Key: " + key + ", Value: " + properties.getProperty(key));
         }
-        return GeneticAlgorithmProvider.getGeneticAlgorithm(properties);
+        return GeneticAlgorithmProvider.getGeneticAlgorithm(properties, objectives);
     }
 }
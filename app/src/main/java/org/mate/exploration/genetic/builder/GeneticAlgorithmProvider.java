@@ -61,20 +61,35 @@ import org.mate.exploration.intent.IntentChromosomeFactory;
 import org.mate.model.TestCase;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 public class GeneticAlgorithmProvider {
     private boolean useDefaults;
     private Properties properties;
 
+    /**
+     * The objectives of the fitness functions registered in bulk keyed by the index of the
+     * fitness function.
+     */
+    private Map<Integer, List<String>> objectives;
+
     public static <T> GeneticAlgorithm<T> getGeneticAlgorithm(Properties properties) {
-        GeneticAlgorithmProvider gaProvider = new GeneticAlgorithmProvider(properties);
+        return getGeneticAlgorithm(properties, Collections.<Integer, List<String>>emptyMap());
+    }
+
+    public static <T> GeneticAlgorithm<T> getGeneticAlgorithm(
+            Properties properties, Map<Integer, List<String>> objectives) {
+        GeneticAlgorithmProvider gaProvider = new GeneticAlgorithmProvider(properties, objectives);
         return gaProvider.getGeneticAlgorithm();
     }
 
-    private GeneticAlgorithmProvider(Properties properties) {
+    private GeneticAlgorithmProvider(Properties properties,
+                                     Map<Integer, List<String>> objectives) {
         this.properties = properties;
+        this.objectives = objectives;
         setUseDefaults();
     }
 
@@ -310,12 +325,67 @@ public class GeneticAlgorithmProvider {
         } else {
             List<IFitnessFunction<T>> fitnessFunctions = new ArrayList<>();
             for (int i = 0; i < amountFitnessFunctions; i++) {
-                fitnessFunctions.add(this.<T>initializeFitnessFunction(i));
+                if (objectives.containsKey(i)) {
+                    fitnessFunctions.addAll(this.<T>initializeFitnessFunctions(i));
+                } else {
+                    fitnessFunctions.add(this.<T>initializeFitnessFunction(i));
+                }
             }
             return fitnessFunctions;
         }
     }
 
+    /**
+     * Creates the fitness functions for the objectives registered in bulk, see
+     * {@link GeneticAlgorithmBuilder#withFitnessFunctions(FitnessFunction, List)}.
+     *
+     * @param index The index of the fitness function.
+     * @param <T> Refers either to a test case or a test suite.
+     * @return Returns a fitness function per objective.
+     */
+    private <T> List<IFitnessFunction<T>> initializeFitnessFunctions(int index) {
+
+        String key = String.format(GeneticAlgorithmBuilder.FORMAT_LOCALE, GeneticAlgorithmBuilder
+                .FITNESS_FUNCTION_KEY_FORMAT, index);
+        String fitnessFunctionId = properties.getProperty(key);
+        List<String> objectives = this.objectives.get(index);
+
+        List<IFitnessFunction<T>> fitnessFunctions = new ArrayList<>(objectives.size());
+
+        switch (FitnessFunction.valueOf(fitnessFunctionId)) {
+            case BRANCH_MULTI_OBJECTIVE:
+                fitnessFunctions.addAll(BranchMultiObjectiveFitnessFunction.<T>createAll(objectives));
+                break;
+            case BRANCH_DISTANCE_MULTI_OBJECTIVE:
+                fitnessFunctions.addAll(
+                        BranchDistanceMultiObjectiveFitnessFunction.<T>createAll(objectives));
+                break;
+            case BASIC_BLOCK_MULTI_OBJECTIVE:
+                fitnessFunctions.addAll(
+                        BasicBlockMultiObjectiveFitnessFunction.<T>createAll(objectives));
+                break;
+            case LINE_PERCENTAGE_COVERAGE:
+                fitnessFunctions.addAll(
+                        LineCoveredPercentageFitnessFunction.<T>createAll(objectives));
+                break;
+            case COVERED_SPECIFIC_ACTIVITY:
+                // Force cast. Only works if T is TestCase. This fails if other properties expect a
+                // different T for their chromosomes
+                for (String activity : objectives) {
+                    fitnessFunctions.add((IFitnessFunction<T>)
+                            new SpecificActivityCoveredFitnessFunction(activity));
+                }
+                break;
+            default:
+                // the fitness function doesn't depend on the objective
+                for (int i = 0; i < objectives.size(); i++) {
+                    fitnessFunctions.add(this.<T>initializeFitnessFunction(index));
+                }
+                break;
+        }
+        return fitnessFunctions;
+    }
+
     private <T> IFitnessFunction<T> initializeFitnessFunction(int index) {
 
         String key = String.format(GeneticAlgorithmBuilder.FORMAT_LOCALE, GeneticAlgorithmBuilder
@@ -3,13 +3,16 @@ package org.mate.exploration.genetic.core;
 import org.mate.exploration.genetic.chromosome.IChromosome;
 import org.mate.exploration.genetic.fitness.IFitnessFunction;
 
+import org.mate.utils.HashUtils;
+
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import static org.mate.utils.MathUtils.EPS;
 import static org.mate.utils.MathUtils.isEpsEq;
 
 public class GAUtils {
@@ -18,86 +21,216 @@ public class GAUtils {
                                                   List<IFitnessFunction<T>> fitnessFunctions,
                                                   Map<IChromosome<T>, Double> crowdingDistanceMap) {
 
-        for (IChromosome<T> chromosome : paretoFront) {
-            crowdingDistanceMap.put(chromosome, 0.0);
+        double[][] objectives = NonDominatedSorting.getObjectiveMatrix(paretoFront, fitnessFunctions);
+
+        int[] front = new int[paretoFront.size()];
+        for (int i = 0; i < front.length; i++) {
+            front[i] = i;
         }
 
-        List<IChromosome<T>> uniqueFront = new ArrayList<>();
+        updateCrowdingDistance(paretoFront, front, objectives, fitnessFunctions, crowdingDistanceMap);
+    }
 
-        for (IChromosome<T> c1 : paretoFront) {
-            boolean isDuplicate = false;
+    /**
+     * Computes the crowding distance of the members of a pareto front based on a pre-computed
+     * objective matrix, see {@link NonDominatedSorting#getObjectiveMatrix(List, List)}.
+     *
+     * @param chromosomes The chromosomes corresponding to the rows of the objective matrix.
+     * @param front The row indices of the pareto front members.
+     * @param objectives The objective matrix.
+     * @param fitnessFunctions The fitness functions corresponding to the columns of the matrix.
+     * @param crowdingDistanceMap Stores the crowding distance of each pareto front member.
+     * @param <T> The type wrapped by the chromosomes.
+     */
+    public static <T> void updateCrowdingDistance(List<IChromosome<T>> chromosomes, int[] front,
+                                                  double[][] objectives,
+                                                  List<IFitnessFunction<T>> fitnessFunctions,
+                                                  Map<IChromosome<T>, Double> crowdingDistanceMap) {
 
-            for (IChromosome<T> c2 : uniqueFront) {
-                if (isEpsEq(calculateDistance(c1, c2, fitnessFunctions))) {
-                    isDuplicate = true;
-                    break;
-                }
-            }
+        boolean[] maximizing = new boolean[fitnessFunctions.size()];
+        for (int j = 0; j < maximizing.length; j++) {
+            maximizing[j] = fitnessFunctions.get(j).isMaximizing();
+        }
 
-            if (!isDuplicate) {
-                uniqueFront.add(c1);
-            }
+        double[] crowdingDistances = getCrowdingDistances(objectives, front, maximizing);
+
+        for (int i = 0; i < front.length; i++) {
+            crowdingDistanceMap.put(chromosomes.get(front[i]), crowdingDistances[i]);
         }
+    }
 
-        paretoFront = uniqueFront;
+    /**
+     * Computes the crowding distance of the members of a pareto front. Solutions that are
+     * (almost) identical to a preceding solution in terms of their objective values are
+     * considered as duplicates and get a crowding distance of zero.
+     *
+     * @param objectives The objective matrix.
+     * @param front The row indices of the pareto front members.
+     * @param maximizing Whether the objective of the respective column is maximized.
+     * @return Returns the crowding distances of the pareto front members in the order of
+     *          the given front.
+     */
+    public static double[] getCrowdingDistances(double[][] objectives, int[] front,
+                                                boolean[] maximizing) {
 
-        // then compute the crowding distance for the unique solutions
-        int n = paretoFront.size();
+        double[] crowdingDistances = new double[front.length];
+
+        // positions of the unique solutions in the front
+        int[] unique = getUniqueMembers(objectives, front);
+        int n = unique.length;
 
         if (n < 3) {
-            for (IChromosome<T> chromosome : paretoFront) {
-                crowdingDistanceMap.put(chromosome, Double.POSITIVE_INFINITY);
+            for (int position : unique) {
+                crowdingDistances[position] = Double.POSITIVE_INFINITY;
             }
-        } else {
-            for (final IFitnessFunction<T> fitnessFunction : fitnessFunctions) {
-                Collections.sort(paretoFront, new Comparator<IChromosome<T>>() {
-                    @Override
-                    public int compare(IChromosome<T> o1, IChromosome<T> o2) {
-                        double compared = fitnessFunction.getNormalizedFitness(o2)
-                                - fitnessFunction.getNormalizedFitness(o1);
-                        return fitnessFunction.isMaximizing()
-                                ? compareFunctions(compared) : compareFunctions(compared) * (-1);
-                    }
+            return crowdingDistances;
+        }
 
-                    private int compareFunctions(double compared) {
-                        if (isEpsEq(compared)) {
-                            return 0;
-                        } else if (compared < 0) {
-                            return -1;
-                        } else {
-                            return 1;
-                        }
-                    }
-                });
-
-                double minObjective = fitnessFunction.getNormalizedFitness(paretoFront.get(0));
-                double maxObjective = fitnessFunction.getNormalizedFitness(paretoFront.get(n - 1));
-
-                if (!isEpsEq(minObjective, maxObjective)) {
-                    crowdingDistanceMap.put(paretoFront.get(0), Double.POSITIVE_INFINITY);
-                    crowdingDistanceMap.put(paretoFront.get(n - 1), Double.POSITIVE_INFINITY);
-
-                    for (int i = 1; i < n - 1; i++) {
-                        IChromosome<T> paretoElement = paretoFront.get(i);
-                        double distance = crowdingDistanceMap.get(paretoElement);
-                        distance += (fitnessFunction.getNormalizedFitness(paretoFront.get(i + 1)) -
-                                fitnessFunction.getNormalizedFitness(paretoFront.get(i - 1)))
-                                / (maxObjective - minObjective);
-                        crowdingDistanceMap.put(paretoElement, distance);
-                    }
+        // cache the objective values column-wise such that sorting only touches a single array
+        double[][] columns = new double[maximizing.length][n];
+        for (int i = 0; i < n; i++) {
+            double[] row = objectives[front[unique[i]]];
+            for (int j = 0; j < maximizing.length; j++) {
+                columns[j][i] = row[j];
+            }
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int[] buffer = new int[n];
+
+        for (int j = 0; j < maximizing.length; j++) {
+
+            double[] column = columns[j];
+
+            // the sort is stable, i.e. ties keep the order of the previous objective
+            sort(order, buffer, 0, n, column, maximizing[j]);
+
+            double minObjective = column[order[0]];
+            double maxObjective = column[order[n - 1]];
+
+            if (!isEpsEq(minObjective, maxObjective)) {
+                double range = maxObjective - minObjective;
+                crowdingDistances[unique[order[0]]] = Double.POSITIVE_INFINITY;
+                crowdingDistances[unique[order[n - 1]]] = Double.POSITIVE_INFINITY;
+
+                for (int i = 1; i < n - 1; i++) {
+                    crowdingDistances[unique[order[i]]]
+                            += (column[order[i + 1]] - column[order[i - 1]]) / range;
                 }
+            }
+        }
+        return crowdingDistances;
+    }
+
+    /**
+     * Determines the members of the front that are not (almost) identical to a preceding member.
+     * Instead of comparing each member against all unique members, the objective values are
+     * quantized and hashed, and only members falling into the same bucket are compared.
+     *
+     * @param objectives The objective matrix.
+     * @param front The row indices of the pareto front members.
+     * @return Returns the positions of the unique members in the given front.
+     */
+    private static int[] getUniqueMembers(double[][] objectives, int[] front) {
+
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        int[] unique = new int[front.length];
+        int numberOfUnique = 0;
+
+        for (int position = 0; position < front.length; position++) {
+
+            double[] row = objectives[front[position]];
+            Long key = quantize(row);
+            List<Integer> bucket = buckets.get(key);
+
+            if (bucket == null) {
+                bucket = new ArrayList<>(1);
+                buckets.put(key, bucket);
+            } else if (containsDuplicate(objectives, front, bucket, row)) {
+                continue;
+            }
+
+            bucket.add(position);
+            unique[numberOfUnique++] = position;
+        }
+        return Arrays.copyOf(unique, numberOfUnique);
+    }
+
+    private static boolean containsDuplicate(double[][] objectives, int[] front,
+                                             List<Integer> bucket, double[] row) {
+        for (int position : bucket) {
+            if (isEpsEq(calculateDistance(row, objectives[front[position]]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Maps the given objective values onto a grid with a resolution of
+     * {@link org.mate.utils.MathUtils#EPS} and hashes the resulting grid cell.
+     */
+    private static long quantize(double[] row) {
+        long hash = HashUtils.SEED;
+        for (double value : row) {
+            hash = HashUtils.combine(hash, Math.round(value / EPS));
+        }
+        return hash;
+    }
+
+    /**
+     * Sorts the given range of indices stably by the corresponding values of the column, i.e.
+     * in descending order for maximizing objectives and ascending order otherwise. Values that
+     * are equal up to {@link org.mate.utils.MathUtils#EPS} are considered equal.
+     */
+    private static void sort(int[] order, int[] buffer, int from, int to, double[] column,
+                             boolean maximizing) {
+
+        if (to - from < 2) {
+            return;
+        }
 
+        int middle = (from + to) >>> 1;
+        sort(order, buffer, from, middle, column, maximizing);
+        sort(order, buffer, middle, to, column, maximizing);
+
+        // already in order
+        if (compare(column, order[middle - 1], order[middle], maximizing) <= 0) {
+            return;
+        }
+
+        System.arraycopy(order, from, buffer, from, to - from);
+
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle
+                    && compare(column, buffer[left], buffer[right], maximizing) <= 0)) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
             }
         }
     }
 
-    private static <T> double calculateDistance(IChromosome<T> c1, IChromosome<T> c2,
-                                                List<IFitnessFunction<T>> fitnessFunctions) {
+    private static int compare(double[] column, int first, int second, boolean maximizing) {
+        double compared = column[second] - column[first];
+        if (isEpsEq(compared)) {
+            return 0;
+        }
+        int comparison = compared < 0 ? -1 : 1;
+        return maximizing ? comparison : -comparison;
+    }
+
+    private static double calculateDistance(double[] first, double[] second) {
         double distance = 0.0;
 
-        for (IFitnessFunction<T> fitnessFunction : fitnessFunctions) {
-            distance += Math.pow(fitnessFunction.getNormalizedFitness(c1)
-                    - fitnessFunction.getNormalizedFitness(c2), 2.0);
+        for (int k = 0; k < first.length; k++) {
+            double difference = first[k] - second[k];
+            distance += difference * difference;
         }
         return Math.sqrt(distance);
     }
@@ -9,12 +9,17 @@ import org.mate.exploration.genetic.fitness.IFitnessFunction;
 import org.mate.exploration.genetic.mutation.IMutationFunction;
 import org.mate.exploration.genetic.selection.ISelectionFunction;
 import org.mate.exploration.genetic.termination.ITerminationCondition;
+import org.mate.utils.ChromosomeLifecycle;
+import org.mate.utils.FitnessUtils;
 import org.mate.utils.Randomness;
 import org.mate.utils.coverage.Coverage;
 import org.mate.utils.coverage.CoverageUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Abstract class that serves as a basis for genetic algorithms
@@ -36,6 +41,10 @@ public abstract class GeneticAlgorithm<T> implements IGeneticAlgorithm<T> {
     protected double pCrossover;
     protected double pMutate;
 
+    /**
+     * The chromosomes retained by the algorithm, see {@link #getActiveChromosomes()}.
+     */
+    private final Set<IChromosome<?>> retainedChromosomes = new HashSet<>();
 
     /**
      * Initializing the genetic algorithm with all necessary attributes
@@ -72,11 +81,32 @@ public abstract class GeneticAlgorithm<T> implements IGeneticAlgorithm<T> {
     @Override
     public void run() {
         createInitialPopulation();
+        evictObsoleteChromosomes();
         while (!terminationCondition.isMet()) {
             evolve();
+            evictObsoleteChromosomes();
         }
     }
 
+    /**
+     * Returns the chromosomes that are used in subsequent generations. By default, these are
+     * the chromosomes of the current population.
+     *
+     * @return Returns the chromosomes still in use.
+     */
+    protected Collection<? extends IChromosome<?>> getActiveChromosomes() {
+        return population;
+    }
+
+    /**
+     * Evicts the chromosomes that are no longer in use from the per-chromosome caches,
+     * see {@link ChromosomeLifecycle}. This is performed after each generation.
+     */
+    protected void evictObsoleteChromosomes() {
+        ChromosomeLifecycle.update(retainedChromosomes, getActiveChromosomes());
+        ChromosomeLifecycle.evictUnreferenced();
+    }
+
     @Override
     public List<IChromosome<T>> getCurrentPopulation() {
         return population;
@@ -144,13 +174,17 @@ public abstract class GeneticAlgorithm<T> implements IGeneticAlgorithm<T> {
     protected void logCurrentFitness() {
         if (population.size() <= 10) {
             MATE.log_acc("Fitness of generation #" + (currentGenerationNumber + 1) + " :");
-            for (int i = 0; i < Math.min(fitnessFunctions.size(), 5); i++) {
+
+            // evaluate the logged fitness functions for the whole population at once
+            List<IFitnessFunction<T>> loggedFitnessFunctions
+                    = fitnessFunctions.subList(0, Math.min(fitnessFunctions.size(), 5));
+            double[][] fitnessMatrix
+                    = FitnessUtils.getNormalizedFitnessMatrix(population, loggedFitnessFunctions);
+
+            for (int i = 0; i < loggedFitnessFunctions.size(); i++) {
                 MATE.log_acc("Fitness function " + (i + 1) + ":");
-                IFitnessFunction<T> fitnessFunction = fitnessFunctions.get(i);
                 for (int j = 0; j < population.size(); j++) {
-                    IChromosome<T> chromosome = population.get(j);
-                    MATE.log_acc("Chromosome " + (j + 1) + ": "
-                            + fitnessFunction.getFitness(chromosome));
+                    MATE.log_acc("Chromosome " + (j + 1) + ": " + fitnessMatrix[j][i]);
                 }
             }
             if (fitnessFunctions.size() > 5) {
@@ -0,0 +1,178 @@
+package org.mate.exploration.genetic.core;
+
+import org.mate.exploration.genetic.chromosome.IChromosome;
+import org.mate.exploration.genetic.fitness.IFitnessFunction;
+import org.mate.utils.FitnessUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mate.utils.MathUtils.isEpsEq;
+
+/**
+ * Ranks chromosomes into non-dominated fronts based on the fast non-dominated sorting procedure
+ * of NSGA-II (Deb et al.). Instead of querying the fitness functions during each dominance
+ * comparison, the normalized fitness values are retrieved once and stored in a dense objective
+ * matrix, where row i holds the fitness values of the i-th chromosome. As in
+ * {@link GAUtils#getParetoFront(List, List)}, a higher normalized fitness value is considered
+ * better and values that are equal up to {@link org.mate.utils.MathUtils#EPS} are considered equal.
+ */
+public final class NonDominatedSorting {
+
+    private NonDominatedSorting() {
+        throw new UnsupportedOperationException("Utility class!");
+    }
+
+    /**
+     * Builds the objective matrix for the given chromosomes and fitness functions. The fitness
+     * values are retrieved in batches, see
+     * {@link FitnessUtils#getNormalizedFitnessMatrix(List, List)}.
+     *
+     * @param chromosomes The chromosomes, one per row.
+     * @param fitnessFunctions The fitness functions, one per column.
+     * @param <T> The type wrapped by the chromosomes.
+     * @return Returns the objective matrix holding the normalized fitness values.
+     */
+    public static <T> double[][] getObjectiveMatrix(List<IChromosome<T>> chromosomes,
+                                                    List<IFitnessFunction<T>> fitnessFunctions) {
+        return FitnessUtils.getNormalizedFitnessMatrix(chromosomes, fitnessFunctions);
+    }
+
+    /**
+     * Sorts all rows of the given objective matrix into non-dominated fronts.
+     *
+     * @param objectives The objective matrix.
+     * @return Returns the fronts in ascending order of their rank, where each front contains the
+     *          row indices of its members in ascending order.
+     */
+    public static List<int[]> sort(double[][] objectives) {
+        int[] rows = new int[objectives.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        return sort(objectives, rows);
+    }
+
+    /**
+     * Sorts the given rows of the objective matrix into non-dominated fronts.
+     *
+     * @param objectives The objective matrix.
+     * @param rows The indices of the rows that should be sorted.
+     * @return Returns the fronts in ascending order of their rank, where each front contains the
+     *          row indices of its members in the order they appear in the given rows.
+     */
+    public static List<int[]> sort(double[][] objectives, int[] rows) {
+
+        int n = rows.length;
+
+        // how many solutions dominate the i-th solution
+        int[] dominationCounts = new int[n];
+
+        // the solutions dominated by the i-th solution, stored as adjacency arrays
+        int[][] dominated = new int[n][];
+        int[] dominatedSizes = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            dominated[i] = new int[4];
+        }
+
+        for (int i = 0; i < n; i++) {
+            double[] first = objectives[rows[i]];
+            for (int j = i + 1; j < n; j++) {
+                int comparison = compare(first, objectives[rows[j]]);
+                if (comparison > 0) {
+                    dominated[i] = add(dominated[i], dominatedSizes[i]++, j);
+                    dominationCounts[j]++;
+                } else if (comparison < 0) {
+                    dominated[j] = add(dominated[j], dominatedSizes[j]++, i);
+                    dominationCounts[i]++;
+                }
+            }
+        }
+
+        List<int[]> fronts = new ArrayList<>();
+
+        int[] current = new int[n];
+        int currentSize = 0;
+        for (int i = 0; i < n; i++) {
+            if (dominationCounts[i] == 0) {
+                current[currentSize++] = i;
+            }
+        }
+
+        int[] next = new int[n];
+
+        while (currentSize > 0) {
+
+            int[] front = new int[currentSize];
+            int nextSize = 0;
+
+            for (int k = 0; k < currentSize; k++) {
+                int i = current[k];
+                front[k] = rows[i];
+                for (int l = 0; l < dominatedSizes[i]; l++) {
+                    int j = dominated[i][l];
+                    if (--dominationCounts[j] == 0) {
+                        next[nextSize++] = j;
+                    }
+                }
+            }
+
+            // keep the members of the next front in the order of the given rows
+            Arrays.sort(next, 0, nextSize);
+            fronts.add(front);
+
+            int[] swap = current;
+            current = next;
+            next = swap;
+            currentSize = nextSize;
+        }
+        return fronts;
+    }
+
+    /**
+     * Checks whether the first solution dominates the second solution or vice versa.
+     *
+     * @param first The objective values of the first solution.
+     * @param second The objective values of the second solution.
+     * @return Returns {@code 1} if the first solution dominates the second solution, {@code -1}
+     *          if the second solution dominates the first solution, otherwise {@code 0}.
+     */
+    public static int compare(double[] first, double[] second) {
+
+        boolean betterInOne = false;
+        boolean worseInOne = false;
+
+        for (int k = 0; k < first.length; k++) {
+            double compared = first[k] - second[k];
+            if (isEpsEq(compared)) {
+                continue;
+            }
+            if (compared > 0) {
+                betterInOne = true;
+            } else {
+                worseInOne = true;
+            }
+            if (betterInOne && worseInOne) {
+                return 0;
+            }
+        }
+
+        if (betterInOne) {
+            return 1;
+        } else if (worseInOne) {
+            return -1;
+        } else {
+            return 0;
+        }
+    }
+
+    private static int[] add(int[] array, int size, int value) {
+        if (size == array.length) {
+            array = Arrays.copyOf(array, 2 * size);
+        }
+        array[size] = value;
+        return array;
+    }
+}
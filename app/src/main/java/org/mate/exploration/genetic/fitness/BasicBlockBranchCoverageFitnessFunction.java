@@ -4,13 +4,15 @@ import org.mate.exploration.genetic.chromosome.IChromosome;
 import org.mate.exploration.genetic.termination.ConditionalTerminationCondition;
 import org.mate.utils.FitnessUtils;
 
+import java.util.List;
+
 /**
  * Provides a fitness metric based on basic block branch coverage. This requires that the
  * AUT has been instrumented with the basic block coverage module.
  *
  * @param <T> Refers either to a {@link org.mate.model.TestCase} or {@link org.mate.model.TestSuite}.
  */
-public class BasicBlockBranchCoverageFitnessFunction<T> implements IFitnessFunction<T> {
+public class BasicBlockBranchCoverageFitnessFunction<T> implements IBatchFitnessFunction<T> {
 
     @Override
     public double getFitness(IChromosome<T> chromosome) {
@@ -33,4 +35,18 @@ public class BasicBlockBranchCoverageFitnessFunction<T> implements IFitnessFunct
     public double getNormalizedFitness(IChromosome<T> chromosome) {
         return getFitness(chromosome) / 100;
     }
+
+    @Override
+    public double[] getNormalizedFitness(List<IChromosome<T>> chromosomes) {
+
+        double[] basicBlockBranchCoverage = FitnessUtils.getFitnessValues(chromosomes);
+
+        for (int i = 0; i < basicBlockBranchCoverage.length; i++) {
+            if (basicBlockBranchCoverage[i] == 100.0) {
+                ConditionalTerminationCondition.satisfiedCondition();
+            }
+            basicBlockBranchCoverage[i] /= 100;
+        }
+        return basicBlockBranchCoverage;
+    }
 }
@@ -4,9 +4,8 @@ import org.mate.exploration.genetic.chromosome.IChromosome;
 import org.mate.utils.FitnessUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Provides a fitness metric based on basic block coverage for multi-objective algorithms. This
@@ -15,17 +14,17 @@ import java.util.Map;
  *
  * @param <T> Refers either to a {@link org.mate.model.TestCase} or {@link org.mate.model.TestSuite}.
  */
-public class BasicBlockMultiObjectiveFitnessFunction<T> implements IFitnessFunction<T> {
+public class BasicBlockMultiObjectiveFitnessFunction<T> implements IBatchFitnessFunction<T> {
 
-    // a cache that stores for each basic block the set of test cases and its fitness value
-    private static final Map<String, Map<IChromosome, Double>> cache = new HashMap<>();
-
-    // all basic blocks (shared by instances)
-    private static List<String> blocks = new ArrayList<>();
+    // caches for each chromosome the fitness vector over all blocks (shared by instances)
+    private static final FitnessVectorCache cache = new FitnessVectorCache();
 
     // the current basic block we want to evaluate this fitness function against
     private final String block;
 
+    // the index of the current basic block in the fitness vector
+    private final int blockIndex;
+
     /**
      * Initialises the fitness function with the given basic block as target.
      *
@@ -33,8 +32,42 @@ public class BasicBlockMultiObjectiveFitnessFunction<T> implements IFitnessFunct
      */
     public BasicBlockMultiObjectiveFitnessFunction(String block) {
         this.block = block;
-        blocks.add(block);
-        cache.put(block, new HashMap<IChromosome, Double>());
+        blockIndex = cache.addObjective(block);
+    }
+
+    /**
+     * Initialises the fitness function with the given basic block as target, which has been
+     * registered in the cache already.
+     *
+     * @param block The target basic block.
+     * @param blockIndex The index of the target basic block in the fitness vector.
+     */
+    private BasicBlockMultiObjectiveFitnessFunction(String block, int blockIndex) {
+        this.block = block;
+        this.blockIndex = blockIndex;
+    }
+
+    /**
+     * Creates a fitness function for each of the given basic blocks. In contrast to calling the
+     * constructor for each basic block, the basic blocks are registered in the cache at once.
+     *
+     * @param blocks The target basic blocks.
+     * @param <T> Refers either to a {@link org.mate.model.TestCase} or
+     *          {@link org.mate.model.TestSuite}.
+     * @return Returns a fitness function for each basic block in the order of the given basic blocks.
+     */
+    public static <T> List<BasicBlockMultiObjectiveFitnessFunction<T>> createAll(
+            List<String> blocks) {
+
+        int firstIndex = cache.addObjectives(blocks);
+
+        List<BasicBlockMultiObjectiveFitnessFunction<T>> fitnessFunctions
+                = new ArrayList<>(blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            fitnessFunctions.add(
+                    new BasicBlockMultiObjectiveFitnessFunction<T>(blocks.get(i), firstIndex + i));
+        }
+        return fitnessFunctions;
     }
 
     /**
@@ -48,23 +81,17 @@ public class BasicBlockMultiObjectiveFitnessFunction<T> implements IFitnessFunct
     @Override
     public double getFitness(IChromosome<T> chromosome) {
 
-        double basicBlockFitnessValue;
+        double[] basicBlockFitnessVector = cache.getFitnessVector(chromosome);
 
-        if (cache.get(block).containsKey(chromosome)) {
-            basicBlockFitnessValue = cache.get(block).get(chromosome);
-        } else {
+        if (basicBlockFitnessVector == null) {
             // retrieves the fitness value for every single basic block
-            List<Double> basicBlockFitnessVector = FitnessUtils.getFitness(chromosome, blocks);
+            List<Double> fitnessVector = FitnessUtils.getFitness(chromosome, cache.getObjectives());
 
             // insert them into the cache
-            for (int i = 0; i < basicBlockFitnessVector.size(); i++) {
-                cache.get(blocks.get(i)).put(chromosome, basicBlockFitnessVector.get(i));
-            }
-
-            basicBlockFitnessValue = cache.get(block).get(chromosome);
+            basicBlockFitnessVector = cache.put(chromosome, fitnessVector);
         }
 
-        return basicBlockFitnessValue;
+        return basicBlockFitnessVector[blockIndex];
     }
 
     @Override
@@ -76,4 +103,18 @@ public class BasicBlockMultiObjectiveFitnessFunction<T> implements IFitnessFunct
     public double getNormalizedFitness(IChromosome<T> chromosome) {
         return getFitness(chromosome);
     }
+
+    @Override
+    public double[] getNormalizedFitness(List<IChromosome<T>> chromosomes) {
+        return cache.getFitness(chromosomes, blockIndex);
+    }
+
+    /**
+     * Removes the given obsolete chromosomes from the cache.
+     *
+     * @param chromosomes The chromosomes to be evicted.
+     */
+    public static void evict(Collection<? extends IChromosome<?>> chromosomes) {
+        cache.evictAll(chromosomes);
+    }
 }
@@ -4,8 +4,7 @@ import org.mate.exploration.genetic.chromosome.IChromosome;
 import org.mate.exploration.genetic.termination.ConditionalTerminationCondition;
 import org.mate.utils.FitnessUtils;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Provides a fitness metric based on approach level + branch distance. This requires that the
@@ -14,12 +13,11 @@ import java.util.Map;
  *
  * @param <T> Refers either to a {@link org.mate.model.TestCase} or {@link org.mate.model.TestSuite}.
  */
-public class BranchDistanceFitnessFunction<T> implements IFitnessFunction<T> {
-
-    private Map<IChromosome<T>, Double> cache = new HashMap<>();
+public class BranchDistanceFitnessFunction<T> implements IBatchFitnessFunction<T> {
 
     /**
-     * Retrieves the branch distance value for the given chromosome.
+     * Retrieves the branch distance value for the given chromosome. The value is memoized by
+     * {@link FitnessUtils#getFitness(IChromosome)}.
      * As a side effect terminates execution if target vertex is reached.
      *
      * @param chromosome The chromosome for which the fitness value should be retrieved.
@@ -28,13 +26,7 @@ public class BranchDistanceFitnessFunction<T> implements IFitnessFunction<T> {
     @Override
     public double getFitness(IChromosome<T> chromosome) {
 
-        double branchDistance;
-
-        if (cache.containsKey(chromosome)) {
-            branchDistance = cache.get(chromosome);
-        } else {
-            branchDistance = FitnessUtils.getFitness(chromosome);
-        }
+        double branchDistance = FitnessUtils.getFitness(chromosome);
 
         /*
          * TODO: This is a side effect, which is triggered multiple times, e.g. by logFitness().
@@ -47,8 +39,6 @@ public class BranchDistanceFitnessFunction<T> implements IFitnessFunction<T> {
             ConditionalTerminationCondition.satisfiedCondition();
         }
 
-        // cache fitness value for subsequent requests
-        cache.put(chromosome, branchDistance);
         return branchDistance;
     }
 
@@ -61,4 +51,25 @@ public class BranchDistanceFitnessFunction<T> implements IFitnessFunction<T> {
     public double getNormalizedFitness(IChromosome<T> chromosome) {
         return getFitness(chromosome);
     }
+
+    /**
+     * Retrieves the branch distance values for the given chromosomes. The values of all
+     * chromosomes that are not memoized yet are retrieved with a single request.
+     *
+     * @param chromosomes The chromosomes for which the fitness values should be retrieved.
+     * @return Returns the fitness values (branch distances) for the given chromosomes.
+     */
+    @Override
+    public double[] getNormalizedFitness(List<IChromosome<T>> chromosomes) {
+
+        double[] branchDistances = FitnessUtils.getFitnessValues(chromosomes);
+
+        for (int i = 0; i < branchDistances.length; i++) {
+            // we can end execution if we covered the target vertex
+            if (branchDistances[i] == 0.0) {
+                ConditionalTerminationCondition.satisfiedCondition();
+            }
+        }
+        return branchDistances;
+    }
 }
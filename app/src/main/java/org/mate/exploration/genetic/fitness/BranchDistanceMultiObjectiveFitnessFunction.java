@@ -4,9 +4,8 @@ import org.mate.exploration.genetic.chromosome.IChromosome;
 import org.mate.utils.FitnessUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Provides a fitness metric based on branch distance for multi-objective algorithms. This requires
@@ -15,17 +14,17 @@ import java.util.Map;
  *
  * @param <T> Refers either to a {@link org.mate.model.TestCase} or {@link org.mate.model.TestSuite}.
  */
-public class BranchDistanceMultiObjectiveFitnessFunction<T> implements IFitnessFunction<T> {
+public class BranchDistanceMultiObjectiveFitnessFunction<T> implements IBatchFitnessFunction<T> {
 
-    // a cache that stores for each branch the set of test cases and its fitness value
-    private static final Map<String, Map<IChromosome, Double>> cache = new HashMap<>();
-
-    // all branches (shared by instances)
-    private static List<String> branches = new ArrayList<>();
+    // caches for each chromosome the branch distance vector (shared by instances)
+    private static final FitnessVectorCache cache = new FitnessVectorCache();
 
     // the current branch we want to evaluate this fitness function against
     private final String branch;
 
+    // the index of the current branch in the branch distance vector
+    private final int branchIndex;
+
     /**
      * Initialises the fitness function with the given branch as target.
      *
@@ -33,8 +32,42 @@ public class BranchDistanceMultiObjectiveFitnessFunction<T> implements IFitnessF
      */
     public BranchDistanceMultiObjectiveFitnessFunction(String branch) {
         this.branch = branch;
-        branches.add(branch);
-        cache.put(branch, new HashMap<IChromosome, Double>());
+        branchIndex = cache.addObjective(branch);
+    }
+
+    /**
+     * Initialises the fitness function with the given branch as target, which has been
+     * registered in the cache already.
+     *
+     * @param branch The target branch.
+     * @param branchIndex The index of the target branch in the fitness vector.
+     */
+    private BranchDistanceMultiObjectiveFitnessFunction(String branch, int branchIndex) {
+        this.branch = branch;
+        this.branchIndex = branchIndex;
+    }
+
+    /**
+     * Creates a fitness function for each of the given branches. In contrast to calling the
+     * constructor for each branch, the branches are registered in the cache at once.
+     *
+     * @param branches The target branches.
+     * @param <T> Refers either to a {@link org.mate.model.TestCase} or
+     *          {@link org.mate.model.TestSuite}.
+     * @return Returns a fitness function for each branch in the order of the given branches.
+     */
+    public static <T> List<BranchDistanceMultiObjectiveFitnessFunction<T>> createAll(
+            List<String> branches) {
+
+        int firstIndex = cache.addObjectives(branches);
+
+        List<BranchDistanceMultiObjectiveFitnessFunction<T>> fitnessFunctions
+                = new ArrayList<>(branches.size());
+        for (int i = 0; i < branches.size(); i++) {
+            fitnessFunctions.add(
+                    new BranchDistanceMultiObjectiveFitnessFunction<T>(branches.get(i), firstIndex + i));
+        }
+        return fitnessFunctions;
     }
 
     /**
@@ -47,18 +80,18 @@ public class BranchDistanceMultiObjectiveFitnessFunction<T> implements IFitnessF
     @Override
     public double getFitness(IChromosome<T> chromosome) {
 
-        if (!cache.get(branch).containsKey(chromosome)) {
+        double[] branchDistanceVector = cache.getFitnessVector(chromosome);
+
+        if (branchDistanceVector == null) {
 
             // retrieves the fitness value for every single branch
-            List<Double> branchDistanceVector = FitnessUtils.getFitness(chromosome, branches);
+            List<Double> fitnessVector = FitnessUtils.getFitness(chromosome, cache.getObjectives());
 
             // update the cache
-            for (int i = 0; i < branchDistanceVector.size(); i++) {
-                cache.get(branches.get(i)).put(chromosome, branchDistanceVector.get(i));
-            }
+            branchDistanceVector = cache.put(chromosome, fitnessVector);
         }
 
-        return cache.get(branch).get(chromosome);
+        return branchDistanceVector[branchIndex];
     }
 
     @Override
@@ -70,4 +103,18 @@ public class BranchDistanceMultiObjectiveFitnessFunction<T> implements IFitnessF
     public double getNormalizedFitness(IChromosome<T> chromosome) {
         return getFitness(chromosome);
     }
+
+    @Override
+    public double[] getNormalizedFitness(List<IChromosome<T>> chromosomes) {
+        return cache.getFitness(chromosomes, branchIndex);
+    }
+
+    /**
+     * Removes the given obsolete chromosomes from the cache.
+     *
+     * @param chromosomes The chromosomes to be evicted.
+     */
+    public static void evict(Collection<? extends IChromosome<?>> chromosomes) {
+        cache.evictAll(chromosomes);
+    }
 }
@@ -4,9 +4,8 @@ import org.mate.exploration.genetic.chromosome.IChromosome;
 import org.mate.utils.FitnessUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Provides a fitness metric based on 'branch coverage' for multi-objective algorithms. This
@@ -15,17 +14,17 @@ import java.util.Map;
  *
  * @param <T> Refers either to a {@link org.mate.model.TestCase} or {@link org.mate.model.TestSuite}.
  */
-public class BranchMultiObjectiveFitnessFunction<T> implements IFitnessFunction<T> {
+public class BranchMultiObjectiveFitnessFunction<T> implements IBatchFitnessFunction<T> {
 
-    // a cache that stores for each branch the set of test cases and its fitness value
-    private static final Map<String, Map<IChromosome, Double>> cache = new HashMap<>();
-
-    // all branches (shared by instances)
-    private static List<String> branches = new ArrayList<>();
+    // caches for each chromosome the fitness vector over all branches (shared by instances)
+    private static final FitnessVectorCache cache = new FitnessVectorCache();
 
     // the current branch we want to evaluate this fitness function against
     private final String branch;
 
+    // the index of the current branch in the fitness vector
+    private final int branchIndex;
+
     /**
      * Initialises the fitness function with the given branch as target.
      *
@@ -33,8 +32,42 @@ public class BranchMultiObjectiveFitnessFunction<T> implements IFitnessFunction<
      */
     public BranchMultiObjectiveFitnessFunction(String branch) {
         this.branch = branch;
-        branches.add(branch);
-        cache.put(branch, new HashMap<IChromosome, Double>());
+        branchIndex = cache.addObjective(branch);
+    }
+
+    /**
+     * Initialises the fitness function with the given branch as target, which has been
+     * registered in the cache already.
+     *
+     * @param branch The target branch.
+     * @param branchIndex The index of the target branch in the fitness vector.
+     */
+    private BranchMultiObjectiveFitnessFunction(String branch, int branchIndex) {
+        this.branch = branch;
+        this.branchIndex = branchIndex;
+    }
+
+    /**
+     * Creates a fitness function for each of the given branches. In contrast to calling the
+     * constructor for each branch, the branches are registered in the cache at once.
+     *
+     * @param branches The target branches.
+     * @param <T> Refers either to a {@link org.mate.model.TestCase} or
+     *          {@link org.mate.model.TestSuite}.
+     * @return Returns a fitness function for each branch in the order of the given branches.
+     */
+    public static <T> List<BranchMultiObjectiveFitnessFunction<T>> createAll(
+            List<String> branches) {
+
+        int firstIndex = cache.addObjectives(branches);
+
+        List<BranchMultiObjectiveFitnessFunction<T>> fitnessFunctions
+                = new ArrayList<>(branches.size());
+        for (int i = 0; i < branches.size(); i++) {
+            fitnessFunctions.add(
+                    new BranchMultiObjectiveFitnessFunction<T>(branches.get(i), firstIndex + i));
+        }
+        return fitnessFunctions;
     }
 
     /**
@@ -48,18 +81,18 @@ public class BranchMultiObjectiveFitnessFunction<T> implements IFitnessFunction<
     @Override
     public double getFitness(IChromosome<T> chromosome) {
 
-        if (!cache.get(branch).containsKey(chromosome)) {
+        double[] branchFitnessVector = cache.getFitnessVector(chromosome);
+
+        if (branchFitnessVector == null) {
 
             // retrieves the fitness value for every single branch
-            List<Double> branchFitnessVector = FitnessUtils.getFitness(chromosome, branches);
+            List<Double> fitnessVector = FitnessUtils.getFitness(chromosome, cache.getObjectives());
 
             // update the cache
-            for (int i = 0; i < branchFitnessVector.size(); i++) {
-                cache.get(branches.get(i)).put(chromosome, branchFitnessVector.get(i));
-            }
+            branchFitnessVector = cache.put(chromosome, fitnessVector);
         }
 
-        return cache.get(branch).get(chromosome);
+        return branchFitnessVector[branchIndex];
     }
 
     @Override
@@ -71,4 +104,18 @@ public class BranchMultiObjectiveFitnessFunction<T> implements IFitnessFunction<
     public double getNormalizedFitness(IChromosome<T> chromosome) {
         return getFitness(chromosome);
     }
+
+    @Override
+    public double[] getNormalizedFitness(List<IChromosome<T>> chromosomes) {
+        return cache.getFitness(chromosomes, branchIndex);
+    }
+
+    /**
+     * Removes the given obsolete chromosomes from the cache.
+     *
+     * @param chromosomes The chromosomes to be evicted.
+     */
+    public static void evict(Collection<? extends IChromosome<?>> chromosomes) {
+        cache.evictAll(chromosomes);
+    }
 }
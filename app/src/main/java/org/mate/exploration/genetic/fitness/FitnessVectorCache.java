@@ -0,0 +1,233 @@
+package org.mate.exploration.genetic.fitness;
+
+import org.mate.exploration.genetic.chromosome.IChromosome;
+import org.mate.utils.FitnessUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cache for fitness vectors used by the multi-objective fitness functions. Instead of storing
+ * a boxed fitness value per objective and chromosome, the cache stores a single primitive vector
+ * per chromosome, where the i-th entry refers to the fitness value of the i-th objective.
+ */
+public class FitnessVectorCache {
+
+    /**
+     * The registered objectives, e.g. branches or lines, in the order of the vector entries.
+     */
+    private final List<String> objectives = new ArrayList<>();
+
+    /**
+     * Maps an objective to its (first) index in the fitness vector.
+     */
+    private final Map<String, Integer> objectiveIndices = new HashMap<>();
+
+    /**
+     * Stores the fitness vector of each chromosome.
+     */
+    private final Map<IChromosome<?>, double[]> fitnessVectors = new HashMap<>();
+
+    /**
+     * Registers a new objective and returns the index of its entry in the fitness vectors.
+     *
+     * @param objective The objective to be registered.
+     * @return Returns the index of the objective in the fitness vectors.
+     */
+    public int addObjective(String objective) {
+
+        // cached vectors lack an entry for the new objective
+        fitnessVectors.clear();
+
+        int index = objectives.size();
+        objectives.add(objective);
+
+        if (!objectiveIndices.containsKey(objective)) {
+            objectiveIndices.put(objective, index);
+        }
+        return index;
+    }
+
+    /**
+     * Registers the given objectives at once, see {@link #addObjective(String)}. The objectives
+     * occupy consecutive entries in the fitness vectors.
+     *
+     * @param objectives The objectives to be registered.
+     * @return Returns the index of the first objective in the fitness vectors.
+     */
+    public int addObjectives(List<String> objectives) {
+
+        // cached vectors lack an entry for the new objectives
+        fitnessVectors.clear();
+
+        int firstIndex = this.objectives.size();
+        this.objectives.addAll(objectives);
+
+        for (int i = 0; i < objectives.size(); i++) {
+            String objective = objectives.get(i);
+            if (!objectiveIndices.containsKey(objective)) {
+                objectiveIndices.put(objective, firstIndex + i);
+            }
+        }
+        return firstIndex;
+    }
+
+    /**
+     * Returns the registered objectives in the order of the vector entries.
+     *
+     * @return Returns an unmodifiable view on the registered objectives.
+     */
+    public List<String> getObjectives() {
+        return Collections.unmodifiableList(objectives);
+    }
+
+    /**
+     * Returns the index of the given objective in the fitness vectors.
+     *
+     * @param objective The objective.
+     * @return Returns the index of the given objective or {@code -1} if the objective is unknown.
+     */
+    public int indexOf(String objective) {
+        Integer index = objectiveIndices.get(objective);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Checks whether a fitness vector is cached for the given chromosome.
+     *
+     * @param chromosome The chromosome.
+     * @return Returns {@code true} if a fitness vector is cached, otherwise {@code false}.
+     */
+    public boolean contains(IChromosome<?> chromosome) {
+        return fitnessVectors.containsKey(chromosome);
+    }
+
+    /**
+     * Returns the cached fitness vector of the given chromosome. The returned vector must not be
+     * modified.
+     *
+     * @param chromosome The chromosome.
+     * @return Returns the cached fitness vector or {@code null} if no vector is cached.
+     */
+    public double[] getFitnessVector(IChromosome<?> chromosome) {
+        return fitnessVectors.get(chromosome);
+    }
+
+    /**
+     * Returns the cached fitness value of the given chromosome for the objective at the
+     * given index.
+     *
+     * @param chromosome The chromosome.
+     * @param objectiveIndex The index of the objective.
+     * @return Returns the cached fitness value.
+     */
+    public double getFitness(IChromosome<?> chromosome, int objectiveIndex) {
+
+        double[] fitnessVector = fitnessVectors.get(chromosome);
+
+        if (fitnessVector == null) {
+            throw new IllegalStateException("No fitness vector cached for chromosome " + chromosome);
+        }
+        return fitnessVector[objectiveIndex];
+    }
+
+    /**
+     * Caches the given fitness vector for the given chromosome.
+     *
+     * @param chromosome The chromosome.
+     * @param fitnessVector The fitness vector, one entry per registered objective.
+     * @return Returns the cached fitness vector.
+     */
+    public double[] put(IChromosome<?> chromosome, List<Double> fitnessVector) {
+
+        if (fitnessVector.size() != objectives.size()) {
+            throw new IllegalStateException("Fitness vector of size " + fitnessVector.size()
+                    + " doesn't match the number of objectives " + objectives.size());
+        }
+
+        double[] vector = new double[fitnessVector.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = fitnessVector.get(i);
+        }
+
+        fitnessVectors.put(chromosome, vector);
+        return vector;
+    }
+
+    /**
+     * Returns the fitness values of the given chromosomes for the objective at the given index.
+     * The fitness vectors of all chromosomes that are not cached yet are retrieved with a single
+     * request and cached.
+     *
+     * @param chromosomes The chromosomes.
+     * @param objectiveIndex The index of the objective.
+     * @param <T> Specifies whether the chromosomes are test suites or test cases.
+     * @return Returns the fitness values, where the i-th entry refers to the i-th chromosome.
+     */
+    public <T> double[] getFitness(List<IChromosome<T>> chromosomes, int objectiveIndex) {
+
+        Set<IChromosome<T>> missing = new LinkedHashSet<>();
+        for (IChromosome<T> chromosome : chromosomes) {
+            if (!fitnessVectors.containsKey(chromosome)) {
+                missing.add(chromosome);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<IChromosome<T>> missingChromosomes = new ArrayList<>(missing);
+            double[][] fitnessMatrix = FitnessUtils.getFitnessMatrix(missingChromosomes, objectives);
+            for (int i = 0; i < fitnessMatrix.length; i++) {
+                fitnessVectors.put(missingChromosomes.get(i), fitnessMatrix[i]);
+            }
+        }
+
+        double[] fitness = new double[chromosomes.size()];
+        for (int i = 0; i < fitness.length; i++) {
+            fitness[i] = fitnessVectors.get(chromosomes.get(i))[objectiveIndex];
+        }
+        return fitness;
+    }
+
+    /**
+     * Removes the fitness vector of the given chromosome.
+     *
+     * @param chromosome The chromosome to be evicted.
+     * @return Returns {@code true} if a fitness vector was cached for the chromosome,
+     *          otherwise {@code false}.
+     */
+    public boolean evict(IChromosome<?> chromosome) {
+        return fitnessVectors.remove(chromosome) != null;
+    }
+
+    /**
+     * Removes the fitness vectors of the given chromosomes.
+     *
+     * @param chromosomes The chromosomes to be evicted.
+     * @return Returns the number of evicted fitness vectors.
+     */
+    public int evictAll(Collection<? extends IChromosome<?>> chromosomes) {
+
+        int count = 0;
+        for (IChromosome<?> chromosome : chromosomes) {
+            if (fitnessVectors.remove(chromosome) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of cached fitness vectors.
+     *
+     * @return Returns the number of cached fitness vectors.
+     */
+    public int size() {
+        return fitnessVectors.size();
+    }
+}
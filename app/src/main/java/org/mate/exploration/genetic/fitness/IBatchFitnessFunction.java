@@ -0,0 +1,25 @@
+package org.mate.exploration.genetic.fitness;
+
+import org.mate.exploration.genetic.chromosome.IChromosome;
+
+import java.util.List;
+
+/**
+ * A fitness function that can evaluate several chromosomes at once, e.g. with a single request
+ * to the MATE-Server instead of one request per chromosome. See
+ * {@link org.mate.utils.FitnessUtils#getNormalizedFitnessMatrix(List, List)} for evaluating a
+ * whole population against a list of fitness functions.
+ *
+ * @param <T> Type wrapped by the chromosome implementation
+ */
+public interface IBatchFitnessFunction<T> extends IFitnessFunction<T> {
+
+    /**
+     * Normalizes the fitness values of the given chromosomes in the range of [0,1], see
+     * {@link #getNormalizedFitness(IChromosome)}.
+     *
+     * @param chromosomes The chromosomes to calculate the normalized fitness values for.
+     * @return The normalized values, where the i-th entry refers to the i-th chromosome.
+     */
+    double[] getNormalizedFitness(List<IChromosome<T>> chromosomes);
+}
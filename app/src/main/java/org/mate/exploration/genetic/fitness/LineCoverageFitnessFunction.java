@@ -3,25 +3,20 @@ package org.mate.exploration.genetic.fitness;
 import org.mate.exploration.genetic.chromosome.IChromosome;
 import org.mate.utils.FitnessUtils;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
-public class LineCoverageFitnessFunction<T> implements IFitnessFunction<T> {
-
-    private final Map<IChromosome<T>, Double> cache;
-
-    public LineCoverageFitnessFunction() {
-        cache = new HashMap<>();
-    }
+public class LineCoverageFitnessFunction<T> implements IBatchFitnessFunction<T> {
 
+    /**
+     * Retrieves the line coverage of the given chromosome. The value is memoized by
+     * {@link FitnessUtils#getFitness(IChromosome)}.
+     *
+     * @param chromosome The chromosome for which the fitness value should be retrieved.
+     * @return Returns the line coverage of the given chromosome.
+     */
     @Override
     public double getFitness(IChromosome<T> chromosome) {
-        if (cache.containsKey(chromosome)) {
-            return cache.get(chromosome);
-        }
-        double fitness = FitnessUtils.getFitness(chromosome);
-        cache.put(chromosome, fitness);
-        return fitness;
+        return FitnessUtils.getFitness(chromosome);
     }
 
     @Override
@@ -33,4 +28,15 @@ public class LineCoverageFitnessFunction<T> implements IFitnessFunction<T> {
     public double getNormalizedFitness(IChromosome<T> chromosome) {
         return getFitness(chromosome) / 100;
     }
+
+    @Override
+    public double[] getNormalizedFitness(List<IChromosome<T>> chromosomes) {
+
+        double[] lineCoverage = FitnessUtils.getFitnessValues(chromosomes);
+
+        for (int i = 0; i < lineCoverage.length; i++) {
+            lineCoverage[i] /= 100;
+        }
+        return lineCoverage;
+    }
 }
@@ -5,9 +5,8 @@ import org.mate.exploration.genetic.chromosome.IChromosome;
 import org.mate.utils.FitnessUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 /**
  * This fitness function is only supposed to work a multi/many-objective algorithm
@@ -15,23 +14,50 @@ import java.util.Map;
  */
 public class LineCoveredPercentageFitnessFunction<T> implements IFitnessFunction<T> {
 
-    //todo: find better solution than static map... (i know its ugly)
-    private static final Map<String, Map<IChromosome, Double>> cache = new HashMap<>();
-    private static List<String> lines = new ArrayList<>();
+    // caches for each chromosome the covered percentage of all lines (shared by instances)
+    private static final FitnessVectorCache cache = new FitnessVectorCache();
     private final String line;
+    private final int lineIndex;
 
     public LineCoveredPercentageFitnessFunction(String line) {
         this.line = line;
-        lines.add(line);
+        lineIndex = cache.addObjective(line);
+    }
+
+    private LineCoveredPercentageFitnessFunction(String line, int lineIndex) {
+        this.line = line;
+        this.lineIndex = lineIndex;
+    }
+
+    /**
+     * Creates a fitness function for each of the given lines. In contrast to calling the
+     * constructor for each line, the lines are registered in the cache at once.
+     *
+     * @param lines The target lines.
+     * @param <T> Refers either to a {@link org.mate.model.TestCase} or
+     *          {@link org.mate.model.TestSuite}.
+     * @return Returns a fitness function for each line in the order of the given lines.
+     */
+    public static <T> List<LineCoveredPercentageFitnessFunction<T>> createAll(List<String> lines) {
+
+        int firstIndex = cache.addObjectives(lines);
+
+        List<LineCoveredPercentageFitnessFunction<T>> fitnessFunctions
+                = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            fitnessFunctions.add(
+                    new LineCoveredPercentageFitnessFunction<T>(lines.get(i), firstIndex + i));
+        }
+        return fitnessFunctions;
     }
 
     @Override
     public double getFitness(IChromosome<T> chromosome) {
-        if (!cache.get(line).containsKey(chromosome)) {
+        double[] coveredPercentage = cache.getFitnessVector(chromosome);
+        if (coveredPercentage == null) {
             throw new IllegalStateException("Fitness for chromosome " + chromosome + " not in cache. Must fetch fitness previously or performance reasons");
         }
-        return cache.get(line).get(chromosome);
-
+        return coveredPercentage[lineIndex];
     }
 
     @Override
@@ -46,43 +72,21 @@ public class LineCoveredPercentageFitnessFunction<T> implements IFitnessFunction
 
     public static <T> void retrieveFitnessValues(IChromosome<T> chromosome) {
 
-        if (lines.size() == 0) {
+        if (cache.getObjectives().isEmpty()) {
             return;
         }
 
-        if (cache.size() == 0) {
-            for (String line : lines) {
-                cache.put(line, new HashMap<IChromosome, Double>());
-            }
-        }
-
         MATE.log_acc("retrieving fitness values for chromosome " + chromosome);
-        List<Double> coveredPercentage = FitnessUtils.getFitness(chromosome, lines);
-        for (int i = 0; i < coveredPercentage.size(); i++) {
-            cache.get(lines.get(i)).put(chromosome, coveredPercentage.get(i));
-        }
+        List<Double> coveredPercentage = FitnessUtils.getFitness(chromosome, cache.getObjectives());
+        cache.put(chromosome, coveredPercentage);
     }
 
     /**
-     * remove chromosome from cache that are no longer in use. (to avoid memory issues)
+     * Removes the given obsolete chromosomes from the cache.
+     *
+     * @param chromosomes The chromosomes to be evicted.
      */
-    public static <T> void cleanCache(List<IChromosome<T>> activeChromosomesAnon) {
-        if (lines.size() == 0 || cache.size() == 0) {
-            return;
-        }
-
-        List<IChromosome<T>> activeChromosomes = new ArrayList<>(activeChromosomesAnon);
-
-        int count = 0;
-        for (String line : lines) {
-            Map<IChromosome, Double> lineCache =  cache.get(line);
-            for (IChromosome chromosome: new ArrayList<>(lineCache.keySet())) {
-                if (!activeChromosomes.contains(chromosome)) {
-                    lineCache.remove(chromosome);
-                    count++;
-                }
-            }
-        }
-        MATE.log_acc("Cleaning cache: " + count + " inactive chromosome removed");
+    public static void evict(Collection<? extends IChromosome<?>> chromosomes) {
+        cache.evictAll(chromosomes);
     }
 }
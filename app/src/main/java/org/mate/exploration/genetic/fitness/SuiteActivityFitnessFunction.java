@@ -27,7 +27,7 @@ public class SuiteActivityFitnessFunction implements IFitnessFunction<TestSuite>
 
     @Override
     public double getNormalizedFitness(IChromosome<TestSuite> chromosome) {
-        List<String> activityNames = Registry.getEnvironmentManager().getActivityNames();
+        List<String> activityNames = Registry.getAppMetadataCache().getActivityNames();
         return getFitness(chromosome) / activityNames.size();
     }
 }
@@ -33,19 +33,20 @@ public class CutPointMutationFunction implements IMutationFunction<TestCase> {
 
     @Override
     public List<IChromosome<TestCase>> mutate(IChromosome<TestCase> chromosome) {
-        uiAbstractionLayer.resetApp();
 
         List<IChromosome<TestCase>> mutations = new ArrayList<>();
 
         int cutPoint = chooseCutPoint(chromosome.getValue());
 
-        TestCase mutant = TestCase.newInitializedTestCase();
+        // resets the AUT unless (a part of) the kept prefix can be restored from a snapshot
+        TestCase mutant = TestCase.newInitializedTestCase(
+                chromosome.getValue().getEventSequence().subList(0, cutPoint));
         IChromosome<TestCase> mutatedChromosome = new Chromosome<>(mutant);
 
         mutations.add(mutatedChromosome);
 
         try {
-            for (int i = 0; i < maxNumEvents; i++) {
+            for (int i = mutant.getEventSequence().size(); i < maxNumEvents; i++) {
                 UIAction newAction;
                 if (i < cutPoint) {
                     //Todo: highlight that this class can only be used for widget based execution
@@ -53,7 +54,7 @@ public class CutPointMutationFunction implements IMutationFunction<TestCase> {
                 } else {
                     newAction = Randomness.randomElement(uiAbstractionLayer.getExecutableActions());
                 }
-                if (!uiAbstractionLayer.getExecutableActions().contains(newAction)
+                if (!uiAbstractionLayer.isExecutable(newAction)
                         || !mutant.updateTestCase(newAction, i)) {
                     break;
                 }
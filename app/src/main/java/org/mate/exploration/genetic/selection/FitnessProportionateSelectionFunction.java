@@ -2,10 +2,11 @@ package org.mate.exploration.genetic.selection;
 
 import org.mate.exploration.genetic.chromosome.IChromosome;
 import org.mate.exploration.genetic.fitness.IFitnessFunction;
+import org.mate.utils.FitnessUtils;
 import org.mate.utils.Randomness;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -34,8 +35,23 @@ public class FitnessProportionateSelectionFunction<T> implements ISelectionFunct
         final IFitnessFunction<T> fitnessFunction = fitnessFunctions.get(0);
         final boolean maximizing = fitnessFunction.isMaximizing();
 
+        // evaluate the fitness of each chromosome only once
+        final double[][] fitnessMatrix = FitnessUtils.getNormalizedFitnessMatrix(population,
+                Collections.singletonList(fitnessFunction));
+
+        final double[] weights = new double[population.size()];
+        for (int i = 0; i < weights.length; i++) {
+            double fitness = fitnessMatrix[i][0];
+            weights[i] = maximizing ? fitness : invertFitnessValue(fitness);
+        }
+
         List<IChromosome<T>> selection = new ArrayList<>();
-        List<IChromosome<T>> candidates = new LinkedList<>(population);
+
+        // the indices of the chromosomes that are still on the roulette wheel
+        List<Integer> candidates = new ArrayList<>(population.size());
+        for (int i = 0; i < population.size(); i++) {
+            candidates.add(i);
+        }
 
         for (int i = 0; i < population.size(); i++) {
 
@@ -46,9 +62,8 @@ public class FitnessProportionateSelectionFunction<T> implements ISelectionFunct
              */
             double sum = 0.0;
 
-            for (IChromosome<T> chromosome : candidates) {
-                double fitness = fitnessFunction.getNormalizedFitness(chromosome);
-                sum += maximizing ? fitness : invertFitnessValue(fitness);
+            for (int candidate : candidates) {
+                sum += weights[candidate];
             }
 
             /*
@@ -58,13 +73,15 @@ public class FitnessProportionateSelectionFunction<T> implements ISelectionFunct
              */
             double rnd = Randomness.getRandom(0.0, sum);
             IChromosome<T> selected = null;
+            int selectedIndex = -1;
 
             double start = 0.0;
-            for (IChromosome<T> chromosome : candidates) {
-                double fitness = fitnessFunction.getNormalizedFitness(chromosome);
-                double end = start + (maximizing ? fitness : invertFitnessValue(fitness));
+            for (int j = 0; j < candidates.size(); j++) {
+                int candidate = candidates.get(j);
+                double end = start + weights[candidate];
                 if (rnd <= end) {
-                    selected = chromosome;
+                    selected = population.get(candidate);
+                    selectedIndex = j;
                     break;
                 } else {
                     start = end;
@@ -74,7 +91,9 @@ public class FitnessProportionateSelectionFunction<T> implements ISelectionFunct
             selection.add(selected);
 
             // remove selected chromosome from roulette wheel
-            candidates.remove(selected);
+            if (selectedIndex != -1) {
+                candidates.remove(selectedIndex);
+            }
         }
 
         return selection;
@@ -5,6 +5,7 @@ import org.mate.Registry;
 import org.mate.exploration.Algorithm;
 import org.mate.exploration.genetic.chromosome_factory.HeuristicalChromosomeFactory;
 import org.mate.exploration.genetic.chromosome_factory.IChromosomeFactory;
+import org.mate.utils.ChromosomeLifecycle;
 
 public class HeuristicExploration implements Algorithm {
 
@@ -27,6 +28,8 @@ public class HeuristicExploration implements Algorithm {
         for (int i = 0; true; i++) {
             MATE.log_acc("Exploration #" + (i + 1));
             heuristicChromosomeFactory.createChromosome();
+            // the explored chromosome is not used anymore
+            ChromosomeLifecycle.evictUnreferenced();
             if (!alwaysReset) {
                 Registry.getUiAbstractionLayer().restartApp();
             }
@@ -5,6 +5,7 @@ import org.mate.Registry;
 import org.mate.exploration.Algorithm;
 import org.mate.exploration.genetic.chromosome_factory.AndroidRandomChromosomeFactory;
 import org.mate.exploration.intent.IntentChromosomeFactory;
+import org.mate.utils.ChromosomeLifecycle;
 
 public class RandomExploration implements Algorithm {
     private final AndroidRandomChromosomeFactory randomChromosomeFactory;
@@ -40,6 +41,8 @@ public class RandomExploration implements Algorithm {
         for (int i = 0; true; i++) {
             MATE.log_acc("Exploration #" + (i + 1));
             randomChromosomeFactory.createChromosome();
+            // the explored chromosome is not used anymore
+            ChromosomeLifecycle.evictUnreferenced();
             if (!alwaysReset) {
                 Registry.getUiAbstractionLayer().restartApp();
             }
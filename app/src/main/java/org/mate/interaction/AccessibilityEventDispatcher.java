@@ -0,0 +1,72 @@
+package org.mate.interaction;
+
+import android.app.UiAutomation;
+import android.view.accessibility.AccessibilityEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Dispatches the accessibility events delivered by {@link UiAutomation} to multiple listeners,
+ * e.g. the {@link ActivityTracker}.
+ *
+ * Note that {@link UiAutomation} supports only a single event listener. The listener installed
+ * by UiAutomator merely records deprecated information, e.g. the last traversed text, hence
+ * the dispatcher replaces it. The dispatcher must be registered after the {@link
+ * android.support.test.uiautomator.UiDevice} has been created, otherwise UiAutomator would
+ * replace the dispatcher in turn.
+ */
+public class AccessibilityEventDispatcher implements UiAutomation.OnAccessibilityEventListener {
+
+    private final UiAutomation uiAutomation;
+
+    /**
+     * The listeners receiving the events, events are delivered on a binder thread.
+     */
+    private final List<UiAutomation.OnAccessibilityEventListener> listeners
+            = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param uiAutomation The ui automation delivering the accessibility events.
+     */
+    public AccessibilityEventDispatcher(UiAutomation uiAutomation) {
+        this.uiAutomation = uiAutomation;
+    }
+
+    /**
+     * Adds a listener receiving all subsequent events.
+     *
+     * @param listener The listener to be added.
+     */
+    public void addListener(UiAutomation.OnAccessibilityEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts listening to accessibility events.
+     */
+    public void register() {
+        uiAutomation.setOnAccessibilityEventListener(this);
+    }
+
+    /**
+     * Stops listening to accessibility events.
+     */
+    public void unregister() {
+        uiAutomation.setOnAccessibilityEventListener(null);
+    }
+
+    /**
+     * Forwards the given event to all listeners.
+     *
+     * @param event The accessibility event.
+     */
+    @Override
+    public void onAccessibilityEvent(AccessibilityEvent event) {
+        for (UiAutomation.OnAccessibilityEventListener listener : listeners) {
+            listener.onAccessibilityEvent(event);
+        }
+    }
+}
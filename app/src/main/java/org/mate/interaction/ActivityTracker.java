@@ -0,0 +1,145 @@
+package org.mate.interaction;
+
+import android.app.UiAutomation;
+import android.content.ComponentName;
+import android.content.pm.PackageManager;
+import android.view.accessibility.AccessibilityEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks the currently visible activity based on the {@link AccessibilityEvent#TYPE_WINDOW_STATE_CHANGED}
+ * events emitted whenever a new window, e.g. an activity or a dialog, comes to the foreground.
+ * The activity name is cached in between those events, such that capturing a screen doesn't
+ * require to query the activity manager, e.g. via 'dumpsys activity activities', every time.
+ *
+ * Not every window state change refers to an activity, e.g. dialogs, popup menus or the soft
+ * keyboard emit such events as well. Those windows don't change the resumed activity as long as
+ * they belong to the package of the tracked activity. Otherwise, e.g. on a crash dialog, the
+ * tracked activity is considered stale and the caller needs to resolve the activity the slow way,
+ * see {@link #update(String, long)}.
+ *
+ * The tracker receives the events via the {@link AccessibilityEventDispatcher}.
+ */
+public class ActivityTracker implements UiAutomation.OnAccessibilityEventListener {
+
+    private final PackageManager packageManager;
+
+    /**
+     * Caches whether a window class, e.g. 'com.example/.MainActivity', refers to an activity.
+     */
+    private final Map<String, Boolean> activityClasses = new HashMap<>();
+
+    /**
+     * The tracked activity in the format 'package/activity' or {@code null} if stale.
+     */
+    private String currentActivity = null;
+
+    /**
+     * Counts the received window state changes in order to detect changes during a slow lookup.
+     */
+    private long windowStateChanges = 0;
+
+    /**
+     * Creates a new activity tracker.
+     *
+     * @param packageManager The package manager used to check whether a window is an activity.
+     */
+    public ActivityTracker(PackageManager packageManager) {
+        this.packageManager = packageManager;
+    }
+
+    /**
+     * Returns the tracked activity.
+     *
+     * @return Returns the current activity in the format 'package/activity' or {@code null} if
+     *          the tracked activity is stale.
+     */
+    public synchronized String getCurrentActivity() {
+        return currentActivity;
+    }
+
+    /**
+     * Returns the number of window state changes observed so far. This should be queried before
+     * looking up a stale activity the slow way, see {@link #update(String, long)}.
+     *
+     * @return Returns the number of observed window state changes.
+     */
+    public synchronized long getWindowStateChanges() {
+        return windowStateChanges;
+    }
+
+    /**
+     * Updates the tracked activity with an activity that has been looked up the slow way. The
+     * activity is discarded if the window state changed in the meantime.
+     *
+     * @param activity The current activity in the format 'package/activity'.
+     * @param windowStateChanges The number of window state changes before the lookup.
+     */
+    public synchronized void update(String activity, long windowStateChanges) {
+        if (this.windowStateChanges == windowStateChanges
+                && !EnvironmentManager.ACTIVITY_UNKNOWN.equals(activity)) {
+            currentActivity = activity;
+        }
+    }
+
+    /**
+     * Updates the tracked activity on window state changes.
+     *
+     * @param event The accessibility event.
+     */
+    @Override
+    public void onAccessibilityEvent(AccessibilityEvent event) {
+
+        if (event.getEventType() != AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED) {
+            return;
+        }
+
+        CharSequence packageName = event.getPackageName();
+        CharSequence className = event.getClassName();
+
+        synchronized (this) {
+
+            windowStateChanges++;
+
+            if (packageName == null || className == null) {
+                currentActivity = null;
+                return;
+            }
+
+            ComponentName component = new ComponentName(packageName.toString(), className.toString());
+            String window = component.flattenToShortString();
+
+            if (isActivity(component, window)) {
+                currentActivity = window;
+            } else if (currentActivity != null
+                    && !currentActivity.startsWith(packageName.toString() + "/")) {
+                // a foreign window, e.g. a crash dialog, may come along with a different activity
+                currentActivity = null;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given window refers to an activity.
+     *
+     * @param component The component describing the window.
+     * @param window The flattened component.
+     * @return Returns {@code true} if the window is an activity, otherwise {@code false}.
+     */
+    private boolean isActivity(ComponentName component, String window) {
+
+        Boolean isActivity = activityClasses.get(window);
+
+        if (isActivity == null) {
+            try {
+                isActivity = packageManager.getActivityInfo(component, 0) != null;
+            } catch (PackageManager.NameNotFoundException e) {
+                isActivity = false;
+            }
+            activityClasses.put(window, isActivity);
+        }
+        return isActivity;
+    }
+}
@@ -0,0 +1,271 @@
+package org.mate.interaction;
+
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.support.test.InstrumentationRegistry;
+
+import org.mate.MATE;
+import org.mate.utils.Objective;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Caches the static metadata of the AUT, i.e. the list of activities and the lists of objectives
+ * like branches or lines, which would otherwise be requested from the MATE-Server on every use.
+ * The activities are retrieved once when the cache is created, while the objectives are
+ * retrieved on first use, since they are only available if the AUT has been instrumented
+ * accordingly.
+ *
+ * In addition, the metadata is persisted on the internal storage of MATE. The stored metadata is
+ * keyed by the package name, the version code and a checksum of the APK, hence subsequent runs
+ * against the same APK don't need to query the MATE-Server at all. Empty metadata, e.g. the
+ * result of a failed request, is neither persisted nor loaded.
+ */
+public class AppMetadataCache {
+
+    /**
+     * The directory on the internal storage of MATE where the metadata is persisted.
+     */
+    private static final String METADATA_DIR = "app-metadata";
+
+    private static final String ACTIVITIES_FILE = "activities.txt";
+
+    private final EnvironmentManager environmentManager;
+
+    /**
+     * The directory holding the persisted metadata of the current APK or {@code null} if the
+     * metadata can't be persisted.
+     */
+    private final File storageDir;
+
+    private final List<String> activityNames;
+
+    private final Map<Objective, List<String>> objectives = new EnumMap<>(Objective.class);
+
+    /**
+     * Creates the metadata cache for the given AUT and loads the list of activities.
+     *
+     * @param environmentManager The environment manager used to query the MATE-Server.
+     * @param packageName The package name of the AUT.
+     */
+    public AppMetadataCache(EnvironmentManager environmentManager, String packageName) {
+        this(environmentManager, getStorageDir(packageName));
+    }
+
+    /**
+     * Creates the metadata cache and loads the list of activities.
+     *
+     * @param environmentManager The environment manager used to query the MATE-Server.
+     * @param storageDir The directory where the metadata of the AUT is persisted or {@code null}
+     *                   if the metadata shouldn't be persisted.
+     */
+    public AppMetadataCache(EnvironmentManager environmentManager, File storageDir) {
+        this.environmentManager = environmentManager;
+        this.storageDir = storageDir;
+
+        List<String> activities = load(ACTIVITIES_FILE);
+        if (activities == null) {
+            activities = environmentManager.getActivityNames();
+            if (isComplete(activities)) {
+                store(ACTIVITIES_FILE, activities);
+            } else {
+                MATE.log_warn("Couldn't retrieve the activities of the AUT!");
+            }
+        }
+        activityNames = Collections.unmodifiableList(new ArrayList<>(activities));
+    }
+
+    /**
+     * Returns the list of activities belonging to the AUT.
+     *
+     * @return Returns an unmodifiable list of the activities of the AUT.
+     */
+    public List<String> getActivityNames() {
+        return activityNames;
+    }
+
+    /**
+     * Returns the list of objectives, e.g. the list of branches, of the AUT. The objectives are
+     * retrieved on first use only.
+     *
+     * @param objective The kind of objectives, see {@link org.mate.Properties#OBJECTIVE()}.
+     * @return Returns an unmodifiable list of objectives.
+     */
+    public List<String> getObjectives(Objective objective) {
+
+        if (objective == null) {
+            throw new IllegalStateException("Objective property not defined!");
+        }
+
+        List<String> cached = objectives.get(objective);
+
+        if (cached == null) {
+            String fileName = objective.name().toLowerCase() + ".txt";
+            List<String> loaded = load(fileName);
+            if (loaded == null) {
+                loaded = environmentManager.getObjectives(objective);
+                if (!isComplete(loaded)) {
+                    // retry on next use
+                    MATE.log_warn("Couldn't retrieve the objectives of the AUT!");
+                    return Collections.unmodifiableList(new ArrayList<>(loaded));
+                }
+                store(fileName, loaded);
+            } else {
+                MATE.log_acc("Number of objectives: " + loaded.size());
+            }
+            cached = Collections.unmodifiableList(new ArrayList<>(loaded));
+            objectives.put(objective, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Loads a persisted list of metadata entries.
+     *
+     * @param fileName The name of the file holding the entries.
+     * @return Returns the entries or {@code null} if no complete entries have been persisted.
+     */
+    private List<String> load(String fileName) {
+
+        if (storageDir == null) {
+            return null;
+        }
+
+        File file = new File(storageDir, fileName);
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        List<String> entries = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                entries.add(line);
+            }
+        } catch (IOException e) {
+            MATE.log_warn("Couldn't load app metadata from " + file + "!");
+            MATE.log_warn(e.getMessage());
+            return null;
+        }
+
+        if (!isComplete(entries)) {
+            MATE.log_warn("Ignoring empty app metadata in " + file + "!");
+            return null;
+        }
+
+        MATE.log_debug("Loaded app metadata from " + file);
+        return entries;
+    }
+
+    /**
+     * Checks whether the given metadata entries are complete, i.e. whether they may be persisted.
+     * A failed request to the MATE-Server yields no entries or a single empty entry.
+     *
+     * @param entries The metadata entries.
+     * @return Returns {@code true} if at least one entry is non-empty, otherwise {@code false}.
+     */
+    private static boolean isComplete(List<String> entries) {
+        for (String entry : entries) {
+            if (!entry.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Persists the given list of metadata entries, one entry per line.
+     *
+     * @param fileName The name of the file holding the entries.
+     * @param entries The entries to be persisted.
+     */
+    private void store(String fileName, List<String> entries) {
+
+        if (storageDir == null || (!storageDir.exists() && !storageDir.mkdirs())) {
+            return;
+        }
+
+        File file = new File(storageDir, fileName);
+        File tmpFile = new File(storageDir, fileName + ".tmp");
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tmpFile))) {
+            for (String entry : entries) {
+                writer.write(entry);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            MATE.log_warn("Couldn't persist app metadata to " + file + "!");
+            MATE.log_warn(e.getMessage());
+            tmpFile.delete();
+            return;
+        }
+
+        // a partially written file must never be loaded
+        if (!tmpFile.renameTo(file)) {
+            MATE.log_warn("Couldn't persist app metadata to " + file + "!");
+            tmpFile.delete();
+        }
+    }
+
+    /**
+     * Determines the directory holding the persisted metadata of the installed APK of the AUT.
+     *
+     * @param packageName The package name of the AUT.
+     * @return Returns the storage directory or {@code null} if the APK couldn't be identified.
+     */
+    private static File getStorageDir(String packageName) {
+
+        try {
+            PackageManager packageManager
+                    = InstrumentationRegistry.getTargetContext().getPackageManager();
+            PackageInfo packageInfo = packageManager.getPackageInfo(packageName, 0);
+
+            String apkId = packageInfo.versionCode + "-"
+                    + Long.toHexString(getChecksum(new File(packageInfo.applicationInfo.sourceDir)));
+
+            File metadataDir = new File(InstrumentationRegistry.getTargetContext().getFilesDir(),
+                    METADATA_DIR);
+            return new File(new File(metadataDir, packageName), apkId);
+        } catch (PackageManager.NameNotFoundException | IOException e) {
+            MATE.log_warn("Couldn't identify APK of " + packageName + ", metadata isn't persisted!");
+            MATE.log_warn(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Computes the CRC32 checksum of the given file.
+     *
+     * @param file The file.
+     * @return Returns the checksum of the file.
+     * @throws IOException If the file can't be read.
+     */
+    private static long getChecksum(File file) throws IOException {
+
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[64 * 1024];
+
+        try (InputStream inputStream = new FileInputStream(file)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+}
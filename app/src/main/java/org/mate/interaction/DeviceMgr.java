@@ -24,7 +24,12 @@ import org.mate.interaction.action.ui.PrimitiveAction;
 import org.mate.interaction.action.ui.UIAction;
 import org.mate.interaction.action.ui.Widget;
 import org.mate.interaction.action.ui.WidgetAction;
+import org.mate.interaction.dialog.DialogClassifier;
+import org.mate.interaction.dialog.DialogType;
 import org.mate.model.deprecated.graph.IGUIModel;
+import org.mate.state.IScreenState;
+import org.mate.state.ScreenStateFactory;
+import org.mate.state.ScreenStateType;
 import org.mate.utils.Utils;
 
 import java.io.IOException;
@@ -78,11 +83,43 @@ public class DeviceMgr {
      */
     private boolean disabledAutoRotate;
 
+    /**
+     * The maximal time in milliseconds to wait for the AUT after it has been (re-)started.
+     */
+    private static final long APP_READY_TIMEOUT = 10000;
+
+    /**
+     * Detects when the ui has settled after executing an action.
+     */
+    private final UISettleDetector settleDetector;
+
+    /**
+     * Recognizes dialogs, e.g. a crash dialog, on a captured screen.
+     */
+    private final DialogClassifier dialogClassifier;
+
+    /**
+     * The screen captured by the crash check after the last widget action or {@code null} if
+     * the screen has not been captured or already been consumed.
+     */
+    private IScreenState capturedScreenState;
+
     public DeviceMgr(UiDevice device, String packageName) {
         this.device = device;
         this.packageName = packageName;
         this.isInPortraitMode = true;
         this.disabledAutoRotate = false;
+        this.settleDetector = new UISettleDetector();
+        this.dialogClassifier = new DialogClassifier();
+    }
+
+    /**
+     * Returns the detector used to wait until the ui has settled.
+     *
+     * @return Returns the ui settle detector.
+     */
+    public UISettleDetector getSettleDetector() {
+        return settleDetector;
     }
 
     /**
@@ -94,6 +131,27 @@ public class DeviceMgr {
         return device;
     }
 
+    /**
+     * Returns the classifier used to recognize dialogs on the screen.
+     *
+     * @return Returns the dialog classifier.
+     */
+    public DialogClassifier getDialogClassifier() {
+        return dialogClassifier;
+    }
+
+    /**
+     * Returns the screen that has been captured when checking for a crash after the last
+     * executed widget action. The captured screen can be consumed only once.
+     *
+     * @return Returns the captured screen or {@code null} if there is none.
+     */
+    public IScreenState pollScreenState() {
+        IScreenState screenState = capturedScreenState;
+        capturedScreenState = null;
+        return screenState;
+    }
+
     /**
      * Executes a given action.
      *
@@ -102,6 +160,8 @@ public class DeviceMgr {
      */
     public void executeAction(Action action) throws AUTCrashException {
 
+        capturedScreenState = null;
+
         if (action instanceof WidgetAction) {
             executeAction((WidgetAction) action);
         } else if (action instanceof PrimitiveAction) {
@@ -207,6 +267,7 @@ public class DeviceMgr {
                 throw new UnsupportedOperationException("UI action "
                         + action.getActionType() + " not yet supported!");
         }
+        settleDetector.waitForSettle(typeOfAction.name());
         checkForCrash();
     }
 
@@ -333,9 +394,38 @@ public class DeviceMgr {
                         + " not implemented for widget actions.");
         }
 
-        // if there is a progress bar associated to that action
-        Utils.sleep(action.getTimeToWait());
-        checkForCrash();
+        // if there is a progress bar associated to that action, give it at least that much time
+        settleDetector.waitForSettle(typeOfAction.name(), action.getTimeToWait());
+        captureScreenAndCheckForCrash();
+    }
+
+    /**
+     * Captures the screen and checks whether it shows a crash dialog. The captured screen is
+     * kept, such that it can be reused for the subsequent clearing of the screen, see
+     * {@link #pollScreenState()}. Only worth it after widget actions, since the screen is
+     * captured anyway afterwards.
+     *
+     * @throws AUTCrashException Thrown when the last action caused a crash of the application.
+     */
+    private void captureScreenAndCheckForCrash() throws AUTCrashException {
+
+        boolean crashed;
+
+        try {
+            IScreenState screenState
+                    = ScreenStateFactory.getScreenState(ScreenStateType.ACTION_SCREEN_STATE);
+            crashed = dialogClassifier.classify(screenState) == DialogType.CRASH;
+            capturedScreenState = crashed ? null : screenState;
+        } catch (IllegalStateException e) {
+            // the screen couldn't be captured, e.g. the UIAutomator connection got lost
+            MATE.log_warn("Couldn't capture screen: " + e.getMessage());
+            crashed = checkForCrashDialog();
+        }
+
+        if (crashed) {
+            MATE.log("CRASH");
+            throw new AUTCrashException("App crashed");
+        }
     }
 
     /**
@@ -352,12 +442,12 @@ public class DeviceMgr {
     }
 
     /**
-     * Checks whether a crash dialog is visible on the current screen.
+     * Checks whether a crash dialog is visible on the current screen by querying the device.
      *
      * @return Returns {@code true} if a crash dialog is visible, otherwise {@code false}
      *          is returned.
      */
-    public boolean checkForCrashDialog() {
+    private boolean checkForCrashDialog() {
 
         UiObject crashDialog1 = device.findObject(
                 new UiSelector().packageName("android").textContains("keeps stopping"));
@@ -754,10 +844,48 @@ public class DeviceMgr {
         context.startActivity(intent);
     }
 
+    /**
+     * Waits until the AUT is in the foreground and its ui hierarchy has settled using
+     * a default timeout.
+     *
+     * @return Returns {@code true} if the AUT became ready within the timeout,
+     *          otherwise {@code false} is returned.
+     */
+    public boolean waitUntilAppReady() {
+        return waitUntilAppReady(APP_READY_TIMEOUT);
+    }
+
+    /**
+     * Waits until the AUT is in the foreground and its ui hierarchy has settled.
+     *
+     * @param timeout The maximal waiting time in milliseconds.
+     * @return Returns {@code true} if the AUT became ready within the given timeout,
+     *          otherwise {@code false} is returned.
+     */
+    public boolean waitUntilAppReady(long timeout) {
+
+        long deadline = System.currentTimeMillis() + timeout;
+
+        while (!packageName.equals(device.getCurrentPackageName())) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            device.waitForWindowUpdate(packageName, Math.min(remaining, 500));
+        }
+
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining > 0) {
+            settleDetector.waitForSettle("RESTART", 0, remaining);
+        }
+        return true;
+    }
+
     /**
      * Emulates pressing the 'HOME' button.
      */
     public void pressHome() {
+        capturedScreenState = null;
         device.pressHome();
     }
 
@@ -765,6 +893,7 @@ public class DeviceMgr {
      * Emulates pressing the 'BACK' button.
      */
     public void pressBack() {
+        capturedScreenState = null;
         device.pressBack();
     }
 
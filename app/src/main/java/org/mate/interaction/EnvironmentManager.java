@@ -9,9 +9,12 @@ import org.mate.MATE;
 import org.mate.Properties;
 import org.mate.Registry;
 import org.mate.exploration.genetic.chromosome.IChromosome;
+import org.mate.exploration.genetic.fitness.FitnessFunction;
 import org.mate.graph.GraphType;
 import org.mate.interaction.action.ui.Widget;
 import org.mate.message.Message;
+import org.mate.message.serialization.BinaryParser;
+import org.mate.message.serialization.BinarySerializer;
 import org.mate.message.serialization.Parser;
 import org.mate.message.serialization.Serializer;
 import org.mate.model.TestCase;
@@ -19,15 +22,28 @@ import org.mate.model.TestSuite;
 import org.mate.utils.Objective;
 import org.mate.utils.coverage.Coverage;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Provides the interface to communicate with the MATE server.
@@ -39,11 +55,57 @@ public class EnvironmentManager {
     private static final String METADATA_PREFIX = "__meta__";
     private static final String MESSAGE_PROTOCOL_VERSION = "2.3";
     private static final String MESSAGE_PROTOCOL_VERSION_KEY = "version";
+    private static final String REQUEST_ID_KEY = "request_id";
+
+    /**
+     * The protocol version using length-prefixed binary frames and typed payloads. This version
+     * is only used if the MATE-Server agrees on it during {@link #negotiateProtocolVersion()}.
+     */
+    private static final String BINARY_MESSAGE_PROTOCOL_VERSION = "3.0";
 
     private String emulator = null;
     private final Socket server;
     private final Parser messageParser;
-    private boolean active;
+    private final BinaryParser binaryMessageParser;
+    private volatile boolean active;
+
+    /**
+     * The message protocol version agreed on with the MATE-Server.
+     */
+    private volatile String protocolVersion = MESSAGE_PROTOCOL_VERSION;
+
+    /**
+     * Whether messages are exchanged via binary frames or via the textual protocol.
+     */
+    private volatile boolean binaryProtocol = false;
+
+    /**
+     * The requests that have been sent to the MATE-Server but whose response has not been
+     * received yet. Since the MATE-Server processes the requests of a connection in order,
+     * the responses arrive in the same order as the requests have been sent.
+     */
+    private final BlockingQueue<PendingResponse> pendingResponses = new LinkedBlockingQueue<>();
+
+    /**
+     * Reads the responses of the MATE-Server and hands them over to the pending requests.
+     */
+    private final Thread responseReader;
+
+    /**
+     * The errors the MATE-Server reported for one-way requests, which are reported to the
+     * caller of the next synchronous request, see {@link #sendMessageOneWay(Message)}.
+     */
+    private final Queue<String> oneWayErrors = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The error that made the connection unusable or {@code null} if the connection is intact.
+     */
+    private volatile RuntimeException connectionFailure = null;
+
+    /**
+     * The id assigned to the next request.
+     */
+    private long nextRequestId = 0;
 
     /**
      * Tracks for which test case the pulling of traces files have been already performed.
@@ -53,6 +115,22 @@ public class EnvironmentManager {
      */
     private Set<String> coveredTestCases = new HashSet<>();
 
+    /**
+     * Maps each test suite to the test cases it has been defined with at the MATE-Server. If the
+     * MATE-Server speaks the binary message protocol, the traces are stored per test case only
+     * and the MATE-Server derives the fitness and coverage of a test suite from the traces of
+     * the referenced test cases. Thus, test suites sharing test cases, e.g. the offspring of a
+     * crossover, don't require any trace to be copied. Older versions of the MATE-Server store
+     * the traces per test suite and test case, and the traces are copied between test suites.
+     */
+    private final Map<String, List<String>> testSuites = new HashMap<>();
+
+    /**
+     * Counts for each test case the number of test suites referring to it. The traces of a test
+     * case are released once the last referring test suite has been released.
+     */
+    private final Map<String, Integer> testCaseReferences = new HashMap<>();
+
     /**
      * Initialises a new environment manager communicating with
      * the MATE server on the default port.
@@ -71,9 +149,53 @@ public class EnvironmentManager {
      * @throws IOException If no connection could be established with the MATE server.
      */
     public EnvironmentManager(int port) throws IOException {
+        this(new Socket(DEFAULT_SERVER_IP, port));
+    }
+
+    /**
+     * Initialises a new environment manager communicating with
+     * the MATE server over the given connection.
+     *
+     * @param server The connection to the MATE server.
+     * @throws IOException If the connection can't be read from.
+     */
+    EnvironmentManager(Socket server) throws IOException {
         active = true;
-        server = new Socket(DEFAULT_SERVER_IP, port);
-        messageParser = new Parser(server.getInputStream());
+        this.server = server;
+        // both parsers must share the buffer, the protocol may change after the negotiation
+        InputStream in = new BufferedInputStream(server.getInputStream());
+        messageParser = new Parser(in);
+        binaryMessageParser = new BinaryParser(in);
+        responseReader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readResponses();
+            }
+        }, "MATE-Server response reader");
+        responseReader.setDaemon(true);
+        responseReader.start();
+        negotiateProtocolVersion();
+    }
+
+    /**
+     * Offers the binary message protocol to the MATE-Server. The negotiation itself is performed
+     * over the textual protocol, thus a MATE-Server not knowing the binary protocol simply rejects
+     * the request and the textual protocol is used for the remaining communication.
+     */
+    private void negotiateProtocolVersion() {
+        Message response = sendMessage(new Message.MessageBuilder("/protocol/negotiate")
+                .withParameter("versions", BINARY_MESSAGE_PROTOCOL_VERSION
+                        + "+" + MESSAGE_PROTOCOL_VERSION)
+                .build());
+
+        if (response != null && BINARY_MESSAGE_PROTOCOL_VERSION.equals(
+                response.getParameter(MESSAGE_PROTOCOL_VERSION_KEY))) {
+            protocolVersion = BINARY_MESSAGE_PROTOCOL_VERSION;
+            binaryProtocol = true;
+            MATE.log("Using binary message protocol version " + protocolVersion);
+        } else {
+            MATE.log("Using textual message protocol version " + protocolVersion);
+        }
     }
 
     /**
@@ -82,8 +204,11 @@ public class EnvironmentManager {
      * @throws IOException If closing connection fails.
      */
     public void close() throws IOException {
-        sendMessage(new Message("/close"));
+        if (connectionFailure == null) {
+            sendMessage(new Message("/close"));
+        }
         active = false;
+        responseReader.interrupt();
         server.close();
     }
 
@@ -101,27 +226,177 @@ public class EnvironmentManager {
      *
      * @param message {@link org.mate.message.Message} that will be send to the server
      * @return Response {@link org.mate.message.Message} of the server
+     * @throws IllegalStateException If the server reported an error for a preceding one-way
+     *          request, see {@link #sendMessageOneWay(Message)}.
+     */
+    public Message sendMessage(Message message) {
+        Message response = awaitResponse(sendMessageAsync(message, false));
+        reportOneWayErrors();
+        return response;
+    }
+
+    /**
+     * Sends a {@link org.mate.message.Message} to the server without waiting for the response.
+     * Requests are pipelined, i.e. multiple requests can be in flight at the same time, and are
+     * processed by the server in the order they have been sent.
+     *
+     * @param message {@link org.mate.message.Message} that will be send to the server
+     * @return Returns a future holding the response {@link org.mate.message.Message} of the
+     *          server or {@code null} if the server responded with an error.
      */
-    public synchronized Message sendMessage(Message message) {
+    public Future<Message> sendMessageAsync(Message message) {
+        return sendMessageAsync(message, false);
+    }
+
+    /**
+     * Sends a {@link org.mate.message.Message} to the server without waiting for the response.
+     * Since requests are processed in order, any subsequent request observes the effects of the
+     * given message. An error reported by the server is not lost, but raised by the next
+     * synchronous request, i.e. {@link #sendMessage(Message)}.
+     *
+     * @param message {@link org.mate.message.Message} that will be send to the server
+     */
+    public void sendMessageOneWay(Message message) {
+        sendMessageAsync(message, true);
+    }
+
+    private synchronized Future<Message> sendMessageAsync(Message message, boolean oneWay) {
         if (!active) {
-            throw new IllegalStateException("EnvironmentManager is no longer active and can not be used for communication!");
+            throw new IllegalStateException("EnvironmentManager is no longer active and can not be used for communication!",
+                    connectionFailure);
         }
-        addMetadata(message);
+        long requestId = nextRequestId++;
+        addMetadata(message, requestId);
+
+        PendingResponse pendingResponse = new PendingResponse(requestId, message.getSubject(),
+                binaryProtocol, oneWay);
+        pendingResponses.add(pendingResponse);
 
         try {
-            server.getOutputStream().write(Serializer.serialize(message));
+            server.getOutputStream().write(binaryProtocol
+                    ? BinarySerializer.serialize(message) : Serializer.serialize(message));
             server.getOutputStream().flush();
         } catch (IOException e) {
             MATE.log("socket error sending");
+            pendingResponses.remove(pendingResponse);
             throw new IllegalStateException(e);
         }
 
-        Message response = messageParser.nextMessage();
+        return pendingResponse;
+    }
 
-        verifyMetadata(response);
+    /**
+     * Raises the errors the server reported for preceding one-way requests. Since the server
+     * processes the requests in order, all of them have been answered once the response of a
+     * subsequent request has been received.
+     */
+    private void reportOneWayErrors() {
+
+        if (oneWayErrors.isEmpty()) {
+            return;
+        }
+
+        StringBuilder errors = new StringBuilder();
+        String error;
+        while ((error = oneWayErrors.poll()) != null) {
+            errors.append("\n\t").append(error);
+        }
+        throw new IllegalStateException("MATE-Server rejected one-way requests:" + errors);
+    }
+
+    /**
+     * Waits for the given response. An interrupt of the calling thread doesn't abort the wait,
+     * since the connection must not be left with a request in flight, but is restored afterwards.
+     *
+     * @param response The future holding the response.
+     * @return Returns the response or {@code null} if the server responded with an error.
+     */
+    private Message awaitResponse(Future<Message> response) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return response.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Reads the responses of the server as long as the connection is intact. A response that
+     * can't be read or doesn't belong to the awaited request leaves the stream in an unknown
+     * state, thus the connection is closed and all requests in flight fail.
+     */
+    private void readResponses() {
+        while (true) {
+
+            PendingResponse pendingResponse;
+            try {
+                pendingResponse = pendingResponses.take();
+            } catch (InterruptedException e) {
+                // the connection has been closed
+                return;
+            }
+
+            try {
+                Message response = pendingResponse.binary
+                        ? binaryMessageParser.nextMessage() : messageParser.nextMessage();
+                pendingResponse.complete(processResponse(pendingResponse, response));
+            } catch (RuntimeException e) {
+                MATE.log("socket error receiving");
+                failConnection(pendingResponse, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fails the given and all queued requests and closes the connection.
+     *
+     * @param pendingResponse The request whose response couldn't be read.
+     * @param cause The cause of the failure.
+     */
+    private void failConnection(PendingResponse pendingResponse, RuntimeException cause) {
+
+        // no request can be queued after the connection has been deactivated
+        synchronized (this) {
+            active = false;
+            connectionFailure = cause;
+        }
+
+        pendingResponse.fail(cause);
+
+        PendingResponse queued;
+        while ((queued = pendingResponses.poll()) != null) {
+            queued.fail(cause);
+        }
+
+        try {
+            server.close();
+        } catch (IOException e) {
+            MATE.log("socket error closing");
+        }
+    }
+
+    private Message processResponse(PendingResponse pendingResponse, Message response) {
+        verifyMetadata(response, pendingResponse.requestId);
         if (response.getSubject().equals("/error")) {
             MATE.log("Received error message from mate-server: "
                     + response.getParameter("info"));
+            if (pendingResponse.oneWay) {
+                oneWayErrors.add(pendingResponse.subject + ": " + response.getParameter("info"));
+            }
             return null;
         }
         stripMetadata(response);
@@ -155,9 +430,10 @@ public class EnvironmentManager {
         return response.getParameter("response");
     }
 
-    private void addMetadata(Message message) {
+    private void addMetadata(Message message, long requestId) {
         message.addParameter(
-                METADATA_PREFIX + MESSAGE_PROTOCOL_VERSION_KEY, MESSAGE_PROTOCOL_VERSION);
+                METADATA_PREFIX + MESSAGE_PROTOCOL_VERSION_KEY, protocolVersion);
+        message.addParameter(METADATA_PREFIX + REQUEST_ID_KEY, String.valueOf(requestId));
     }
 
     private void stripMetadata(Message message) {
@@ -173,19 +449,89 @@ public class EnvironmentManager {
         }
     }
 
-    private void verifyMetadata(Message message) {
+    private void verifyMetadata(Message message, long requestId) {
+
+        // a server that doesn't echo the request id answers strictly in order
+        String responseId = message.getParameter(METADATA_PREFIX + REQUEST_ID_KEY);
+        if (responseId != null && !responseId.equals(String.valueOf(requestId))) {
+            throw new IllegalStateException("Received response for request " + responseId
+                    + " while waiting for the response of request " + requestId);
+        }
+
         String protocolVersion = message.getParameter(
                 METADATA_PREFIX + MESSAGE_PROTOCOL_VERSION_KEY);
-        if (!protocolVersion.equals(MESSAGE_PROTOCOL_VERSION)) {
+        if (!this.protocolVersion.equals(protocolVersion)) {
             MATE.log(
                     "WARNING: Message protocol version used by MATE ("
-                            + MESSAGE_PROTOCOL_VERSION
+                            + this.protocolVersion
                             + ") does not match with the version used by MATE-Server ("
                             + protocolVersion
                             + ")");
         }
     }
 
+    /**
+     * Extracts a fitness vector from the given response. The binary protocol transmits the
+     * vector either as a raw double vector or, if all entries are either 0.0 or 1.0, as a bit set,
+     * while the textual protocol transmits the entries as a '+' separated string.
+     *
+     * @param response The response of the MATE-Server.
+     * @param key The parameter key of the vector.
+     * @param size The number of entries in the vector.
+     * @return Returns the vector contained in the response.
+     */
+    private List<Double> getVectorParameter(Message response, String key, int size) {
+
+        double[] vector = getRawVectorParameter(response, key, size);
+
+        List<Double> values = new ArrayList<>(vector.length);
+        for (double value : vector) {
+            values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * Extracts a fitness vector from the given response without boxing its entries, see
+     * {@link #getVectorParameter(Message, String, int)}.
+     *
+     * @param response The response of the MATE-Server.
+     * @param key The parameter key of the vector.
+     * @param size The number of entries in the vector.
+     * @return Returns the vector contained in the response.
+     */
+    private double[] getRawVectorParameter(Message response, String key, int size) {
+
+        double[] vector = response.getVector(key);
+
+        if (vector == null) {
+            BitSet bitSet = response.getBitSet(key);
+            if (bitSet != null) {
+                vector = new double[size];
+                for (int i = bitSet.nextSetBit(0); i >= 0 && i < size; i = bitSet.nextSetBit(i + 1)) {
+                    vector[i] = 1.0;
+                }
+            }
+        }
+
+        if (vector != null) {
+            return vector;
+        }
+
+        String parameter = response.getParameter(key);
+        if (parameter == null) {
+            throw new IllegalStateException("Response " + response.getSubject()
+                    + " lacks the parameter " + key + "!");
+        }
+
+        String[] entries = parameter.split("\\+");
+        vector = new double[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            vector[i] = Double.parseDouble(entries[i]);
+        }
+        return vector;
+    }
+
     /**
      * Releases the emulator. This doesn't have any effect on the real emulator, just sets some
      * internal properties.
@@ -222,7 +568,9 @@ public class EnvironmentManager {
     /**
      * Copies the test cases fitness data belonging to the source chromosome over to the given target chromosome.
      * This is necessary when a new chromosome is created but not executed, e.g. a chromosome is duplicated
-     * (which doesn't require execution since the fitness is identical).
+     * (which doesn't require execution since the fitness is identical). If the MATE-Server speaks the binary
+     * message protocol, nothing needs to be copied, since the target chromosome simply refers to the traces
+     * of its test cases, see {@link #defineTestSuite(IChromosome)}.
      *
      * @param sourceChromosome The source chromosome.
      * @param targetChromosome The target chromosome.
@@ -231,17 +579,8 @@ public class EnvironmentManager {
     public void copyFitnessData(IChromosome<TestSuite> sourceChromosome,
                                 IChromosome<TestSuite> targetChromosome, List<TestCase> testCases) {
 
-        // concatenate test cases
-        StringBuilder sb = new StringBuilder();
-
-        String prefix = "";
-        for (TestCase testCase : testCases) {
-            // there is no coverage data for dummy test cases
-            if (!testCase.isDummy()) {
-                sb.append(prefix);
-                prefix = ",";
-                sb.append(testCase.getId());
-            }
+        if (binaryProtocol) {
+            return;
         }
 
         Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/fitness/copy_fitness_data")
@@ -249,7 +588,7 @@ public class EnvironmentManager {
                 .withParameter("fitnessFunction", Properties.FITNESS_FUNCTION().name())
                 .withParameter("chromosome_src", sourceChromosome.getValue().getId())
                 .withParameter("chromosome_target", targetChromosome.getValue().getId())
-                .withParameter("entities", sb.toString());
+                .withParameter("entities", joinTestCaseIds(testCases));
 
         Message response = sendMessage(messageBuilder.build());
         if (response.getSubject().equals("/error")) {
@@ -261,7 +600,9 @@ public class EnvironmentManager {
     /**
      * Copies the test cases coverage data belonging to the source chromosome over to the given target chromosome.
      * This is necessary when a new chromosome is created but not executed, e.g. a chromosome is duplicated
-     * (which doesn't require execution since the coverage is identical).
+     * (which doesn't require execution since the coverage is identical). If the MATE-Server speaks the binary
+     * message protocol, nothing needs to be copied, since the target chromosome simply refers to the traces
+     * of its test cases, see {@link #defineTestSuite(IChromosome)}.
      *
      * @param sourceChromosome The source chromosome.
      * @param targetChromosome The target chromosome.
@@ -270,17 +611,8 @@ public class EnvironmentManager {
     public void copyCoverageData(IChromosome<TestSuite> sourceChromosome,
                                  IChromosome<TestSuite> targetChromosome, List<TestCase> testCases) {
 
-        // concatenate test cases
-        StringBuilder sb = new StringBuilder();
-
-        String prefix = "";
-        for (TestCase testCase : testCases) {
-            // there is no coverage data for dummy test cases
-            if (!testCase.isDummy()) {
-                sb.append(prefix);
-                prefix = ",";
-                sb.append(testCase.getId());
-            }
+        if (binaryProtocol) {
+            return;
         }
 
         Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/coverage/copy")
@@ -288,7 +620,7 @@ public class EnvironmentManager {
                 .withParameter("coverage_type", Properties.COVERAGE().name())
                 .withParameter("chromosome_src", sourceChromosome.getValue().getId())
                 .withParameter("chromosome_target", targetChromosome.getValue().getId())
-                .withParameter("entities", sb.toString());
+                .withParameter("entities", joinTestCaseIds(testCases));
 
         Message response = sendMessage(messageBuilder.build());
         if (response.getSubject().equals("/error")) {
@@ -297,6 +629,28 @@ public class EnvironmentManager {
         }
     }
 
+    /**
+     * Concatenates the ids of the given test cases, skipping dummy test cases since there is
+     * no coverage data for them.
+     *
+     * @param testCases The test cases.
+     * @return Returns the comma separated test case ids.
+     */
+    private static String joinTestCaseIds(List<TestCase> testCases) {
+
+        StringBuilder sb = new StringBuilder();
+
+        String prefix = "";
+        for (TestCase testCase : testCases) {
+            if (!testCase.isDummy()) {
+                sb.append(prefix);
+                prefix = ",";
+                sb.append(testCase.getId());
+            }
+        }
+        return sb.toString();
+    }
+
     /**
      * Retrieves the name of the currently visible activity. It can happen that the AUT just crashed
      * and the activity name wasn't updated, then the string 'unknown' is returned.
@@ -519,7 +873,8 @@ public class EnvironmentManager {
     }
 
     /**
-     * Stores the fitness data for the given chromosome.
+     * Stores the fitness data for the given chromosome. The traces are keyed depending on the
+     * protocol version, see {@link #addTraceKey(Message.MessageBuilder, String, String)}.
      *
      * @param chromosome Refers either to a test case or to a test suite.
      * @param entityId   Identifies the test case if chromosomeId specifies a test suite,
@@ -550,18 +905,90 @@ public class EnvironmentManager {
         Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/fitness/store_fitness_data")
                 .withParameter("fitnessFunction", Properties.FITNESS_FUNCTION().name())
                 .withParameter("deviceId", emulator)
-                .withParameter("packageName", Registry.getPackageName())
-                .withParameter("chromosome", chromosomeId);
-        if (entityId != null) {
-            messageBuilder.withParameter("entity", entityId);
+                .withParameter("packageName", Registry.getPackageName());
+        addTraceKey(messageBuilder, chromosomeId, entityId);
+
+        // subsequent fitness requests are processed after the traces have been stored
+        sendMessageOneWay(messageBuilder.build());
+    }
+
+    /**
+     * Releases the traces of the given obsolete chromosomes. Afterwards, the chromosomes must no
+     * longer be used for any fitness or coverage request. The traces of a test case are only
+     * released once no test suite refers to it anymore. The MATE-Server is only informed if it
+     * speaks the binary message protocol, since older versions don't offer the end point.
+     *
+     * @param chromosomes The obsolete chromosomes.
+     */
+    public void releaseChromosomes(Collection<? extends IChromosome<?>> chromosomes) {
+
+        List<String> chromosomeIds = new ArrayList<>();
+
+        for (IChromosome<?> chromosome : chromosomes) {
+
+            if (chromosome.getValue() instanceof TestSuite) {
+
+                if (!binaryProtocol) {
+                    // test suites are never defined at older versions of the MATE-Server
+                    continue;
+                }
+
+                TestSuite testSuite = (TestSuite) chromosome.getValue();
+
+                // the test suite might have grown since it has been defined last
+                updateTestSuite(testSuite, chromosomeIds);
+
+                List<String> testCaseIds = testSuites.remove(testSuite.getId());
+                if (testCaseIds != null) {
+                    for (String testCaseId : testCaseIds) {
+                        releaseReference(testCaseId, chromosomeIds);
+                    }
+                }
+
+                // the MATE-Server drops the definition of the test suite
+                chromosomeIds.add(testSuite.getId());
+
+            } else if (chromosome.getValue() instanceof TestCase) {
+
+                TestCase testCase = (TestCase) chromosome.getValue();
+
+                if (testCase.isDummy() || testCaseReferences.containsKey(testCase.getId())) {
+                    // still referred to by a test suite
+                    continue;
+                }
+
+                coveredTestCases.remove(testCase.getId());
+                chromosomeIds.add(testCase.getId());
+            }
         }
 
-        Message response = sendMessage(messageBuilder.build());
+        sendRelease(chromosomeIds);
+    }
 
-        if (response.getSubject().equals("/error")) {
-            MATE.log_acc("Storing fitness data failed!");
-            throw new IllegalStateException(response.getParameter("info"));
+    /**
+     * Informs the MATE-Server that the given chromosomes are obsolete.
+     *
+     * @param chromosomeIds The ids of the obsolete test cases and test suites.
+     */
+    private void sendRelease(List<String> chromosomeIds) {
+
+        if (chromosomeIds.isEmpty() || !binaryProtocol) {
+            return;
+        }
+
+        // Java 8: String.join("+", chromosomeIds);
+        StringBuilder chromosomes = new StringBuilder();
+        for (String chromosomeId : chromosomeIds) {
+            if (chromosomes.length() > 0) {
+                chromosomes.append("+");
+            }
+            chromosomes.append(chromosomeId);
         }
+
+        sendMessageOneWay(new Message.MessageBuilder("/fitness/release_chromosomes")
+                .withParameter("packageName", Registry.getPackageName())
+                .withParameter("chromosomes", chromosomes.toString())
+                .build());
     }
 
     /**
@@ -581,6 +1008,7 @@ public class EnvironmentManager {
             }
         }
 
+        defineTestSuite(chromosome);
         String chromosomeId = getChromosomeId(chromosome);
 
         Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/graph/get_branch_distance")
@@ -611,6 +1039,7 @@ public class EnvironmentManager {
             }
         }
 
+        defineTestSuite(chromosome);
         String chromosomeId = getChromosomeId(chromosome);
 
         Message.MessageBuilder messageBuilder
@@ -619,14 +1048,7 @@ public class EnvironmentManager {
                 .withParameter("chromosome", chromosomeId);
 
         Message response = sendMessage(messageBuilder.build());
-        List<Double> branchFitnessVector = new ArrayList<>();
-        String[] branchFitnessValues = response.getParameter("branch_fitness_vector").split("\\+");
-
-        for (String branchFitnessValue : branchFitnessValues) {
-            branchFitnessVector.add(Double.parseDouble(branchFitnessValue));
-        }
-
-        return branchFitnessVector;
+        return getVectorParameter(response, "branch_fitness_vector", objectives.size());
     }
 
     /**
@@ -649,6 +1071,7 @@ public class EnvironmentManager {
             }
         }
 
+        defineTestSuite(chromosome);
         String chromosomeId = getChromosomeId(chromosome);
 
         Message.MessageBuilder messageBuilder
@@ -657,14 +1080,7 @@ public class EnvironmentManager {
                 .withParameter("chromosome", chromosomeId);
 
         Message response = sendMessage(messageBuilder.build());
-        List<Double> basicBlockFitnessVector = new ArrayList<>();
-        String[] basicBlockFitnessValues = response.getParameter("basic_block_fitness_vector").split("\\+");
-
-        for (String basicBlockFitnessValue : basicBlockFitnessValues) {
-            basicBlockFitnessVector.add(Double.parseDouble(basicBlockFitnessValue));
-        }
-
-        return basicBlockFitnessVector;
+        return getVectorParameter(response, "basic_block_fitness_vector", objectives.size());
     }
 
     /**
@@ -687,6 +1103,7 @@ public class EnvironmentManager {
             }
         }
 
+        defineTestSuite(chromosome);
         String chromosomeId = getChromosomeId(chromosome);
 
         Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/graph/get_branch_distance_vector")
@@ -694,14 +1111,101 @@ public class EnvironmentManager {
                 .withParameter("chromosome", chromosomeId);
 
         Message response = sendMessage(messageBuilder.build());
-        List<Double> branchDistanceVector = new ArrayList<>();
-        String[] branchDistances = response.getParameter("branch_distance_vector").split("\\+");
+        return getVectorParameter(response, "branch_distance_vector", objectives.size());
+    }
 
-        for (String branchDistance : branchDistances) {
-            branchDistanceVector.add(Double.parseDouble(branchDistance));
+    /**
+     * Checks whether the fitness values of multiple chromosomes can be retrieved with a single
+     * request, see {@link #getFitnessMatrix(FitnessFunction, List, int, double)}.
+     *
+     * @return Returns {@code true} if the MATE-Server speaks the binary protocol, otherwise
+     *          {@code false} is returned.
+     */
+    public boolean supportsFitnessMatrix() {
+        return binaryProtocol;
+    }
+
+    /**
+     * Retrieves the fitness values of the given chromosomes in a single request instead of
+     * requesting the fitness of each chromosome separately. The MATE-Server evaluates each
+     * chromosome with the given fitness function and responds with a dense fitness matrix, where
+     * the i-th row refers to the i-th chromosome and holds one entry per objective. A scalar
+     * fitness function, e.g. branch coverage, has a single objective. Note that
+     * {@link #storeFitnessData(IChromosome, String)} has to be called previously. The request
+     * is only understood by a MATE-Server speaking the binary protocol, see
+     * {@link #supportsFitnessMatrix()}.
+     *
+     * @param fitnessFunction The fitness function, e.g. BRANCH_MULTI_OBJECTIVE.
+     * @param chromosomes The chromosomes, either test cases or test suites.
+     * @param numberOfObjectives The number of entries per row.
+     * @param dummyFitness The fitness value assigned to each objective of a dummy test case.
+     * @param <T> Specifies whether the chromosomes refer to test cases or test suites.
+     * @return Returns the fitness matrix for the given chromosomes.
+     */
+    public <T> double[][] getFitnessMatrix(FitnessFunction fitnessFunction,
+                                           List<IChromosome<T>> chromosomes,
+                                           int numberOfObjectives, double dummyFitness) {
+
+        if (!binaryProtocol) {
+            throw new IllegalStateException("The fitness matrix can't be requested with the "
+                    + "textual message protocol version " + protocolVersion + "!");
         }
 
-        return branchDistanceVector;
+        double[][] fitnessMatrix = new double[chromosomes.size()][];
+
+        // Java 8: String.join("+", chromosomeIds);
+        StringBuilder chromosomeIds = new StringBuilder();
+        List<Integer> requestedRows = new ArrayList<>(chromosomes.size());
+
+        for (int row = 0; row < chromosomes.size(); row++) {
+            IChromosome<T> chromosome = chromosomes.get(row);
+            if (chromosome.getValue() instanceof TestCase
+                    && ((TestCase) chromosome.getValue()).isDummy()) {
+                MATE.log_warn("Trying to retrieve fitness of dummy test case...");
+                fitnessMatrix[row] = new double[numberOfObjectives];
+                Arrays.fill(fitnessMatrix[row], dummyFitness);
+            } else {
+                defineTestSuite(chromosome);
+                chromosomeIds.append(getChromosomeId(chromosome));
+                chromosomeIds.append("+");
+                requestedRows.add(row);
+            }
+        }
+
+        if (requestedRows.isEmpty()) {
+            return fitnessMatrix;
+        }
+
+        // remove '+' at the end
+        chromosomeIds.setLength(chromosomeIds.length() - 1);
+
+        Message.MessageBuilder messageBuilder
+                = new Message.MessageBuilder("/fitness/get_fitness_matrix")
+                .withParameter("packageName", Registry.getPackageName())
+                .withParameter("fitnessFunction", fitnessFunction.name())
+                .withParameter("chromosomes", chromosomeIds.toString());
+
+        Message response = sendMessage(messageBuilder.build());
+        if (response == null || response.getSubject().equals("/error")) {
+            throw new IllegalStateException("Retrieving the fitness matrix for "
+                    + fitnessFunction + " failed!");
+        }
+
+        // the rows are concatenated to a single vector
+        double[] entries = getRawVectorParameter(response, "fitness_matrix",
+                requestedRows.size() * numberOfObjectives);
+
+        if (entries.length != requestedRows.size() * numberOfObjectives) {
+            throw new IllegalStateException("Fitness matrix with " + entries.length
+                    + " entries doesn't match " + requestedRows.size() + " chromosomes and "
+                    + numberOfObjectives + " objectives!");
+        }
+
+        for (int i = 0; i < requestedRows.size(); i++) {
+            fitnessMatrix[requestedRows.get(i)] = Arrays.copyOfRange(entries,
+                    i * numberOfObjectives, (i + 1) * numberOfObjectives);
+        }
+        return fitnessMatrix;
     }
 
     /**
@@ -734,12 +1238,13 @@ public class EnvironmentManager {
      */
     public void storeCoverageData(Coverage coverage, String chromosomeId, String entityId) {
 
+        String testcase = entityId == null ? chromosomeId : entityId;
+
         if (coverage == Coverage.BRANCH_COVERAGE || coverage == Coverage.LINE_COVERAGE
                 || coverage == Coverage.METHOD_COVERAGE
                 || coverage == Coverage.BASIC_BLOCK_LINE_COVERAGE
                 || coverage == Coverage.BASIC_BLOCK_BRANCH_COVERAGE) {
             // check whether the storing of the traces/coverage file has been already requested
-            String testcase = entityId == null ? chromosomeId : entityId;
             if (coveredTestCases.contains(testcase)) {
                 // don't fetch again traces/coverage file from emulator
                 return;
@@ -750,12 +1255,9 @@ public class EnvironmentManager {
         Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/coverage/store")
                 .withParameter("deviceId", emulator)
                 .withParameter("coverage_type", coverage.name())
-                .withParameter("packageName", Registry.getPackageName())
-                .withParameter("chromosome", chromosomeId);
-        if (entityId != null) {
-            messageBuilder.withParameter("entity", entityId);
-        }
-        sendMessage(messageBuilder.build());
+                .withParameter("packageName", Registry.getPackageName());
+        addTraceKey(messageBuilder, chromosomeId, entityId);
+        sendMessageOneWay(messageBuilder.build());
     }
 
     /**
@@ -781,13 +1283,13 @@ public class EnvironmentManager {
         }
 
         String chromosomeId = getChromosomeId(chromosome);
+        String testcase = entityId == null ? chromosomeId : entityId;
 
         if (coverage == Coverage.BRANCH_COVERAGE || coverage == Coverage.LINE_COVERAGE
                 || coverage == Coverage.METHOD_COVERAGE
                 || coverage == Coverage.BASIC_BLOCK_LINE_COVERAGE
                 || coverage == Coverage.BASIC_BLOCK_BRANCH_COVERAGE) {
             // check whether the storing of the traces/coverage file has been already requested
-            String testcase = entityId == null ? chromosomeId : entityId;
             if (coveredTestCases.contains(testcase)) {
                 // don't fetch again traces/coverage file from emulator
                 return;
@@ -798,12 +1300,9 @@ public class EnvironmentManager {
         Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/coverage/store")
                 .withParameter("deviceId", emulator)
                 .withParameter("coverage_type", coverage.name())
-                .withParameter("packageName", Registry.getPackageName())
-                .withParameter("chromosome", chromosomeId);
-        if (entityId != null) {
-            messageBuilder.withParameter("entity", entityId);
-        }
-        sendMessage(messageBuilder.build());
+                .withParameter("packageName", Registry.getPackageName());
+        addTraceKey(messageBuilder, chromosomeId, entityId);
+        sendMessageOneWay(messageBuilder.build());
     }
 
     /**
@@ -832,6 +1331,7 @@ public class EnvironmentManager {
                         continue;
                     }
                 }
+                defineTestSuite(chromosome);
                 chromosomeIds.append(getChromosomeId(chromosome));
                 chromosomeIds.append("+");
             }
@@ -856,42 +1356,47 @@ public class EnvironmentManager {
     }
 
     /**
-     * A convenient function to retrieve the coverage of a single test case within
-     * a test suite.
+     * Convenient function to request the coverage information for a given chromosome.
+     * A chromosome can be either a test case or a test suite. This method is used
+     * to retrieve the coverage of the last incomplete test case.
      *
-     * @param coverage    The coverage type, e.g. BRANCH_COVERAGE.
-     * @param testSuiteId Identifies the test suite.
-     * @param testCaseId  Identifies the individual test case.
+     * @param coverage     The coverage type, e.g. BRANCH_COVERAGE.
+     * @param chromosomeId Identifies either a test case or a test suite.
      * @return Returns the coverage of the given test case.
      */
-    public double getCoverage(Coverage coverage, String testSuiteId, String testCaseId) {
+    public double getCoverage(Coverage coverage, String chromosomeId) {
 
-        Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/coverage/get")
+        Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/coverage/combined")
                 .withParameter("deviceId", emulator)
                 .withParameter("coverage_type", coverage.name())
                 .withParameter("packageName", Registry.getPackageName())
-                .withParameter("testSuiteId", testSuiteId)
-                .withParameter("testCaseId", testCaseId);
+                .withParameter("chromosomes", chromosomeId);
         Message response = sendMessage(messageBuilder.build());
         return Double.parseDouble(response.getParameter("coverage"));
     }
 
     /**
-     * Convenient function to request the coverage information for a given chromosome.
-     * A chromosome can be either a test case or a test suite. This method is used
-     * to retrieve the coverage of the last incomplete test case.
+     * A convenient function to retrieve the coverage of a single test case within
+     * a test suite.
      *
-     * @param coverage     The coverage type, e.g. BRANCH_COVERAGE.
-     * @param chromosomeId Identifies either a test case or a test suite.
+     * @param coverage    The coverage type, e.g. BRANCH_COVERAGE.
+     * @param testSuiteId Identifies the test suite.
+     * @param testCaseId  Identifies the individual test case.
      * @return Returns the coverage of the given test case.
      */
-    public double getCoverage(Coverage coverage, String chromosomeId) {
+    public double getCoverage(Coverage coverage, String testSuiteId, String testCaseId) {
 
-        Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/coverage/combined")
+        if (binaryProtocol) {
+            // the traces are stored per test case independent of the test suite
+            return getCoverage(coverage, testCaseId);
+        }
+
+        Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/coverage/get")
                 .withParameter("deviceId", emulator)
                 .withParameter("coverage_type", coverage.name())
                 .withParameter("packageName", Registry.getPackageName())
-                .withParameter("chromosomes", chromosomeId);
+                .withParameter("testSuiteId", testSuiteId)
+                .withParameter("testCaseId", testCaseId);
         Message response = sendMessage(messageBuilder.build());
         return Double.parseDouble(response.getParameter("coverage"));
     }
@@ -914,6 +1419,7 @@ public class EnvironmentManager {
             }
         }
 
+        defineTestSuite(chromosome);
         String chromosomeId = getChromosomeId(chromosome);
 
         Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/coverage/combined")
@@ -955,6 +1461,7 @@ public class EnvironmentManager {
             sb.setLength(sb.length() - 1);
         }
 
+        defineTestSuite(chromosome);
         String chromosomeId = getChromosomeId(chromosome);
 
         Message.MessageBuilder messageBuilder = new Message.MessageBuilder("/coverage/lineCoveredPercentages")
@@ -1007,7 +1514,7 @@ public class EnvironmentManager {
      */
     public void takeScreenshot(String packageName, String nodeId) {
 
-        sendMessage(new Message.MessageBuilder("/emulator/interaction")
+        sendMessageOneWay(new Message.MessageBuilder("/emulator/interaction")
                 .withParameter("deviceId", emulator)
                 .withParameter("type", "take_screenshot")
                 .withParameter("packageName", packageName)
@@ -1046,6 +1553,96 @@ public class EnvironmentManager {
         }
     }
 
+    /**
+     * Requests the MATE-Server to save an app-scoped snapshot of the AUT. The snapshot can be
+     * restored later via {@link #restoreSnapshot(long)}.
+     *
+     * A snapshot covers the package data of the AUT, i.e. its private data directory and its
+     * app-specific external storage, together with the activity in the foreground. Restoring a
+     * snapshot force-stops the AUT, replaces its package data and relaunches the AUT process at
+     * that activity. The state of the emulator apart from the AUT, in particular the process
+     * running MATE and its connection to the MATE-Server, is neither saved nor restored. Since
+     * the AUT process is relaunched, its in-memory state is only restored as far as the AUT
+     * recreates it from its package data, thus the caller needs to verify the restored screen.
+     *
+     * @return Returns {@code true} if the snapshot could be saved, otherwise {@code false}.
+     */
+    public boolean saveSnapshot() {
+        Message response = sendMessage(new Message.MessageBuilder("/android/snapshot/save")
+                .withParameter("deviceId", emulator)
+                .withParameter("packageName", Registry.getPackageName())
+                .build());
+        return response != null && Boolean.parseBoolean(response.getParameter("response"));
+    }
+
+    /**
+     * Requests the MATE-Server to restore the previously saved app-scoped snapshot, see
+     * {@link #saveSnapshot()} for what is restored. The server only
+     * responds once the emulator signals that the restored AUT is ready, i.e. the response
+     * serves as readiness handshake.
+     *
+     * @param timeout The maximal time in milliseconds the server should wait for the AUT.
+     * @return Returns {@code true} if the snapshot has been restored and the AUT is ready,
+     *          otherwise {@code false} is returned.
+     */
+    public boolean restoreSnapshot(long timeout) {
+        Message response = sendMessage(new Message.MessageBuilder("/android/snapshot/restore")
+                .withParameter("deviceId", emulator)
+                .withParameter("packageName", Registry.getPackageName())
+                .withParameter("timeout", String.valueOf(timeout))
+                .build());
+        return response != null && Boolean.parseBoolean(response.getParameter("ready"));
+    }
+
+    /**
+     * Requests the MATE-Server to save a named app-scoped snapshot of the AUT, see
+     * {@link #saveSnapshot()} for what a snapshot covers. In contrast to {@link #saveSnapshot()},
+     * several named snapshots can be kept at the same time.
+     *
+     * @param snapshot The name of the snapshot.
+     * @return Returns {@code true} if the snapshot could be saved, otherwise {@code false}.
+     */
+    public boolean saveSnapshot(String snapshot) {
+        Message response = sendMessage(new Message.MessageBuilder("/android/snapshot/save")
+                .withParameter("deviceId", emulator)
+                .withParameter("packageName", Registry.getPackageName())
+                .withParameter("snapshot", snapshot)
+                .build());
+        return response != null && Boolean.parseBoolean(response.getParameter("response"));
+    }
+
+    /**
+     * Requests the MATE-Server to restore the given named snapshot, see
+     * {@link #restoreSnapshot(long)}.
+     *
+     * @param snapshot The name of the snapshot.
+     * @param timeout The maximal time in milliseconds the server should wait for the AUT.
+     * @return Returns {@code true} if the snapshot has been restored and the AUT is ready,
+     *          otherwise {@code false} is returned.
+     */
+    public boolean restoreSnapshot(String snapshot, long timeout) {
+        Message response = sendMessage(new Message.MessageBuilder("/android/snapshot/restore")
+                .withParameter("deviceId", emulator)
+                .withParameter("packageName", Registry.getPackageName())
+                .withParameter("snapshot", snapshot)
+                .withParameter("timeout", String.valueOf(timeout))
+                .build());
+        return response != null && Boolean.parseBoolean(response.getParameter("ready"));
+    }
+
+    /**
+     * Requests the MATE-Server to delete the given named snapshot. No response is awaited.
+     *
+     * @param snapshot The name of the snapshot.
+     */
+    public void deleteSnapshot(String snapshot) {
+        sendMessageOneWay(new Message.MessageBuilder("/android/snapshot/delete")
+                .withParameter("deviceId", emulator)
+                .withParameter("packageName", Registry.getPackageName())
+                .withParameter("snapshot", snapshot)
+                .build());
+    }
+
     /**
      * Another accessibility function.
      *
@@ -1157,7 +1754,9 @@ public class EnvironmentManager {
 
     public void sendFlawToServer(String msg) {
         String cmd = "reportFlaw:" + emulator + ":" + msg;
-        tunnelLegacyCmd(cmd);
+        sendMessageOneWay(new Message.MessageBuilder("/legacy")
+                .withParameter("cmd", cmd)
+                .build());
     }
 
     /**
@@ -1214,4 +1813,225 @@ public class EnvironmentManager {
         }
         return chromosomeId;
     }
+
+    /**
+     * Adds the key under which the traces of a test case are stored to the given store request.
+     * If the MATE-Server speaks the binary message protocol, the traces are keyed by the test case
+     * only and a test suite refers to them via {@link #defineTestSuite(IChromosome)}. Otherwise,
+     * the traces are keyed by the test suite and the test case (entity) within it.
+     *
+     * @param messageBuilder The store request.
+     * @param chromosomeId Identifies either a test case or a test suite.
+     * @param entityId Identifies the test case if chromosomeId specifies a test suite,
+     *                 otherwise {@code null}.
+     */
+    private void addTraceKey(Message.MessageBuilder messageBuilder, String chromosomeId,
+                             String entityId) {
+        if (binaryProtocol) {
+            messageBuilder.withParameter("chromosome", entityId == null ? chromosomeId : entityId);
+        } else {
+            messageBuilder.withParameter("chromosome", chromosomeId);
+            if (entityId != null) {
+                messageBuilder.withParameter("entity", entityId);
+            }
+        }
+    }
+
+    /**
+     * Defines the given test suite at the MATE-Server as the set of its test cases if the test
+     * cases have changed since the last definition. Needs to be called before each request that
+     * refers to the fitness or coverage of the test suite. Does nothing for test cases and if the
+     * MATE-Server doesn't speak the binary message protocol, since older versions keep copies of
+     * the traces per test suite, see {@link #copyFitnessData(IChromosome, IChromosome, List)}.
+     *
+     * @param chromosome The chromosome that is about to be requested.
+     * @param <T> Refers either to a {@link TestCase} or a {@link TestSuite}.
+     */
+    private <T> void defineTestSuite(IChromosome<T> chromosome) {
+
+        if (!binaryProtocol || !(chromosome.getValue() instanceof TestSuite)) {
+            return;
+        }
+
+        TestSuite testSuite = (TestSuite) chromosome.getValue();
+        List<String> released = new ArrayList<>();
+
+        if (updateTestSuite(testSuite, released)) {
+
+            // Java 8: String.join(",", testCaseIds);
+            StringBuilder testCaseIds = new StringBuilder();
+            for (String testCaseId : testSuites.get(testSuite.getId())) {
+                if (testCaseIds.length() > 0) {
+                    testCaseIds.append(",");
+                }
+                testCaseIds.append(testCaseId);
+            }
+
+            sendMessageOneWay(new Message.MessageBuilder("/suite/define")
+                    .withParameter("packageName", Registry.getPackageName())
+                    .withParameter("suite", testSuite.getId())
+                    .withParameter("test_cases", testCaseIds.toString())
+                    .build());
+        }
+
+        sendRelease(released);
+    }
+
+    /**
+     * Updates the test cases referred to by the given test suite.
+     *
+     * @param testSuite The test suite.
+     * @param released Collects the test cases that are no longer referred to by any test suite.
+     * @return Returns {@code true} if the test cases of the test suite have changed, otherwise
+     *          {@code false}.
+     */
+    private boolean updateTestSuite(TestSuite testSuite, List<String> released) {
+
+        List<String> testCaseIds = new ArrayList<>();
+        for (TestCase testCase : testSuite.getTestCases()) {
+            // there is no trace for dummy test cases
+            if (!testCase.isDummy()) {
+                testCaseIds.add(testCase.getId());
+            }
+        }
+
+        List<String> previous = testSuites.get(testSuite.getId());
+
+        if (testCaseIds.equals(previous)) {
+            return false;
+        }
+
+        testSuites.put(testSuite.getId(), testCaseIds);
+
+        for (String testCaseId : testCaseIds) {
+            Integer references = testCaseReferences.get(testCaseId);
+            testCaseReferences.put(testCaseId, references == null ? 1 : references + 1);
+        }
+
+        if (previous != null) {
+            for (String testCaseId : previous) {
+                releaseReference(testCaseId, released);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops a reference of a test suite to the given test case.
+     *
+     * @param testCaseId The test case that is no longer referred to by a test suite.
+     * @param released Collects the test case if no test suite refers to it anymore.
+     */
+    private void releaseReference(String testCaseId, List<String> released) {
+
+        Integer references = testCaseReferences.get(testCaseId);
+
+        if (references == null) {
+            return;
+        }
+
+        if (references > 1) {
+            testCaseReferences.put(testCaseId, references - 1);
+        } else {
+            testCaseReferences.remove(testCaseId);
+            coveredTestCases.remove(testCaseId);
+            released.add(testCaseId);
+        }
+    }
+
+    /**
+     * The response of a request that has been sent to the MATE-Server. The response is set by
+     * the response reader, the sender waits for it via {@link #get()}.
+     */
+    private static class PendingResponse implements Future<Message> {
+
+        private final long requestId;
+        private final String subject;
+        private final boolean binary;
+
+        /**
+         * Whether the sender doesn't wait for the response, see {@link #sendMessageOneWay(Message)}.
+         */
+        private final boolean oneWay;
+
+        private boolean done = false;
+        private Message response;
+        private Throwable failure;
+
+        private PendingResponse(long requestId, String subject, boolean binary, boolean oneWay) {
+            this.requestId = requestId;
+            this.subject = subject;
+            this.binary = binary;
+            this.oneWay = oneWay;
+        }
+
+        private synchronized void complete(Message response) {
+            if (!done) {
+                this.response = response;
+                done = true;
+                notifyAll();
+            }
+        }
+
+        private synchronized void fail(Throwable cause) {
+            if (!done) {
+                failure = cause;
+                done = true;
+                notifyAll();
+            }
+        }
+
+        /**
+         * A request in flight can't be cancelled, since the response must be read anyway.
+         *
+         * @param mayInterruptIfRunning Ignored.
+         * @return Returns always {@code false}.
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public synchronized boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public synchronized Message get() throws InterruptedException, ExecutionException {
+            while (!done) {
+                wait();
+            }
+            return getResult();
+        }
+
+        @Override
+        public synchronized Message get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+
+            long remaining = unit.toNanos(timeout);
+            long deadline = System.nanoTime() + remaining;
+
+            while (!done) {
+                if (remaining <= 0) {
+                    throw new TimeoutException("No response for request " + requestId);
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            return getResult();
+        }
+
+        private Message getResult() throws ExecutionException {
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+            return response;
+        }
+    }
 }
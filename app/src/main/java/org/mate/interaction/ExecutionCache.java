@@ -0,0 +1,298 @@
+package org.mate.interaction;
+
+import org.mate.MATE;
+import org.mate.Registry;
+import org.mate.interaction.action.Action;
+import org.mate.state.IScreenState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the executed action sequences since the last reset of the AUT in a trie, where each
+ * node refers to the screen state reached after executing the actions on the path from the root.
+ * Once a test case has replayed the prefix it shares with another test case, e.g. the actions
+ * before the cut point of a mutation, an app-scoped snapshot of the AUT is saved for the reached
+ * node, see {@link EnvironmentManager#saveSnapshot()}. Subsequent test cases sharing that prefix
+ * restore the snapshot at the deepest reusable node instead of resetting the AUT and replaying
+ * the prefix action by action. As a restored AUT is relaunched from its package data, the
+ * recorded screen state serves for verifying that the snapshot actually reproduces the node.
+ *
+ * The number of snapshots is bounded, the least recently used snapshot is deleted first.
+ */
+class ExecutionCache {
+
+    /**
+     * The maximal number of recorded nodes. Afterwards, only already recorded paths are
+     * followed.
+     */
+    private static final int MAX_NODES = 50000;
+
+    /**
+     * The maximal number of snapshots kept at the same time.
+     */
+    private final int maxSnapshots;
+
+    /**
+     * Refers to the initial state of the AUT after a reset.
+     */
+    private final Node root = new Node(null, 0);
+
+    /**
+     * The node reached by the current execution or {@code null} if the current execution
+     * can't be associated with a node.
+     */
+    private Node current = null;
+
+    /**
+     * The depth at which a snapshot should be saved during the current execution or {@code -1}
+     * if no snapshot should be saved.
+     */
+    private int checkpointDepth = -1;
+
+    /**
+     * The nodes having a snapshot in the order of their last use.
+     */
+    private final LinkedHashSet<Node> snapshots = new LinkedHashSet<>();
+
+    /**
+     * Whether the MATE-Server failed to save a snapshot.
+     */
+    private boolean snapshotFailed = false;
+
+    private int numberOfNodes = 1;
+    private int snapshotCounter = 0;
+
+    /**
+     * Creates a new execution cache.
+     *
+     * @param maxSnapshots The maximal number of snapshots kept at the same time.
+     */
+    ExecutionCache(int maxSnapshots) {
+        this.maxSnapshots = maxSnapshots;
+    }
+
+    /**
+     * Signals that the AUT has been reset, i.e. subsequent actions are recorded from the root.
+     *
+     * @param initialState The screen state after the reset.
+     */
+    void onReset(IScreenState initialState) {
+        root.state = initialState;
+        current = root;
+        checkpointDepth = -1;
+    }
+
+    /**
+     * Signals that the AUT has been brought into a state that can't be associated with a node,
+     * e.g. by restarting the AUT. Subsequent actions are not recorded until the next reset.
+     */
+    void invalidate() {
+        current = null;
+        checkpointDepth = -1;
+    }
+
+    /**
+     * Signals that the given node has been restored.
+     *
+     * @param node The restored node.
+     */
+    void onRestore(Node node) {
+        current = node;
+        checkpointDepth = -1;
+    }
+
+    /**
+     * Requests a snapshot once the current execution reaches the given depth.
+     *
+     * @param depth The number of actions after which a snapshot should be saved.
+     */
+    void setCheckpoint(int depth) {
+        checkpointDepth = depth;
+    }
+
+    /**
+     * Returns the initial state of the AUT after a reset.
+     *
+     * @return Returns the initial state or {@code null} if the AUT hasn't been reset yet.
+     */
+    IScreenState getInitialState() {
+        return root.state;
+    }
+
+    /**
+     * Looks up the deepest node along the given actions that has a snapshot.
+     *
+     * @param prefix The actions to be executed.
+     * @return Returns the nodes along the path from the root to the deepest node with a
+     *          snapshot or an empty list if no such node exists.
+     */
+    List<Node> findRestorablePath(List<? extends Action> prefix) {
+
+        if (snapshotFailed || root.state == null) {
+            return Collections.emptyList();
+        }
+
+        List<Node> path = new ArrayList<>();
+        int restorableDepth = 0;
+        Node node = root;
+
+        for (Action action : prefix) {
+            node = node.children.get(action);
+            if (node == null) {
+                break;
+            }
+            path.add(node);
+            if (node.snapshot != null) {
+                restorableDepth = path.size();
+            }
+        }
+
+        if (restorableDepth == 0) {
+            return Collections.emptyList();
+        }
+
+        // mark the snapshot as most recently used
+        Node restorable = path.get(restorableDepth - 1);
+        snapshots.remove(restorable);
+        snapshots.add(restorable);
+
+        return path.subList(0, restorableDepth);
+    }
+
+    /**
+     * Records the execution of the given action.
+     *
+     * @param action The executed action.
+     * @param state The screen state reached by the action.
+     * @param success Whether the action has been executed successfully without leaving the AUT.
+     */
+    void onAction(Action action, IScreenState state, boolean success) {
+
+        if (current == null) {
+            return;
+        }
+
+        if (!success) {
+            // the AUT crashed or has been left, the remaining execution is not reproducible
+            invalidate();
+            return;
+        }
+
+        Node child = current.children.get(action);
+
+        if (child == null) {
+            if (numberOfNodes >= MAX_NODES) {
+                invalidate();
+                return;
+            }
+            child = new Node(action, current.depth + 1);
+            current.children.put(action, child);
+            numberOfNodes++;
+        }
+
+        child.state = state;
+        current = child;
+
+        if (current.depth == checkpointDepth) {
+            checkpointDepth = -1;
+            if (current.snapshot == null) {
+                saveSnapshot(current);
+            }
+        }
+    }
+
+    /**
+     * Removes the snapshot of the given node, e.g. because it couldn't be restored.
+     *
+     * @param node The node whose snapshot should be removed.
+     */
+    void discard(Node node) {
+        if (node.snapshot != null) {
+            Registry.getEnvironmentManager().deleteSnapshot(node.snapshot);
+            node.snapshot = null;
+            snapshots.remove(node);
+        }
+    }
+
+    /**
+     * Saves a snapshot for the given node and deletes the least recently used snapshot if the
+     * maximal number of snapshots is exceeded.
+     *
+     * @param node The node for which a snapshot should be saved.
+     */
+    private void saveSnapshot(Node node) {
+
+        if (snapshotFailed) {
+            return;
+        }
+
+        if (snapshots.size() >= maxSnapshots) {
+            Iterator<Node> iterator = snapshots.iterator();
+            Node leastRecentlyUsed = iterator.next();
+            iterator.remove();
+            Registry.getEnvironmentManager().deleteSnapshot(leastRecentlyUsed.snapshot);
+            leastRecentlyUsed.snapshot = null;
+        }
+
+        String snapshot = "prefix-" + snapshotCounter++;
+
+        if (Registry.getEnvironmentManager().saveSnapshot(snapshot)) {
+            node.snapshot = snapshot;
+            snapshots.add(node);
+        } else {
+            MATE.log_warn("Saving snapshot failed! Prefixes are replayed from now on.");
+            snapshotFailed = true;
+        }
+    }
+
+    /**
+     * A node of the trie representing the execution of an action.
+     */
+    static final class Node {
+
+        private final Map<Action, Node> children = new HashMap<>();
+
+        /**
+         * The executed action or {@code null} for the root.
+         */
+        private final Action action;
+
+        /**
+         * The number of actions on the path from the root.
+         */
+        private final int depth;
+
+        /**
+         * The screen state reached after executing the action.
+         */
+        private IScreenState state;
+
+        /**
+         * The name of the snapshot saved for this node or {@code null} if there is none.
+         */
+        private String snapshot;
+
+        private Node(Action action, int depth) {
+            this.action = action;
+            this.depth = depth;
+        }
+
+        Action getAction() {
+            return action;
+        }
+
+        IScreenState getState() {
+            return state;
+        }
+
+        String getSnapshot() {
+            return snapshot;
+        }
+    }
+}
@@ -5,13 +5,18 @@ import android.util.Log;
 
 import org.mate.MATE;
 import org.mate.Properties;
+import org.mate.Registry;
 import org.mate.exceptions.AUTCrashException;
 import org.mate.interaction.action.Action;
-import org.mate.interaction.action.ui.ActionType;
 import org.mate.interaction.action.ui.PrimitiveAction;
 import org.mate.interaction.action.ui.UIAction;
 import org.mate.interaction.action.ui.Widget;
 import org.mate.interaction.action.ui.WidgetAction;
+import org.mate.interaction.dialog.DialogClassifier;
+import org.mate.interaction.reset.ClearDataResetStrategy;
+import org.mate.interaction.reset.IResetStrategy;
+import org.mate.interaction.reset.ResetStrategy;
+import org.mate.interaction.reset.SnapshotResetStrategy;
 import org.mate.model.Edge;
 import org.mate.model.IGUIModel;
 import org.mate.model.fsm.FSMModel;
@@ -20,6 +25,8 @@ import org.mate.state.ScreenStateFactory;
 import org.mate.state.ScreenStateType;
 import org.mate.utils.Utils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
@@ -36,6 +43,18 @@ public class UIAbstractionLayer {
 
     private static final int UiAutomatorDisconnectedRetries = 3;
     private static final String UiAutomatorDisconnectedMessage = "UiAutomation not connected!";
+
+    /**
+     * The maximal time in milliseconds to wait for the AUT after restoring a snapshot.
+     */
+    private static final long SNAPSHOT_READY_TIMEOUT = 10000;
+
+    /**
+     * The minimal time in milliseconds between two checks for a progress bar. An animated
+     * progress bar never lets the ui settle, thus the screen would be re-parsed back to back.
+     */
+    private static final long PROGRESS_BAR_POLL_INTERVAL = 1000;
+
     private String packageName;
     private DeviceMgr deviceMgr;
     private IScreenState lastScreenState;
@@ -43,9 +62,25 @@ public class UIAbstractionLayer {
 
     private IGUIModel guiModel;
 
+    /**
+     * The strategy used to reset the AUT, see {@link #resetApp()}.
+     */
+    private final IResetStrategy resetStrategy;
+
+    /**
+     * Caches the executed action sequences in order to restore shared prefixes from snapshots,
+     * see {@link #restorePrefix(List)}, or {@code null} if disabled.
+     */
+    private final ExecutionCache executionCache;
+
     public UIAbstractionLayer(DeviceMgr deviceMgr, String packageName) {
         this.deviceMgr = deviceMgr;
         this.packageName = packageName;
+        this.resetStrategy = createResetStrategy(deviceMgr);
+        // snapshots can only be verified against recorded screen states
+        this.executionCache = Properties.EXECUTION_CACHE_SNAPSHOTS() > 0
+                && Properties.WIDGET_BASED_ACTIONS()
+                ? new ExecutionCache(Properties.EXECUTION_CACHE_SNAPSHOTS()) : null;
         // check for any kind of dialogs (permission, crash, ...) initially
         lastScreenState = clearScreen();
         lastScreenState.setId("S" + lastScreenStateNumber);
@@ -62,6 +97,16 @@ public class UIAbstractionLayer {
         return getLastScreenState().getActions();
     }
 
+    /**
+     * Checks whether the given action is applicable on the current screen.
+     *
+     * @param action The action to be checked.
+     * @return Returns {@code true} if the action is applicable, otherwise {@code false}.
+     */
+    public boolean isExecutable(Action action) {
+        return getLastScreenState().isExecutable(action);
+    }
+
     /**
      * Returns the name of the current activity.
      *
@@ -79,6 +124,23 @@ public class UIAbstractionLayer {
      * @return Returns the outcome of the execution, e.g. success.
      */
     public ActionResult executeAction(Action action) {
+
+        ActionResult result = executeActionWithRetries(action);
+
+        if (executionCache != null) {
+            executionCache.onAction(action, lastScreenState, action instanceof WidgetAction
+                    && (result == SUCCESS || result == ActionResult.SUCCESS_NEW_STATE));
+        }
+        return result;
+    }
+
+    /**
+     * Executes the given action, see {@link #executeAction(Action)}.
+     *
+     * @param action The action that should be executed.
+     * @return Returns the outcome of the execution, e.g. success.
+     */
+    private ActionResult executeActionWithRetries(Action action) {
         boolean retry = true;
         int retryCount = 0;
 
@@ -115,8 +177,11 @@ public class UIAbstractionLayer {
      */
     private ActionResult executeActionUnsafe(Action action) {
         IScreenState state;
+        IScreenState capturedState;
         try {
             deviceMgr.executeAction(action);
+            // the screen has been already captured while checking for a crash
+            capturedState = deviceMgr.pollScreenState();
         } catch (AUTCrashException e) {
 
             MATE.log_acc("CRASH MESSAGE" + e.getMessage());
@@ -138,7 +203,7 @@ public class UIAbstractionLayer {
             return SUCCESS;
         }
 
-        state = clearScreen();
+        state = clearScreen(capturedState);
 
         // TODO: assess if timeout should be added to primitive actions as well
         // check whether there is a progress bar on the screen
@@ -196,8 +261,21 @@ public class UIAbstractionLayer {
      * @return Returns the current screen state.
      */
     public IScreenState clearScreen() {
+        return clearScreen(null);
+    }
+
+    /**
+     * Clears the screen from all sorts of dialog, e.g. a permission dialog. Each captured screen
+     * is classified in a single pass over its widgets and the recognized dialog is cleared by
+     * the handler registered with its matcher, see {@link DialogClassifier}.
+     *
+     * @param capturedState The current screen if it has been captured already, otherwise
+     *                      {@code null}.
+     * @return Returns the current screen state.
+     */
+    private IScreenState clearScreen(IScreenState capturedState) {
 
-        IScreenState screenState = null;
+        IScreenState screenState = capturedState;
         boolean change = true;
         boolean retry = true;
         int retryCount = 0;
@@ -208,30 +286,14 @@ public class UIAbstractionLayer {
             change = false;
             try {
 
-                screenState = ScreenStateFactory.getScreenState(ScreenStateType.ACTION_SCREEN_STATE);
-
-                // check for presence of crash dialog
-                if (handleCrashDialog()) {
-                    change = true;
-                    continue;
-                }
-
-                // check for presence of build warnings dialog
-                if (handleBuildWarnings(screenState)) {
-                    change = true;
-                    continue;
-                }
-
-                // check for google sign in dialog
-                if (handleGoogleSignInDialog(screenState)) {
-                    change = true;
-                    continue;
+                if (screenState == null) {
+                    screenState = ScreenStateFactory.getScreenState(ScreenStateType.ACTION_SCREEN_STATE);
                 }
 
-                // check for presence of permission dialog
-                if (handlePermissionDialog(screenState)) {
+                if (deviceMgr.getDialogClassifier().handle(screenState, deviceMgr)) {
                     change = true;
-                    continue;
+                    // re-use the screen captured after clicking on the dialog if possible
+                    screenState = deviceMgr.pollScreenState();
                 }
 
             } catch (Exception e) {
@@ -240,6 +302,7 @@ public class UIAbstractionLayer {
                         && retryCount < UiAutomatorDisconnectedRetries) {
                     retry = true;
                     retryCount += 1;
+                    screenState = null;
                     continue;
                 }
                 Log.e("acc", "", e);
@@ -249,175 +312,200 @@ public class UIAbstractionLayer {
     }
 
     /**
-     * Checks whether the current screen shows a 'Google SignIn' dialog. If this is the case,
-     * we press the 'BACK' button as we can't login.
+     * Checks whether a progress bar appeared on the screen. If this is the case,
+     * waits a certain amount of time that the progress bar can reach completion.
      *
-     * @return Returns {@code true} if the screen may change, otherwise {@code false} is returned.
+     * @param state The recording of the current screen.
+     * @return Returns the amount of time it has waited for completion.
      */
-    private boolean handleGoogleSignInDialog(IScreenState screenState) {
+    private long waitForProgressBar(IScreenState state) {
 
-        if (screenState.getPackageName().equals("com.google.android.gms")) {
-            MATE.log("Detected Google SignIn Dialog!");
-            deviceMgr.pressBack();
-            return true;
-        } else {
-            return false;
+        long ini = new Date().getTime();
+        long end = ini;
+        boolean hadProgressBar = false;
+
+        // wait a certain amount of time (22 seconds at max)
+        while (hasProgressBar(state) && (end - ini) < UISettleDetector.MAX_TIMEOUT) {
+            MATE.log("WAITING PROGRESS BAR TO FINISH");
+            hadProgressBar = true;
+            long remaining = UISettleDetector.MAX_TIMEOUT - (end - ini);
+            long waited = deviceMgr.getSettleDetector()
+                    .waitForSettle("PROGRESS_BAR", 0, remaining);
+            long pause = Math.min(PROGRESS_BAR_POLL_INTERVAL, remaining) - waited;
+            if (pause > 0) {
+                Utils.sleep(pause);
+            }
+            state = ScreenStateFactory.getScreenState(ScreenStateType.ACTION_SCREEN_STATE);
+            end = new Date().getTime();
         }
+        if (!hadProgressBar)
+            return 0;
+        return end - ini;
     }
 
     /**
-     * Checks whether the current screen shows a crash dialog. If this is the case,
-     * we press the 'HOME' button.
+     * Checks whether any widget on the given screen represents a progress bar.
      *
-     * @return Returns {@code true} if the screen may change, otherwise {@code false} is returned.
+     * @param state The recording of the current screen.
+     * @return Returns {@code true} if a progress bar is displayed, otherwise {@code false}.
      */
-    private boolean handleCrashDialog() {
-
-        if (deviceMgr.checkForCrashDialog()) {
-            MATE.log("Detected crash dialog!");
-            // TODO: Should we really press 'HOME' or better click 'OK' on the dialog?
-            deviceMgr.pressHome();
-            return true;
-        } else {
-            return false;
+    private boolean hasProgressBar(IScreenState state) {
+        for (Widget widget : state.getWidgets()) {
+            if (deviceMgr.checkForProgressBar(widget)) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    /**
+     * Logs the recorded times the ui took to settle after the execution of actions.
+     */
+    public void logSettleTimes() {
+        deviceMgr.getSettleDetector().logSettleTimes();
     }
 
     /**
-     * Checks whether the current screen shows a permission dialog. If this is the case,
-     * the permission is tried to be granted by clicking on the 'allow button'.
+     * Returns the screen width.
      *
-     * @param screenState The current screen.
-     * @return Returns {@code true} if the screen may change, otherwise {@code false} is returned.
+     * @return Returns the screen width in pixels.
      */
-    private boolean handlePermissionDialog(IScreenState screenState) {
+    public int getScreenWidth() {
+        return deviceMgr.getScreenWidth();
+    }
 
-        /*
-         * The permission dialog has a different package name depending on the API level.
-         * We currently support API level 25 and 28.
-         */
-        if (screenState.getPackageName().equals("com.google.android.packageinstaller")
-                || screenState.getPackageName().equals("com.android.packageinstaller")) {
-
-            MATE.log("Detected permission dialog!");
-
-            for (WidgetAction action : screenState.getWidgetActions()) {
-
-                Widget widget = action.getWidget();
-
-                /*
-                 * The resource id for the allow button stays the same for both API 25
-                 * and API 28, although the package name differs.
-                 */
-                if (action.getActionType() == ActionType.CLICK
-                        && (widget.getResourceID()
-                                .equals("com.android.packageinstaller:id/permission_allow_button")
-                            || widget.getText().toLowerCase().equals("allow"))) {
-                    try {
-                        deviceMgr.executeAction(action);
-                        return true;
-                    } catch (AUTCrashException e) {
-                        MATE.log_warn("Couldn't click on permission dialog!");
-                        throw new IllegalStateException(e);
-                    }
-                }
-            }
-            throw new IllegalStateException("Couldn't find any applicable action on permission dialog!");
-        } else {
-            return false;
-        }
+    /**
+     * Returns the screen height.
+     *
+     * @return Returns the screen height in pixels.
+     */
+    public int getScreenHeight() {
+        return deviceMgr.getScreenHeight();
     }
 
     /**
-     * Checks whether the current screen shows a build warnings dialog. If this is the case,
-     * we try to click on the 'OK' button.
+     * Creates the reset strategy selected by {@link Properties#RESET_STRATEGY()}.
      *
-     * @param screenState The current screen.
-     * @return Returns {@code true} if the screen may change, otherwise {@code false} is returned.
+     * @param deviceMgr The device manager.
+     * @return Returns the selected reset strategy.
      */
-    private boolean handleBuildWarnings(IScreenState screenState) {
-
-        for (Widget widget : screenState.getWidgets()) {
-            if (widget.getText().equals("This app was built for an older version of Android " +
-                    "and may not work properly. Try checking for updates, or contact the developer.")) {
-
-                MATE.log("Detected build warnings dialog!");
-
-                for (WidgetAction action : screenState.getWidgetActions()) {
-                    if (action.getActionType() == ActionType.CLICK
-                            && action.getWidget().getText().equals("OK")) {
-                        try {
-                            deviceMgr.executeAction(action);
-                            return true;
-                        } catch (AUTCrashException e) {
-                            MATE.log_warn("Couldn't click on build warnings dialog!");
-                            throw new IllegalStateException(e);
-                        }
-                    }
-                }
-            }
+    private static IResetStrategy createResetStrategy(DeviceMgr deviceMgr) {
+        ResetStrategy resetStrategy = Properties.RESET_STRATEGY();
+        switch (resetStrategy) {
+            case CLEAR_DATA:
+                return new ClearDataResetStrategy(deviceMgr);
+            case SNAPSHOT:
+                return new SnapshotResetStrategy(deviceMgr, new ClearDataResetStrategy(deviceMgr));
+            default:
+                throw new IllegalArgumentException("Unknown reset strategy: " + resetStrategy);
         }
-        return false;
     }
 
     /**
-     * Checks whether a progress bar appeared on the screen. If this is the case,
-     * waits a certain amount of time that the progress bar can reach completion.
-     *
-     * @param state The recording of the current screen.
-     * @return Returns the amount of time it has waited for completion.
+     * Resets an app, i.e. bringing the app into its initial state according to the selected
+     * reset strategy, by default clearing the app cache and restarting the app.
      */
-    private long waitForProgressBar(IScreenState state) {
+    public void resetApp() {
 
-        long ini = new Date().getTime();
-        long end = new Date().getTime();
-        boolean hadProgressBar = false;
-        boolean hasProgressBar = true;
+        prepareDevice();
 
-        // wait a certain amount of time (22 seconds at max)
-        while (hasProgressBar && (end - ini) < 22000) {
-
-            // check whether a widget represents a progress bar
-            hasProgressBar = false;
-
-            for (Widget widget : state.getWidgets()) {
-                if (deviceMgr.checkForProgressBar(widget)) {
-                    MATE.log("WAITING PROGRESS BAR TO FINISH");
-                    hasProgressBar = true;
-                    hadProgressBar = true;
-                    Utils.sleep(3000);
-                    state = ScreenStateFactory.getScreenState(ScreenStateType.ACTION_SCREEN_STATE);
-                }
-            }
-            end = new Date().getTime();
+        resetStrategy.reset();
+        IScreenState state = clearScreen();
+        if (Properties.WIDGET_BASED_ACTIONS()) {
+            lastScreenState = state;
+        }
+
+        if (executionCache != null) {
+            executionCache.onReset(lastScreenState);
         }
-        if (!hadProgressBar)
-            return 0;
-        return end - ini;
     }
 
     /**
-     * Returns the screen width.
+     * Brings the AUT into the state reached by the longest prefix of the given actions for which
+     * a snapshot is available, see {@link ExecutionCache}. If there is no such snapshot, the AUT
+     * is reset via {@link #resetApp()}. In addition, a snapshot is requested once the given
+     * actions have been executed, such that subsequent executions sharing the same prefix can
+     * restore it.
      *
-     * @return Returns the screen width in pixels.
+     * @param prefix The actions that are going to be executed next.
+     * @return Returns the initial screen state after a reset followed by the screen states
+     *          reached by the restored actions. Thus, the first {@code size() - 1} actions of
+     *          the prefix must not be executed again.
      */
-    public int getScreenWidth() {
-        return deviceMgr.getScreenWidth();
+    public List<IScreenState> restorePrefix(List<? extends Action> prefix) {
+
+        if (executionCache != null) {
+
+            List<ExecutionCache.Node> path = executionCache.findRestorablePath(prefix);
+
+            if (!path.isEmpty()) {
+
+                ExecutionCache.Node node = path.get(path.size() - 1);
+
+                if (restoreSnapshot(node)) {
+                    MATE.log("Restored " + path.size() + " actions from snapshot!");
+
+                    List<IScreenState> states = new ArrayList<>(path.size() + 1);
+                    states.add(executionCache.getInitialState());
+                    for (ExecutionCache.Node restored : path) {
+                        states.add(restored.getState());
+                    }
+
+                    executionCache.onRestore(node);
+                    executionCache.setCheckpoint(prefix.size());
+                    return states;
+                }
+
+                executionCache.discard(node);
+            }
+        }
+
+        resetApp();
+
+        if (executionCache != null) {
+            executionCache.setCheckpoint(prefix.size());
+        }
+        return Collections.singletonList(lastScreenState);
     }
 
     /**
-     * Returns the screen height.
+     * Restores the snapshot of the given node and verifies that the AUT shows the screen state
+     * recorded for the node.
      *
-     * @return Returns the screen height in pixels.
+     * @param node The node to be restored.
+     * @return Returns {@code true} if the node has been restored, otherwise {@code false}.
      */
-    public int getScreenHeight() {
-        return deviceMgr.getScreenHeight();
+    private boolean restoreSnapshot(ExecutionCache.Node node) {
+
+        prepareDevice();
+
+        if (!Registry.getEnvironmentManager()
+                .restoreSnapshot(node.getSnapshot(), SNAPSHOT_READY_TIMEOUT)) {
+            MATE.log_warn("Restoring snapshot " + node.getSnapshot() + " failed!");
+            return false;
+        }
+
+        if (!deviceMgr.waitUntilAppReady(SNAPSHOT_READY_TIMEOUT)) {
+            MATE.log_warn("AUT not ready after restoring snapshot " + node.getSnapshot() + "!");
+            return false;
+        }
+
+        IScreenState state = clearScreen();
+
+        if (state == null || !toRecordedScreenState(state).equals(node.getState())) {
+            MATE.log_warn("Snapshot " + node.getSnapshot() + " doesn't match the cached state!");
+            return false;
+        }
+
+        // the cached state offers the very same action objects the prefix refers to
+        lastScreenState = node.getState();
+        return true;
     }
 
     /**
-     * Resets an app, i.e. clearing the app cache and restarting the app.
+     * Wakes up the device and ensures the portrait mode before the AUT is reset or restored.
      */
-    public void resetApp() {
+    private void prepareDevice() {
 
         try {
             deviceMgr.getDevice().wakeUp();
@@ -429,23 +517,17 @@ public class UIAbstractionLayer {
         if (!deviceMgr.isInPortraitMode()) {
             deviceMgr.setPortraitMode();
         }
-
-        deviceMgr.reinstallApp();
-        Utils.sleep(5000);
-        deviceMgr.restartApp();
-        Utils.sleep(2000);
-        IScreenState state = clearScreen();
-        if (Properties.WIDGET_BASED_ACTIONS()) {
-            lastScreenState = state;
-        }
     }
 
     /**
      * Restarts the app without clearing the app cache.
      */
     public void restartApp() {
+        if (executionCache != null) {
+            executionCache.invalidate();
+        }
         deviceMgr.restartApp();
-        Utils.sleep(2000);
+        deviceMgr.waitUntilAppReady();
         IScreenState state = clearScreen();
         if (Properties.WIDGET_BASED_ACTIONS()) {
             lastScreenState = state;
@@ -470,17 +552,15 @@ public class UIAbstractionLayer {
      * @return Returns the cached screen state, otherwise the given screen state.
      */
     private IScreenState toRecordedScreenState(IScreenState screenState) {
-        Set<IScreenState> recordedScreenStates = guiModel.getStates();
-        for (IScreenState recordedScreenState : recordedScreenStates) {
-            if (recordedScreenState.equals(screenState)) {
-                MATE.log_debug("Using cached screen state!");
-                /*
-                * NOTE: We should only return the cached screen state if we can ensure
-                * that equals() actually compares the widgets. Otherwise, we can end up with
-                * widget actions that are not applicable on the current screen.
-                 */
-                return recordedScreenState;
-            }
+        IScreenState recordedScreenState = guiModel.getRecordedScreenState(screenState);
+        if (recordedScreenState != null) {
+            MATE.log_debug("Using cached screen state!");
+            /*
+            * NOTE: We should only return the cached screen state if we can ensure
+            * that equals() actually compares the widgets. Otherwise, we can end up with
+            * widget actions that are not applicable on the current screen.
+             */
+            return recordedScreenState;
         }
         screenState.setId("S" + lastScreenStateNumber);
         lastScreenStateNumber++;
@@ -0,0 +1,186 @@
+package org.mate.interaction;
+
+import android.app.UiAutomation;
+import android.support.test.InstrumentationRegistry;
+
+import org.mate.MATE;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Detects when the ui of the AUT has settled, e.g. after an action has been executed, instead of
+ * sleeping for a fixed amount of time. The ui is considered stable once no accessibility events,
+ * e.g. window content changes, have been observed for a short quiet period, see
+ * {@link UiAutomation#waitForIdle(long, long)}. The timeout adapts itself to the settle times
+ * observed so far, i.e. it is derived from an exponential moving average of the settle times.
+ * Waits that time out don't contribute to the average, otherwise a screen that never settles,
+ * e.g. one showing an animated progress bar, would drive the timeout up to its upper bound.
+ * In addition, the settle times are recorded per action type and can be logged as metrics.
+ *
+ * The idle wait is tracked by {@link UiAutomation} itself and doesn't occupy its single event
+ * listener, hence the detector works no matter whether the listener is held by UiAutomator or
+ * by the {@link AccessibilityEventDispatcher}.
+ */
+public class UISettleDetector {
+
+    /**
+     * The time in milliseconds without any accessibility event after which the ui is considered
+     * to be settled.
+     */
+    private static final long QUIET_TIME = 150;
+
+    /**
+     * The lower and upper bound for the adaptive timeout in milliseconds. The upper bound is
+     * also the longest time the ui is given to finish loading, e.g. a progress bar.
+     */
+    private static final long MIN_TIMEOUT = 1000;
+    public static final long MAX_TIMEOUT = 22000;
+
+    /**
+     * The weight of the latest settle time in the moving average.
+     */
+    private static final double SMOOTHING_FACTOR = 0.2;
+
+    /**
+     * How many times the average settle time the ui is given to settle.
+     */
+    private static final int TIMEOUT_MULTIPLIER = 4;
+
+    private final UiAutomation uiAutomation;
+
+    /**
+     * The exponential moving average of the observed settle times in milliseconds.
+     */
+    private double averageSettleTime = MIN_TIMEOUT / TIMEOUT_MULTIPLIER;
+
+    /**
+     * The recorded settle times per action type.
+     */
+    private final Map<String, SettleTimes> settleTimes = new TreeMap<>();
+
+    public UISettleDetector() {
+        this(InstrumentationRegistry.getInstrumentation().getUiAutomation());
+    }
+
+    public UISettleDetector(UiAutomation uiAutomation) {
+        this.uiAutomation = uiAutomation;
+    }
+
+    /**
+     * Returns the current adaptive timeout.
+     *
+     * @return Returns the current timeout in milliseconds.
+     */
+    public long getTimeout() {
+        long timeout = Math.round(TIMEOUT_MULTIPLIER * averageSettleTime);
+        return Math.max(MIN_TIMEOUT, Math.min(MAX_TIMEOUT, timeout));
+    }
+
+    /**
+     * Waits until the ui has settled using the adaptive timeout.
+     *
+     * @param actionType The type of action, e.g. a click, that caused the ui changes.
+     * @return Returns the time in milliseconds it took the ui to settle.
+     */
+    public long waitForSettle(String actionType) {
+        return waitForSettle(actionType, 0);
+    }
+
+    /**
+     * Waits until the ui has settled. If the ui doesn't settle within the timeout, the method
+     * returns nevertheless.
+     *
+     * @param actionType The type of action, e.g. a click, that caused the ui changes.
+     * @param minTimeout A lower bound for the timeout in milliseconds, e.g. the time a progress
+     *                   bar took to complete on a previous execution of the action.
+     * @return Returns the time in milliseconds it took the ui to settle.
+     */
+    public long waitForSettle(String actionType, long minTimeout) {
+        return waitForSettle(actionType, minTimeout, Long.MAX_VALUE);
+    }
+
+    /**
+     * Waits until the ui has settled, but never longer than the given upper bound. If the ui
+     * doesn't settle within the timeout, the method returns nevertheless.
+     *
+     * @param actionType The type of action, e.g. a click, that caused the ui changes.
+     * @param minTimeout A lower bound for the timeout in milliseconds.
+     * @param maxTimeout An upper bound for the timeout in milliseconds, e.g. the remaining time
+     *                   budget of the caller. It takes precedence over the lower bound.
+     * @return Returns the time in milliseconds it took the ui to settle.
+     */
+    public long waitForSettle(String actionType, long minTimeout, long maxTimeout) {
+
+        long timeout = Math.min(Math.max(getTimeout(), minTimeout), maxTimeout);
+        long start = System.currentTimeMillis();
+        boolean settled = true;
+
+        try {
+            waitForIdle(QUIET_TIME, timeout);
+        } catch (TimeoutException e) {
+            MATE.log_debug("UI didn't settle within " + timeout + "ms after " + actionType);
+            settled = false;
+        }
+
+        long settleTime = System.currentTimeMillis() - start;
+
+        // a timed out wait only tells that the ui took longer than the timeout
+        if (settled) {
+            averageSettleTime += SMOOTHING_FACTOR * (settleTime - averageSettleTime);
+        }
+
+        SettleTimes times = settleTimes.get(actionType);
+        if (times == null) {
+            times = new SettleTimes();
+            settleTimes.put(actionType, times);
+        }
+        times.record(settleTime, settled);
+
+        return settleTime;
+    }
+
+    /**
+     * Waits until no accessibility event has been observed for the given quiet time.
+     *
+     * @param quietTime The time in milliseconds without any event.
+     * @param timeout The maximal time in milliseconds to wait.
+     * @throws TimeoutException Thrown if the ui didn't settle within the timeout.
+     */
+    protected void waitForIdle(long quietTime, long timeout) throws TimeoutException {
+        uiAutomation.waitForIdle(quietTime, timeout);
+    }
+
+    /**
+     * Logs the recorded settle times per action type.
+     */
+    public void logSettleTimes() {
+        MATE.log_acc("Settle times (count, average, maximum, timeouts):");
+        for (Map.Entry<String, SettleTimes> entry : settleTimes.entrySet()) {
+            SettleTimes times = entry.getValue();
+            MATE.log_acc(entry.getKey() + ": " + times.count + ", " + times.total / times.count
+                    + "ms, " + times.max + "ms, " + times.timeouts);
+        }
+    }
+
+    /**
+     * Aggregates the settle times of a single action type.
+     */
+    private static class SettleTimes {
+
+        private int count;
+        private long total;
+        private long max;
+        private int timeouts;
+
+        private void record(long settleTime, boolean settled) {
+            count++;
+            total += settleTime;
+            max = Math.max(max, settleTime);
+            if (!settled) {
+                timeouts++;
+            }
+        }
+    }
+}
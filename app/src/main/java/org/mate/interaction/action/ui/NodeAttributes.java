@@ -0,0 +1,142 @@
+package org.mate.interaction.action.ui;
+
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.accessibility.AccessibilityNodeInfo;
+
+import java.util.Objects;
+
+/**
+ * An immutable snapshot of the attributes of a node in the ui hierarchy. The snapshot is taken
+ * once per node, such that a widget can be created without any further round trip to the AUT,
+ * see {@link org.mate.state.executables.ScreenCapture}.
+ */
+public final class NodeAttributes {
+
+    /**
+     * The package name of the node or {@code null} if not available.
+     */
+    final String packageName;
+
+    final String resourceID;
+    final String clazz;
+    final Rect bounds;
+    final String text;
+    final String contentDesc;
+    final String errorText;
+    final String labeledBy;
+    final String labelFor;
+    final boolean showingHintText;
+    final boolean focused;
+    final boolean contextClickable;
+    final boolean importantForAccessibility;
+    final boolean accessibilityFocused;
+    final boolean checkable;
+    final boolean checked;
+    final boolean editable;
+    final boolean enabled;
+    final boolean focusable;
+    final boolean scrollable;
+    final boolean selected;
+    final boolean visible;
+    final int maxTextLength;
+    final boolean screenReaderFocusable;
+    final int inputType;
+    final int childCount;
+    final boolean heading;
+    final boolean password;
+    final boolean clickable;
+    final boolean longClickable;
+
+    /**
+     * Takes a snapshot of the attributes of the given node.
+     *
+     * @param node A node in the ui hierarchy.
+     */
+    public NodeAttributes(AccessibilityNodeInfo node) {
+
+        this.packageName = node.getPackageName() == null ? null : node.getPackageName().toString();
+        this.resourceID = Objects.toString(node.getViewIdResourceName(), "");
+        this.clazz = Objects.toString(node.getClassName(), "");
+
+        Rect bounds = new Rect();
+        node.getBoundsInScreen(bounds);
+        this.bounds = bounds;
+
+        this.editable = node.isEditable();
+        this.checkable = node.isCheckable();
+        this.password = node.isPassword();
+        this.enabled = node.isEnabled();
+        this.selected = node.isSelected();
+        this.checked = node.isChecked();
+        this.clickable = node.isClickable();
+        this.focusable = node.isFocusable();
+        this.focused = node.isFocused();
+        this.longClickable = node.isLongClickable();
+        this.scrollable = node.isScrollable();
+        this.maxTextLength = node.getMaxTextLength();
+        this.visible = node.isVisibleToUser();
+        this.inputType = node.getInputType();
+        this.accessibilityFocused = node.isAccessibilityFocused();
+        this.childCount = node.getChildCount();
+
+        this.text = Objects.toString(node.getText(), "");
+        this.contentDesc = Objects.toString(node.getContentDescription(), "");
+        this.errorText = Objects.toString(node.getError(), "");
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            this.importantForAccessibility = node.isImportantForAccessibility();
+        } else {
+            this.importantForAccessibility = true;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            this.screenReaderFocusable = node.isScreenReaderFocusable();
+        } else {
+            this.screenReaderFocusable = true;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            this.showingHintText = node.isShowingHintText();
+        } else {
+            this.showingHintText = false;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            this.contextClickable = node.isContextClickable();
+        } else {
+            this.contextClickable = false;
+        }
+
+        AccessibilityNodeInfo.CollectionItemInfo cinfo = node.getCollectionItemInfo();
+        if (cinfo != null) {
+            this.heading = cinfo.isHeading();
+        } else {
+            this.heading = false;
+        }
+
+        // both lookups require a round trip to the AUT
+        AccessibilityNodeInfo lf = node.getLabelFor();
+        String labelFor = "";
+        if (lf != null) {
+            labelFor = Objects.toString(lf.getViewIdResourceName(), "");
+        }
+        this.labelFor = labelFor;
+
+        AccessibilityNodeInfo lb = node.getLabeledBy();
+        String labelBy = "";
+        if (lb != null) {
+            labelBy = Objects.toString(lb.getViewIdResourceName(), "");
+        }
+        this.labeledBy = labelBy;
+    }
+
+    /**
+     * Returns the number of children of the node.
+     *
+     * @return Returns the number of children.
+     */
+    public int getChildCount() {
+        return childCount;
+    }
+}
@@ -2,11 +2,11 @@ package org.mate.interaction.action.ui;
 
 
 import android.graphics.Rect;
-import android.os.Build;
 import android.support.annotation.NonNull;
 import android.view.accessibility.AccessibilityNodeInfo;
 
 import org.mate.MATE;
+import org.mate.utils.HashUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -136,6 +136,12 @@ public class Widget {
     private final boolean clickable;
     private final boolean longClickable;
 
+    /**
+     * A structural fingerprint based on the attributes used for {@link #equals(Object)}. Since
+     * those attributes are immutable, the fingerprint is computed once in the constructor.
+     */
+    private final long fingerprint;
+
     // mutable properties
     private String hint;
 
@@ -153,12 +159,25 @@ public class Widget {
      */
     public Widget(Widget parent, AccessibilityNodeInfo node, String activity,
                   int depth, int index, int localIndex) {
+        this(parent, new NodeAttributes(node), activity, depth, index, localIndex);
+    }
+
+    /**
+     * Creates a new widget from a snapshot of the node attributes.
+     *
+     * @param attributes The attributes of a node in the ui hierarchy.
+     * @param activity   The activity name the widget belongs to.
+     * @param depth      The depth of the node in the ui hierarchy.
+     * @param localIndex A local index for the widget's children.
+     */
+    public Widget(Widget parent, NodeAttributes attributes, String activity,
+                  int depth, int index, int localIndex) {
 
         this.parent = parent;
         this.activity = activity;
-        this.packageName = Objects.toString(node.getPackageName(), activity.split("/")[0]);
-        this.resourceID = Objects.toString(node.getViewIdResourceName(), "");
-        this.clazz = Objects.toString(node.getClassName(), "");
+        this.packageName = Objects.toString(attributes.packageName, activity.split("/")[0]);
+        this.resourceID = attributes.resourceID;
+        this.clazz = attributes.clazz;
         this.depth = depth;
         this.index = index;
         this.localIndex = localIndex;
@@ -172,8 +191,7 @@ public class Widget {
         * Thus, we need to save all node attributes in dedicated variables and request
         * an ui object instead of performing the action directly on the node object.
          */
-        Rect bounds = new Rect();
-        node.getBoundsInScreen(bounds);
+        Rect bounds = new Rect(attributes.bounds);
         this.bounds = bounds;
         this.x1 = bounds.left;
         this.x2 = bounds.right;
@@ -181,71 +199,48 @@ public class Widget {
         this.y2 = bounds.bottom;
         this.X = bounds.centerX();
         this.Y = bounds.centerY();
-        this.editable = node.isEditable();
-        this.checkable = node.isCheckable();
-        this.password = node.isPassword();
-        this.enabled = node.isEnabled();
-        this.selected = node.isSelected();
-        this.checked = node.isChecked();
-        this.clickable = node.isClickable();
-        this.focusable = node.isFocusable();
-        this.focused = node.isFocused();
-        this.longClickable = node.isLongClickable();
-        this.scrollable = node.isScrollable();
-        this.maxTextLength = node.getMaxTextLength();
-        this.visible = node.isVisibleToUser();
-        this.inputType = node.getInputType();
-        this.accessibilityFocused = node.isAccessibilityFocused();
-        this.hasChildren = node.getChildCount() > 0;
-
-        this.text = Objects.toString(node.getText(), "");
-        this.contentDesc = Objects.toString(node.getContentDescription(), "");
-        this.errorText = Objects.toString(node.getError(), "");
-
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-            this.importantForAccessibility = node.isImportantForAccessibility();
-        } else {
-            this.importantForAccessibility = true;
-        }
-
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
-            this.screenReaderFocusable = node.isScreenReaderFocusable();
-        } else {
-            this.screenReaderFocusable = true;
-        }
-
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            this.showingHintText = node.isShowingHintText();
-        } else {
-            this.showingHintText = false;
-        }
-
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-            this.contextClickable = node.isContextClickable();
-        } else {
-            this.contextClickable = false;
-        }
-
-        AccessibilityNodeInfo.CollectionItemInfo cinfo = node.getCollectionItemInfo();
-        if (cinfo != null) {
-            this.heading = cinfo.isHeading();
-        } else {
-            this.heading = false;
-        }
-
-        AccessibilityNodeInfo lf = node.getLabelFor();
-        String labelFor = "";
-        if (lf != null) {
-            labelFor = Objects.toString(lf.getViewIdResourceName(), "");
-        }
-        this.labelFor = labelFor;
+        this.editable = attributes.editable;
+        this.checkable = attributes.checkable;
+        this.password = attributes.password;
+        this.enabled = attributes.enabled;
+        this.selected = attributes.selected;
+        this.checked = attributes.checked;
+        this.clickable = attributes.clickable;
+        this.focusable = attributes.focusable;
+        this.focused = attributes.focused;
+        this.longClickable = attributes.longClickable;
+        this.scrollable = attributes.scrollable;
+        this.maxTextLength = attributes.maxTextLength;
+        this.visible = attributes.visible;
+        this.inputType = attributes.inputType;
+        this.accessibilityFocused = attributes.accessibilityFocused;
+        this.hasChildren = attributes.childCount > 0;
+
+        this.text = attributes.text;
+        this.contentDesc = attributes.contentDesc;
+        this.errorText = attributes.errorText;
+        this.importantForAccessibility = attributes.importantForAccessibility;
+        this.screenReaderFocusable = attributes.screenReaderFocusable;
+        this.showingHintText = attributes.showingHintText;
+        this.contextClickable = attributes.contextClickable;
+        this.heading = attributes.heading;
+        this.labelFor = attributes.labelFor;
+        this.labeledBy = attributes.labeledBy;
+
+        long fingerprint = HashUtils.combine(HashUtils.SEED, id);
+        fingerprint = HashUtils.combine(fingerprint, ((long) x1 << 32) | (x2 & 0xffffffffL));
+        fingerprint = HashUtils.combine(fingerprint, ((long) y1 << 32) | (y2 & 0xffffffffL));
+        this.fingerprint = fingerprint;
+    }
 
-        AccessibilityNodeInfo lb = node.getLabeledBy();
-        String labelBy = "";
-        if (lb != null) {
-            labelBy = Objects.toString(lb.getViewIdResourceName(), "");
-        }
-        this.labeledBy = labelBy;
+    /**
+     * Returns the structural fingerprint of the widget. Two equal widgets share the same
+     * fingerprint, while widgets with different fingerprints are never equal.
+     *
+     * @return Returns the 64-bit fingerprint of the widget.
+     */
+    public long getFingerprint() {
+        return fingerprint;
     }
 
     /**
@@ -1010,7 +1005,8 @@ public class Widget {
             return false;
         } else {
             Widget other = (Widget) o;
-            return getId().equals(other.getId())
+            return fingerprint == other.fingerprint
+                    && getId().equals(other.getId())
                     && getX1() == other.getX1() &&
                     getX2() == other.getX2() &&
                     getY1() == other.getY1() &&
@@ -1019,18 +1015,14 @@ public class Widget {
     }
 
     /**
-     * Computes the hash code based on attributes used for {@link #equals(Object)}.
+     * Computes the hash code based on attributes used for {@link #equals(Object)}, i.e. derives
+     * it from the pre-computed fingerprint.
      *
      * @return Returns the associated hash code of the widget action.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(
-                getId(),
-                getX1(),
-                getX2(),
-                getY1(),
-                getY2());
+        return HashUtils.toHashCode(fingerprint);
     }
 
     /**
@@ -0,0 +1,123 @@
+package org.mate.interaction.dialog;
+
+import org.mate.interaction.DeviceMgr;
+import org.mate.interaction.action.ui.Widget;
+import org.mate.state.IScreenState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classifies an already captured screen state as one of the known dialogs. The widgets of the
+ * screen are traversed only once, each widget is checked against all registered matchers. If
+ * multiple dialogs are recognized, the matcher registered first takes precedence. Each matcher
+ * is registered together with the handler clearing the recognized dialog.
+ */
+public class DialogClassifier {
+
+    /**
+     * The registered matchers in the order of their precedence.
+     */
+    private final List<DialogMatcher> matchers = new ArrayList<>();
+
+    /**
+     * The handlers of the registered matchers at the same positions.
+     */
+    private final List<DialogHandler> handlers = new ArrayList<>();
+
+    /**
+     * Creates a new dialog classifier recognizing the default dialogs.
+     */
+    public DialogClassifier() {
+
+        addMatcher(DialogMatcher.forWidgetText(DialogType.CRASH, "android",
+                "keeps stopping", "has stopped"), DialogHandlers.CRASH);
+
+        addMatcher(DialogMatcher.forWidgetText(DialogType.BUILD_WARNINGS, null,
+                "This app was built for an older version of Android and may not work " +
+                        "properly. Try checking for updates, or contact the developer."),
+                DialogHandlers.BUILD_WARNINGS);
+
+        addMatcher(DialogMatcher.forPackages(DialogType.GOOGLE_SIGN_IN,
+                "com.google.android.gms"), DialogHandlers.GOOGLE_SIGN_IN);
+
+        /*
+         * The permission dialog has a different package name depending on the API level.
+         * We currently support API level 25 and 28.
+         */
+        addMatcher(DialogMatcher.forPackages(DialogType.PERMISSION,
+                "com.google.android.packageinstaller", "com.android.packageinstaller"),
+                DialogHandlers.PERMISSION);
+    }
+
+    /**
+     * Registers an additional matcher with the lowest precedence. Dialogs other than the
+     * default ones should be recognized as {@link DialogType#OTHER}.
+     *
+     * @param matcher The dialog matcher.
+     * @param handler The handler of the dialogs recognized by the matcher.
+     */
+    public void addMatcher(DialogMatcher matcher, DialogHandler handler) {
+        matchers.add(matcher);
+        handlers.add(handler);
+    }
+
+    /**
+     * Classifies the given screen.
+     *
+     * @param screenState The captured screen.
+     * @return Returns the recognized dialog or {@code null} if the screen shows no known dialog.
+     */
+    public DialogType classify(IScreenState screenState) {
+        int match = match(screenState);
+        return match < matchers.size() ? matchers.get(match).getDialogType() : null;
+    }
+
+    /**
+     * Clears the dialog shown on the given screen, if any, via the handler registered with the
+     * matcher recognizing the dialog.
+     *
+     * @param screenState The captured screen.
+     * @param deviceMgr The device manager used for interacting with the dialog.
+     * @return Returns {@code true} if the screen may change, otherwise {@code false} is returned.
+     */
+    public boolean handle(IScreenState screenState, DeviceMgr deviceMgr) {
+        int match = match(screenState);
+        return match < matchers.size() && handlers.get(match).handle(screenState, deviceMgr);
+    }
+
+    /**
+     * Determines the matcher with the highest precedence recognizing the given screen.
+     *
+     * @param screenState The captured screen.
+     * @return Returns the index of the matcher or the number of matchers if no matcher
+     *          recognizes the screen.
+     */
+    private int match(IScreenState screenState) {
+
+        // the index of the matching matcher with the highest precedence
+        int match = matchers.size();
+
+        for (int i = 0; i < matchers.size(); i++) {
+            if (matchers.get(i).matchesScreen(screenState)) {
+                match = i;
+                break;
+            }
+        }
+
+        for (Widget widget : screenState.getWidgets()) {
+            for (int i = 0; i < match; i++) {
+                DialogMatcher matcher = matchers.get(i);
+                if (matcher.hasWidgetCondition() && matcher.matchesWidget(widget)) {
+                    match = i;
+                    break;
+                }
+            }
+            if (match == 0) {
+                break;
+            }
+        }
+
+        return match;
+    }
+}
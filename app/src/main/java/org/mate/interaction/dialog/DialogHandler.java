@@ -0,0 +1,20 @@
+package org.mate.interaction.dialog;
+
+import org.mate.interaction.DeviceMgr;
+import org.mate.state.IScreenState;
+
+/**
+ * Clears a dialog from the screen. A handler is registered together with the matcher
+ * recognizing the dialog, see {@link DialogClassifier#addMatcher(DialogMatcher, DialogHandler)}.
+ */
+public interface DialogHandler {
+
+    /**
+     * Handles the dialog shown on the given screen.
+     *
+     * @param screenState The current screen showing the dialog.
+     * @param deviceMgr The device manager used for interacting with the dialog.
+     * @return Returns {@code true} if the screen may change, otherwise {@code false} is returned.
+     */
+    boolean handle(IScreenState screenState, DeviceMgr deviceMgr);
+}
@@ -0,0 +1,106 @@
+package org.mate.interaction.dialog;
+
+import org.mate.MATE;
+import org.mate.exceptions.AUTCrashException;
+import org.mate.interaction.DeviceMgr;
+import org.mate.interaction.action.ui.ActionType;
+import org.mate.interaction.action.ui.Widget;
+import org.mate.interaction.action.ui.WidgetAction;
+import org.mate.state.IScreenState;
+
+/**
+ * The handlers of the dialogs recognized by default, see {@link DialogClassifier}.
+ */
+public final class DialogHandlers {
+
+    private DialogHandlers() {
+        throw new UnsupportedOperationException("Utility class!");
+    }
+
+    /**
+     * Handles a crash dialog by pressing the 'HOME' button.
+     */
+    public static final DialogHandler CRASH = new DialogHandler() {
+        @Override
+        public boolean handle(IScreenState screenState, DeviceMgr deviceMgr) {
+            MATE.log("Detected crash dialog!");
+            // TODO: Should we really press 'HOME' or better click 'OK' on the dialog?
+            deviceMgr.pressHome();
+            return true;
+        }
+    };
+
+    /**
+     * Handles a build warnings dialog by clicking on the 'OK' button. If there is no such button,
+     * the screen doesn't change.
+     */
+    public static final DialogHandler BUILD_WARNINGS = new DialogHandler() {
+        @Override
+        public boolean handle(IScreenState screenState, DeviceMgr deviceMgr) {
+
+            MATE.log("Detected build warnings dialog!");
+
+            for (WidgetAction action : screenState.getWidgetActions()) {
+                if (action.getActionType() == ActionType.CLICK
+                        && action.getWidget().getText().equals("OK")) {
+                    try {
+                        deviceMgr.executeAction(action);
+                        return true;
+                    } catch (AUTCrashException e) {
+                        MATE.log_warn("Couldn't click on build warnings dialog!");
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Handles a 'Google SignIn' dialog by pressing the 'BACK' button as we can't login.
+     */
+    public static final DialogHandler GOOGLE_SIGN_IN = new DialogHandler() {
+        @Override
+        public boolean handle(IScreenState screenState, DeviceMgr deviceMgr) {
+            MATE.log("Detected Google SignIn Dialog!");
+            deviceMgr.pressBack();
+            return true;
+        }
+    };
+
+    /**
+     * Handles a permission dialog. The permission is tried to be granted by clicking on the
+     * 'allow button'.
+     */
+    public static final DialogHandler PERMISSION = new DialogHandler() {
+        @Override
+        public boolean handle(IScreenState screenState, DeviceMgr deviceMgr) {
+
+            MATE.log("Detected permission dialog!");
+
+            for (WidgetAction action : screenState.getWidgetActions()) {
+
+                Widget widget = action.getWidget();
+
+                /*
+                 * The resource id for the allow button stays the same for both API 25
+                 * and API 28, although the package name differs.
+                 */
+                if (action.getActionType() == ActionType.CLICK
+                        && (widget.getResourceID()
+                                .equals("com.android.packageinstaller:id/permission_allow_button")
+                            || widget.getText().toLowerCase().equals("allow"))) {
+                    try {
+                        deviceMgr.executeAction(action);
+                        return true;
+                    } catch (AUTCrashException e) {
+                        MATE.log_warn("Couldn't click on permission dialog!");
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+            throw new IllegalStateException(
+                    "Couldn't find any applicable action on permission dialog!");
+        }
+    };
+}
@@ -0,0 +1,123 @@
+package org.mate.interaction.dialog;
+
+import org.mate.interaction.action.ui.Widget;
+import org.mate.state.IScreenState;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Recognizes a dialog either by the package name of the screen or by the text of a widget on the
+ * screen. The conditions are compiled once, such that matching a screen doesn't require any
+ * further query of the device.
+ */
+public final class DialogMatcher {
+
+    private final DialogType dialogType;
+
+    /**
+     * The package names of screens showing the dialog, may be empty.
+     */
+    private final Set<String> screenPackageNames;
+
+    /**
+     * The package name of the widget showing the text or {@code null} if the widget may
+     * belong to any package.
+     */
+    private final String widgetPackageName;
+
+    /**
+     * The text contained in a widget of the dialog or {@code null} if the dialog is solely
+     * recognized by the package name of the screen.
+     */
+    private final Pattern widgetText;
+
+    private DialogMatcher(DialogType dialogType, Set<String> screenPackageNames,
+                          String widgetPackageName, Pattern widgetText) {
+        this.dialogType = dialogType;
+        this.screenPackageNames = screenPackageNames;
+        this.widgetPackageName = widgetPackageName;
+        this.widgetText = widgetText;
+    }
+
+    /**
+     * Creates a matcher recognizing a dialog by the package name of the screen.
+     *
+     * @param dialogType The recognized dialog.
+     * @param packageNames The package names of screens showing the dialog.
+     * @return Returns the dialog matcher.
+     */
+    public static DialogMatcher forPackages(DialogType dialogType, String... packageNames) {
+        return new DialogMatcher(dialogType,
+                Collections.unmodifiableSet(new HashSet<>(Arrays.asList(packageNames))),
+                null, null);
+    }
+
+    /**
+     * Creates a matcher recognizing a dialog by a widget containing any of the given texts.
+     *
+     * @param dialogType The recognized dialog.
+     * @param widgetPackageName The package name of the widget or {@code null} if the widget may
+     *                          belong to any package.
+     * @param texts The texts of which any must be contained in the text of the widget.
+     * @return Returns the dialog matcher.
+     */
+    public static DialogMatcher forWidgetText(DialogType dialogType, String widgetPackageName,
+                                              String... texts) {
+
+        StringBuilder regex = new StringBuilder();
+        for (String text : texts) {
+            if (regex.length() > 0) {
+                regex.append("|");
+            }
+            regex.append(Pattern.quote(text));
+        }
+
+        return new DialogMatcher(dialogType, Collections.<String>emptySet(), widgetPackageName,
+                Pattern.compile(regex.toString()));
+    }
+
+    /**
+     * Returns the recognized dialog.
+     *
+     * @return Returns the type of the recognized dialog.
+     */
+    public DialogType getDialogType() {
+        return dialogType;
+    }
+
+    /**
+     * Checks whether the dialog is recognized by the package name of the given screen.
+     *
+     * @param screenState The current screen.
+     * @return Returns {@code true} if the screen shows the dialog, otherwise {@code false}.
+     */
+    public boolean matchesScreen(IScreenState screenState) {
+        return screenPackageNames.contains(screenState.getPackageName());
+    }
+
+    /**
+     * Checks whether the dialog is recognized by widgets.
+     *
+     * @return Returns {@code true} if {@link #matchesWidget(Widget)} needs to be checked,
+     *          otherwise {@code false}.
+     */
+    public boolean hasWidgetCondition() {
+        return widgetText != null;
+    }
+
+    /**
+     * Checks whether the given widget belongs to the dialog.
+     *
+     * @param widget A widget of the current screen.
+     * @return Returns {@code true} if the widget belongs to the dialog, otherwise {@code false}.
+     */
+    public boolean matchesWidget(Widget widget) {
+        return widgetText != null
+                && (widgetPackageName == null || widgetPackageName.equals(widget.getPackageName()))
+                && widgetText.matcher(widget.getText()).find();
+    }
+}
@@ -0,0 +1,33 @@
+package org.mate.interaction.dialog;
+
+/**
+ * The dialogs that are recognized on the screen and cleared before the exploration continues.
+ */
+public enum DialogType {
+
+    /**
+     * The dialog shown by the system when the AUT crashed.
+     */
+    CRASH,
+
+    /**
+     * The dialog warning that the AUT was built for an older version of Android.
+     */
+    BUILD_WARNINGS,
+
+    /**
+     * The Google SignIn dialog, we can't log in anyway.
+     */
+    GOOGLE_SIGN_IN,
+
+    /**
+     * The runtime permission dialog.
+     */
+    PERMISSION,
+
+    /**
+     * Any other dialog, recognized by a matcher registered via
+     * {@link DialogClassifier#addMatcher(DialogMatcher, DialogHandler)}.
+     */
+    OTHER;
+}
@@ -0,0 +1,27 @@
+package org.mate.interaction.reset;
+
+import org.mate.interaction.DeviceMgr;
+import org.mate.utils.Utils;
+
+/**
+ * Resets the AUT by clearing the app data and performing a cold restart of the AUT.
+ */
+public class ClearDataResetStrategy implements IResetStrategy {
+
+    private final DeviceMgr deviceMgr;
+
+    public ClearDataResetStrategy(DeviceMgr deviceMgr) {
+        this.deviceMgr = deviceMgr;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        deviceMgr.reinstallApp();
+        Utils.sleep(5000);
+        deviceMgr.restartApp();
+        deviceMgr.waitUntilAppReady();
+    }
+}
@@ -0,0 +1,12 @@
+package org.mate.interaction.reset;
+
+/**
+ * Resets the AUT into its initial state, e.g. before a new test case is executed.
+ */
+public interface IResetStrategy {
+
+    /**
+     * Resets the AUT such that it is afterwards launched in its initial state.
+     */
+    void reset();
+}
@@ -0,0 +1,17 @@
+package org.mate.interaction.reset;
+
+/**
+ * The supported strategies for resetting the AUT between test cases.
+ */
+public enum ResetStrategy {
+
+    /**
+     * Clears the app data and performs a cold restart of the AUT.
+     */
+    CLEAR_DATA,
+
+    /**
+     * Restores a snapshot of the emulator taken after the first reset of the AUT.
+     */
+    SNAPSHOT;
+}
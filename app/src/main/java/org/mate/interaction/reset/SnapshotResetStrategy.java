@@ -0,0 +1,80 @@
+package org.mate.interaction.reset;
+
+import org.mate.MATE;
+import org.mate.Registry;
+import org.mate.interaction.DeviceMgr;
+
+/**
+ * Resets the AUT by restoring an app-scoped snapshot of the AUT, i.e. its package data, while
+ * the remaining emulator including the process running MATE is left untouched, see
+ * {@link org.mate.interaction.EnvironmentManager#saveSnapshot()}. The snapshot is taken by the
+ * MATE-Server once the AUT has been reset for the first time via the given fallback strategy.
+ * Instead of sleeping for a fixed amount of time, the restore request blocks until the
+ * MATE-Server reports that the AUT is ready, followed by waiting until the ui hierarchy of the
+ * AUT has settled. If the MATE-Server can't save or restore snapshots, the fallback strategy
+ * is used for all subsequent resets.
+ */
+public class SnapshotResetStrategy implements IResetStrategy {
+
+    /**
+     * The maximal time in milliseconds to wait for the AUT after restoring the snapshot.
+     */
+    private static final long READY_TIMEOUT = 10000;
+
+    private final DeviceMgr deviceMgr;
+
+    /**
+     * The strategy used for taking the initial snapshot and in case snapshots are not supported.
+     */
+    private final IResetStrategy fallback;
+
+    /**
+     * Whether a snapshot has been saved already.
+     */
+    private boolean snapshotSaved = false;
+
+    /**
+     * Whether the MATE-Server failed to save or restore a snapshot.
+     */
+    private boolean snapshotFailed = false;
+
+    public SnapshotResetStrategy(DeviceMgr deviceMgr, IResetStrategy fallback) {
+        this.deviceMgr = deviceMgr;
+        this.fallback = fallback;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+
+        if (snapshotFailed) {
+            fallback.reset();
+        } else if (!snapshotSaved) {
+            fallback.reset();
+            snapshotSaved = Registry.getEnvironmentManager().saveSnapshot();
+            if (!snapshotSaved) {
+                MATE.log_warn("Saving snapshot failed! Falling back to clearing the app data.");
+                snapshotFailed = true;
+            }
+        } else if (!Registry.getEnvironmentManager().restoreSnapshot(READY_TIMEOUT)) {
+            MATE.log_warn("Restoring snapshot failed! Falling back to clearing the app data.");
+            snapshotFailed = true;
+            fallback.reset();
+        } else if (!waitUntilAppReady(READY_TIMEOUT)) {
+            MATE.log_warn("AUT not ready after restoring snapshot!");
+        }
+    }
+
+    /**
+     * Waits until the restored AUT is in the foreground and its ui hierarchy has settled.
+     *
+     * @param timeout The maximal waiting time in milliseconds.
+     * @return Returns {@code true} if the AUT became ready within the given timeout,
+     *          otherwise {@code false} is returned.
+     */
+    protected boolean waitUntilAppReady(long timeout) {
+        return deviceMgr.waitUntilAppReady(timeout);
+    }
+}
@@ -1,5 +1,6 @@
 package org.mate.message;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -8,12 +9,26 @@ public class Message {
     private final String subject;
     private final Map<String, String> parameters;
 
+    /**
+     * Typed vector payloads, only supported by the binary message protocol. The textual
+     * protocol rejects messages carrying them.
+     */
+    private final Map<String, double[]> vectors;
+
+    /**
+     * Typed bit set payloads, only supported by the binary message protocol. The textual
+     * protocol rejects messages carrying them.
+     */
+    private final Map<String, BitSet> bitSets;
+
     public Message(String subject) {
         if (subject == null) {
             throw new IllegalArgumentException("Subject cannot be null");
         }
         this.subject = subject;
         this.parameters = new HashMap<>();
+        this.vectors = new HashMap<>();
+        this.bitSets = new HashMap<>();
     }
 
     public void addParameter(String key, String value) {
@@ -31,6 +46,36 @@ public class Message {
         return parameters;
     }
 
+    public void addVector(String key, double[] vector) {
+        if (key == null || vector == null) {
+            throw new IllegalArgumentException("Vector key and value must not be null");
+        }
+        vectors.put(key, vector);
+    }
+
+    public double[] getVector(String key) {
+        return vectors.get(key);
+    }
+
+    public Map<String, double[]> getVectors() {
+        return vectors;
+    }
+
+    public void addBitSet(String key, BitSet bitSet) {
+        if (key == null || bitSet == null) {
+            throw new IllegalArgumentException("Bit set key and value must not be null");
+        }
+        bitSets.put(key, bitSet);
+    }
+
+    public BitSet getBitSet(String key) {
+        return bitSets.get(key);
+    }
+
+    public Map<String, BitSet> getBitSets() {
+        return bitSets;
+    }
+
     public String getSubject() {
         return subject;
     }
@@ -61,6 +106,16 @@ public class Message {
             return this;
         }
 
+        public MessageBuilder withVector(String key, double[] vector) {
+            message.addVector(key, vector);
+            return this;
+        }
+
+        public MessageBuilder withBitSet(String key, BitSet bitSet) {
+            message.addBitSet(key, bitSet);
+            return this;
+        }
+
         public Message build() {
             return message;
         }
@@ -0,0 +1,106 @@
+package org.mate.message.serialization;
+
+import org.mate.message.Message;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.BitSet;
+
+/**
+ * Parses length-prefixed binary frames as produced by the {@link BinarySerializer}. A frame
+ * has the following layout (all numbers in network byte order):
+ *
+ * <pre>
+ *     int32   length of the remaining frame in bytes
+ *     string  subject
+ *     int32   number of parameters
+ *     for each parameter:
+ *         int8    type tag (string, double vector or bit set)
+ *         string  key
+ *         payload
+ * </pre>
+ *
+ * A string is encoded as an int32 byte count followed by its UTF-8 bytes, a double vector as
+ * an int32 element count followed by the raw float64 values and a bit set as an int32 word
+ * count followed by the int64 words in little-endian word order (see {@link BitSet#toLongArray()}).
+ */
+public class BinaryParser {
+
+    public static final byte TYPE_STRING = 0;
+    public static final byte TYPE_DOUBLE_VECTOR = 1;
+    public static final byte TYPE_BIT_SET = 2;
+    public static final Charset CHARSET = Charset.forName("UTF-8");
+
+    private final DataInputStream in;
+
+    public BinaryParser(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    public Message nextMessage() {
+        ByteBuffer frame = ByteBuffer.wrap(readFrame());
+
+        Message.MessageBuilder messageBuilder = new Message.MessageBuilder(readString(frame));
+
+        int numberOfParameters = frame.getInt();
+        for (int i = 0; i < numberOfParameters; i++) {
+            byte type = frame.get();
+            String key = readString(frame);
+
+            switch (type) {
+                case TYPE_STRING:
+                    messageBuilder.withParameter(key, readString(frame));
+                    break;
+                case TYPE_DOUBLE_VECTOR:
+                    double[] vector = new double[frame.getInt()];
+                    frame.asDoubleBuffer().get(vector);
+                    frame.position(frame.position() + vector.length * 8);
+                    messageBuilder.withVector(key, vector);
+                    break;
+                case TYPE_BIT_SET:
+                    long[] words = new long[frame.getInt()];
+                    frame.asLongBuffer().get(words);
+                    frame.position(frame.position() + words.length * 8);
+                    messageBuilder.withBitSet(key, BitSet.valueOf(words));
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown parameter type " + type
+                            + " for parameter key: " + key);
+            }
+        }
+
+        if (frame.hasRemaining()) {
+            throw new IllegalStateException("Unexpected left over bytes after end of message");
+        }
+
+        return messageBuilder.build();
+    }
+
+    private byte[] readFrame() {
+        try {
+            int length = in.readInt();
+            if (length < 0) {
+                throw new IllegalStateException("Illegal frame length: " + length);
+            }
+            byte[] frame = new byte[length];
+            in.readFully(frame);
+            return frame;
+        } catch (EOFException e) {
+            throw new IllegalStateException("Reading frame failed: unexpected EOF", e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Reading frame failed: IO error while reading from input: "
+                    + e.getLocalizedMessage(), e);
+        }
+    }
+
+    private static String readString(ByteBuffer frame) {
+        int length = frame.getInt();
+        String value = new String(frame.array(), frame.arrayOffset() + frame.position(), length, CHARSET);
+        frame.position(frame.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,87 @@
+package org.mate.message.serialization;
+
+import org.mate.message.Message;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.mate.message.serialization.BinaryParser.*;
+
+/**
+ * Serializes a {@link Message} into a single length-prefixed binary frame. See
+ * {@link BinaryParser} for a description of the frame layout.
+ */
+public class BinarySerializer {
+
+    public static byte[] serialize(Message message) {
+
+        // encode all strings upfront such that the frame size is known before allocating it
+        byte[] subject = message.getSubject().getBytes(CHARSET);
+        int size = 4 + 4 + subject.length + 4;
+
+        List<byte[]> parameters = new ArrayList<>(2 * message.getParameters().size());
+        for (Map.Entry<String, String> parameter : message.getParameters().entrySet()) {
+            byte[] key = parameter.getKey().getBytes(CHARSET);
+            byte[] value = parameter.getValue().getBytes(CHARSET);
+            parameters.add(key);
+            parameters.add(value);
+            size += 1 + 4 + key.length + 4 + value.length;
+        }
+
+        List<byte[]> vectorKeys = new ArrayList<>(message.getVectors().size());
+        for (Map.Entry<String, double[]> vector : message.getVectors().entrySet()) {
+            byte[] key = vector.getKey().getBytes(CHARSET);
+            vectorKeys.add(key);
+            size += 1 + 4 + key.length + 4 + vector.getValue().length * 8;
+        }
+
+        List<byte[]> bitSetKeys = new ArrayList<>(message.getBitSets().size());
+        List<long[]> bitSetWords = new ArrayList<>(message.getBitSets().size());
+        for (Map.Entry<String, BitSet> bitSet : message.getBitSets().entrySet()) {
+            byte[] key = bitSet.getKey().getBytes(CHARSET);
+            long[] words = bitSet.getValue().toLongArray();
+            bitSetKeys.add(key);
+            bitSetWords.add(words);
+            size += 1 + 4 + key.length + 4 + words.length * 8;
+        }
+
+        ByteBuffer frame = ByteBuffer.allocate(size);
+        frame.putInt(size - 4);
+        putBytes(frame, subject);
+        frame.putInt(message.getParameters().size() + vectorKeys.size() + bitSetKeys.size());
+
+        for (int i = 0; i < parameters.size(); i += 2) {
+            frame.put(TYPE_STRING);
+            putBytes(frame, parameters.get(i));
+            putBytes(frame, parameters.get(i + 1));
+        }
+
+        int index = 0;
+        for (double[] vector : message.getVectors().values()) {
+            frame.put(TYPE_DOUBLE_VECTOR);
+            putBytes(frame, vectorKeys.get(index++));
+            frame.putInt(vector.length);
+            frame.asDoubleBuffer().put(vector);
+            frame.position(frame.position() + vector.length * 8);
+        }
+
+        for (int i = 0; i < bitSetKeys.size(); i++) {
+            long[] words = bitSetWords.get(i);
+            frame.put(TYPE_BIT_SET);
+            putBytes(frame, bitSetKeys.get(i));
+            frame.putInt(words.length);
+            frame.asLongBuffer().put(words);
+            frame.position(frame.position() + words.length * 8);
+        }
+
+        return frame.array();
+    }
+
+    private static void putBytes(ByteBuffer frame, byte[] bytes) {
+        frame.putInt(bytes.length);
+        frame.put(bytes);
+    }
+}
@@ -2,11 +2,15 @@ package org.mate.message.serialization;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Splits the textual messages read from an input stream into tokens. The lexer decodes the
+ * UTF-8 input itself and never reads beyond the end of the current message, thus the same
+ * input stream can be shared with the {@link BinaryParser}.
+ */
 public class Lexer {
     public static final char ESCAPE_CHAR = '\\';
     public static final char END_PARAMETER_CHAR = ';';
@@ -14,10 +18,10 @@ public class Lexer {
     public static final char END_MESSAGE_CHAR = '~';
     public static final Charset CHARSET = Charset.forName("UTF-8");
 
-    private final InputStreamReader reader;
+    private final InputStream in;
 
     public Lexer(InputStream in) {
-        reader = new InputStreamReader(in, CHARSET);
+        this.in = in;
     }
 
     public List<Token> lexMessage() {
@@ -67,7 +71,14 @@ public class Lexer {
         boolean escapedCharacter = false;
         while (true) {
             try {
-                nextChar = reader.read();
+                nextChar = in.read();
+
+                if (nextChar >= 0x80) {
+                    // the special characters are all ASCII, thus multi-byte characters are content
+                    value.append(readMultiByteCharacter(nextChar));
+                    escapedCharacter = false;
+                    continue;
+                }
             } catch (IOException e) {
                 return LexResult.failure("Lexing value failed: IO error while reading from input: " + e.getLocalizedMessage());
             }
@@ -107,6 +118,39 @@ public class Lexer {
         }
     }
 
+    /**
+     * Reads the continuation bytes of a multi-byte UTF-8 character.
+     *
+     * @param leadingByte The leading byte of the character.
+     * @return Returns the decoded character, which may consist of a surrogate pair.
+     * @throws IOException If reading from the input fails.
+     */
+    private String readMultiByteCharacter(int leadingByte) throws IOException {
+
+        int length;
+        if ((leadingByte & 0xE0) == 0xC0) {
+            length = 2;
+        } else if ((leadingByte & 0xF0) == 0xE0) {
+            length = 3;
+        } else if ((leadingByte & 0xF8) == 0xF0) {
+            length = 4;
+        } else {
+            // malformed input, decoded as replacement character
+            length = 1;
+        }
+
+        byte[] bytes = new byte[length];
+        bytes[0] = (byte) leadingByte;
+        for (int i = 1; i < length; i++) {
+            int nextByte = in.read();
+            if (nextByte == -1) {
+                throw new IOException("unexpected EOF within multi-byte character");
+            }
+            bytes[i] = (byte) nextByte;
+        }
+        return new String(bytes, CHARSET);
+    }
+
     private void panicOnFailure(LexResult lexResult) {
         if (lexResult.failed) {
             throw new IllegalStateException(lexResult.failureMessage);
@@ -18,7 +18,19 @@ public class Serializer {
         return sb.toString();
     }
 
+    /**
+     * Serializes the given message. The textual protocol only supports string parameters.
+     *
+     * @param message The message to be serialized.
+     * @return Returns the serialized message.
+     * @throws IllegalArgumentException If the message carries typed payloads, i.e. vectors or
+     *          bit sets, which are only supported by the {@link BinarySerializer}.
+     */
     public static byte[] serialize(Message message) {
+        if (!message.getVectors().isEmpty() || !message.getBitSets().isEmpty()) {
+            throw new IllegalArgumentException("Typed payloads of message " + message.getSubject()
+                    + " are only supported by the binary message protocol!");
+        }
         StringBuilder sb = new StringBuilder(escapeParameterValue(message.getSubject()));
         if (!message.getParameters().isEmpty()) {
             sb.append(END_PARAMETER_CHAR);
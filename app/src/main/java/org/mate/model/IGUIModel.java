@@ -23,6 +23,15 @@ public interface IGUIModel {
      */
     Set<IScreenState> getStates();
 
+    /**
+     * Looks up the recorded screen state that is equal to the given screen state.
+     *
+     * @param screenState The given screen state.
+     * @return Returns the recorded screen state or {@code null} if no equal screen state
+     *          has been recorded yet.
+     */
+    IScreenState getRecordedScreenState(IScreenState screenState);
+
     /**
      * Checks whether the last inserted state is a new state.
      *
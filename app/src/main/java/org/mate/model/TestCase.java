@@ -429,20 +429,22 @@ public class TestCase {
      */
     public static TestCase fromDummy(TestCase testCase) {
 
-        Registry.getUiAbstractionLayer().resetApp();
-        TestCase resultingTc = newInitializedTestCase();
-
         int finalSize = testCase.eventSequence.size();
 
         if (testCase.desiredSize.hasValue()) {
             finalSize = testCase.desiredSize.getValue();
         }
 
+        TestCase resultingTc = newInitializedTestCase(testCase.eventSequence
+                .subList(0, Math.min(finalSize, testCase.eventSequence.size())));
+
         try {
-            int count = 0;
-            for (Action action0 : testCase.eventSequence) {
+            // the restored prefix of the dummy doesn't need to be executed again
+            int count = resultingTc.eventSequence.size();
+            for (Action action0 : testCase.eventSequence.subList(count,
+                    testCase.eventSequence.size())) {
                 if (count < finalSize) {
-                    if (!(action0 instanceof WidgetAction) || Registry.getUiAbstractionLayer().getExecutableActions().contains(action0)) {
+                    if (!(action0 instanceof WidgetAction) || Registry.getUiAbstractionLayer().isExecutable(action0)) {
                         if (!resultingTc.updateTestCase(action0, count)) {
                             return resultingTc;
                         }
@@ -496,6 +498,31 @@ public class TestCase {
         return tc;
     }
 
+    /**
+     * Resets the AUT and initializes a new test case with a random id that is going to execute
+     * the given actions first. If a snapshot of the AUT is cached for a prefix of the given
+     * actions, the snapshot is restored instead of resetting the AUT, see
+     * {@link UIAbstractionLayer#restorePrefix(List)}. The restored actions are already contained
+     * in the returned test case, i.e. the execution has to continue with the action at index
+     * {@code getEventSequence().size()}.
+     *
+     * @param prefix The actions that are going to be executed first.
+     * @return Returns a new test case with a random id.
+     */
+    public static TestCase newInitializedTestCase(List<? extends Action> prefix) {
+
+        List<IScreenState> states = Registry.getUiAbstractionLayer().restorePrefix(prefix);
+
+        TestCase tc = new TestCase(UUID.randomUUID().toString());
+        tc.updateTestCase("init", states.get(0));
+
+        for (int actionID = 0; actionID < states.size() - 1; actionID++) {
+            tc.updateTestCase(prefix.get(actionID), actionID, states.get(actionID),
+                    states.get(actionID + 1));
+        }
+        return tc;
+    }
+
     /**
      * Executes the given action and updates the test case accordingly.
      *
@@ -507,7 +534,7 @@ public class TestCase {
     public boolean updateTestCase(Action action, int actionID) {
 
         if (action instanceof WidgetAction
-                && !Registry.getUiAbstractionLayer().getExecutableActions().contains(action)) {
+                && !Registry.getUiAbstractionLayer().isExecutable(action)) {
             throw new IllegalStateException("Action not applicable to current state!");
         }
 
@@ -551,13 +578,46 @@ public class TestCase {
         }
     }
 
+    /**
+     * Updates the test case with an action that has been restored from a snapshot instead of
+     * being executed, see {@link #newInitializedTestCase(List)}.
+     *
+     * @param action The restored action.
+     * @param actionID The id of the action.
+     * @param stateBeforeAction The screen state before the action.
+     * @param stateAfterAction The screen state reached by the action.
+     */
+    private void updateTestCase(Action action, int actionID, IScreenState stateBeforeAction,
+                                IScreenState stateAfterAction) {
+
+        addEvent(action);
+
+        // track the activity transitions of each action
+        if (actionID == 0) {
+            activitySequence.add(stateBeforeAction.getActivityName());
+        }
+        activitySequence.add(stateAfterAction.getActivityName());
+
+        MATE.log("restored action " + actionID + ": " + action);
+        updateTestCase(String.valueOf(actionID), stateAfterAction);
+    }
+
     /**
      * Updates the test case with the given event.
      *
      * @param event A new event, e.g. the action id.
      */
     private void updateTestCase(String event) {
-        IScreenState currentScreenState = Registry.getUiAbstractionLayer().getLastScreenState();
+        updateTestCase(event, Registry.getUiAbstractionLayer().getLastScreenState());
+    }
+
+    /**
+     * Updates the test case with the given event.
+     *
+     * @param event A new event, e.g. the action id.
+     * @param currentScreenState The screen state reached by the event.
+     */
+    private void updateTestCase(String event, IScreenState currentScreenState) {
         updateVisitedStates(currentScreenState);
         updateVisitedActivities(currentScreenState.getActivityName());
         updateStatesMap(currentScreenState.getId(), event);
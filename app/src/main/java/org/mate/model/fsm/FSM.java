@@ -5,16 +5,30 @@ import android.support.annotation.NonNull;
 import org.mate.MATE;
 import org.mate.interaction.action.Action;
 import org.mate.state.IScreenState;
+import org.mate.state.ScreenStateIndex;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class FSM {
 
     private final State root;
-    private Set<State> states;
+    private ScreenStateIndex<State> states;
     private Set<Transition> transitions;
+
+    /**
+     * Adjacency indexes that map an action, a source and a target state, respectively, to
+     * the transitions labeled by the action or leaving or entering the state. The indexes
+     * are updated incrementally whenever a new transition is added.
+     */
+    private Map<Action, Set<Transition>> transitionsByAction;
+    private Map<State, Set<Transition>> outgoingTransitions;
+    private Map<State, Set<Transition>> incomingTransitions;
+
     private int nextStateId;
     private boolean reachedNewState;
 
@@ -26,9 +40,12 @@ public class FSM {
     public FSM(State root) {
         this.root = root;
         nextStateId = 1;
-        states = new HashSet<>();
+        states = new ScreenStateIndex<>();
         transitions = new HashSet<>();
-        states.add(root);
+        transitionsByAction = new HashMap<>();
+        outgoingTransitions = new HashMap<>();
+        incomingTransitions = new HashMap<>();
+        states.add(root.getScreenState(), root);
 
         // the initial state is a new state
         reachedNewState = true;
@@ -44,17 +61,53 @@ public class FSM {
      */
     public void addTransition(State source, State target, Action action) {
 
-        states.add(source);
+        states.add(source.getScreenState(), source);
 
         // check whether we reached a new state
-        reachedNewState = states.add(target);
+        reachedNewState = states.add(target.getScreenState(), target);
 
         Transition transition = new Transition(source, target, action);
         if (transitions.add(transition)) {
+            index(transitionsByAction, action, transition);
+            index(outgoingTransitions, source, transition);
+            index(incomingTransitions, target, transition);
             MATE.log_debug(String.valueOf(this));
         }
     }
 
+    /**
+     * Adds the given transition to the adjacency index under the given key.
+     *
+     * @param index The adjacency index.
+     * @param key The key, i.e. an action or a state.
+     * @param transition The transition to be indexed.
+     * @param <K> The type of the key.
+     */
+    private static <K> void index(Map<K, Set<Transition>> index, K key, Transition transition) {
+        Set<Transition> transitions = index.get(key);
+        if (transitions == null) {
+            transitions = new HashSet<>();
+            index.put(key, transitions);
+        }
+        transitions.add(transition);
+    }
+
+    /**
+     * Looks up the transitions stored in the adjacency index under the given key.
+     *
+     * @param index The adjacency index.
+     * @param key The key, i.e. an action or a state.
+     * @param <K> The type of the key.
+     * @return Returns a read-only view on the indexed transitions, possibly empty.
+     */
+    private static <K> Set<Transition> lookup(Map<K, Set<Transition>> index, K key) {
+        Set<Transition> transitions = index.get(key);
+        if (transitions == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(transitions);
+    }
+
     /**
      * Returns the transition that are labeled by the given action.
      *
@@ -62,14 +115,27 @@ public class FSM {
      * @return Returns the transitions that are labeled by the given action.
      */
     public Set<Transition> getTransitions(Action action) {
+        return lookup(transitionsByAction, action);
+    }
 
-        Set<Transition> transitions = new HashSet<>();
-        for (Transition transition : this.transitions) {
-            if (transition.getAction().equals(action)) {
-                transitions.add(transition);
-            }
-        }
-        return transitions;
+    /**
+     * Returns the transitions that leave the given state.
+     *
+     * @param source The source state.
+     * @return Returns the outgoing transitions of the given state.
+     */
+    public Set<Transition> getOutgoingTransitions(State source) {
+        return lookup(outgoingTransitions, source);
+    }
+
+    /**
+     * Returns the transitions that enter the given state.
+     *
+     * @param target The target state.
+     * @return Returns the incoming transitions of the given state.
+     */
+    public Set<Transition> getIncomingTransitions(State target) {
+        return lookup(incomingTransitions, target);
     }
 
     /**
@@ -91,15 +157,26 @@ public class FSM {
      */
     public State getState(IScreenState screenState) {
 
-        for (State state : states) {
-            if (state.getScreenState().equals(screenState)) {
-                return state;
-            }
+        State state = states.get(screenState);
+
+        if (state != null) {
+            return state;
         }
 
         return new State(nextStateId++, screenState);
     }
 
+    /**
+     * Looks up the recorded state corresponding to the given screen state.
+     *
+     * @param screenState The given screen state.
+     * @return Returns the recorded state or {@code null} if no equal screen state has
+     *          been recorded yet.
+     */
+    public State findState(IScreenState screenState) {
+        return states.get(screenState);
+    }
+
     /**
      * Whether the last transition lead to a new state.
      *
@@ -115,8 +192,17 @@ public class FSM {
      *
      * @return Returns the states of the FSM.
      */
-    public Set<State> getStates() {
-        return Collections.unmodifiableSet(states);
+    public Collection<State> getStates() {
+        return states.getValues();
+    }
+
+    /**
+     * Returns a read-only view on the screen states of the FSM.
+     *
+     * @return Returns the screen states of the FSM.
+     */
+    public Set<IScreenState> getScreenStates() {
+        return states.getScreenStates();
     }
 
     /**
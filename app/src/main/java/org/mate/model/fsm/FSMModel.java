@@ -37,7 +37,7 @@ public class FSMModel implements IGUIModel {
     @Override
     public Set<Edge> getEdges(Action action) {
         Set<Transition> transitions = fsm.getTransitions(action);
-        Set<Edge> edges = new HashSet<>();
+        Set<Edge> edges = new HashSet<>(transitions.size());
         for (Transition transition : transitions) {
             IScreenState source = transition.getSource().getScreenState();
             IScreenState target = transition.getTarget().getScreenState();
@@ -59,11 +59,16 @@ public class FSMModel implements IGUIModel {
      */
     @Override
     public Set<IScreenState> getStates() {
-        Set<IScreenState> screenStates = new HashSet<>();
-        for (State state : fsm.getStates()) {
-            screenStates.add(state.getScreenState());
-        }
-        return screenStates;
+        return fsm.getScreenStates();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IScreenState getRecordedScreenState(IScreenState screenState) {
+        State state = fsm.findState(screenState);
+        return state == null ? null : state.getScreenState();
     }
 
     /**
@@ -0,0 +1,169 @@
+package org.mate.state;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps screen states to some associated value, e.g. the state of a GUI model, and allows to look
+ * up the canonical (first recorded) screen state that is equal to a given screen state in
+ * expected constant time. The hash code of a screen state is computed only once when it is
+ * inserted into the index, and a lookup computes the hash code of the given screen state once.
+ *
+ * @param <V> The type of the values associated with the screen states.
+ */
+public class ScreenStateIndex<V> {
+
+    /**
+     * Maps the recorded screen states to their associated values.
+     */
+    private final Map<Key, V> index = new HashMap<>();
+
+    /**
+     * An unmodifiable view on the recorded screen states.
+     */
+    private final Set<IScreenState> screenStates = new ScreenStateView();
+
+    /**
+     * Returns the value associated with the given screen state.
+     *
+     * @param screenState The given screen state.
+     * @return Returns the value associated with a recorded screen state equal to the given
+     *          screen state or {@code null} if no such screen state has been recorded.
+     */
+    public V get(IScreenState screenState) {
+        return index.get(new Key(screenState));
+    }
+
+    /**
+     * Records the given screen state unless an equal screen state has been recorded before.
+     *
+     * @param screenState The screen state to be recorded.
+     * @param value The value associated with the screen state.
+     * @return Returns {@code true} if the screen state has been recorded, i.e. no equal screen
+     *          state was recorded before, otherwise {@code false} is returned.
+     */
+    public boolean add(IScreenState screenState, V value) {
+
+        Key key = new Key(screenState);
+
+        if (index.containsKey(key)) {
+            return false;
+        }
+
+        index.put(key, value);
+        return true;
+    }
+
+    /**
+     * Checks whether a screen state equal to the given screen state has been recorded.
+     *
+     * @param screenState The given screen state.
+     * @return Returns {@code true} if an equal screen state has been recorded,
+     *          otherwise {@code false} is returned.
+     */
+    public boolean contains(IScreenState screenState) {
+        return index.containsKey(new Key(screenState));
+    }
+
+    /**
+     * Returns the number of recorded screen states.
+     *
+     * @return Returns the number of recorded screen states.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns an unmodifiable view on the recorded screen states.
+     *
+     * @return Returns the recorded screen states.
+     */
+    public Set<IScreenState> getScreenStates() {
+        return screenStates;
+    }
+
+    /**
+     * Returns an unmodifiable view on the values associated with the recorded screen states.
+     *
+     * @return Returns the values of the recorded screen states.
+     */
+    public Collection<V> getValues() {
+        return Collections.unmodifiableCollection(index.values());
+    }
+
+    /**
+     * Wraps a screen state together with its pre-computed hash code.
+     */
+    private static final class Key {
+
+        private final IScreenState screenState;
+        private final int hash;
+
+        private Key(IScreenState screenState) {
+            this.screenState = screenState;
+            this.hash = screenState.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            } else {
+                Key other = (Key) o;
+                return hash == other.hash && screenState.equals(other.screenState);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A read-only set view on the keys of the index.
+     */
+    private final class ScreenStateView extends AbstractSet<IScreenState> {
+
+        @Override
+        public Iterator<IScreenState> iterator() {
+
+            final Iterator<Key> keys = index.keySet().iterator();
+
+            return new Iterator<IScreenState>() {
+                @Override
+                public boolean hasNext() {
+                    return keys.hasNext();
+                }
+
+                @Override
+                public IScreenState next() {
+                    return keys.next().screenState;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException("Read-only view!");
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof IScreenState && ScreenStateIndex.this.contains((IScreenState) o);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package org.mate.state.executables;
 
+import org.mate.interaction.action.Action;
 import org.mate.interaction.action.ui.Widget;
 import org.mate.state.IScreenState;
+import org.mate.utils.HashUtils;
 
 import java.util.Collections;
 import java.util.List;
@@ -28,6 +30,13 @@ public abstract class AbstractScreenState implements IScreenState {
      */
     protected final List<Widget> widgets;
 
+    /**
+     * A structural fingerprint derived from the activity name, the package name and the
+     * fingerprints of the widgets. The widgets are not modified after the screen has been
+     * parsed, hence the fingerprint is computed once in the constructor.
+     */
+    protected final long fingerprint;
+
     /**
      * The state id.
      */
@@ -44,6 +53,23 @@ public abstract class AbstractScreenState implements IScreenState {
         this.widgets = widgets;
         this.packageName = packageName;
         this.activityName = activityName;
+
+        long fingerprint = HashUtils.combine(HashUtils.SEED, activityName);
+        fingerprint = HashUtils.combine(fingerprint, packageName);
+        for (Widget widget : widgets) {
+            fingerprint = HashUtils.combine(fingerprint, widget.getFingerprint());
+        }
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Returns the structural fingerprint of the screen state. Two equal screen states share
+     * the same fingerprint, while screen states with different fingerprints are never equal.
+     *
+     * @return Returns the 64-bit fingerprint of the screen state.
+     */
+    public long getFingerprint() {
+        return fingerprint;
     }
 
     /**
@@ -76,6 +102,17 @@ public abstract class AbstractScreenState implements IScreenState {
         return Collections.unmodifiableList(widgets);
     }
 
+    /**
+     * Checks whether the given action is applicable on the screen state.
+     *
+     * @param action The action to be checked.
+     * @return Returns {@code true} if the action is applicable, otherwise {@code false}.
+     */
+    @Override
+    public boolean isExecutable(Action action) {
+        return getActions().contains(action);
+    }
+
     /**
      * Returns the activity name that is linked to the screen state.
      *
@@ -111,19 +148,20 @@ public abstract class AbstractScreenState implements IScreenState {
             return false;
         } else {
             AbstractScreenState other = (AbstractScreenState) o;
-            return Objects.equals(activityName, other.activityName) &&
+            return fingerprint == other.fingerprint &&
+                    Objects.equals(activityName, other.activityName) &&
                     Objects.equals(packageName, other.packageName) &&
                     Objects.equals(widgets, other.widgets);
         }
     }
 
     /**
-     * Computes a hash code for the abstract screen state.
+     * Computes a hash code for the abstract screen state based on the pre-computed fingerprint.
      *
      * @return Returns the hash code associated with this screen state.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(activityName, packageName, widgets);
+        return HashUtils.toHashCode(fingerprint);
     }
 }
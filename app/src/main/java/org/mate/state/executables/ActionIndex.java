@@ -0,0 +1,83 @@
+package org.mate.state.executables;
+
+import org.mate.interaction.action.Action;
+import org.mate.interaction.action.ui.UIAction;
+import org.mate.interaction.action.ui.WidgetAction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable index over the actions applicable on a screen state. The index is built once
+ * when the actions of a screen state are derived and answers membership queries in expected
+ * constant time, i.e. checking whether an action is executable doesn't require a linear scan
+ * over the actions of the screen state. In addition, the widget actions are kept as a separate
+ * list, such that they need not be filtered on every request.
+ */
+public final class ActionIndex {
+
+    /**
+     * The applicable actions in the order they have been derived.
+     */
+    private final List<UIAction> actions;
+
+    /**
+     * The applicable widget actions in the order they have been derived.
+     */
+    private final List<WidgetAction> widgetActions;
+
+    /**
+     * The applicable actions for membership queries.
+     */
+    private final Set<UIAction> actionSet;
+
+    /**
+     * Builds the index over the given actions.
+     *
+     * @param actions The actions applicable on a screen state.
+     */
+    public ActionIndex(List<UIAction> actions) {
+
+        List<WidgetAction> widgetActions = new ArrayList<>();
+        for (UIAction action : actions) {
+            if (action instanceof WidgetAction) {
+                widgetActions.add((WidgetAction) action);
+            }
+        }
+
+        this.actions = Collections.unmodifiableList(new ArrayList<>(actions));
+        this.widgetActions = Collections.unmodifiableList(widgetActions);
+        this.actionSet = new HashSet<>(actions);
+    }
+
+    /**
+     * Returns the applicable actions.
+     *
+     * @return Returns an unmodifiable list of the applicable actions.
+     */
+    public List<UIAction> getActions() {
+        return actions;
+    }
+
+    /**
+     * Returns the applicable widget actions.
+     *
+     * @return Returns an unmodifiable list of the applicable widget actions.
+     */
+    public List<WidgetAction> getWidgetActions() {
+        return widgetActions;
+    }
+
+    /**
+     * Checks whether the given action is applicable.
+     *
+     * @param action The action to be checked.
+     * @return Returns {@code true} if the action is applicable, otherwise {@code false}.
+     */
+    public boolean contains(Action action) {
+        return actionSet.contains(action);
+    }
+}
@@ -1,6 +1,7 @@
 package org.mate.state.executables;
 
 import org.mate.MATE;
+import org.mate.interaction.action.Action;
 import org.mate.interaction.action.ui.ActionType;
 import org.mate.interaction.action.ui.UIAction;
 import org.mate.interaction.action.ui.Widget;
@@ -19,9 +20,9 @@ import java.util.Set;
 public class ActionsScreenState extends AbstractScreenState {
 
     /**
-     * Defines the actions that are applicable on the associated screen.
+     * Indexes the actions that are applicable on the associated screen.
      */
-    private List<UIAction> actions;
+    private ActionIndex actionIndex;
 
     /**
      * Represents the app screen with its widgets.
@@ -36,7 +37,7 @@ public class ActionsScreenState extends AbstractScreenState {
     public ActionsScreenState(AppScreen appScreen) {
         super(appScreen.getPackageName(), appScreen.getActivityName(), appScreen.getWidgets());
         this.appScreen = appScreen;
-        this.actions = null;
+        this.actionIndex = null;
     }
 
     /**
@@ -46,33 +47,44 @@ public class ActionsScreenState extends AbstractScreenState {
      */
     @Override
     public List<WidgetAction> getWidgetActions() {
+        getActions();
+        return actionIndex.getWidgetActions();
+    }
 
-        // actions get init lazily
-        if (actions == null) {
-            actions = getActions();
-        }
-
-        List<WidgetAction> widgetActions = new ArrayList<>();
-        for (UIAction uiAction : actions) {
-            if (uiAction instanceof WidgetAction) {
-                widgetActions.add((WidgetAction) uiAction);
-            }
-        }
-        return Collections.unmodifiableList(widgetActions);
+    /**
+     * Checks whether the given action is applicable on the underlying screen.
+     *
+     * @param action The action to be checked.
+     * @return Returns {@code true} if the action is applicable, otherwise {@code false}.
+     */
+    @Override
+    public boolean isExecutable(Action action) {
+        getActions();
+        return actionIndex.contains(action);
     }
 
     /**
-     * Extracts the list of applicable ui actions on the underlying screen.
+     * Returns the list of applicable ui actions on the underlying screen. The actions are
+     * derived and indexed on the first request only.
      *
      * @return Returns the list of ui actions.
      */
     @Override
     public List<UIAction> getActions() {
 
-        // check whether the actions have been requested once
-        if (actions != null) {
-            return actions;
+        // actions get init lazily
+        if (actionIndex == null) {
+            actionIndex = new ActionIndex(extractActions());
         }
+        return actionIndex.getActions();
+    }
+
+    /**
+     * Extracts the list of applicable ui actions on the underlying screen.
+     *
+     * @return Returns the list of ui actions.
+     */
+    private List<UIAction> extractActions() {
 
         if (activityName.contains("GoogleOAuthActivity")) {
             MATE.log_acc("Reached GoogleOAuthActivity!");
@@ -293,7 +305,7 @@ public class ActionsScreenState extends AbstractScreenState {
 
         List<UIAction> uiActions = new ArrayList<UIAction>(widgetActions);
         uiActions.addAll(getUIActions());
-        return Collections.unmodifiableList(uiActions);
+        return uiActions;
     }
 
     @SuppressWarnings("debug")
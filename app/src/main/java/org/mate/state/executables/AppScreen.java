@@ -97,29 +97,31 @@ public class AppScreen {
 
         // retrieve widgets from current screen
         MATE.log_debug("AppScreen: " + activityName);
-        parseWidgets(rootNode, null, 0, 0, 0);
+        CapturedNode capturedRoot = Registry.getScreenCapture().capture(rootNode);
+        parseWidgets(capturedRoot, null, 0, 0, 0);
         MATE.log_debug("Number of widgets: " + widgets.size());
     }
 
     /**
-     * Extracts the widgets from the ui hierarchy.
+     * Extracts the widgets from the captured ui hierarchy.
      *
-     * @param node Describes a node in the ui hierarchy. Initially, the root node.
+     * @param node Describes a captured node in the ui hierarchy. Initially, the root node.
      * @param parent The parent widget, {@code null} for the root node.
      * @param depth The depth of the node in the ui hierarchy (tree).
      * @param globalIndex A global index based on DFS order.
      * @param localIndex A local index for each child widget, i.e. the child number.
      * @return Returns the current global index.
      */
-    private int parseWidgets(final AccessibilityNodeInfo node, Widget parent, int depth,
+    private int parseWidgets(final CapturedNode node, Widget parent, int depth,
                              int globalIndex, final int localIndex) {
 
-        MATE.log_debug("Node: " + node.getViewIdResourceName() + ", depth: " + depth
+        Widget widget = new Widget(parent, node.getAttributes(), activityName, depth,
+                globalIndex, localIndex);
+        MATE.log_debug("Node: " + widget.getResourceID() + ", depth: " + depth
                 + ", globalIndex: " + globalIndex + ", localIndex: " + localIndex);
-        MATE.log_debug("Node class: " + node.getClassName());
+        MATE.log_debug("Node class: " + widget.getClazz());
 
-        Widget widget = new Widget(parent, node, activityName, depth, globalIndex, localIndex);
-        checkForHint(node, widget);
+        checkForHint(widget);
         widgets.add(widget);
 
         if (parent != null) {
@@ -130,12 +132,11 @@ public class AppScreen {
         globalIndex++;
 
         // traverse children
-        for (int i = 0; i < node.getChildCount(); i++) {
-            // the local index is simply the child number
-            if (node.getChild(i) == null) {
-                MATE.log_warn("Child node " + i + " at depth " + depth + " not available!");
-            } else {
-                globalIndex = parseWidgets(node.getChild(i), widget, depth, globalIndex, i);
+        List<CapturedNode> children = node.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            // the local index is simply the child number, unavailable children are skipped
+            if (children.get(i) != null) {
+                globalIndex = parseWidgets(children.get(i), widget, depth, globalIndex, i);
             }
         }
         return globalIndex;
@@ -145,10 +146,9 @@ public class AppScreen {
      * Checks whether a widget displays some hint. Globally collects
      * all hints.
      *
-     * @param node A node in the ui hierarchy.
-     * @param widget The widget corresponding to the node.
+     * @param widget The widget to check.
      */
-    private void checkForHint(AccessibilityNodeInfo node, Widget widget) {
+    private void checkForHint(Widget widget) {
 
         /*
          * TODO: We should replace the following code with node.isShowingHintText()
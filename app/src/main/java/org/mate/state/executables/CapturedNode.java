@@ -0,0 +1,58 @@
+package org.mate.state.executables;
+
+import android.view.accessibility.AccessibilityNodeInfo;
+
+import org.mate.interaction.action.ui.NodeAttributes;
+
+import java.util.List;
+
+/**
+ * A node of a captured ui hierarchy, i.e. the snapshot of the node attributes together with the
+ * captured children. A captured node is immutable.
+ */
+public final class CapturedNode {
+
+    /**
+     * The underlying node in the ui hierarchy.
+     */
+    private final AccessibilityNodeInfo node;
+
+    private final NodeAttributes attributes;
+
+    private final List<CapturedNode> children;
+
+    /**
+     * The number of nodes in the subtree rooted at this node.
+     */
+    private final int size;
+
+    CapturedNode(AccessibilityNodeInfo node, NodeAttributes attributes, List<CapturedNode> children) {
+        this.node = node;
+        this.attributes = attributes;
+        this.children = children;
+
+        int size = 1;
+        for (CapturedNode child : children) {
+            if (child != null) {
+                size += child.size;
+            }
+        }
+        this.size = size;
+    }
+
+    public AccessibilityNodeInfo getNode() {
+        return node;
+    }
+
+    public NodeAttributes getAttributes() {
+        return attributes;
+    }
+
+    public List<CapturedNode> getChildren() {
+        return children;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,76 @@
+package org.mate.state.executables;
+
+import android.view.accessibility.AccessibilityNodeInfo;
+
+import org.mate.MATE;
+import org.mate.interaction.action.ui.NodeAttributes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Captures the ui hierarchy of the current screen. Each node is fetched from the AUT exactly
+ * once and its attributes are snapshotted, such that the widgets can be created without any
+ * further round trip to the AUT. In addition, the capture latencies are recorded.
+ */
+public class ScreenCapture {
+
+    private int count;
+    private long totalNanos;
+    private int totalNodes;
+
+    /**
+     * Captures the ui hierarchy rooted at the given node.
+     *
+     * @param root The root node of the active window.
+     * @return Returns the captured hierarchy.
+     */
+    public CapturedNode capture(AccessibilityNodeInfo root) {
+
+        long start = System.nanoTime();
+        CapturedNode captured = captureFull(root);
+
+        count++;
+        totalNanos += System.nanoTime() - start;
+        totalNodes += captured.getSize();
+        return captured;
+    }
+
+    /**
+     * Captures the entire ui hierarchy rooted at the given node.
+     *
+     * @param node The root node of the hierarchy.
+     * @return Returns the captured hierarchy.
+     */
+    public static CapturedNode captureFull(AccessibilityNodeInfo node) {
+
+        NodeAttributes attributes = new NodeAttributes(node);
+        List<CapturedNode> children = new ArrayList<>(attributes.getChildCount());
+
+        for (int i = 0; i < attributes.getChildCount(); i++) {
+            AccessibilityNodeInfo child = node.getChild(i);
+            if (child == null) {
+                MATE.log_warn("Child node " + i + " of " + node.getClassName() + " not available!");
+                // keep the local indices of the remaining children
+                children.add(null);
+            } else {
+                children.add(captureFull(child));
+            }
+        }
+
+        return new CapturedNode(node, attributes, Collections.unmodifiableList(children));
+    }
+
+    /**
+     * Logs the recorded capture latencies.
+     */
+    public void logCaptureTimes() {
+        if (count == 0) {
+            MATE.log_acc("Screen capture times: no captures");
+        } else {
+            MATE.log_acc("Screen capture times (count, average, nodes): " + count + ", "
+                    + (totalNanos / count / 1000) + "us, " + totalNodes / count);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.mate.utils;
+
+import org.mate.MATE;
+import org.mate.Registry;
+import org.mate.exploration.genetic.chromosome.IChromosome;
+import org.mate.utils.coverage.CoverageUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks which chromosomes are still in use by a search algorithm in order to evict obsolete
+ * chromosomes from the various per-chromosome caches, e.g. the fitness vector caches of the
+ * multi-objective fitness functions or the visited activities tracked by {@link CoverageUtils}.
+ *
+ * Every chromosome whose fitness or coverage data is stored gets tracked. Owners of chromosomes,
+ * e.g. the population or the archive of a genetic algorithm, retain and release the chromosomes
+ * they hold. A call to {@link #evictUnreferenced()} then evicts all tracked chromosomes that are
+ * no longer retained by any owner. Every search algorithm evicts the chromosomes it doesn't use
+ * anymore after each generation or iteration, e.g. see
+ * {@link org.mate.exploration.genetic.core.GeneticAlgorithm#run()}.
+ */
+public class ChromosomeLifecycle {
+
+    /**
+     * Stores for each tracked chromosome how many owners currently retain it.
+     */
+    private static final Map<IChromosome<?>, Integer> referenceCounts = new HashMap<>();
+
+    /**
+     * The tracked chromosomes that are currently not retained by any owner.
+     */
+    private static final Set<IChromosome<?>> unreferenced = new HashSet<>();
+
+    private ChromosomeLifecycle() {
+        throw new UnsupportedOperationException("Utility class!");
+    }
+
+    /**
+     * Starts tracking the given chromosome if it is not already tracked. A tracked chromosome
+     * that is never retained is evicted by the next call of {@link #evictUnreferenced()}.
+     *
+     * @param chromosome The chromosome whose data is about to be cached.
+     */
+    public static void track(IChromosome<?> chromosome) {
+        if (!referenceCounts.containsKey(chromosome)) {
+            referenceCounts.put(chromosome, 0);
+            unreferenced.add(chromosome);
+        }
+    }
+
+    /**
+     * Increments the reference count of the given chromosome.
+     *
+     * @param chromosome The chromosome that is retained by an owner.
+     */
+    public static void retain(IChromosome<?> chromosome) {
+        Integer count = referenceCounts.get(chromosome);
+        referenceCounts.put(chromosome, count == null ? 1 : count + 1);
+        unreferenced.remove(chromosome);
+    }
+
+    /**
+     * Decrements the reference count of the given chromosome.
+     *
+     * @param chromosome The chromosome that is released by an owner.
+     */
+    public static void release(IChromosome<?> chromosome) {
+
+        Integer count = referenceCounts.get(chromosome);
+
+        if (count == null || count == 0) {
+            throw new IllegalStateException("Chromosome " + chromosome + " is not retained!");
+        }
+
+        referenceCounts.put(chromosome, count - 1);
+        if (count == 1) {
+            unreferenced.add(chromosome);
+        }
+    }
+
+    /**
+     * Updates the chromosomes retained by a single owner. Chromosomes that are new to the owner
+     * are retained, while chromosomes that are no longer held by the owner are released.
+     *
+     * @param owned The chromosomes currently retained by the owner, updated in place.
+     * @param current The chromosomes the owner holds from now on.
+     */
+    public static void update(Set<IChromosome<?>> owned, Collection<? extends IChromosome<?>> current) {
+
+        Set<IChromosome<?>> held = new HashSet<IChromosome<?>>(current);
+
+        Iterator<IChromosome<?>> iterator = owned.iterator();
+        while (iterator.hasNext()) {
+            IChromosome<?> chromosome = iterator.next();
+            if (!held.contains(chromosome)) {
+                iterator.remove();
+                release(chromosome);
+            }
+        }
+
+        for (IChromosome<?> chromosome : held) {
+            if (owned.add(chromosome)) {
+                retain(chromosome);
+            }
+        }
+    }
+
+    /**
+     * Evicts all tracked chromosomes that are not retained by any owner from every
+     * per-chromosome cache. The eviction is mirrored to the MATE-Server such that it can drop
+     * the corresponding traces.
+     */
+    public static void evictUnreferenced() {
+
+        List<IChromosome<?>> evicted = removeUnreferenced();
+
+        if (evicted.isEmpty()) {
+            return;
+        }
+
+        FitnessUtils.evict(evicted);
+        CoverageUtils.evict(evicted);
+        Registry.getEnvironmentManager().releaseChromosomes(evicted);
+
+        MATE.log_acc("Evicted " + evicted.size() + " obsolete chromosomes from cache!");
+    }
+
+    /**
+     * Stops tracking all chromosomes that are not retained by any owner.
+     *
+     * @return Returns the chromosomes that are no longer tracked.
+     */
+    static List<IChromosome<?>> removeUnreferenced() {
+
+        List<IChromosome<?>> removed = new ArrayList<>(unreferenced);
+        unreferenced.clear();
+
+        for (IChromosome<?> chromosome : removed) {
+            referenceCounts.remove(chromosome);
+        }
+        return removed;
+    }
+}
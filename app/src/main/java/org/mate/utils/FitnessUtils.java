@@ -3,24 +3,64 @@ package org.mate.utils;
 import org.mate.Properties;
 import org.mate.Registry;
 import org.mate.exploration.genetic.chromosome.IChromosome;
+import org.mate.exploration.genetic.fitness.BasicBlockMultiObjectiveFitnessFunction;
+import org.mate.exploration.genetic.fitness.BranchDistanceMultiObjectiveFitnessFunction;
+import org.mate.exploration.genetic.fitness.BranchMultiObjectiveFitnessFunction;
 import org.mate.exploration.genetic.fitness.FitnessFunction;
+import org.mate.exploration.genetic.fitness.IBatchFitnessFunction;
+import org.mate.exploration.genetic.fitness.IFitnessFunction;
 import org.mate.exploration.genetic.fitness.LineCoveredPercentageFitnessFunction;
 import org.mate.model.TestCase;
 import org.mate.model.TestSuite;
 import org.mate.utils.coverage.Coverage;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 public class FitnessUtils {
 
+    /**
+     * The fitness functions that assign a single fitness value to a chromosome, which is
+     * retrieved from the MATE-Server.
+     */
+    private static final EnumSet<FitnessFunction> SCALAR_FITNESS_FUNCTIONS
+            = EnumSet.of(FitnessFunction.BRANCH_COVERAGE, FitnessFunction.BRANCH_DISTANCE,
+            FitnessFunction.LINE_COVERAGE, FitnessFunction.METHOD_COVERAGE,
+            FitnessFunction.BASIC_BLOCK_LINE_COVERAGE, FitnessFunction.BASIC_BLOCK_BRANCH_COVERAGE);
+
+    /**
+     * The fitness functions that assign a fitness vector to a chromosome, which is retrieved
+     * from the MATE-Server.
+     */
+    private static final EnumSet<FitnessFunction> VECTOR_FITNESS_FUNCTIONS
+            = EnumSet.of(FitnessFunction.BRANCH_DISTANCE_MULTI_OBJECTIVE,
+            FitnessFunction.LINE_PERCENTAGE_COVERAGE, FitnessFunction.BASIC_BLOCK_MULTI_OBJECTIVE,
+            FitnessFunction.BRANCH_MULTI_OBJECTIVE);
+
+    /**
+     * Memoizes the scalar fitness values retrieved from the MATE-Server per chromosome. A cached
+     * value is invalidated once new fitness data is stored for the chromosome, e.g. when a test
+     * case is added to a test suite. The chromosomes are only weakly referenced, i.e. a value
+     * never outlives its chromosome, even if the chromosome is never evicted explicitly.
+     * Chromosomes don't override {@link Object#equals(Object)}, thus the map compares keys by
+     * identity.
+     */
+    private static final Map<IChromosome<?>, Double> fitnessValues = new WeakHashMap<>();
+
     private FitnessUtils() {
         throw new UnsupportedOperationException("Utility class!");
     }
 
     /**
      * Copies the fitness data for the given test cases from a source chromosome to a
-     * target chromosome.
+     * target chromosome. No data is moved if the MATE-Server keeps the traces per test case,
+     * see {@link org.mate.interaction.EnvironmentManager#copyFitnessData(IChromosome, IChromosome, List)}.
      *
      * @param sourceChromosome The source chromosome.
      * @param targetChromosome The target chromosome.
@@ -37,8 +77,11 @@ public class FitnessUtils {
                 FitnessFunction.BASIC_BLOCK_BRANCH_COVERAGE, FitnessFunction.BASIC_BLOCK_LINE_COVERAGE,
                 FitnessFunction.BASIC_BLOCK_MULTI_OBJECTIVE);
 
+        ChromosomeLifecycle.track(targetChromosome);
+
         if (fitnessFunctions.contains(Properties.FITNESS_FUNCTION())) {
             Registry.getEnvironmentManager().copyFitnessData(sourceChromosome, targetChromosome, testCases);
+            invalidate(targetChromosome);
         }
     }
 
@@ -50,6 +93,8 @@ public class FitnessUtils {
      */
     public static void storeTestCaseChromosomeFitness(IChromosome<TestCase> chromosome) {
 
+        ChromosomeLifecycle.track(chromosome);
+
         EnumSet<FitnessFunction> fitnessFunctions = EnumSet.of(FitnessFunction.BRANCH_COVERAGE,
                 FitnessFunction.BRANCH_DISTANCE, FitnessFunction.LINE_COVERAGE,
                 FitnessFunction.BRANCH_DISTANCE_MULTI_OBJECTIVE,
@@ -60,6 +105,7 @@ public class FitnessUtils {
 
         if (fitnessFunctions.contains(Properties.FITNESS_FUNCTION())) {
             Registry.getEnvironmentManager().storeFitnessData(chromosome, null);
+            invalidate(chromosome);
         }
 
         if (Properties.FITNESS_FUNCTION() == FitnessFunction.LINE_PERCENTAGE_COVERAGE) {
@@ -76,6 +122,8 @@ public class FitnessUtils {
      */
     public static void storeTestSuiteChromosomeFitness(IChromosome<TestSuite> chromosome, TestCase testCase) {
 
+        ChromosomeLifecycle.track(chromosome);
+
         EnumSet<FitnessFunction> fitnessFunctions = EnumSet.of(FitnessFunction.BRANCH_COVERAGE,
                 FitnessFunction.BRANCH_DISTANCE, FitnessFunction.LINE_COVERAGE,
                 FitnessFunction.METHOD_COVERAGE, FitnessFunction.BRANCH_MULTI_OBJECTIVE,
@@ -85,6 +133,7 @@ public class FitnessUtils {
 
         if (fitnessFunctions.contains(Properties.FITNESS_FUNCTION())) {
             Registry.getEnvironmentManager().storeFitnessData(chromosome, testCase.getId());
+            invalidate(chromosome);
         }
 
         if (Properties.FITNESS_FUNCTION() == FitnessFunction.LINE_PERCENTAGE_COVERAGE) {
@@ -93,19 +142,47 @@ public class FitnessUtils {
     }
 
     /**
-     * Removes all non active chromosomes, i.e. obsolete chromosomes, from an internal cache.
+     * Removes the given obsolete chromosomes from the fitness caches.
      *
-     * @param activeChromosomes The list of active chromosomes.
+     * @param chromosomes The chromosomes to be evicted.
      */
-    public static <T> void cleanCache(List<IChromosome<T>> activeChromosomes) {
+    public static void evict(Collection<? extends IChromosome<?>> chromosomes) {
 
-        if (Properties.FITNESS_FUNCTION() == FitnessFunction.LINE_PERCENTAGE_COVERAGE) {
-            LineCoveredPercentageFitnessFunction.cleanCache(activeChromosomes);
+        for (IChromosome<?> chromosome : chromosomes) {
+            fitnessValues.remove(chromosome);
         }
+
+        switch (Properties.FITNESS_FUNCTION()) {
+            case BRANCH_MULTI_OBJECTIVE:
+                BranchMultiObjectiveFitnessFunction.evict(chromosomes);
+                break;
+            case BRANCH_DISTANCE_MULTI_OBJECTIVE:
+                BranchDistanceMultiObjectiveFitnessFunction.evict(chromosomes);
+                break;
+            case BASIC_BLOCK_MULTI_OBJECTIVE:
+                BasicBlockMultiObjectiveFitnessFunction.evict(chromosomes);
+                break;
+            case LINE_PERCENTAGE_COVERAGE:
+                LineCoveredPercentageFitnessFunction.evict(chromosomes);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Discards the cached fitness values of the given chromosome, since the fitness data stored
+     * by the MATE-Server for the chromosome has changed.
+     *
+     * @param chromosome The chromosome whose fitness data has changed.
+     */
+    private static void invalidate(IChromosome<?> chromosome) {
+        evict(Collections.singletonList(chromosome));
     }
 
     /**
-     * Retrieves the fitness value for the given chromosome.
+     * Retrieves the fitness value for the given chromosome. The value is memoized until new
+     * fitness data is stored for the chromosome.
      *
      * @param chromosome The chromosome for which the fitness value should be evaluated.
      * @param <T> Specifies whether the chromosome is a test suite or a test case.
@@ -113,6 +190,24 @@ public class FitnessUtils {
      */
     public static <T> double getFitness(IChromosome<T> chromosome) {
 
+        Double fitness = fitnessValues.get(chromosome);
+
+        if (fitness == null) {
+            fitness = getServerFitness(chromosome);
+            fitnessValues.put(chromosome, fitness);
+        }
+        return fitness;
+    }
+
+    /**
+     * Requests the fitness value for the given chromosome from the MATE-Server.
+     *
+     * @param chromosome The chromosome for which the fitness value should be evaluated.
+     * @param <T> Specifies whether the chromosome is a test suite or a test case.
+     * @return Returns the fitness value for the given chromosome.
+     */
+    private static <T> double getServerFitness(IChromosome<T> chromosome) {
+
         if (Properties.FITNESS_FUNCTION() == FitnessFunction.BRANCH_COVERAGE) {
             return Registry.getEnvironmentManager().getCoverage(Coverage.BRANCH_COVERAGE, chromosome);
         } else if (Properties.FITNESS_FUNCTION() == FitnessFunction.BRANCH_DISTANCE) {
@@ -155,4 +250,138 @@ public class FitnessUtils {
         throw new UnsupportedOperationException("Fitness function "
                 + Properties.FITNESS_FUNCTION() + " not yet supported!");
     }
+
+    /**
+     * Retrieves the fitness values for the given chromosomes, see {@link #getFitness(IChromosome)}.
+     * The values that are not memoized yet are retrieved with a single request.
+     *
+     * @param chromosomes The chromosomes for which the fitness values should be evaluated.
+     * @param <T> Specifies whether the chromosomes are test suites or test cases.
+     * @return Returns the fitness values, where the i-th entry refers to the i-th chromosome.
+     */
+    public static <T> double[] getFitnessValues(List<IChromosome<T>> chromosomes) {
+
+        if (!SCALAR_FITNESS_FUNCTIONS.contains(Properties.FITNESS_FUNCTION())) {
+            throw new UnsupportedOperationException("Fitness function "
+                    + Properties.FITNESS_FUNCTION() + " not yet supported!");
+        }
+
+        Map<IChromosome<T>, Boolean> missing = new IdentityHashMap<>();
+        List<IChromosome<T>> missingChromosomes = new ArrayList<>();
+        for (IChromosome<T> chromosome : chromosomes) {
+            if (!fitnessValues.containsKey(chromosome) && missing.put(chromosome, true) == null) {
+                missingChromosomes.add(chromosome);
+            }
+        }
+
+        if (!missingChromosomes.isEmpty()) {
+            double[][] fitnessMatrix = getServerFitnessMatrix(missingChromosomes, null);
+            for (int i = 0; i < fitnessMatrix.length; i++) {
+                fitnessValues.put(missingChromosomes.get(i), fitnessMatrix[i][0]);
+            }
+        }
+
+        double[] values = new double[chromosomes.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = fitnessValues.get(chromosomes.get(i));
+        }
+        return values;
+    }
+
+    /**
+     * Retrieves the fitness vectors for the given chromosomes with a single request, see
+     * {@link #getFitness(IChromosome, List)}.
+     *
+     * @param chromosomes The chromosomes for which the fitness vectors should be evaluated.
+     * @param objectives A list of objectives, e.g. lines or branches.
+     * @param <T> Specifies whether the chromosomes are test suites or test cases.
+     * @return Returns the fitness matrix, where the i-th row holds the fitness vector of the
+     *          i-th chromosome.
+     */
+    public static <T> double[][] getFitnessMatrix(List<IChromosome<T>> chromosomes,
+                                                  List<String> objectives) {
+
+        if (!VECTOR_FITNESS_FUNCTIONS.contains(Properties.FITNESS_FUNCTION())) {
+            throw new UnsupportedOperationException("Fitness function "
+                    + Properties.FITNESS_FUNCTION() + " not yet supported!");
+        }
+
+        return getServerFitnessMatrix(chromosomes, objectives);
+    }
+
+    /**
+     * Evaluates the given chromosomes against the given fitness functions. Fitness functions
+     * that implement {@link IBatchFitnessFunction} evaluate all chromosomes at once, e.g. with a
+     * single request to the MATE-Server, while the remaining fitness functions evaluate one
+     * chromosome at a time.
+     *
+     * @param chromosomes The chromosomes, one per row.
+     * @param fitnessFunctions The fitness functions, one per column.
+     * @param <T> The type wrapped by the chromosomes.
+     * @return Returns the matrix holding the normalized fitness values.
+     */
+    public static <T> double[][] getNormalizedFitnessMatrix(List<IChromosome<T>> chromosomes,
+                                                            List<IFitnessFunction<T>> fitnessFunctions) {
+
+        double[][] fitnessMatrix = new double[chromosomes.size()][fitnessFunctions.size()];
+
+        for (int j = 0; j < fitnessFunctions.size(); j++) {
+            IFitnessFunction<T> fitnessFunction = fitnessFunctions.get(j);
+            if (fitnessFunction instanceof IBatchFitnessFunction) {
+                double[] fitnessValues
+                        = ((IBatchFitnessFunction<T>) fitnessFunction).getNormalizedFitness(chromosomes);
+                for (int i = 0; i < fitnessValues.length; i++) {
+                    fitnessMatrix[i][j] = fitnessValues[i];
+                }
+            } else {
+                for (int i = 0; i < chromosomes.size(); i++) {
+                    fitnessMatrix[i][j] = fitnessFunction.getNormalizedFitness(chromosomes.get(i));
+                }
+            }
+        }
+        return fitnessMatrix;
+    }
+
+    /**
+     * Requests the fitness matrix of the given chromosomes for the configured fitness function
+     * from the MATE-Server. If the MATE-Server can't evaluate multiple chromosomes with a single
+     * request, the fitness of each chromosome is requested separately.
+     *
+     * @param chromosomes The chromosomes for which the fitness should be evaluated.
+     * @param objectives The objectives of a vector fitness function or {@code null} if the
+     *                   fitness function is a scalar one.
+     * @param <T> Specifies whether the chromosomes are test suites or test cases.
+     * @return Returns the fitness matrix.
+     */
+    private static <T> double[][] getServerFitnessMatrix(List<IChromosome<T>> chromosomes,
+                                                         List<String> objectives) {
+
+        if (!Registry.getEnvironmentManager().supportsFitnessMatrix()) {
+
+            double[][] fitnessMatrix = new double[chromosomes.size()][];
+
+            for (int i = 0; i < chromosomes.size(); i++) {
+                IChromosome<T> chromosome = chromosomes.get(i);
+                if (objectives == null) {
+                    fitnessMatrix[i] = new double[]{getServerFitness(chromosome)};
+                } else {
+                    List<Double> fitnessVector = getFitness(chromosome, objectives);
+                    fitnessMatrix[i] = new double[fitnessVector.size()];
+                    for (int j = 0; j < fitnessVector.size(); j++) {
+                        fitnessMatrix[i][j] = fitnessVector.get(j);
+                    }
+                }
+            }
+            return fitnessMatrix;
+        }
+
+        FitnessFunction fitnessFunction = Properties.FITNESS_FUNCTION();
+
+        // a dummy test case has the worst fitness value for each objective
+        double dummyFitness = fitnessFunction == FitnessFunction.BRANCH_DISTANCE
+                || fitnessFunction == FitnessFunction.BRANCH_DISTANCE_MULTI_OBJECTIVE ? 1.0 : 0.0;
+
+        return Registry.getEnvironmentManager().getFitnessMatrix(fitnessFunction, chromosomes,
+                objectives == null ? 1 : objectives.size(), dummyFitness);
+    }
 }
@@ -0,0 +1,75 @@
+package org.mate.utils;
+
+/**
+ * Provides a 64-bit hash function (FNV-1a) that can be used to compute structural fingerprints,
+ * e.g. of widgets or screen states. A 64-bit fingerprint makes collisions between structurally
+ * different objects far less likely than the 32-bit hash codes derived from {@link Object#hashCode()}.
+ */
+public final class HashUtils {
+
+    /**
+     * The FNV-1a offset basis, i.e. the hash value of an empty input.
+     */
+    public static final long SEED = 0xcbf29ce484222325L;
+
+    /**
+     * The FNV-1a prime.
+     */
+    private static final long PRIME = 0x100000001b3L;
+
+    private HashUtils() {
+        throw new UnsupportedOperationException("Utility class!");
+    }
+
+    /**
+     * Combines the given hash value with the given value.
+     *
+     * @param hash The current hash value.
+     * @param value The value to be added to the hash.
+     * @return Returns the combined hash value.
+     */
+    public static long combine(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= value & 0xff;
+            hash *= PRIME;
+            value >>>= 8;
+        }
+        return hash;
+    }
+
+    /**
+     * Combines the given hash value with the characters of the given string. A {@code null}
+     * string is treated like an empty string.
+     *
+     * @param hash The current hash value.
+     * @param value The string to be added to the hash.
+     * @return Returns the combined hash value.
+     */
+    public static long combine(long hash, String value) {
+
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                hash ^= c & 0xff;
+                hash *= PRIME;
+                hash ^= c >>> 8;
+                hash *= PRIME;
+            }
+        }
+
+        // terminate the string such that ("ab", "c") and ("a", "bc") hash differently
+        hash ^= 0xff;
+        hash *= PRIME;
+        return hash;
+    }
+
+    /**
+     * Folds the given 64-bit hash value into a 32-bit hash code.
+     *
+     * @param hash The 64-bit hash value.
+     * @return Returns the corresponding 32-bit hash code.
+     */
+    public static int toHashCode(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
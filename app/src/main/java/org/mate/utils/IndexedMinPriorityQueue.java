@@ -0,0 +1,168 @@
+package org.mate.utils;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap over the indices {@code 0, ..., capacity - 1} where each contained index is
+ * associated with an integer key. In addition to the usual heap operations, the key of an index
+ * can be changed and an arbitrary index can be removed in logarithmic time. Indices with equal
+ * keys are ordered by the index itself, i.e. the ordering is deterministic.
+ */
+public class IndexedMinPriorityQueue {
+
+    /**
+     * The contained indices in heap order.
+     */
+    private final int[] heap;
+
+    /**
+     * The position of each index in the heap or {@code -1} if the index is not contained.
+     */
+    private final int[] positions;
+
+    /**
+     * The key of each index.
+     */
+    private final int[] keys;
+
+    private int size = 0;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacity The number of indices that can be stored.
+     */
+    public IndexedMinPriorityQueue(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Returns the number of contained indices.
+     *
+     * @return Returns the size of the queue.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the queue is empty.
+     *
+     * @return Returns {@code true} if no index is contained, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether the given index is contained in the queue.
+     *
+     * @param index The index to be checked.
+     * @return Returns {@code true} if the index is contained, otherwise {@code false}.
+     */
+    public boolean contains(int index) {
+        return positions[index] != -1;
+    }
+
+    /**
+     * Returns the index with the smallest key.
+     *
+     * @return Returns the index with the smallest key.
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Queue is empty!");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Inserts the given index or updates its key if the index is already contained.
+     *
+     * @param index The index to be inserted.
+     * @param key The key of the index.
+     */
+    public void put(int index, int key) {
+
+        if (contains(index)) {
+            int previous = keys[index];
+            keys[index] = key;
+            if (key < previous) {
+                siftUp(positions[index]);
+            } else if (key > previous) {
+                siftDown(positions[index]);
+            }
+        } else {
+            keys[index] = key;
+            positions[index] = size;
+            heap[size] = index;
+            siftUp(size++);
+        }
+    }
+
+    /**
+     * Removes the given index from the queue. Does nothing if the index is not contained.
+     *
+     * @param index The index to be removed.
+     */
+    public void remove(int index) {
+
+        int position = positions[index];
+
+        if (position == -1) {
+            return;
+        }
+
+        size--;
+        swap(position, size);
+        positions[index] = -1;
+
+        if (position < size) {
+            siftUp(position);
+            siftDown(position);
+        }
+    }
+
+    private boolean less(int first, int second) {
+        int i = heap[first];
+        int j = heap[second];
+        return keys[i] < keys[j] || (keys[i] == keys[j] && i < j);
+    }
+
+    private void swap(int first, int second) {
+        int tmp = heap[first];
+        heap[first] = heap[second];
+        heap[second] = tmp;
+        positions[heap[first]] = first;
+        positions[heap[second]] = second;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!less(position, parent)) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (2 * position + 1 < size) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && less(child + 1, child)) {
+                child++;
+            }
+            if (!less(child, position)) {
+                break;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+}
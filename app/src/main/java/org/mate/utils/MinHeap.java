@@ -0,0 +1,155 @@
+package org.mate.utils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * An array-based binary min-heap. In contrast to {@link java.util.PriorityQueue}, the minimum
+ * can be replaced in a single sift operation and the elements can be accessed by their position
+ * in the underlying array, e.g. to pick a random element in constant time.
+ *
+ * @param <E> The type of the elements.
+ */
+public class MinHeap<E> {
+
+    private final Comparator<? super E> comparator;
+
+    private Object[] elements = new Object[4];
+
+    private int size = 0;
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param comparator Defines the ordering of the elements, the smallest element is on top.
+     */
+    public MinHeap(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * @return Returns the size of the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the heap is empty.
+     *
+     * @return Returns {@code true} if the heap contains no element, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the element at the given position of the underlying array. The positions don't
+     * reflect the ordering of the elements except that the smallest element is at position 0.
+     *
+     * @param index The position of the element.
+     * @return Returns the element at the given position.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return (E) elements[index];
+    }
+
+    /**
+     * Returns the smallest element without removing it.
+     *
+     * @return Returns the smallest element.
+     */
+    public E peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty!");
+        }
+        return get(0);
+    }
+
+    /**
+     * Adds the given element to the heap.
+     *
+     * @param element The element to be added.
+     */
+    public void add(E element) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, 2 * size);
+        }
+        siftUp(size++, element);
+    }
+
+    /**
+     * Removes the smallest element from the heap.
+     *
+     * @return Returns the removed element.
+     */
+    public E poll() {
+        E top = peek();
+        size--;
+        Object last = elements[size];
+        elements[size] = null;
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * Replaces the smallest element with the given element, which is cheaper than a call to
+     * {@link #poll()} followed by a call to {@link #add(Object)}.
+     *
+     * @param element The new element.
+     * @return Returns the replaced element.
+     */
+    public E replaceTop(E element) {
+        E top = peek();
+        siftDown(0, element);
+        return top;
+    }
+
+    /**
+     * Removes all elements from the heap.
+     */
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftUp(int index, Object element) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare((E) element, (E) elements[parent]) >= 0) {
+                break;
+            }
+            elements[index] = elements[parent];
+            index = parent;
+        }
+        elements[index] = element;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void siftDown(int index, Object element) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && comparator.compare((E) elements[right], (E) elements[child]) < 0) {
+                child = right;
+            }
+            if (comparator.compare((E) element, (E) elements[child]) <= 0) {
+                break;
+            }
+            elements[index] = elements[child];
+            index = child;
+        }
+        elements[index] = element;
+    }
+}
@@ -0,0 +1,194 @@
+package org.mate.utils.coverage;
+
+import org.mate.exploration.genetic.chromosome.IChromosome;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates the covered objectives, e.g. the visited activities, of chromosomes incrementally.
+ * Each objective is interned to a dense index, such that the covered objectives of a chromosome
+ * can be represented by a bit set. In addition, a global bit set holds the objectives covered by
+ * any chromosome so far. Storing the coverage of a chromosome only updates the global bit set
+ * for the newly covered objectives, while the combined coverage is answered in constant time.
+ *
+ * The global bit set is never shrunk, i.e. the objectives covered by evicted chromosomes still
+ * count towards the combined coverage.
+ */
+public class CoverageAccumulator {
+
+    /**
+     * Maps each objective to its index.
+     */
+    private final Map<String, Integer> objectiveIndices = new HashMap<>();
+
+    /**
+     * The objectives in the order of their indices.
+     */
+    private final List<String> objectives = new ArrayList<>();
+
+    /**
+     * The covered objectives per (tracked) chromosome.
+     */
+    private final Map<IChromosome<?>, BitSet> coveredObjectives = new HashMap<>();
+
+    /**
+     * The objectives covered by any chromosome so far.
+     */
+    private final BitSet combinedCoveredObjectives = new BitSet();
+
+    /**
+     * The cardinality of {@link #combinedCoveredObjectives}.
+     */
+    private int combinedCoveredCount = 0;
+
+    /**
+     * Replaces the covered objectives of the given chromosome.
+     *
+     * @param chromosome The chromosome.
+     * @param covered The objectives covered by the chromosome.
+     */
+    public void put(IChromosome<?> chromosome, Collection<String> covered) {
+        BitSet bitSet = new BitSet();
+        addAll(bitSet, covered);
+        coveredObjectives.put(chromosome, bitSet);
+    }
+
+    /**
+     * Merges the given objectives into the covered objectives of the given chromosome, e.g. the
+     * objectives covered by a further test case of a test suite.
+     *
+     * @param chromosome The chromosome.
+     * @param covered The additionally covered objectives.
+     */
+    public void add(IChromosome<?> chromosome, Collection<String> covered) {
+        BitSet bitSet = coveredObjectives.get(chromosome);
+        if (bitSet == null) {
+            bitSet = new BitSet();
+            coveredObjectives.put(chromosome, bitSet);
+        }
+        addAll(bitSet, covered);
+    }
+
+    /**
+     * Checks whether coverage has been stored for the given chromosome.
+     *
+     * @param chromosome The chromosome.
+     * @return Returns {@code true} if the chromosome is tracked, otherwise {@code false}.
+     */
+    public boolean contains(IChromosome<?> chromosome) {
+        return coveredObjectives.containsKey(chromosome);
+    }
+
+    /**
+     * Removes the given chromosome. Its covered objectives still count towards the combined
+     * coverage.
+     *
+     * @param chromosome The chromosome to be removed.
+     */
+    public void remove(IChromosome<?> chromosome) {
+        coveredObjectives.remove(chromosome);
+    }
+
+    /**
+     * Returns the number of objectives covered by the given chromosome.
+     *
+     * @param chromosome The chromosome.
+     * @return Returns the number of covered objectives.
+     */
+    public int getCoveredCount(IChromosome<?> chromosome) {
+        return getCoveredObjectives(chromosome).cardinality();
+    }
+
+    /**
+     * Returns the number of objectives covered by the given chromosomes together.
+     *
+     * @param chromosomes The chromosomes.
+     * @return Returns the number of objectives covered by any of the given chromosomes.
+     */
+    public int getCombinedCoveredCount(Collection<? extends IChromosome<?>> chromosomes) {
+        BitSet combined = new BitSet();
+        for (IChromosome<?> chromosome : chromosomes) {
+            combined.or(getCoveredObjectives(chromosome));
+        }
+        return combined.cardinality();
+    }
+
+    /**
+     * Returns the number of objectives covered by any chromosome so far.
+     *
+     * @return Returns the number of covered objectives.
+     */
+    public int getCombinedCoveredCount() {
+        return combinedCoveredCount;
+    }
+
+    /**
+     * Returns the objectives covered by any chromosome so far.
+     *
+     * @return Returns the covered objectives.
+     */
+    public List<String> getCombinedCoveredObjectives() {
+        List<String> covered = new ArrayList<>(combinedCoveredCount);
+        for (int i = combinedCoveredObjectives.nextSetBit(0); i >= 0;
+             i = combinedCoveredObjectives.nextSetBit(i + 1)) {
+            covered.add(objectives.get(i));
+        }
+        return covered;
+    }
+
+    /**
+     * Returns the covered objectives of the given chromosome.
+     *
+     * @param chromosome The chromosome.
+     * @return Returns the bit set of covered objectives.
+     */
+    private BitSet getCoveredObjectives(IChromosome<?> chromosome) {
+
+        BitSet bitSet = coveredObjectives.get(chromosome);
+
+        if (bitSet == null) {
+            throw new IllegalStateException("No coverage data for chromosome " + chromosome + "!");
+        }
+        return bitSet;
+    }
+
+    /**
+     * Adds the given objectives to the given bit set and records the objectives that haven't
+     * been covered so far.
+     *
+     * @param bitSet The bit set of a chromosome.
+     * @param covered The covered objectives.
+     */
+    private void addAll(BitSet bitSet, Collection<String> covered) {
+        for (String objective : covered) {
+            int index = intern(objective);
+            bitSet.set(index);
+            if (!combinedCoveredObjectives.get(index)) {
+                combinedCoveredObjectives.set(index);
+                combinedCoveredCount++;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the given objective and assigns the next free index to objectives
+     * seen for the first time.
+     *
+     * @param objective The objective.
+     * @return Returns the index of the objective.
+     */
+    private int intern(String objective) {
+        Integer index = objectiveIndices.get(objective);
+        if (index == null) {
+            index = objectives.size();
+            objectiveIndices.put(objective, index);
+            objectives.add(objective);
+        }
+        return index;
+    }
+}
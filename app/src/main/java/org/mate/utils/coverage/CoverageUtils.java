@@ -6,8 +6,10 @@ import org.mate.Registry;
 import org.mate.exploration.genetic.chromosome.IChromosome;
 import org.mate.model.TestCase;
 import org.mate.model.TestSuite;
+import org.mate.utils.ChromosomeLifecycle;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -18,15 +20,23 @@ public class CoverageUtils {
     private CoverageUtils() {
     }
 
-    // cache activities for activity coverage
-    private static Set<String> activities = null;
+    /*
+    * Tracks for each chromosome which activities have been visited. The activities visited by
+    * chromosomes that have been evicted in the meantime still count towards the combined coverage.
+     */
+    private static final CoverageAccumulator visitedActivities = new CoverageAccumulator();
 
-    // tracks for each chromosome which activities have been visited
-    private static Map<IChromosome, Set<String>> visitedActivities = new HashMap<>();
+    /*
+    * The combined coverage per coverage type as reported by the MATE-Server. The combined
+    * coverage can only change when new coverage data is stored, thus the cached value is
+    * discarded in that case only.
+     */
+    private static final Map<Coverage, Double> combinedCoverage = new EnumMap<>(Coverage.class);
 
     /**
      * Copies the coverage data for the given test cases from a source chromosome to a
-     * target chromosome.
+     * target chromosome. No traces are moved if the MATE-Server keeps them per test case,
+     * see {@link org.mate.interaction.EnvironmentManager#copyCoverageData(IChromosome, IChromosome, List)}.
      *
      * @param sourceChromosome The source chromosome.
      * @param targetChromosome The target chromosome.
@@ -46,10 +56,12 @@ public class CoverageUtils {
             visitedActivitiesOfTestCases.addAll(testCase.getVisitedActivities());
         }
 
-        if (visitedActivities.containsKey(targetChromosome)) {
+        if (visitedActivities.contains(targetChromosome)) {
             MATE.log_warn("Overwriting coverage data for chromosome " + targetChromosome + "!");
         }
 
+        ChromosomeLifecycle.track(targetChromosome);
+
         visitedActivities.put(targetChromosome, visitedActivitiesOfTestCases);
 
         switch (Properties.COVERAGE()) {
@@ -68,12 +80,11 @@ public class CoverageUtils {
     /**
      * Retrieves the activities of the AUT.
      *
-     * @return Return a set of activities.
+     * @return Return the list of activities.
      */
-    private static Set<String> getActivities() {
-        if (activities == null) {
-            activities = new HashSet<>(Registry.getEnvironmentManager().getActivityNames());
-        }
+    private static List<String> getActivities() {
+
+        List<String> activities = Registry.getAppMetadataCache().getActivityNames();
 
         if (activities.size() == 0) {
             // TODO: app with 0 activities is unlikely
@@ -91,6 +102,7 @@ public class CoverageUtils {
     public static void storeTestCaseChromosomeCoverage(IChromosome<TestCase> chromosome) {
 
         // store data about activity coverage in any case
+        ChromosomeLifecycle.track(chromosome);
         visitedActivities.put(chromosome, chromosome.getValue().getVisitedActivities());
 
         switch (Properties.COVERAGE()) {
@@ -99,6 +111,7 @@ public class CoverageUtils {
             case METHOD_COVERAGE:
             case BASIC_BLOCK_LINE_COVERAGE:
             case BASIC_BLOCK_BRANCH_COVERAGE:
+                combinedCoverage.remove(Properties.COVERAGE());
                 Registry.getEnvironmentManager().storeCoverageData(
                         Properties.COVERAGE(), chromosome, null);
                 break;
@@ -123,14 +136,10 @@ public class CoverageUtils {
          * coverage of the individual test cases, one has to iterate over the
          * test cases manually.
          */
-        Set<String> visitedActivitiesByTestCase = testCase.getVisitedActivities();
+        ChromosomeLifecycle.track(chromosome);
 
         // merge with already visited activities of other test cases in the test suite
-        if (visitedActivities.containsKey(chromosome)) {
-            visitedActivitiesByTestCase.addAll(visitedActivities.get(chromosome));
-        }
-
-        visitedActivities.put(chromosome, visitedActivitiesByTestCase);
+        visitedActivities.add(chromosome, testCase.getVisitedActivities());
 
         switch (Properties.COVERAGE()) {
             case BRANCH_COVERAGE:
@@ -138,6 +147,7 @@ public class CoverageUtils {
             case METHOD_COVERAGE:
             case BASIC_BLOCK_LINE_COVERAGE:
             case BASIC_BLOCK_BRANCH_COVERAGE:
+                combinedCoverage.remove(Properties.COVERAGE());
                 Registry.getEnvironmentManager().storeCoverageData(
                         Properties.COVERAGE(), chromosome, testCase.getId());
                 break;
@@ -154,7 +164,8 @@ public class CoverageUtils {
      * @return Returns the activity coverage of the given chromosome.
      */
     private static <T> double getActivityCoverage(IChromosome<T> chromosome) {
-        return (double) visitedActivities.get(chromosome).size() / getActivities().size() * 100;
+        return (double) visitedActivities.getCoveredCount(chromosome)
+                / getActivities().size() * 100;
     }
 
     /**
@@ -165,7 +176,7 @@ public class CoverageUtils {
      */
     public static <T> void logChromosomeCoverage(IChromosome<T> chromosome) {
 
-        if (!visitedActivities.containsKey(chromosome)) {
+        if (!visitedActivities.contains(chromosome)) {
             throw new IllegalStateException("No visited activities for chromosome "
                     + chromosome + "!");
         }
@@ -209,6 +220,18 @@ public class CoverageUtils {
         }
     }
 
+    /**
+     * Removes the given obsolete chromosomes from the coverage cache. The activities visited by
+     * those chromosomes still count towards the combined coverage.
+     *
+     * @param chromosomes The chromosomes to be evicted.
+     */
+    public static void evict(Collection<? extends IChromosome<?>> chromosomes) {
+        for (IChromosome<?> chromosome : chromosomes) {
+            visitedActivities.remove(chromosome);
+        }
+    }
+
     /**
      * Logs the total coverage at the end of a run.
      * As a side effect, the coverage of the last test case is stored.
@@ -218,6 +241,7 @@ public class CoverageUtils {
         // TODO: check if it is somehow possible to evaluate activity coverage of last test case
         if (Properties.COVERAGE() != Coverage.ACTIVITY_COVERAGE) {
             // store coverage of test case interrupted by timeout
+            combinedCoverage.remove(Properties.COVERAGE());
             Registry.getEnvironmentManager().storeCoverageData(Properties.COVERAGE(),
                     "lastIncompleteTestCase", null);
 
@@ -234,22 +258,17 @@ public class CoverageUtils {
         }
 
         if (Properties.COVERAGE() == Coverage.ACTIVITY_COVERAGE) {
-
-            Set<String> visitedActivitiesTotal = new HashSet<>();
-
-            for (Set<String> activities : visitedActivities.values()) {
-                visitedActivitiesTotal.addAll(activities);
-            }
-
             MATE.log_acc("Total visited activities: ");
-            for (String activity : visitedActivitiesTotal) {
+            for (String activity : visitedActivities.getCombinedCoveredObjectives()) {
                     MATE.log_acc(activity);
             }
         }
     }
 
     /**
-     *  Returns the total coverage for the given coverage type.
+     *  Returns the total coverage for the given coverage type. The activity coverage is tracked
+     *  locally, while the coverage reported by the MATE-Server is only requested again if new
+     *  coverage data has been stored in the meantime.
      *
      * @param coverage The coverage type, e.g. BRANCH_COVERAGE.
      * @return Returns the total coverage.
@@ -258,19 +277,19 @@ public class CoverageUtils {
 
         switch (coverage) {
             case ACTIVITY_COVERAGE:
-                Set<String> visitedActivitiesTotal = new HashSet<>();
-
-                for (Set<String> activities : visitedActivities.values()) {
-                    visitedActivitiesTotal.addAll(activities);
-                }
-
-                return (double) visitedActivitiesTotal.size() / getActivities().size() * 100;
+                return (double) visitedActivities.getCombinedCoveredCount()
+                        / getActivities().size() * 100;
             case BRANCH_COVERAGE:
             case LINE_COVERAGE:
             case METHOD_COVERAGE:
             case BASIC_BLOCK_LINE_COVERAGE:
             case BASIC_BLOCK_BRANCH_COVERAGE:
-                return Registry.getEnvironmentManager().getCombinedCoverage(coverage, null);
+                Double cached = combinedCoverage.get(coverage);
+                if (cached == null) {
+                    cached = Registry.getEnvironmentManager().getCombinedCoverage(coverage, null);
+                    combinedCoverage.put(coverage, cached);
+                }
+                return cached;
             default:
                 throw new UnsupportedOperationException("Coverage type not yet supported!");
         }
@@ -289,19 +308,8 @@ public class CoverageUtils {
 
         switch (coverage) {
             case ACTIVITY_COVERAGE:
-                Set<String> visitedActivitiesTotal = new HashSet<>();
-
-                for (IChromosome<T> chromosome : chromosomes) {
-
-                    if (!visitedActivities.containsKey(chromosome)) {
-                        throw new IllegalStateException("No visited activities for chromosome "
-                                + chromosome + "!");
-                    }
-
-                    visitedActivitiesTotal.addAll(visitedActivities.get(chromosome));
-                }
-
-                return (double) visitedActivitiesTotal.size() / getActivities().size() * 100;
+                return (double) visitedActivities.getCombinedCoveredCount(chromosomes)
+                        / getActivities().size() * 100;
             case BRANCH_COVERAGE:
             case LINE_COVERAGE:
             case METHOD_COVERAGE:
@@ -356,12 +364,13 @@ public class CoverageUtils {
         switch (coverage) {
             case ACTIVITY_COVERAGE:
 
-                if (!visitedActivities.containsKey(chromosome)) {
+                if (!visitedActivities.contains(chromosome)) {
                     throw new IllegalStateException("No visited activities for chromosome "
                             + chromosome + "!");
                 }
 
-                return (double) visitedActivities.get(chromosome).size() / getActivities().size() * 100;
+                return (double) visitedActivities.getCoveredCount(chromosome)
+                        / getActivities().size() * 100;
             case BRANCH_COVERAGE:
             case LINE_COVERAGE:
             case METHOD_COVERAGE:
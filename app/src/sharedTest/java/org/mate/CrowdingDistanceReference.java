@@ -0,0 +1,113 @@
+package org.mate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.mate.utils.MathUtils.isEpsEq;
+
+/**
+ * The crowding distance implementation preceding
+ * {@link org.mate.exploration.genetic.core.GAUtils#getCrowdingDistances(double[][], int[],
+ * boolean[])}, which compared every solution against all unique solutions and re-sorted boxed
+ * indices per objective. It serves as reference for both the unit test and the on-device
+ * benchmark of the current implementation.
+ */
+public final class CrowdingDistanceReference {
+
+    private CrowdingDistanceReference() {
+        throw new UnsupportedOperationException("Utility class!");
+    }
+
+    /**
+     * Creates a front where the objective values are drawn from a few discrete levels, as it is
+     * typical for branch distances, and every tenth solution duplicates its predecessor.
+     *
+     * @param random The source of the objective values.
+     * @param frontSize The number of solutions.
+     * @param numberOfObjectives The number of objectives.
+     * @return Returns the objective matrix of the front.
+     */
+    public static double[][] createFront(Random random, int frontSize, int numberOfObjectives) {
+        double[][] objectives = new double[frontSize][numberOfObjectives];
+        for (int i = 0; i < frontSize; i++) {
+            for (int j = 0; j < numberOfObjectives; j++) {
+                objectives[i][j] = i % 10 == 9 ? objectives[i - 1][j] : random.nextInt(20) / 19.0;
+            }
+        }
+        return objectives;
+    }
+
+    /**
+     * The previous crowding distance computation operating on the rows of the objective matrix.
+     *
+     * @param objectives The objective matrix, where each row represents a solution of the front.
+     * @param maximizing Whether the respective objective is maximized.
+     * @return Returns the crowding distances in the order of the rows.
+     */
+    public static double[] getCrowdingDistances(final double[][] objectives,
+                                                boolean[] maximizing) {
+
+        double[] crowdingDistances = new double[objectives.length];
+        List<Integer> uniqueFront = new ArrayList<>();
+
+        for (int c1 = 0; c1 < objectives.length; c1++) {
+            boolean isDuplicate = false;
+
+            for (int c2 : uniqueFront) {
+                double distance = 0.0;
+                for (int j = 0; j < maximizing.length; j++) {
+                    distance += Math.pow(objectives[c1][j] - objectives[c2][j], 2.0);
+                }
+                if (isEpsEq(Math.sqrt(distance))) {
+                    isDuplicate = true;
+                    break;
+                }
+            }
+
+            if (!isDuplicate) {
+                uniqueFront.add(c1);
+            }
+        }
+
+        int n = uniqueFront.size();
+
+        if (n < 3) {
+            for (int c : uniqueFront) {
+                crowdingDistances[c] = Double.POSITIVE_INFINITY;
+            }
+            return crowdingDistances;
+        }
+
+        for (int j = 0; j < maximizing.length; j++) {
+            final int objective = j;
+            final boolean max = maximizing[j];
+
+            Collections.sort(uniqueFront, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    double compared = objectives[o2][objective] - objectives[o1][objective];
+                    int comparison = isEpsEq(compared) ? 0 : compared < 0 ? -1 : 1;
+                    return max ? comparison : -comparison;
+                }
+            });
+
+            double minObjective = objectives[uniqueFront.get(0)][objective];
+            double maxObjective = objectives[uniqueFront.get(n - 1)][objective];
+
+            if (!isEpsEq(minObjective, maxObjective)) {
+                crowdingDistances[uniqueFront.get(0)] = Double.POSITIVE_INFINITY;
+                crowdingDistances[uniqueFront.get(n - 1)] = Double.POSITIVE_INFINITY;
+
+                for (int i = 1; i < n - 1; i++) {
+                    crowdingDistances[uniqueFront.get(i)] += (objectives[uniqueFront.get(i + 1)][objective]
+                            - objectives[uniqueFront.get(i - 1)][objective])
+                            / (maxObjective - minObjective);
+                }
+            }
+        }
+        return crowdingDistances;
+    }
+}
@@ -0,0 +1,116 @@
+package org.mate;
+
+import org.junit.Test;
+import org.mate.exploration.genetic.core.GAUtils;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link GAUtils#getCrowdingDistances(double[][], int[], boolean[])} on hand-crafted fronts
+ * and compares it against the previous crowding distance implementation, see
+ * {@link CrowdingDistanceReference}.
+ */
+public class CrowdingDistanceUnitTest {
+
+    private static final int FRONT_SIZE = 200;
+    private static final int NUMBER_OF_OBJECTIVES = 100;
+    private static final int NUMBER_OF_FRONTS = 10;
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    @Test
+    public void crowdingDistanceTest() {
+
+        double[][] objectives = {
+                {0.0, 1.0},
+                {0.5, 0.5},
+                {1.0, 0.0},
+                {0.25, 0.75}
+        };
+
+        assertArrayEquals(new double[]{INF, 1.5, INF, 1.0},
+                GAUtils.getCrowdingDistances(objectives, new int[]{0, 1, 2, 3},
+                        new boolean[]{false, false}), 1e-9);
+
+        // the direction of the objectives doesn't matter for a symmetric front
+        assertArrayEquals(new double[]{INF, 1.5, INF, 1.0},
+                GAUtils.getCrowdingDistances(objectives, new int[]{0, 1, 2, 3},
+                        new boolean[]{true, false}), 1e-9);
+    }
+
+    @Test
+    public void crowdingDistanceOfSubFrontTest() {
+
+        double[][] objectives = {
+                {0.0, 1.0},
+                {0.5, 0.5},
+                {1.0, 0.0},
+                {0.25, 0.75},
+                {0.75, 0.25}
+        };
+
+        // the distances are returned in the order of the front
+        assertArrayEquals(new double[]{2.0, INF, INF},
+                GAUtils.getCrowdingDistances(objectives, new int[]{1, 4, 0},
+                        new boolean[]{false, false}), 1e-9);
+    }
+
+    @Test
+    public void crowdingDistanceWithDuplicatesTest() {
+
+        double[][] objectives = {
+                {0.0, 1.0},
+                {0.0, 1.0},
+                {1.0, 0.0},
+                {0.5, 0.5}
+        };
+
+        assertArrayEquals(new double[]{INF, 0.0, INF, 2.0},
+                GAUtils.getCrowdingDistances(objectives, new int[]{0, 1, 2, 3},
+                        new boolean[]{false, false}), 1e-9);
+
+        // less than three unique solutions
+        assertArrayEquals(new double[]{INF, 0.0, INF},
+                GAUtils.getCrowdingDistances(objectives, new int[]{0, 1, 2},
+                        new boolean[]{false, false}), 1e-9);
+    }
+
+    @Test
+    public void crowdingDistanceWithConstantObjectiveTest() {
+
+        double[][] objectives = {
+                {0.0, 1.0},
+                {0.5, 1.0},
+                {1.0, 1.0}
+        };
+
+        assertArrayEquals(new double[]{INF, 1.0, INF},
+                GAUtils.getCrowdingDistances(objectives, new int[]{0, 1, 2},
+                        new boolean[]{false, true}), 1e-9);
+    }
+
+    @Test
+    public void compareWithLegacyImplementationTest() {
+
+        Random random = new Random(42);
+
+        int[] front = new int[FRONT_SIZE];
+        for (int i = 0; i < FRONT_SIZE; i++) {
+            front[i] = i;
+        }
+
+        boolean[] maximizing = new boolean[NUMBER_OF_OBJECTIVES];
+        for (int j = 0; j < NUMBER_OF_OBJECTIVES; j++) {
+            maximizing[j] = j % 2 == 0;
+        }
+
+        for (int i = 0; i < NUMBER_OF_FRONTS; i++) {
+            double[][] objectives = CrowdingDistanceReference.createFront(random, FRONT_SIZE,
+                    NUMBER_OF_OBJECTIVES);
+            assertArrayEquals(
+                    CrowdingDistanceReference.getCrowdingDistances(objectives, maximizing),
+                    GAUtils.getCrowdingDistances(objectives, front, maximizing), 1e-9);
+        }
+    }
+}
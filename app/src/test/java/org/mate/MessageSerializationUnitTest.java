@@ -0,0 +1,99 @@
+package org.mate;
+
+import org.junit.Test;
+import org.mate.message.Message;
+import org.mate.message.serialization.BinaryParser;
+import org.mate.message.serialization.BinarySerializer;
+import org.mate.message.serialization.Parser;
+import org.mate.message.serialization.Serializer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.BitSet;
+
+import static org.junit.Assert.*;
+
+public class MessageSerializationUnitTest {
+
+    @Test
+    public void binaryRoundTripTest() throws Exception {
+
+        BitSet bitSet = new BitSet();
+        bitSet.set(0);
+        bitSet.set(63);
+        bitSet.set(64);
+        bitSet.set(200);
+
+        Message message = new Message.MessageBuilder("/fitness/vector")
+                .withParameter("key", "value")
+                .withParameter("unicode", "ä漢😀;:~\\")
+                .withParameter("empty", "")
+                .withVector("vector", new double[]{0.0, 0.5, 1.0, Double.MAX_VALUE, -1.5})
+                .withVector("empty_vector", new double[0])
+                .withBitSet("bit_set", bitSet)
+                .withBitSet("empty_bit_set", new BitSet())
+                .build();
+
+        Message parsed = roundTrip(message);
+
+        assertEquals(message, parsed);
+        assertEquals("", parsed.getParameter("empty"));
+        assertArrayEquals(message.getVector("vector"), parsed.getVector("vector"), 0.0);
+        assertEquals(0, parsed.getVector("empty_vector").length);
+        assertEquals(bitSet, parsed.getBitSet("bit_set"));
+        assertTrue(parsed.getBitSet("empty_bit_set").isEmpty());
+    }
+
+    @Test
+    public void binaryRoundTripWithoutParametersTest() throws Exception {
+
+        Message message = new Message("/close");
+        Message parsed = roundTrip(message);
+
+        assertEquals(message, parsed);
+        assertTrue(parsed.getParameters().isEmpty());
+        assertTrue(parsed.getVectors().isEmpty());
+        assertTrue(parsed.getBitSets().isEmpty());
+    }
+
+    @Test
+    public void sharedInputStreamTest() throws Exception {
+
+        Message textual = new Message.MessageBuilder("/protocol/negotiate")
+                .withParameter("version", "3.0")
+                .withParameter("text", "ä漢😀")
+                .build();
+        Message binary = new Message.MessageBuilder("/coverage/get")
+                .withVector("coverage", new double[]{0.25})
+                .build();
+
+        // a textual message directly followed by binary frames, as after a protocol switch
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(Serializer.serialize(textual));
+        out.write(BinarySerializer.serialize(binary));
+        out.write(BinarySerializer.serialize(binary));
+
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(out.toByteArray()));
+        Parser parser = new Parser(in);
+        BinaryParser binaryParser = new BinaryParser(in);
+
+        assertEquals(textual, parser.nextMessage());
+        assertArrayEquals(new double[]{0.25}, binaryParser.nextMessage().getVector("coverage"), 0.0);
+        assertArrayEquals(new double[]{0.25}, binaryParser.nextMessage().getVector("coverage"), 0.0);
+        assertEquals(-1, in.read());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void textualTypedPayloadTest() throws Exception {
+        Serializer.serialize(new Message.MessageBuilder("/fitness/vector")
+                .withBitSet("bit_set", new BitSet())
+                .build());
+    }
+
+    private static Message roundTrip(Message message) {
+        return new BinaryParser(new ByteArrayInputStream(BinarySerializer.serialize(message)))
+                .nextMessage();
+    }
+}
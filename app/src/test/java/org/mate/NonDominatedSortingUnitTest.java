@@ -0,0 +1,34 @@
+package org.mate;
+
+import org.junit.Test;
+import org.mate.exploration.genetic.core.NonDominatedSorting;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NonDominatedSortingUnitTest {
+    @Test
+    public void sortTest() throws Exception {
+        double[][] objectives = {
+                {0.5, 0.5},
+                {1.0, 0.0},
+                {0.2, 0.2},
+                {0.0, 1.0},
+                {0.5, 0.5},
+                {0.1, 0.1}
+        };
+
+        List<int[]> fronts = NonDominatedSorting.sort(objectives);
+
+        assertEquals(3, fronts.size());
+        assertArrayEquals(new int[]{0, 1, 3, 4}, fronts.get(0));
+        assertArrayEquals(new int[]{2}, fronts.get(1));
+        assertArrayEquals(new int[]{5}, fronts.get(2));
+
+        List<int[]> subFronts = NonDominatedSorting.sort(objectives, new int[]{5, 2});
+        assertEquals(2, subFronts.size());
+        assertArrayEquals(new int[]{2}, subFronts.get(0));
+        assertArrayEquals(new int[]{5}, subFronts.get(1));
+    }
+}
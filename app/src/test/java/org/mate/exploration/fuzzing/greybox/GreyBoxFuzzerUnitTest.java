@@ -0,0 +1,175 @@
+package org.mate.exploration.fuzzing.greybox;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mate.Properties;
+import org.mate.Registry;
+import org.mate.exploration.genetic.chromosome.Chromosome;
+import org.mate.exploration.genetic.chromosome.IChromosome;
+import org.mate.interaction.EnvironmentManager;
+import org.mate.interaction.StubServer;
+import org.mate.message.Message;
+import org.mate.model.TestCase;
+import org.mate.utils.ChromosomeLifecycle;
+import org.mate.utils.coverage.CoverageUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mate.interaction.StubServer.TIMEOUT_SECONDS;
+
+/**
+ * Tests that the interesting mutated chromosomes of a seed are determined with a single
+ * coverage request as long as the total coverage doesn't increase.
+ */
+public class GreyBoxFuzzerUnitTest {
+
+    private final IChromosome<TestCase> seed = new Chromosome<>(new TestCase("s"));
+    private final List<IChromosome<TestCase>> mutants = new ArrayList<>();
+
+    private StubServer server;
+    private GreyBoxFuzzer<TestCase> fuzzer;
+
+    @Before
+    public void setUp() throws Exception {
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("coverage", "BRANCH_COVERAGE");
+        properties.put("fitness_function", "BRANCH_COVERAGE");
+        Registry.registerProperties(new Properties(properties));
+        Registry.registerPackageName("com.example");
+
+        server = new StubServer();
+        server.answer("/emulator/interaction", new Message.MessageBuilder("/emulator/interaction")
+                .withParameter("emulator", "emulator-5554").build());
+        server.answer("/coverage/store", new Message("/coverage/store"));
+
+        EnvironmentManager environmentManager = server.connect();
+        environmentManager.allocateEmulator("com.example");
+        Registry.registerEnvironmentManager(environmentManager);
+
+        fuzzer = new GreyBoxFuzzer<>(null, null, null, 1, 5);
+
+        for (int i = 1; i <= 4; i++) {
+            mutants.add(new Chromosome<>(new TestCase("m" + i)));
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ChromosomeLifecycle.evictUnreferenced();
+        Registry.unregisterEnvironmentManager();
+        server.close();
+        Registry.unregisterPackageName();
+        Registry.unregisterProperties();
+    }
+
+    @Test
+    public void stagnatingRoundTest() throws Exception {
+
+        BlockingQueue<Object> result = startRound(40.0);
+
+        // the total coverage after executing the mutated chromosomes
+        respond(null, 40.0);
+
+        assertEquals(Collections.emptyList(), poll(result));
+    }
+
+    @Test
+    public void increasingRoundTest() throws Exception {
+
+        // the third chromosome increases the coverage, but crashes
+        mutants.get(2).getValue().setCrashDetected();
+        fuzzer.getCrashingInputs().add(mutants.get(2));
+
+        BlockingQueue<Object> result = startRound(40.0);
+
+        respond(null, 70.0);
+
+        // the mutated chromosomes are added one by one to the seed corpus
+        respond("s", 40.0);
+        respond("s+m1", 40.0);
+        respond("s+m1+m2", 60.0);
+        respond("s+m1+m2+m3", 70.0);
+
+        // the fourth chromosome can't increase the total coverage anymore
+        assertEquals(Collections.singletonList(mutants.get(1)), poll(result));
+    }
+
+    /**
+     * Initialises the fuzzer with the seed, stores the coverage of the executed mutated
+     * chromosomes of the seed and determines the interesting ones. Since the stub server only
+     * answers requests of a living thread, the whole round runs in a single separate thread.
+     *
+     * @param totalCoverage The total coverage before the mutated chromosomes are executed.
+     * @return Returns the queue receiving the interesting chromosomes or the raised exception.
+     */
+    private BlockingQueue<Object> startRound(double totalCoverage) throws Exception {
+
+        final List<IChromosome<TestCase>> seedCorpus = new ArrayList<>();
+        seedCorpus.add(seed);
+
+        final BlockingQueue<Object> result = new LinkedBlockingQueue<>();
+        Thread round = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // the seed has been executed by the chromosome factory
+                    CoverageUtils.storeTestCaseChromosomeCoverage(seed);
+
+                    fuzzer.chooseNext(seedCorpus);
+                    fuzzer.assignEnergy(seed);
+
+                    // storing the coverage of the mutants invalidates the cached total coverage
+                    for (IChromosome<TestCase> mutant : mutants) {
+                        CoverageUtils.storeTestCaseChromosomeCoverage(mutant);
+                    }
+
+                    result.add(fuzzer.getInterestingMutants(mutants, seedCorpus));
+                } catch (RuntimeException e) {
+                    result.add(e);
+                }
+            }
+        });
+        round.start();
+
+        respond("s", totalCoverage);
+        respond(null, totalCoverage);
+        return result;
+    }
+
+    /**
+     * Answers the next coverage request, which needs to refer to the given chromosomes.
+     *
+     * @param chromosomes The requested chromosomes or {@code null} for the total coverage.
+     * @param coverage The coverage to respond with.
+     */
+    private void respond(String chromosomes, double coverage) throws Exception {
+        Message request = server.nextRequest();
+        assertEquals("/coverage/combined", request.getSubject());
+        assertEquals(chromosomes, request.getParameter("chromosomes"));
+        server.respond(request, new Message.MessageBuilder("/coverage/combined")
+                .withParameter("coverage", String.valueOf(coverage)).build());
+    }
+
+    /**
+     * Waits for the interesting chromosomes. Since any further coverage request wouldn't be
+     * answered, the result is only received if all requests have been answered.
+     */
+    private Object poll(BlockingQueue<Object> result) throws Exception {
+        Object interesting = result.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("No result received", interesting);
+        if (interesting instanceof RuntimeException) {
+            throw (RuntimeException) interesting;
+        }
+        return interesting;
+    }
+}
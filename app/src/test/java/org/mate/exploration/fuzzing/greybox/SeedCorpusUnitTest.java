@@ -0,0 +1,108 @@
+package org.mate.exploration.fuzzing.greybox;
+
+import org.junit.Test;
+import org.mate.exploration.genetic.chromosome.Chromosome;
+import org.mate.exploration.genetic.chromosome.IChromosome;
+
+import static org.junit.Assert.*;
+
+public class SeedCorpusUnitTest {
+
+    private final IChromosome<String> first = new Chromosome<>("first");
+    private final IChromosome<String> second = new Chromosome<>("second");
+    private final IChromosome<String> third = new Chromosome<>("third");
+
+    @Test
+    public void coverageScheduleTest() {
+
+        SeedCorpus<String> corpus = new SeedCorpus<>(PowerSchedule.COVERAGE);
+        corpus.add(first, 0.5, 10);
+        corpus.add(second, 0.8, 20);
+        corpus.add(third, 0.8, 5);
+
+        // the highest coverage first, seeds with equal coverage in insertion order
+        for (int i = 0; i < 3; i++) {
+            assertSame(second, corpus.chooseNext());
+        }
+        assertEquals(3, corpus.size());
+
+        // the energy isn't adjusted
+        assertEquals(7, corpus.assignEnergy(second, 7, 5));
+        assertEquals(7, corpus.assignEnergy(second, 7, 5));
+    }
+
+    @Test
+    public void fastScheduleOrderTest() {
+
+        SeedCorpus<String> corpus = new SeedCorpus<>(PowerSchedule.FAST);
+        corpus.add(first, 0.5, 10);
+        corpus.add(second, 0.8, 20);
+
+        // the shorter seed with the same coverage takes over the favoured flag of the first seed
+        corpus.add(third, 0.5, 5);
+
+        // the favoured seeds alternate, the least picked first and on ties the highest coverage
+        IChromosome<?>[] expected = {second, third, second, third, second, third};
+        for (IChromosome<?> chromosome : expected) {
+            assertSame(chromosome, corpus.chooseNext());
+        }
+    }
+
+    @Test
+    public void fastScheduleEqualSeedsTest() {
+
+        SeedCorpus<String> corpus = new SeedCorpus<>(PowerSchedule.FAST);
+        corpus.add(first, 0.5, 10);
+
+        // a seed of equal size doesn't take over the favoured flag
+        corpus.add(second, 0.5, 10);
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(first, corpus.chooseNext());
+        }
+    }
+
+    @Test
+    public void fastScheduleEnergyTest() {
+
+        SeedCorpus<String> corpus = new SeedCorpus<>(PowerSchedule.FAST);
+        corpus.add(first, 0.5, 10);
+        corpus.add(second, 0.5, 20);
+
+        assertSame(first, corpus.chooseNext());
+        // first pick: 8 * 2^0 / 1
+        assertEquals(8, corpus.assignEnergy(first, 8, 100));
+
+        assertSame(first, corpus.chooseNext());
+        // second pick: 8 * 2^1 / (1 + 8)
+        assertEquals(1, corpus.assignEnergy(first, 8, 100));
+
+        // the seeds of the same coverage share the frequency: 8 * 2^0 / (1 + 8 + 1), at least 1
+        assertEquals(1, corpus.assignEnergy(second, 8, 100));
+
+        for (int i = 0; i < 8; i++) {
+            corpus.chooseNext();
+        }
+        // tenth pick: 8 * 2^9 / 11, but bounded by the maximal energy
+        assertEquals(100, corpus.assignEnergy(first, 8, 100));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addDuplicateSeedTest() {
+        SeedCorpus<String> corpus = new SeedCorpus<>(PowerSchedule.FAST);
+        corpus.add(first, 0.5, 10);
+        corpus.add(first, 0.8, 5);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void chooseFromEmptyCorpusTest() {
+        new SeedCorpus<String>(PowerSchedule.COVERAGE).chooseNext();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void assignEnergyToUnknownSeedTest() {
+        SeedCorpus<String> corpus = new SeedCorpus<>(PowerSchedule.FAST);
+        corpus.add(first, 0.5, 10);
+        corpus.assignEnergy(second, 8, 100);
+    }
+}
@@ -0,0 +1,124 @@
+package org.mate.interaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mate.Registry;
+import org.mate.message.Message;
+import org.mate.utils.Objective;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class AppMetadataCacheUnitTest {
+
+    private File storageDir;
+    private StubServer server;
+    private EnvironmentManager environmentManager;
+
+    @Before
+    public void setUp() throws Exception {
+
+        storageDir = File.createTempFile("app-metadata", "");
+        assertTrue(storageDir.delete());
+
+        server = new StubServer();
+        server.answer("/emulator/interaction", new Message.MessageBuilder("/emulator/interaction")
+                .withParameter("emulator", "emulator-5554").build());
+
+        Registry.registerPackageName("com.example");
+        environmentManager = server.connect();
+        environmentManager.allocateEmulator("com.example");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        environmentManager.close();
+        Registry.unregisterPackageName();
+        server.close();
+        delete(storageDir);
+    }
+
+    @Test
+    public void persistActivitiesTest() {
+
+        answerActivities("com.example.MainActivity\ncom.example.SettingsActivity");
+
+        AppMetadataCache cache = new AppMetadataCache(environmentManager, storageDir);
+        assertEquals(Arrays.asList("com.example.MainActivity", "com.example.SettingsActivity"),
+                cache.getActivityNames());
+        assertEquals(1, server.getAnsweredRequests("/android/get_activities").size());
+
+        // a subsequent run loads the activities from the storage
+        AppMetadataCache reloaded = new AppMetadataCache(environmentManager, storageDir);
+        assertEquals(cache.getActivityNames(), reloaded.getActivityNames());
+        assertEquals(1, server.getAnsweredRequests("/android/get_activities").size());
+    }
+
+    @Test
+    public void emptyActivitiesNotPersistedTest() {
+
+        answerActivities("");
+
+        AppMetadataCache cache = new AppMetadataCache(environmentManager, storageDir);
+        assertEquals(Collections.singletonList(""), cache.getActivityNames());
+        assertFalse(new File(storageDir, "activities.txt").exists());
+
+        // a subsequent run queries the activities again
+        answerActivities("com.example.MainActivity");
+        AppMetadataCache retried = new AppMetadataCache(environmentManager, storageDir);
+        assertEquals(Collections.singletonList("com.example.MainActivity"),
+                retried.getActivityNames());
+        assertEquals(2, server.getAnsweredRequests("/android/get_activities").size());
+    }
+
+    @Test
+    public void emptyObjectivesNotPersistedTest() {
+
+        answerActivities("com.example.MainActivity");
+        AppMetadataCache cache = new AppMetadataCache(environmentManager, storageDir);
+
+        answerSourceLines("");
+        assertEquals(Collections.singletonList(""), cache.getObjectives(Objective.LINES));
+        assertFalse(new File(storageDir, "lines.txt").exists());
+
+        // the objectives are requested again on next use
+        answerSourceLines("com.example.MainActivity:1\ncom.example.MainActivity:2");
+        assertEquals(Arrays.asList("com.example.MainActivity:1", "com.example.MainActivity:2"),
+                cache.getObjectives(Objective.LINES));
+        assertEquals(2, server.getAnsweredRequests("/coverage/getSourceLines").size());
+
+        AppMetadataCache reloaded = new AppMetadataCache(environmentManager, storageDir);
+        assertEquals(cache.getObjectives(Objective.LINES),
+                reloaded.getObjectives(Objective.LINES));
+        assertEquals(2, server.getAnsweredRequests("/coverage/getSourceLines").size());
+    }
+
+    private void answerActivities(String activities) {
+        server.answer("/android/get_activities",
+                new Message.MessageBuilder("/android/get_activities")
+                        .withParameter("activities", activities).build());
+    }
+
+    private void answerSourceLines(String lines) {
+        server.answer("/coverage/getSourceLines",
+                new Message.MessageBuilder("/coverage/getSourceLines")
+                        .withParameter("lines", lines).build());
+    }
+
+    private static void delete(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Couldn't delete " + file);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.mate.interaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mate.message.Message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mate.interaction.StubServer.TIMEOUT_SECONDS;
+
+/**
+ * Tests the request pipelining of the {@link EnvironmentManager} against a stub server that is
+ * connected via an in-memory socket pair.
+ */
+public class EnvironmentManagerUnitTest {
+
+    private StubServer server;
+    private EnvironmentManager environmentManager;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer();
+        environmentManager = server.connect();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        environmentManager.close();
+        server.close();
+    }
+
+    @Test
+    public void pipelineRequestsTest() throws Exception {
+
+        List<Future<Message>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(environmentManager.sendMessageAsync(
+                    new Message.MessageBuilder("/echo").withParameter("n", String.valueOf(i)).build()));
+        }
+
+        // all requests are in flight before the first response has been sent
+        List<Message> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(server.nextRequest());
+        }
+
+        for (Future<Message> response : responses) {
+            assertFalse(response.isDone());
+        }
+
+        for (Message request : requests) {
+            server.respond(request, new Message.MessageBuilder("/echo")
+                    .withParameter("n", request.getParameter("n")).build());
+        }
+
+        for (int i = 0; i < 3; i++) {
+            Message response = responses.get(i).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertEquals(String.valueOf(i), response.getParameter("n"));
+        }
+    }
+
+    @Test
+    public void reportOneWayErrorTest() throws Exception {
+
+        environmentManager.sendMessageOneWay(new Message("/fitness/store_fitness_data"));
+        server.respond(server.nextRequest(), new Message.MessageBuilder("/error")
+                .withParameter("info", "no traces").build());
+
+        Object failing = sendAndRespond(new Message("/echo"));
+        assertTrue(failing instanceof IllegalStateException);
+        assertTrue(((IllegalStateException) failing).getMessage()
+                .contains("/fitness/store_fitness_data: no traces"));
+
+        // the error is reported only once
+        Object succeeding = sendAndRespond(new Message("/echo"));
+        assertTrue(succeeding instanceof Message);
+        assertEquals("/echo", ((Message) succeeding).getSubject());
+    }
+
+    @Test
+    public void failAllRequestsOnDesynchronisedStreamTest() throws Exception {
+
+        Future<Message> first = environmentManager.sendMessageAsync(new Message("/first"));
+        Future<Message> second = environmentManager.sendMessageAsync(new Message("/second"));
+
+        server.nextRequest();
+        server.nextRequest();
+
+        // a response that belongs to a different request
+        Message response = new Message("/first");
+        response.addParameter("__meta__request_id", "42");
+        server.send(response);
+
+        for (Future<Message> pending : Arrays.asList(first, second)) {
+            try {
+                pending.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                fail("Expected all requests in flight to fail");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+
+        try {
+            environmentManager.sendMessageAsync(new Message("/third"));
+            fail("Expected the connection to be closed");
+        } catch (IllegalStateException e) {
+            assertNotNull(e.getCause());
+        }
+    }
+
+    /**
+     * Sends the given message synchronously from a separate thread and responds to it with an
+     * echo.
+     *
+     * @return Returns the response or the exception raised by the synchronous request.
+     */
+    private Object sendAndRespond(final Message message) throws Exception {
+
+        final BlockingQueue<Object> result = new LinkedBlockingQueue<>();
+        Thread sender = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    result.add(environmentManager.sendMessage(message));
+                } catch (RuntimeException e) {
+                    result.add(e);
+                }
+            }
+        });
+        sender.start();
+
+        Message request = server.nextRequest();
+        server.respond(request, new Message(request.getSubject()));
+
+        Object response = result.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("No response received", response);
+        return response;
+    }
+}
@@ -0,0 +1,291 @@
+package org.mate.interaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mate.Registry;
+import org.mate.interaction.action.Action;
+import org.mate.interaction.action.ui.ActionType;
+import org.mate.interaction.action.ui.PrimitiveAction;
+import org.mate.interaction.action.ui.UIAction;
+import org.mate.interaction.action.ui.Widget;
+import org.mate.interaction.action.ui.WidgetAction;
+import org.mate.message.Message;
+import org.mate.state.IScreenState;
+import org.mate.state.ScreenStateType;
+import org.mate.state.executables.AbstractScreenState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link ExecutionCache} against a stub server that answers the snapshot requests in
+ * place of the emulator.
+ */
+public class ExecutionCacheUnitTest {
+
+    private final Action a1 = click(1);
+    private final Action a2 = click(2);
+    private final Action a3 = click(3);
+    private final Action b1 = click(11);
+    private final Action c1 = click(21);
+
+    private final IScreenState initialState = screen("Main");
+
+    private StubServer server;
+
+    @Before
+    public void setUp() throws Exception {
+
+        server = new StubServer();
+        server.answer("/emulator/interaction", new Message.MessageBuilder("/emulator/interaction")
+                .withParameter("emulator", "emulator-5554").build());
+        server.answer("/android/snapshot/delete", new Message("/android/snapshot/delete"));
+        server.answer("/android/get_activities",
+                new Message.MessageBuilder("/android/get_activities")
+                        .withParameter("activities", "com.example.Main").build());
+        answerSnapshotSave(true);
+
+        Registry.registerPackageName("com.example");
+        Registry.registerEnvironmentManager(server.connect());
+        Registry.getEnvironmentManager().allocateEmulator("com.example");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Registry.unregisterEnvironmentManager();
+        Registry.unregisterPackageName();
+        server.close();
+    }
+
+    @Test
+    public void checkpointTest() {
+
+        ExecutionCache cache = new ExecutionCache(5);
+
+        cache.onReset(initialState);
+        cache.setCheckpoint(2);
+        execute(cache, a1, a2, a3);
+
+        // a single snapshot once the checkpoint depth is reached
+        List<Message> saves = server.getAnsweredRequests("/android/snapshot/save");
+        assertEquals(1, saves.size());
+        assertEquals("prefix-0", saves.get(0).getParameter("snapshot"));
+
+        List<ExecutionCache.Node> path = cache.findRestorablePath(Arrays.asList(a1, a2, a3));
+        assertEquals(2, path.size());
+        assertSame(a2, path.get(1).getAction());
+        assertEquals("prefix-0", path.get(1).getSnapshot());
+        assertEquals(screen("2"), path.get(1).getState());
+
+        // a node having a snapshot already isn't saved again
+        cache.onReset(initialState);
+        cache.setCheckpoint(2);
+        execute(cache, a1, a2);
+        assertEquals(1, server.getAnsweredRequests("/android/snapshot/save").size());
+    }
+
+    @Test
+    public void findDeepestSnapshotTest() {
+
+        ExecutionCache cache = new ExecutionCache(5);
+
+        // nothing can be restored before the first reset
+        assertTrue(cache.findRestorablePath(Arrays.asList(a1, a2)).isEmpty());
+
+        cache.onReset(initialState);
+        cache.setCheckpoint(1);
+        execute(cache, a1);
+
+        cache.onReset(initialState);
+        cache.setCheckpoint(3);
+        execute(cache, a1, a2, a3);
+
+        assertSame(initialState, cache.getInitialState());
+
+        List<ExecutionCache.Node> path
+                = cache.findRestorablePath(Arrays.asList(a1, a2, a3, click(4)));
+        assertEquals(3, path.size());
+        assertEquals("prefix-1", path.get(2).getSnapshot());
+        assertNull(path.get(1).getSnapshot());
+
+        // the prefix diverges after the first action
+        path = cache.findRestorablePath(Arrays.asList(a1, b1));
+        assertEquals(1, path.size());
+        assertEquals("prefix-0", path.get(0).getSnapshot());
+
+        assertTrue(cache.findRestorablePath(Arrays.asList(b1, a2)).isEmpty());
+    }
+
+    @Test
+    public void restoreTest() {
+
+        ExecutionCache cache = new ExecutionCache(5);
+
+        cache.onReset(initialState);
+        cache.setCheckpoint(1);
+        execute(cache, a1);
+
+        // the execution continues at the restored node
+        ExecutionCache.Node node = cache.findRestorablePath(Arrays.asList(a1, a2)).get(0);
+        cache.onRestore(node);
+        cache.setCheckpoint(2);
+        execute(cache, a2);
+
+        List<ExecutionCache.Node> path = cache.findRestorablePath(Arrays.asList(a1, a2));
+        assertEquals(2, path.size());
+        assertEquals("prefix-1", path.get(1).getSnapshot());
+    }
+
+    @Test
+    public void invalidateTest() {
+
+        ExecutionCache cache = new ExecutionCache(5);
+
+        // a failed action ends the recorded path
+        cache.onReset(initialState);
+        cache.setCheckpoint(2);
+        cache.onAction(a1, screen("1"), true);
+        cache.onAction(a2, screen("2"), false);
+        cache.onAction(a3, screen("3"), true);
+        assertTrue(server.getAnsweredRequests("/android/snapshot/save").isEmpty());
+
+        // as well as restarting the AUT
+        cache.onReset(initialState);
+        cache.setCheckpoint(2);
+        cache.onAction(a1, screen("1"), true);
+        cache.invalidate();
+        cache.onAction(a2, screen("2"), true);
+        assertTrue(server.getAnsweredRequests("/android/snapshot/save").isEmpty());
+
+        // the recording resumes with the next reset
+        cache.onReset(initialState);
+        cache.setCheckpoint(2);
+        execute(cache, a1, a2);
+        assertEquals(1, server.getAnsweredRequests("/android/snapshot/save").size());
+    }
+
+    @Test
+    public void deleteLeastRecentlyUsedSnapshotTest() {
+
+        ExecutionCache cache = new ExecutionCache(2);
+
+        for (Action action : Arrays.asList(a1, b1)) {
+            cache.onReset(initialState);
+            cache.setCheckpoint(1);
+            execute(cache, action);
+        }
+
+        // restoring the older snapshot makes it the most recently used one
+        assertEquals(1, cache.findRestorablePath(Arrays.asList(a1)).size());
+
+        cache.onReset(initialState);
+        cache.setCheckpoint(1);
+        execute(cache, c1);
+
+        List<Message> deletions = deletedSnapshots();
+        assertEquals(1, deletions.size());
+        assertEquals("prefix-1", deletions.get(0).getParameter("snapshot"));
+
+        assertTrue(cache.findRestorablePath(Arrays.asList(b1)).isEmpty());
+        assertEquals(1, cache.findRestorablePath(Arrays.asList(a1)).size());
+        assertEquals(1, cache.findRestorablePath(Arrays.asList(c1)).size());
+    }
+
+    @Test
+    public void discardTest() {
+
+        ExecutionCache cache = new ExecutionCache(5);
+
+        cache.onReset(initialState);
+        cache.setCheckpoint(1);
+        execute(cache, a1);
+
+        ExecutionCache.Node node = cache.findRestorablePath(Arrays.asList(a1)).get(0);
+        cache.discard(node);
+        assertNull(node.getSnapshot());
+        assertTrue(cache.findRestorablePath(Arrays.asList(a1)).isEmpty());
+
+        // discarding a node without a snapshot has no effect
+        cache.discard(node);
+
+        List<Message> deletions = deletedSnapshots();
+        assertEquals(1, deletions.size());
+        assertEquals("prefix-0", deletions.get(0).getParameter("snapshot"));
+    }
+
+    @Test
+    public void failedSnapshotTest() {
+
+        answerSnapshotSave(false);
+        ExecutionCache cache = new ExecutionCache(5);
+
+        cache.onReset(initialState);
+        cache.setCheckpoint(1);
+        execute(cache, a1);
+
+        // no further snapshots are requested
+        answerSnapshotSave(true);
+        cache.onReset(initialState);
+        cache.setCheckpoint(1);
+        execute(cache, b1);
+
+        assertEquals(1, server.getAnsweredRequests("/android/snapshot/save").size());
+        assertTrue(cache.findRestorablePath(Arrays.asList(b1)).isEmpty());
+    }
+
+    /**
+     * Records the successful execution of the given actions, where each action reaches a screen
+     * named after its x coordinate.
+     */
+    private static void execute(ExecutionCache cache, Action... actions) {
+        for (Action action : actions) {
+            cache.onAction(action, screen(String.valueOf(((PrimitiveAction) action).getX())),
+                    true);
+        }
+    }
+
+    /**
+     * Returns the deletion requests, which are sent one-way, once the server has answered them.
+     */
+    private List<Message> deletedSnapshots() {
+        Registry.getEnvironmentManager().getActivityNames();
+        return server.getAnsweredRequests("/android/snapshot/delete");
+    }
+
+    private void answerSnapshotSave(boolean saved) {
+        server.answer("/android/snapshot/save", new Message.MessageBuilder("/android/snapshot/save")
+                .withParameter("response", String.valueOf(saved)).build());
+    }
+
+    private static Action click(int x) {
+        return new PrimitiveAction(x, 0, ActionType.CLICK, "com.example/.Main");
+    }
+
+    /**
+     * Creates an empty screen state of the given activity.
+     */
+    private static IScreenState screen(String activity) {
+        return new AbstractScreenState("com.example", "com.example/." + activity,
+                new ArrayList<Widget>()) {
+
+            @Override
+            public List<UIAction> getActions() {
+                return new ArrayList<>();
+            }
+
+            @Override
+            public List<WidgetAction> getWidgetActions() {
+                return new ArrayList<>();
+            }
+
+            @Override
+            public ScreenStateType getType() {
+                return ScreenStateType.ACTION_SCREEN_STATE;
+            }
+        };
+    }
+}
@@ -0,0 +1,205 @@
+package org.mate.interaction;
+
+import org.mate.message.Message;
+import org.mate.message.serialization.BinaryParser;
+import org.mate.message.serialization.BinarySerializer;
+import org.mate.message.serialization.Parser;
+import org.mate.message.serialization.Serializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * A stub of the MATE-Server, which is connected to an {@link EnvironmentManager} via an in-memory
+ * socket pair. Requests with a subject registered via {@link #answer(String, Message)} are
+ * answered automatically, all other requests are answered by the test. The negotiation and the
+ * closing of the connection are answered by default. The stub switches to the binary protocol
+ * after the negotiation if it has been created with the binary protocol version.
+ */
+public class StubServer {
+
+    public static final long TIMEOUT_SECONDS = 5;
+
+    public static final String TEXTUAL_PROTOCOL_VERSION = "2.3";
+    public static final String BINARY_PROTOCOL_VERSION = "3.0";
+
+    private final PipedInputStream requests = new PipedInputStream(64 * 1024);
+    private final PipedOutputStream responses = new PipedOutputStream();
+    private final BlockingQueue<Message> receivedRequests = new LinkedBlockingQueue<>();
+    private final List<Message> answeredRequests
+            = Collections.synchronizedList(new ArrayList<Message>());
+    private final Map<String, Message> answers = new ConcurrentHashMap<>();
+    private final Socket clientSocket;
+
+    /**
+     * Whether the binary protocol is spoken, which is the case after the negotiation only.
+     */
+    private volatile boolean binary = false;
+
+    /**
+     * Creates a stub server speaking the textual protocol.
+     */
+    public StubServer() throws IOException {
+        this(TEXTUAL_PROTOCOL_VERSION);
+    }
+
+    /**
+     * Creates a stub server that negotiates the given protocol version.
+     *
+     * @param protocolVersion The protocol version answered to the negotiation.
+     */
+    public StubServer(final String protocolVersion) throws IOException {
+
+        final PipedOutputStream clientOut = new PipedOutputStream(requests);
+        final PipedInputStream clientIn = new PipedInputStream(responses, 64 * 1024);
+
+        clientSocket = new Socket() {
+            @Override
+            public InputStream getInputStream() {
+                return clientIn;
+            }
+
+            @Override
+            public OutputStream getOutputStream() {
+                return clientOut;
+            }
+
+            @Override
+            public synchronized void close() throws IOException {
+                clientOut.close();
+                clientIn.close();
+            }
+        };
+
+        answer("/close", new Message("/close"));
+
+        Thread serverThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Parser parser = new Parser(requests);
+                BinaryParser binaryParser = new BinaryParser(requests);
+                try {
+                    while (true) {
+                        Message request = binary ? binaryParser.nextMessage() : parser.nextMessage();
+                        if (request.getSubject().equals("/protocol/negotiate")) {
+                            respond(request, new Message.MessageBuilder("/protocol/negotiate")
+                                    .withParameter("version", protocolVersion).build());
+                            binary = BINARY_PROTOCOL_VERSION.equals(protocolVersion);
+                            continue;
+                        }
+                        Message answer = answers.get(request.getSubject());
+                        if (answer != null) {
+                            answeredRequests.add(request);
+                            respond(request, answer);
+                        } else {
+                            receivedRequests.add(request);
+                        }
+                    }
+                } catch (RuntimeException | IOException e) {
+                    // the connection has been closed
+                }
+            }
+        }, "stub server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+    }
+
+    /**
+     * Creates a new environment manager connected to this server.
+     *
+     * @return Returns the connected environment manager.
+     */
+    public EnvironmentManager connect() throws IOException {
+        return new EnvironmentManager(clientSocket);
+    }
+
+    /**
+     * Closes the connection from the client side.
+     */
+    public void close() throws IOException {
+        clientSocket.close();
+    }
+
+    /**
+     * Answers all subsequent requests with the given subject automatically.
+     *
+     * @param subject The subject of the requests.
+     * @param answer The answer sent for each request.
+     */
+    public void answer(String subject, Message answer) {
+        answers.put(subject, answer);
+    }
+
+    /**
+     * Returns the requests that have been answered automatically so far.
+     *
+     * @param subject The subject of the requests.
+     * @return Returns the answered requests with the given subject.
+     */
+    public List<Message> getAnsweredRequests(String subject) {
+        List<Message> requests = new ArrayList<>();
+        synchronized (answeredRequests) {
+            for (Message request : answeredRequests) {
+                if (request.getSubject().equals(subject)) {
+                    requests.add(request);
+                }
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Waits for the next request that is not answered automatically.
+     *
+     * @return Returns the next request.
+     */
+    public Message nextRequest() throws InterruptedException {
+        Message request = receivedRequests.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("No request received", request);
+        return request;
+    }
+
+    /**
+     * Sends a copy of the given response that carries the meta parameters of the given request.
+     *
+     * @param request The request to be answered.
+     * @param response The response to the request.
+     */
+    public void respond(Message request, Message response) throws IOException {
+        Message copy = new Message(response.getSubject());
+        for (Map.Entry<String, String> parameter : response.getParameters().entrySet()) {
+            copy.addParameter(parameter.getKey(), parameter.getValue());
+        }
+        for (Map.Entry<String, String> parameter : request.getParameters().entrySet()) {
+            if (parameter.getKey().startsWith("__meta__")) {
+                copy.addParameter(parameter.getKey(), parameter.getValue());
+            }
+        }
+        send(copy);
+    }
+
+    /**
+     * Sends the given response as is.
+     *
+     * @param response The response to be sent.
+     */
+    public synchronized void send(Message response) throws IOException {
+        responses.write(binary
+                ? BinarySerializer.serialize(response) : Serializer.serialize(response));
+        responses.flush();
+    }
+}
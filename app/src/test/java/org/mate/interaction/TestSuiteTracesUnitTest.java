@@ -0,0 +1,186 @@
+package org.mate.interaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mate.Properties;
+import org.mate.Registry;
+import org.mate.exploration.genetic.chromosome.Chromosome;
+import org.mate.exploration.genetic.chromosome.IChromosome;
+import org.mate.message.Message;
+import org.mate.model.TestCase;
+import org.mate.model.TestSuite;
+import org.mate.utils.coverage.Coverage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests how the traces of the test cases of a test suite are stored and referred to, depending
+ * on whether the MATE-Server speaks the binary protocol, which supports test suite definitions,
+ * or only the textual protocol, which requires the traces to be copied between test suites.
+ */
+public class TestSuiteTracesUnitTest {
+
+    private static final String[] ONE_WAY_SUBJECTS = {"/fitness/store_fitness_data",
+            "/coverage/store", "/suite/define", "/fitness/release_chromosomes"};
+
+    private final TestCase first = new TestCase("t1");
+    private final TestCase second = new TestCase("t2");
+
+    private StubServer server;
+    private EnvironmentManager environmentManager;
+
+    @Before
+    public void setUp() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("fitness_function", "BRANCH_COVERAGE");
+        properties.put("coverage", "BRANCH_COVERAGE");
+        Registry.registerProperties(new Properties(properties));
+        Registry.registerPackageName("com.example");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        environmentManager.close();
+        server.close();
+        Registry.unregisterPackageName();
+        Registry.unregisterProperties();
+    }
+
+    @Test
+    public void textualProtocolTest() throws Exception {
+
+        connect(StubServer.TEXTUAL_PROTOCOL_VERSION);
+        IChromosome<TestSuite> source = createTestSuite("s1", first, second);
+        IChromosome<TestSuite> target = createTestSuite("s2", first, second);
+
+        // the traces are stored per test suite and test case
+        environmentManager.storeFitnessData(source, first.getId());
+        environmentManager.storeCoverageData(Coverage.BRANCH_COVERAGE, source, second.getId());
+        assertTraceKey("/fitness/store_fitness_data", "s1", "t1");
+        assertTraceKey("/coverage/store", "s1", "t2");
+
+        // and copied to other test suites
+        environmentManager.copyFitnessData(source, target, source.getValue().getTestCases());
+        environmentManager.copyCoverageData(source, target, source.getValue().getTestCases());
+        Message copy = single("/fitness/copy_fitness_data");
+        assertEquals("s1", copy.getParameter("chromosome_src"));
+        assertEquals("s2", copy.getParameter("chromosome_target"));
+        assertEquals("t1,t2", copy.getParameter("entities"));
+        assertEquals("t1,t2", single("/coverage/copy").getParameter("entities"));
+
+        assertEquals(0.25, environmentManager.getCoverage(Coverage.BRANCH_COVERAGE, "s1", "t1"),
+                0.0);
+        assertEquals("s1", single("/coverage/get").getParameter("testSuiteId"));
+
+        assertEquals(0.5, environmentManager.getCoverage(Coverage.BRANCH_COVERAGE, target), 0.0);
+        assertEquals("s2", single("/coverage/combined").getParameter("chromosomes"));
+
+        environmentManager.releaseChromosomes(Arrays.asList(source, target));
+
+        synchronise();
+        assertTrue(server.getAnsweredRequests("/suite/define").isEmpty());
+        assertTrue(server.getAnsweredRequests("/fitness/release_chromosomes").isEmpty());
+    }
+
+    @Test
+    public void binaryProtocolTest() throws Exception {
+
+        connect(StubServer.BINARY_PROTOCOL_VERSION);
+        IChromosome<TestSuite> source = createTestSuite("s1", first);
+        IChromosome<TestSuite> target = createTestSuite("s2", first);
+
+        // the traces are stored per test case only
+        environmentManager.storeFitnessData(source, first.getId());
+        assertTraceKey("/fitness/store_fitness_data", "t1", null);
+
+        // and nothing is copied
+        environmentManager.copyFitnessData(source, target, source.getValue().getTestCases());
+        environmentManager.copyCoverageData(source, target, source.getValue().getTestCases());
+
+        // the coverage of a test case within a test suite is the coverage of the test case
+        environmentManager.getCoverage(Coverage.BRANCH_COVERAGE, "s1", "t1");
+        assertEquals("t1", single("/coverage/combined").getParameter("chromosomes"));
+        assertTrue(server.getAnsweredRequests("/coverage/get").isEmpty());
+        assertTrue(server.getAnsweredRequests("/fitness/copy_fitness_data").isEmpty());
+        assertTrue(server.getAnsweredRequests("/coverage/copy").isEmpty());
+
+        // a test suite is defined before it is requested and re-defined once it has changed
+        environmentManager.getCoverage(Coverage.BRANCH_COVERAGE, source);
+        environmentManager.getCoverage(Coverage.BRANCH_COVERAGE, source);
+        source.getValue().getTestCases().add(second);
+        environmentManager.getCoverage(Coverage.BRANCH_COVERAGE, source);
+
+        List<Message> definitions = server.getAnsweredRequests("/suite/define");
+        assertEquals(2, definitions.size());
+        assertEquals("s1", definitions.get(0).getParameter("suite"));
+        assertEquals("t1", definitions.get(0).getParameter("test_cases"));
+        assertEquals("t1,t2", definitions.get(1).getParameter("test_cases"));
+
+        environmentManager.releaseChromosomes(Collections.singletonList(source));
+
+        synchronise();
+        Message release = single("/fitness/release_chromosomes");
+        assertEquals(new HashSet<>(Arrays.asList("t1", "t2", "s1")),
+                new HashSet<>(Arrays.asList(release.getParameter("chromosomes").split("\\+"))));
+    }
+
+    private void connect(String protocolVersion) throws Exception {
+
+        server = new StubServer(protocolVersion);
+        server.answer("/emulator/interaction", new Message.MessageBuilder("/emulator/interaction")
+                .withParameter("emulator", "emulator-5554").build());
+        for (String subject : ONE_WAY_SUBJECTS) {
+            server.answer(subject, new Message(subject));
+        }
+        server.answer("/fitness/copy_fitness_data", new Message("/fitness/copy_fitness_data"));
+        server.answer("/coverage/copy", new Message("/coverage/copy"));
+        server.answer("/coverage/get", new Message.MessageBuilder("/coverage/get")
+                .withParameter("coverage", "0.25").build());
+        server.answer("/coverage/combined", new Message.MessageBuilder("/coverage/combined")
+                .withParameter("coverage", "0.5").build());
+        server.answer("/android/get_activities",
+                new Message.MessageBuilder("/android/get_activities")
+                        .withParameter("activities", "com.example.MainActivity").build());
+
+        environmentManager = server.connect();
+        environmentManager.allocateEmulator("com.example");
+    }
+
+    private static IChromosome<TestSuite> createTestSuite(String id, TestCase... testCases) {
+        TestSuite testSuite = new TestSuite(id);
+        testSuite.getTestCases().addAll(Arrays.asList(testCases));
+        return new Chromosome<>(testSuite);
+    }
+
+    /**
+     * Waits until the server has answered all one-way requests sent so far by sending an
+     * unrelated synchronous request.
+     */
+    private void synchronise() {
+        environmentManager.getActivityNames();
+    }
+
+    /**
+     * Checks the key of the single store request with the given subject.
+     */
+    private void assertTraceKey(String subject, String chromosome, String entity) {
+        synchronise();
+        Message request = single(subject);
+        assertEquals(chromosome, request.getParameter("chromosome"));
+        assertEquals(entity, request.getParameter("entity"));
+    }
+
+    private Message single(String subject) {
+        List<Message> requests = server.getAnsweredRequests(subject);
+        assertEquals(1, requests.size());
+        return requests.get(0);
+    }
+}
@@ -0,0 +1,85 @@
+package org.mate.interaction;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+public class UISettleDetectorUnitTest {
+
+    @Test
+    public void timedOutWaitsDontRaiseTimeoutTest() {
+
+        // a screen that never settles, e.g. one showing an animated progress bar
+        StubSettleDetector detector = new StubSettleDetector(-1);
+        long timeout = detector.getTimeout();
+
+        for (int i = 0; i < 3; i++) {
+            detector.waitForSettle("PROGRESS_BAR");
+            assertEquals(timeout, detector.lastTimeout);
+            assertEquals(timeout, detector.getTimeout());
+        }
+    }
+
+    @Test
+    public void settledWaitsAdaptTimeoutTest() {
+
+        StubSettleDetector detector = new StubSettleDetector(600);
+        long timeout = detector.getTimeout();
+
+        long settleTime = detector.waitForSettle("CLICK");
+        assertTrue(settleTime >= 600);
+
+        // the average moves towards the observed settle time
+        assertTrue(detector.getTimeout() > timeout);
+        assertTrue(detector.getTimeout() < 4 * settleTime);
+    }
+
+    @Test
+    public void boundedTimeoutTest() {
+
+        StubSettleDetector detector = new StubSettleDetector(-1);
+
+        detector.waitForSettle("RESTART", 0, 100);
+        assertEquals(100, detector.lastTimeout);
+
+        // the upper bound takes precedence over the lower bound
+        detector.waitForSettle("RESTART", 500, 200);
+        assertEquals(200, detector.lastTimeout);
+    }
+
+    /**
+     * A settle detector whose ui either settles after a fixed time or never settles at all.
+     */
+    private static class StubSettleDetector extends UISettleDetector {
+
+        private final long settleTime;
+        private long lastTimeout;
+
+        /**
+         * @param settleTime The time in milliseconds after which the ui settles or a negative
+         *                   value if the ui never settles.
+         */
+        private StubSettleDetector(long settleTime) {
+            super(null);
+            this.settleTime = settleTime;
+        }
+
+        @Override
+        protected void waitForIdle(long quietTime, long timeout) throws TimeoutException {
+
+            lastTimeout = timeout;
+
+            try {
+                Thread.sleep(settleTime < 0 ? timeout : settleTime);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+
+            if (settleTime < 0) {
+                throw new TimeoutException();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.mate.interaction.dialog;
+
+import android.view.accessibility.AccessibilityNodeInfo;
+
+import org.junit.Test;
+import org.mate.interaction.DeviceMgr;
+import org.mate.interaction.action.Action;
+import org.mate.interaction.action.ui.NodeAttributes;
+import org.mate.interaction.action.ui.UIAction;
+import org.mate.interaction.action.ui.Widget;
+import org.mate.interaction.action.ui.WidgetAction;
+import org.mate.state.IScreenState;
+import org.mate.state.ScreenStateType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DialogClassifierUnitTest {
+
+    private final DialogClassifier classifier = new DialogClassifier();
+
+    @Test
+    public void noDialogTest() {
+        assertNull(classifier.classify(screen("com.example",
+                widget("com.example", "Settings"), widget("com.example", "has started"))));
+        assertNull(classifier.classify(screen("com.example")));
+    }
+
+    @Test
+    public void defaultDialogsTest() {
+
+        assertEquals(DialogType.CRASH, classifier.classify(screen("android",
+                widget("android", "Example"), widget("android", "Example keeps stopping"))));
+
+        assertEquals(DialogType.BUILD_WARNINGS, classifier.classify(screen("android",
+                widget("android", "This app was built for an older version of Android and may "
+                        + "not work properly. Try checking for updates, or contact the "
+                        + "developer."))));
+
+        assertEquals(DialogType.GOOGLE_SIGN_IN,
+                classifier.classify(screen("com.google.android.gms")));
+
+        assertEquals(DialogType.PERMISSION,
+                classifier.classify(screen("com.android.packageinstaller",
+                        widget("com.android.packageinstaller", "Allow"))));
+    }
+
+    @Test
+    public void precedenceTest() {
+
+        // a widget condition registered first beats a matching package name
+        assertEquals(DialogType.CRASH, classifier.classify(screen("com.google.android.gms",
+                widget("com.google.android.gms", "Sign in"),
+                widget("android", "Google Play services has stopped"))));
+
+        // among widget conditions, the registration order decides, not the order of the widgets
+        DialogClassifier classifier = new DialogClassifier();
+        classifier.addMatcher(DialogMatcher.forWidgetText(DialogType.OTHER, null, "Allow"),
+                new RecordingHandler(true));
+        assertEquals(DialogType.CRASH, classifier.classify(screen("com.example",
+                widget("com.example", "Allow"), widget("android", "Example has stopped"))));
+        assertEquals(DialogType.OTHER, classifier.classify(screen("com.example",
+                widget("com.example", "Allow"))));
+    }
+
+    @Test
+    public void handleRegisteredDialogTest() {
+
+        DialogClassifier classifier = new DialogClassifier();
+        RecordingHandler cookieBanner = new RecordingHandler(true);
+        RecordingHandler rating = new RecordingHandler(false);
+        classifier.addMatcher(DialogMatcher.forWidgetText(DialogType.OTHER, "com.example",
+                "We use cookies"), cookieBanner);
+        classifier.addMatcher(DialogMatcher.forWidgetText(DialogType.OTHER, "com.example",
+                "Rate this app"), rating);
+
+        IScreenState banner = screen("com.example", widget("com.example", "We use cookies."));
+        assertTrue(classifier.handle(banner, null));
+        assertSame(banner, cookieBanner.handled);
+        assertNull(rating.handled);
+
+        // the result of the handler is passed on
+        IScreenState dialog = screen("com.example", widget("com.example", "Rate this app!"));
+        assertFalse(classifier.handle(dialog, null));
+        assertSame(dialog, rating.handled);
+    }
+
+    @Test
+    public void handleNoDialogTest() {
+
+        DialogClassifier classifier = new DialogClassifier();
+        RecordingHandler handler = new RecordingHandler(true);
+        classifier.addMatcher(DialogMatcher.forPackages(DialogType.OTHER, "com.other"), handler);
+
+        assertFalse(classifier.handle(screen("com.example", widget("com.example", "Settings")),
+                null));
+        assertNull(handler.handled);
+    }
+
+    /**
+     * A dialog handler remembering the last handled screen.
+     */
+    private static final class RecordingHandler implements DialogHandler {
+
+        private final boolean changesScreen;
+        private IScreenState handled;
+
+        private RecordingHandler(boolean changesScreen) {
+            this.changesScreen = changesScreen;
+        }
+
+        @Override
+        public boolean handle(IScreenState screenState, DeviceMgr deviceMgr) {
+            handled = screenState;
+            return changesScreen;
+        }
+    }
+
+    /**
+     * Creates a screen of the given package showing the given widgets.
+     */
+    static IScreenState screen(final String packageName, Widget... widgets) {
+
+        final List<Widget> screenWidgets = Collections.unmodifiableList(Arrays.asList(widgets));
+
+        return new IScreenState() {
+
+            @Override
+            public String getId() {
+                return "S0";
+            }
+
+            @Override
+            public void setId(String stateId) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<Widget> getWidgets() {
+                return screenWidgets;
+            }
+
+            @Override
+            public List<UIAction> getActions() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public List<WidgetAction> getWidgetActions() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public boolean isExecutable(Action action) {
+                return false;
+            }
+
+            @Override
+            public String getActivityName() {
+                return packageName + "/.MainActivity";
+            }
+
+            @Override
+            public String getPackageName() {
+                return packageName;
+            }
+
+            @Override
+            public ScreenStateType getType() {
+                return ScreenStateType.ACTION_SCREEN_STATE;
+            }
+        };
+    }
+
+    /**
+     * Creates a widget of the given package showing the given text. The package name is derived
+     * from the activity, since the attributes of an empty node don't carry one.
+     */
+    static Widget widget(String packageName, String text) {
+        Widget widget = new Widget(null, new NodeAttributes(new AccessibilityNodeInfo()),
+                packageName + "/.MainActivity", 0, 0, 0);
+        widget.setText(text);
+        return widget;
+    }
+}
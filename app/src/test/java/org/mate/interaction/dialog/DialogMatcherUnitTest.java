@@ -0,0 +1,54 @@
+package org.mate.interaction.dialog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mate.interaction.dialog.DialogClassifierUnitTest.screen;
+import static org.mate.interaction.dialog.DialogClassifierUnitTest.widget;
+
+public class DialogMatcherUnitTest {
+
+    @Test
+    public void packageMatcherTest() {
+
+        DialogMatcher matcher = DialogMatcher.forPackages(DialogType.PERMISSION,
+                "com.android.packageinstaller", "com.google.android.packageinstaller");
+
+        assertEquals(DialogType.PERMISSION, matcher.getDialogType());
+        assertTrue(matcher.matchesScreen(screen("com.android.packageinstaller")));
+        assertTrue(matcher.matchesScreen(screen("com.google.android.packageinstaller")));
+        assertFalse(matcher.matchesScreen(screen("com.example")));
+
+        assertFalse(matcher.hasWidgetCondition());
+        assertFalse(matcher.matchesWidget(widget("com.android.packageinstaller", "Allow")));
+    }
+
+    @Test
+    public void widgetTextMatcherTest() {
+
+        DialogMatcher matcher = DialogMatcher.forWidgetText(DialogType.CRASH, "android",
+                "keeps stopping", "has stopped");
+
+        assertTrue(matcher.hasWidgetCondition());
+        assertFalse(matcher.matchesScreen(screen("android")));
+
+        assertTrue(matcher.matchesWidget(widget("android", "Example keeps stopping")));
+        assertTrue(matcher.matchesWidget(widget("android", "Unfortunately, Example has stopped.")));
+        assertFalse(matcher.matchesWidget(widget("android", "Example isn't responding")));
+
+        // the text must be shown by a widget of the given package
+        assertFalse(matcher.matchesWidget(widget("com.example", "Example keeps stopping")));
+    }
+
+    @Test
+    public void widgetTextOfAnyPackageTest() {
+
+        // the texts are matched literally, not as regular expressions
+        DialogMatcher matcher = DialogMatcher.forWidgetText(DialogType.BUILD_WARNINGS, null,
+                "older version (of Android).");
+
+        assertTrue(matcher.matchesWidget(widget("android", "for an older version (of Android).")));
+        assertTrue(matcher.matchesWidget(widget("com.example", "older version (of Android).")));
+        assertFalse(matcher.matchesWidget(widget("android", "older version of Android")));
+    }
+}
@@ -0,0 +1,125 @@
+package org.mate.interaction.reset;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mate.Registry;
+import org.mate.interaction.StubServer;
+import org.mate.message.Message;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link SnapshotResetStrategy} against a stub server that answers the snapshot
+ * requests in place of the emulator.
+ */
+public class SnapshotResetStrategyUnitTest {
+
+    private StubServer server;
+    private CountingResetStrategy fallback;
+    private int readinessChecks;
+    private SnapshotResetStrategy resetStrategy;
+
+    @Before
+    public void setUp() throws Exception {
+
+        server = new StubServer();
+        server.answer("/emulator/interaction", new Message.MessageBuilder("/emulator/interaction")
+                .withParameter("emulator", "emulator-5554").build());
+
+        Registry.registerPackageName("com.example");
+        Registry.registerEnvironmentManager(server.connect());
+        Registry.getEnvironmentManager().allocateEmulator("com.example");
+
+        fallback = new CountingResetStrategy();
+        readinessChecks = 0;
+        resetStrategy = new SnapshotResetStrategy(null, fallback) {
+            @Override
+            protected boolean waitUntilAppReady(long timeout) {
+                readinessChecks++;
+                return true;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Registry.unregisterEnvironmentManager();
+        Registry.unregisterPackageName();
+        server.close();
+    }
+
+    @Test
+    public void restoreSnapshotTest() {
+
+        answerSnapshotRequests(true, true);
+
+        resetStrategy.reset();
+        assertEquals(1, fallback.resets);
+        assertEquals(1, server.getAnsweredRequests("/android/snapshot/save").size());
+        assertEquals(0, readinessChecks);
+
+        resetStrategy.reset();
+        resetStrategy.reset();
+        assertEquals(1, fallback.resets);
+        assertEquals(1, server.getAnsweredRequests("/android/snapshot/save").size());
+        assertEquals(2, server.getAnsweredRequests("/android/snapshot/restore").size());
+        assertEquals(2, readinessChecks);
+
+        Message restore = server.getAnsweredRequests("/android/snapshot/restore").get(0);
+        assertEquals("emulator-5554", restore.getParameter("deviceId"));
+        assertEquals("com.example", restore.getParameter("packageName"));
+    }
+
+    @Test
+    public void fallbackOnFailedSaveTest() {
+
+        answerSnapshotRequests(false, true);
+
+        resetStrategy.reset();
+        resetStrategy.reset();
+        resetStrategy.reset();
+
+        assertEquals(3, fallback.resets);
+        assertEquals(1, server.getAnsweredRequests("/android/snapshot/save").size());
+        assertTrue(server.getAnsweredRequests("/android/snapshot/restore").isEmpty());
+        assertEquals(0, readinessChecks);
+    }
+
+    @Test
+    public void fallbackOnFailedRestoreTest() {
+
+        answerSnapshotRequests(true, false);
+
+        resetStrategy.reset();
+        resetStrategy.reset();
+        assertEquals(2, fallback.resets);
+
+        // the snapshot isn't restored again after a failure
+        resetStrategy.reset();
+        assertEquals(3, fallback.resets);
+        assertEquals(1, server.getAnsweredRequests("/android/snapshot/restore").size());
+        assertEquals(0, readinessChecks);
+    }
+
+    private void answerSnapshotRequests(boolean saved, boolean ready) {
+        server.answer("/android/snapshot/save", new Message.MessageBuilder("/android/snapshot/save")
+                .withParameter("response", String.valueOf(saved)).build());
+        server.answer("/android/snapshot/restore",
+                new Message.MessageBuilder("/android/snapshot/restore")
+                        .withParameter("ready", String.valueOf(ready)).build());
+    }
+
+    /**
+     * A reset strategy that only counts how often it has been applied.
+     */
+    private static class CountingResetStrategy implements IResetStrategy {
+
+        private int resets;
+
+        @Override
+        public void reset() {
+            resets++;
+        }
+    }
+}
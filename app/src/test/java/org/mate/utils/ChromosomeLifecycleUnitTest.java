@@ -0,0 +1,112 @@
+package org.mate.utils;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mate.exploration.genetic.chromosome.Chromosome;
+import org.mate.exploration.genetic.chromosome.IChromosome;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ChromosomeLifecycleUnitTest {
+
+    private final IChromosome<String> first = new Chromosome<>("first");
+    private final IChromosome<String> second = new Chromosome<>("second");
+    private final IChromosome<String> third = new Chromosome<>("third");
+
+    @After
+    public void tearDown() {
+        // the lifecycle is global, leave no chromosome behind
+        assertTrue(ChromosomeLifecycle.removeUnreferenced().isEmpty());
+    }
+
+    @Test
+    public void evictTrackedButNeverRetainedTest() {
+
+        ChromosomeLifecycle.track(first);
+        ChromosomeLifecycle.track(first);
+
+        assertEquals(Collections.<IChromosome<?>>singletonList(first),
+                ChromosomeLifecycle.removeUnreferenced());
+    }
+
+    @Test
+    public void retainAndReleaseTest() {
+
+        ChromosomeLifecycle.track(first);
+        ChromosomeLifecycle.retain(first);
+        ChromosomeLifecycle.retain(first);
+
+        assertTrue(ChromosomeLifecycle.removeUnreferenced().isEmpty());
+
+        ChromosomeLifecycle.release(first);
+        assertTrue(ChromosomeLifecycle.removeUnreferenced().isEmpty());
+
+        ChromosomeLifecycle.release(first);
+
+        // tracking a retained chromosome again has no effect
+        ChromosomeLifecycle.track(first);
+
+        assertEquals(Collections.<IChromosome<?>>singletonList(first),
+                ChromosomeLifecycle.removeUnreferenced());
+    }
+
+    @Test
+    public void retainBeforeTrackTest() {
+
+        ChromosomeLifecycle.retain(first);
+        ChromosomeLifecycle.track(first);
+        assertTrue(ChromosomeLifecycle.removeUnreferenced().isEmpty());
+
+        ChromosomeLifecycle.release(first);
+        assertEquals(Collections.<IChromosome<?>>singletonList(first),
+                ChromosomeLifecycle.removeUnreferenced());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void releaseUnretainedTest() {
+        ChromosomeLifecycle.track(first);
+        try {
+            ChromosomeLifecycle.release(first);
+        } finally {
+            ChromosomeLifecycle.removeUnreferenced();
+        }
+    }
+
+    @Test
+    public void updateOwnerTest() {
+
+        Set<IChromosome<?>> owned = new HashSet<>();
+
+        for (IChromosome<String> chromosome : Arrays.asList(first, second, third)) {
+            ChromosomeLifecycle.track(chromosome);
+        }
+
+        ChromosomeLifecycle.update(owned, Arrays.asList(first, second));
+        assertEquals(new HashSet<IChromosome<?>>(Arrays.asList(first, second)), owned);
+        assertEquals(Collections.<IChromosome<?>>singletonList(third),
+                ChromosomeLifecycle.removeUnreferenced());
+
+        // another owner keeps the second chromosome alive
+        Set<IChromosome<?>> otherOwned = new HashSet<>();
+        ChromosomeLifecycle.update(otherOwned, Collections.singletonList(second));
+
+        ChromosomeLifecycle.update(owned, Collections.singletonList(first));
+        assertEquals(Collections.<IChromosome<?>>singleton(first), owned);
+        assertTrue(ChromosomeLifecycle.removeUnreferenced().isEmpty());
+
+        ChromosomeLifecycle.update(otherOwned, Collections.<IChromosome<?>>emptyList());
+        ChromosomeLifecycle.update(owned, Collections.<IChromosome<?>>emptyList());
+
+        List<IChromosome<?>> removed = ChromosomeLifecycle.removeUnreferenced();
+        assertEquals(new HashSet<IChromosome<?>>(Arrays.asList(first, second)),
+                new HashSet<>(removed));
+        assertTrue(owned.isEmpty());
+        assertTrue(otherOwned.isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package org.mate.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mate.Properties;
+import org.mate.Registry;
+import org.mate.exploration.genetic.chromosome.Chromosome;
+import org.mate.exploration.genetic.chromosome.IChromosome;
+import org.mate.interaction.EnvironmentManager;
+import org.mate.interaction.StubServer;
+import org.mate.message.Message;
+import org.mate.model.TestCase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the fitness values of multiple chromosomes are retrieved with a single request
+ * from a MATE-Server speaking the binary protocol, while a MATE-Server speaking the textual
+ * protocol is asked for each chromosome separately.
+ */
+public class FitnessUtilsUnitTest {
+
+    private final IChromosome<TestCase> first = new Chromosome<>(new TestCase("t1"));
+    private final IChromosome<TestCase> second = new Chromosome<>(new TestCase("t2"));
+
+    private StubServer server;
+
+    @Before
+    public void setUp() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("fitness_function", "BRANCH_COVERAGE");
+        Registry.registerProperties(new Properties(properties));
+        Registry.registerPackageName("com.example");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Registry.unregisterEnvironmentManager();
+        server.close();
+        Registry.unregisterPackageName();
+        Registry.unregisterProperties();
+    }
+
+    @Test
+    public void textualProtocolTest() throws Exception {
+
+        connect(StubServer.TEXTUAL_PROTOCOL_VERSION);
+        server.answer("/coverage/combined", new Message.MessageBuilder("/coverage/combined")
+                .withParameter("coverage", "0.5").build());
+
+        double[] fitness = FitnessUtils.getFitnessValues(Arrays.asList(first, second));
+
+        assertArrayEquals(new double[]{0.5, 0.5}, fitness, 0.0);
+        List<Message> requests = server.getAnsweredRequests("/coverage/combined");
+        assertEquals(2, requests.size());
+        assertEquals("t1", requests.get(0).getParameter("chromosomes"));
+        assertEquals("t2", requests.get(1).getParameter("chromosomes"));
+    }
+
+    @Test
+    public void binaryProtocolTest() throws Exception {
+
+        connect(StubServer.BINARY_PROTOCOL_VERSION);
+        server.answer("/fitness/get_fitness_matrix",
+                new Message.MessageBuilder("/fitness/get_fitness_matrix")
+                        .withParameter("fitness_matrix", "0.25+0.75").build());
+
+        double[] fitness = FitnessUtils.getFitnessValues(Arrays.asList(first, second));
+
+        assertArrayEquals(new double[]{0.25, 0.75}, fitness, 0.0);
+        List<Message> requests = server.getAnsweredRequests("/fitness/get_fitness_matrix");
+        assertEquals(1, requests.size());
+        assertEquals("t1+t2", requests.get(0).getParameter("chromosomes"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void errorResponseTest() throws Exception {
+
+        connect(StubServer.BINARY_PROTOCOL_VERSION);
+        server.answer("/fitness/get_fitness_matrix", new Message.MessageBuilder("/error")
+                .withParameter("info", "unknown fitness function").build());
+
+        FitnessUtils.getFitnessValues(Arrays.asList(first, second));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void missingFitnessMatrixTest() throws Exception {
+
+        connect(StubServer.BINARY_PROTOCOL_VERSION);
+        server.answer("/fitness/get_fitness_matrix",
+                new Message("/fitness/get_fitness_matrix"));
+
+        FitnessUtils.getFitnessValues(Arrays.asList(first, second));
+    }
+
+    private void connect(String protocolVersion) throws Exception {
+
+        server = new StubServer(protocolVersion);
+        server.answer("/emulator/interaction", new Message.MessageBuilder("/emulator/interaction")
+                .withParameter("emulator", "emulator-5554").build());
+
+        EnvironmentManager environmentManager = server.connect();
+        environmentManager.allocateEmulator("com.example");
+        Registry.registerEnvironmentManager(environmentManager);
+    }
+}
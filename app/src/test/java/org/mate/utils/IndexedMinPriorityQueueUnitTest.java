@@ -0,0 +1,149 @@
+package org.mate.utils;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IndexedMinPriorityQueueUnitTest {
+
+    @Test
+    public void pollOrderTest() {
+
+        IndexedMinPriorityQueue queue = new IndexedMinPriorityQueue(5);
+        queue.put(0, 30);
+        queue.put(1, 10);
+        queue.put(2, 40);
+        queue.put(3, 20);
+        queue.put(4, 0);
+
+        assertEquals(5, queue.size());
+        assertPollOrder(queue, 4, 1, 3, 0, 2);
+    }
+
+    @Test
+    public void equalKeysTest() {
+
+        IndexedMinPriorityQueue queue = new IndexedMinPriorityQueue(4);
+        queue.put(3, 1);
+        queue.put(1, 1);
+        queue.put(2, 0);
+        queue.put(0, 1);
+
+        // equal keys are ordered by the index
+        assertPollOrder(queue, 2, 0, 1, 3);
+    }
+
+    @Test
+    public void decreaseKeyTest() {
+
+        IndexedMinPriorityQueue queue = new IndexedMinPriorityQueue(4);
+        for (int index = 0; index < 4; index++) {
+            queue.put(index, 10 * (index + 1));
+        }
+
+        queue.put(3, 5);
+        assertEquals(3, queue.peek());
+        assertEquals(4, queue.size());
+
+        assertPollOrder(queue, 3, 0, 1, 2);
+    }
+
+    @Test
+    public void increaseKeyTest() {
+
+        IndexedMinPriorityQueue queue = new IndexedMinPriorityQueue(4);
+        for (int index = 0; index < 4; index++) {
+            queue.put(index, 10 * (index + 1));
+        }
+
+        queue.put(0, 100);
+        // updating an index with its current key has no effect
+        queue.put(2, 30);
+
+        assertPollOrder(queue, 1, 2, 3, 0);
+    }
+
+    @Test
+    public void removeTest() {
+
+        IndexedMinPriorityQueue queue = new IndexedMinPriorityQueue(5);
+        for (int index = 0; index < 5; index++) {
+            queue.put(index, 5 - index);
+        }
+
+        queue.remove(2);
+        queue.remove(4);
+        // removing an index that is not contained has no effect
+        queue.remove(4);
+
+        assertFalse(queue.contains(2));
+        assertFalse(queue.contains(4));
+        assertEquals(3, queue.size());
+        assertPollOrder(queue, 3, 1, 0);
+
+        // a removed index can be inserted again
+        queue.put(2, 0);
+        assertTrue(queue.contains(2));
+        assertEquals(2, queue.peek());
+    }
+
+    @Test
+    public void randomOperationsTest() {
+
+        int capacity = 50;
+        Random random = new Random(42);
+        IndexedMinPriorityQueue queue = new IndexedMinPriorityQueue(capacity);
+        Integer[] keys = new Integer[capacity];
+
+        for (int i = 0; i < 10000; i++) {
+            int index = random.nextInt(capacity);
+            if (random.nextInt(3) == 0) {
+                queue.remove(index);
+                keys[index] = null;
+            } else {
+                int key = random.nextInt(20);
+                queue.put(index, key);
+                keys[index] = key;
+            }
+
+            int expectedSize = 0;
+            int expectedMinimum = -1;
+            for (int j = 0; j < capacity; j++) {
+                assertEquals(keys[j] != null, queue.contains(j));
+                if (keys[j] != null) {
+                    expectedSize++;
+                    if (expectedMinimum == -1 || keys[j] < keys[expectedMinimum]) {
+                        expectedMinimum = j;
+                    }
+                }
+            }
+            assertEquals(expectedSize, queue.size());
+            if (expectedMinimum != -1) {
+                assertEquals(expectedMinimum, queue.peek());
+            }
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void peekEmptyTest() {
+        IndexedMinPriorityQueue queue = new IndexedMinPriorityQueue(1);
+        assertTrue(queue.isEmpty());
+        queue.peek();
+    }
+
+    /**
+     * Removes the minimal index repeatedly and checks that the indices are removed in the
+     * given order, leaving the queue empty.
+     */
+    private static void assertPollOrder(IndexedMinPriorityQueue queue, int... indices) {
+        for (int index : indices) {
+            assertEquals(index, queue.peek());
+            queue.remove(index);
+            assertFalse(queue.contains(index));
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,149 @@
+package org.mate.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MinHeapUnitTest {
+
+    private static final Comparator<Integer> NATURAL_ORDER = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    @Test
+    public void pollOrderTest() {
+
+        MinHeap<Integer> heap = new MinHeap<>(NATURAL_ORDER);
+        List<Integer> elements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            elements.add(i);
+        }
+        Collections.shuffle(elements, new Random(42));
+
+        // exceeds the initial capacity
+        for (int element : elements) {
+            heap.add(element);
+        }
+        assertEquals(100, heap.size());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(i), heap.peek());
+            assertEquals(Integer.valueOf(i), heap.poll());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void duplicatesTest() {
+
+        MinHeap<Integer> heap = new MinHeap<>(NATURAL_ORDER);
+        for (int element : new int[]{3, 1, 3, 1, 2}) {
+            heap.add(element);
+        }
+
+        for (int element : new int[]{1, 1, 2, 3, 3}) {
+            assertEquals(Integer.valueOf(element), heap.poll());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void replaceTopTest() {
+
+        MinHeap<Integer> heap = new MinHeap<>(NATURAL_ORDER);
+        for (int element : new int[]{5, 1, 3}) {
+            heap.add(element);
+        }
+
+        assertEquals(Integer.valueOf(1), heap.replaceTop(4));
+        assertEquals(3, heap.size());
+        assertEquals(Integer.valueOf(3), heap.replaceTop(0));
+        assertEquals(Integer.valueOf(0), heap.peek());
+
+        for (int element : new int[]{0, 4, 5}) {
+            assertEquals(Integer.valueOf(element), heap.poll());
+        }
+    }
+
+    @Test
+    public void randomOperationsTest() {
+
+        Random random = new Random(42);
+        MinHeap<Integer> heap = new MinHeap<>(NATURAL_ORDER);
+        PriorityQueue<Integer> expected = new PriorityQueue<>();
+
+        for (int i = 0; i < 10000; i++) {
+            int element = random.nextInt(50);
+            int operation = random.nextInt(3);
+            if (operation == 0 || expected.isEmpty()) {
+                heap.add(element);
+                expected.add(element);
+            } else if (operation == 1) {
+                assertEquals(expected.poll(), heap.poll());
+            } else {
+                assertEquals(expected.poll(), heap.replaceTop(element));
+                expected.add(element);
+            }
+            assertEquals(expected.size(), heap.size());
+            if (!expected.isEmpty()) {
+                assertEquals(expected.peek(), heap.peek());
+            }
+        }
+    }
+
+    @Test
+    public void getTest() {
+
+        MinHeap<Integer> heap = new MinHeap<>(NATURAL_ORDER);
+        for (int element : new int[]{2, 0, 1}) {
+            heap.add(element);
+        }
+
+        assertEquals(Integer.valueOf(0), heap.get(0));
+        assertEquals(3, heap.get(1) + heap.get(2));
+
+        try {
+            heap.get(3);
+            fail("Expected an IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void clearTest() {
+
+        MinHeap<Integer> heap = new MinHeap<>(NATURAL_ORDER);
+        heap.add(1);
+        heap.add(0);
+        heap.clear();
+
+        assertTrue(heap.isEmpty());
+        heap.add(2);
+        assertEquals(Integer.valueOf(2), heap.poll());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void peekEmptyTest() {
+        new MinHeap<>(NATURAL_ORDER).peek();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pollEmptyTest() {
+        MinHeap<Integer> heap = new MinHeap<>(NATURAL_ORDER);
+        heap.add(1);
+        heap.poll();
+        heap.poll();
+    }
+}
@@ -0,0 +1,81 @@
+package org.mate.utils.coverage;
+
+import org.junit.Test;
+import org.mate.exploration.genetic.chromosome.Chromosome;
+import org.mate.exploration.genetic.chromosome.IChromosome;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class CoverageAccumulatorUnitTest {
+
+    private final IChromosome<String> first = new Chromosome<>("first");
+    private final IChromosome<String> second = new Chromosome<>("second");
+
+    @Test
+    public void putTest() {
+
+        CoverageAccumulator accumulator = new CoverageAccumulator();
+        accumulator.put(first, Arrays.asList("A", "B", "B"));
+        accumulator.put(second, Arrays.asList("B", "C"));
+
+        assertTrue(accumulator.contains(first));
+        assertEquals(2, accumulator.getCoveredCount(first));
+        assertEquals(2, accumulator.getCoveredCount(second));
+        assertEquals(3, accumulator.getCombinedCoveredCount(Arrays.asList(first, second)));
+        assertEquals(3, accumulator.getCombinedCoveredCount());
+        assertEquals(Arrays.asList("A", "B", "C"), accumulator.getCombinedCoveredObjectives());
+
+        // replacing the coverage of a chromosome doesn't shrink the combined coverage
+        accumulator.put(first, Collections.singletonList("D"));
+        assertEquals(1, accumulator.getCoveredCount(first));
+        assertEquals(3, accumulator.getCombinedCoveredCount(Arrays.asList(first, second)));
+        assertEquals(4, accumulator.getCombinedCoveredCount());
+        assertEquals(Arrays.asList("A", "B", "C", "D"),
+                accumulator.getCombinedCoveredObjectives());
+    }
+
+    @Test
+    public void mergeTest() {
+
+        CoverageAccumulator accumulator = new CoverageAccumulator();
+
+        // merging into an unknown chromosome starts from empty coverage
+        accumulator.add(first, Arrays.asList("A", "B"));
+        accumulator.add(first, Arrays.asList("B", "C"));
+        accumulator.add(first, Collections.<String>emptyList());
+
+        assertEquals(3, accumulator.getCoveredCount(first));
+        assertEquals(3, accumulator.getCombinedCoveredCount());
+
+        accumulator.add(second, Collections.<String>emptyList());
+        assertTrue(accumulator.contains(second));
+        assertEquals(0, accumulator.getCoveredCount(second));
+        assertEquals(3, accumulator.getCombinedCoveredCount(Arrays.asList(first, second)));
+    }
+
+    @Test
+    public void removeTest() {
+
+        CoverageAccumulator accumulator = new CoverageAccumulator();
+        accumulator.put(first, Arrays.asList("A", "B"));
+        accumulator.put(second, Collections.singletonList("C"));
+
+        accumulator.remove(first);
+        assertFalse(accumulator.contains(first));
+
+        // the objectives of a removed chromosome still count towards the combined coverage
+        assertEquals(3, accumulator.getCombinedCoveredCount());
+        assertEquals(1, accumulator.getCombinedCoveredCount(
+                Collections.singletonList(second)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unknownChromosomeTest() {
+        CoverageAccumulator accumulator = new CoverageAccumulator();
+        accumulator.put(first, Collections.singletonList("A"));
+        accumulator.getCombinedCoveredCount(Arrays.asList(first, second));
+    }
+}